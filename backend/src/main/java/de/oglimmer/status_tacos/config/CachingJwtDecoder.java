@@ -0,0 +1,56 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.config;
+
+import de.oglimmer.status_tacos.util.ExpiringCache;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Reuses the result of a verified token, so the signature and claims of a bearer token are verified
+ * once per TTL instead of on every request. A token is reused until its expiry at the latest;
+ * tokens that fail verification aren't cached. Keyed by the SHA-256 of the token, so the cache
+ * holds no credentials.
+ */
+class CachingJwtDecoder implements JwtDecoder {
+
+  private final JwtDecoder delegate;
+  private final ExpiringCache<String, Jwt> verifiedTokens;
+
+  CachingJwtDecoder(JwtDecoder delegate, int maxSize, long ttlMillis) {
+    this.delegate = delegate;
+    this.verifiedTokens = new ExpiringCache<>(maxSize, ttlMillis);
+  }
+
+  @Override
+  public Jwt decode(String token) throws JwtException {
+    String key = sha256(token);
+    Jwt jwt = verifiedTokens.get(key);
+    if (jwt != null) {
+      return jwt;
+    }
+    jwt = delegate.decode(token);
+    Instant expiresAt = jwt.getExpiresAt();
+    verifiedTokens.put(
+        key,
+        jwt,
+        expiresAt != null ? Duration.between(Instant.now(), expiresAt).toNanos() : Long.MAX_VALUE);
+    return jwt;
+  }
+
+  private static String sha256(String token) {
+    try {
+      return HexFormat.of()
+          .formatHex(
+              MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -28,6 +29,12 @@ public class SchedulingConfig {
   @Value("${monitor.threading.scheduler-pool-size:5}")
   private int schedulerPoolSize;
 
+  @Value("${monitor.uptime.max-db-connections:4}")
+  private int uptimeStatsMaxDbConnections;
+
+  @Value("${monitor.backfill.parallelism:2}")
+  private int backfillParallelism;
+
   @Bean(name = "taskExecutor")
   public Executor taskExecutor() {
     log.info(
@@ -50,6 +57,67 @@ public class SchedulingConfig {
     return executor;
   }
 
+  /**
+   * Workers of the uptime stats job. Each worker holds at most one database connection, so the pool
+   * size caps the connections the job takes from the pool shared with the checker.
+   */
+  @Bean(name = "uptimeStatsExecutor")
+  public Executor uptimeStatsExecutor() {
+    log.info("Creating uptime stats executor with {} workers", uptimeStatsMaxDbConnections);
+
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(uptimeStatsMaxDbConnections);
+    executor.setMaxPoolSize(uptimeStatsMaxDbConnections);
+    executor.setThreadNamePrefix("uptime-stats-");
+    executor.setWaitForTasksToCompleteOnShutdown(false);
+    executor.initialize();
+
+    return executor;
+  }
+
+  /** Workers of the stats backfill jobs, one monitor per worker at a time. */
+  @Bean(name = "backfillExecutor")
+  public Executor backfillExecutor() {
+    log.info("Creating stats backfill executor with {} workers", backfillParallelism);
+
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(backfillParallelism);
+    executor.setMaxPoolSize(backfillParallelism);
+    executor.setThreadNamePrefix("stats-backfill-");
+    executor.setWaitForTasksToCompleteOnShutdown(false);
+    executor.initialize();
+
+    return executor;
+  }
+
+  /**
+   * Fans the monitor status deltas out to the queues of the stream subscribers. A single worker
+   * keeps the events of every subscriber in order.
+   */
+  @Bean(name = "statusStreamExecutor")
+  public Executor statusStreamExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    executor.setThreadNamePrefix("status-stream-");
+    executor.setWaitForTasksToCompleteOnShutdown(false);
+    executor.initialize();
+
+    return executor;
+  }
+
+  /**
+   * Writes the queued events of the stream subscribers, one task per subscriber with events. A
+   * write blocks until the client took the data, so each task gets its own virtual thread and a
+   * stalled client holds none of the platform threads.
+   */
+  @Bean(name = "statusStreamWriterExecutor")
+  public Executor statusStreamWriterExecutor() {
+    SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("status-stream-writer-");
+    executor.setVirtualThreads(true);
+    return executor;
+  }
+
   @Bean(name = "taskScheduler")
   public TaskScheduler taskScheduler() {
     log.info("Creating task scheduler with pool size: {}", schedulerPoolSize);
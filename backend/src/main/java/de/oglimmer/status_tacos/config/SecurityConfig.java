@@ -1,11 +1,13 @@
 /* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
 package de.oglimmer.status_tacos.config;
 
+import jakarta.servlet.DispatcherType;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -24,11 +26,40 @@ public class SecurityConfig {
   @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri:}")
   private String jwkSetUri;
 
+  @Value("${monitor.auth.token-cache-enabled:true}")
+  private boolean tokenCacheEnabled;
+
+  @Value("${monitor.auth.token-cache-max-size:10000}")
+  private int tokenCacheMaxSize;
+
+  @Value("${monitor.auth.token-cache-ttl:300000}")
+  private long tokenCacheTtl;
+
+  /**
+   * The public status pages, served without looking at credentials, so a bearer token sent along
+   * isn't verified either.
+   */
+  @Bean
+  @Order(1)
+  public SecurityFilterChain publicFilterChain(HttpSecurity http) throws Exception {
+    http.securityMatcher("/public/**")
+        .authorizeHttpRequests(authz -> authz.anyRequest().permitAll())
+        .sessionManagement(
+            session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+        .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+        .csrf(AbstractHttpConfigurer::disable);
+
+    return http.build();
+  }
+
   @Bean
   public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
     http.authorizeHttpRequests(
             authz ->
                 authz
+                    // the async dispatch of a stream the request was already authorized for
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC)
+                    .permitAll()
                     .requestMatchers("/actuator/health", "/actuator/info")
                     .permitAll()
                     .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html")
@@ -50,7 +81,10 @@ public class SecurityConfig {
   @Profile("!test") // Only create this bean when NOT in test profile
   public JwtDecoder jwtDecoder() {
     if (jwkSetUri != null && !jwkSetUri.isEmpty()) {
-      return NimbusJwtDecoder.withJwkSetUri(jwkSetUri).build();
+      JwtDecoder decoder = NimbusJwtDecoder.withJwkSetUri(jwkSetUri).build();
+      return tokenCacheEnabled
+          ? new CachingJwtDecoder(decoder, tokenCacheMaxSize, tokenCacheTtl)
+          : decoder;
     }
     throw new IllegalStateException("JWK Set URI is not configured");
   }
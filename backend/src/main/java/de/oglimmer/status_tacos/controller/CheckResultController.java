@@ -0,0 +1,184 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.controller;
+
+import de.oglimmer.status_tacos.dto.CheckResultResponseDto;
+import de.oglimmer.status_tacos.dto.KeysetPageResponseDto;
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.service.CheckResultExportService;
+import de.oglimmer.status_tacos.service.CheckResultService;
+import de.oglimmer.status_tacos.service.MonitorService;
+import de.oglimmer.status_tacos.service.UserTenantResolver;
+import de.oglimmer.status_tacos.util.KeysetCursor;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Raw check history, paged by cursor: pass the {@code nextCursor} of a page to get the next one.
+ * Large ranges are exported as a stream instead.
+ */
+@RestController
+@RequestMapping("/v1/check-results")
+@RequiredArgsConstructor
+@Slf4j
+public class CheckResultController {
+
+  private final CheckResultService checkResultService;
+  private final CheckResultExportService checkResultExportService;
+  private final MonitorService monitorService;
+  private final UserTenantResolver userTenantResolver;
+
+  /** Check results of one monitor, latest first. */
+  @GetMapping("/monitor/{monitorId}")
+  public ResponseEntity<KeysetPageResponseDto<CheckResultResponseDto>> getMonitorCheckResults(
+      @PathVariable Integer monitorId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "" + KeysetPages.DEFAULT_LIMIT) int limit) {
+    KeysetCursor after;
+    try {
+      after = cursor != null ? KeysetCursor.decode(cursor) : null;
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+    if (!KeysetPages.isValidLimit(limit)) {
+      return ResponseEntity.badRequest().build();
+    }
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    log.debug("Getting check results of monitor {} for tenants: {}", monitorId, tenantIds);
+
+    Monitor monitor;
+    try {
+      monitor = monitorService.getMonitorById(tenantIds, monitorId);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.notFound().build();
+    }
+    List<CheckResult> rows =
+        checkResultService.getCheckHistoryPage(monitor.getTenantId(), monitorId, after, limit + 1);
+    return ResponseEntity.ok(
+        KeysetPages.of(
+            rows, limit, result -> toDto(result, monitor), CheckResultController::cursorOf));
+  }
+
+  /** Failed checks of all monitors of the current user's tenants, latest first. */
+  @GetMapping("/failures")
+  public ResponseEntity<KeysetPageResponseDto<CheckResultResponseDto>> getFailedCheckResults(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "" + KeysetPages.DEFAULT_LIMIT) int limit) {
+    KeysetCursor after;
+    try {
+      after = cursor != null ? KeysetCursor.decode(cursor) : null;
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+    if (!KeysetPages.isValidLimit(limit)) {
+      return ResponseEntity.badRequest().build();
+    }
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    log.debug("Getting failed checks for tenants: {}", tenantIds);
+
+    List<CheckResult> rows = checkResultService.getFailedChecksPage(tenantIds, after, limit + 1);
+    return ResponseEntity.ok(
+        KeysetPages.of(
+            rows,
+            limit,
+            result -> toDto(result, result.getMonitor()),
+            CheckResultController::cursorOf));
+  }
+
+  /**
+   * Streams the check results of a tenant in [from, to] as NDJSON or CSV, optionally gzipped. 501
+   * if the storage keeps checks the export can't read, 429 if all export slots are busy. Written on
+   * the request thread, so a long export isn't cut by the async request timeout.
+   */
+  @GetMapping("/export")
+  public void exportCheckResults(
+      @RequestParam Integer tenantId,
+      @RequestParam(required = false) Integer monitorId,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      @RequestParam(defaultValue = "ndjson") String format,
+      @RequestParam(defaultValue = "false") boolean gzip,
+      HttpServletResponse response)
+      throws IOException {
+    if (!userTenantResolver.hasAccessToTenant(tenantId)) {
+      response.sendError(HttpStatus.FORBIDDEN.value());
+      return;
+    }
+    if (!checkResultExportService.isSupported()) {
+      response.sendError(HttpStatus.NOT_IMPLEMENTED.value());
+      return;
+    }
+    CheckResultExportService.Format exportFormat;
+    try {
+      exportFormat = CheckResultExportService.Format.valueOf(format.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpStatus.BAD_REQUEST.value());
+      return;
+    }
+    if (from.isAfter(to)) {
+      response.sendError(HttpStatus.BAD_REQUEST.value());
+      return;
+    }
+    if (monitorId != null) {
+      try {
+        monitorService.getMonitorById(tenantId, monitorId);
+      } catch (IllegalArgumentException e) {
+        response.sendError(HttpStatus.NOT_FOUND.value());
+        return;
+      }
+    }
+    if (!checkResultExportService.tryAcquire()) {
+      log.warn("Rejected check result export of tenant {}: all export slots busy", tenantId);
+      response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+      return;
+    }
+
+    try {
+      boolean csv = exportFormat == CheckResultExportService.Format.CSV;
+      String fileName =
+          "check-results-" + tenantId + (csv ? ".csv" : ".ndjson") + (gzip ? ".gz" : "");
+      response.setContentType(
+          gzip ? "application/gzip" : csv ? "text/csv;charset=UTF-8" : "application/x-ndjson");
+      response.setHeader(
+          HttpHeaders.CONTENT_DISPOSITION,
+          ContentDisposition.attachment().filename(fileName).build().toString());
+      checkResultExportService.export(
+          tenantId, monitorId, from, to, exportFormat, gzip, response.getOutputStream());
+    } finally {
+      checkResultExportService.release();
+    }
+  }
+
+  private static String cursorOf(CheckResult result) {
+    return new KeysetCursor(result.getCheckedAt(), result.getId()).encode();
+  }
+
+  private static CheckResultResponseDto toDto(CheckResult result, Monitor monitor) {
+    return CheckResultResponseDto.builder()
+        .id(result.getId())
+        .monitorId(monitor.getId())
+        .monitorName(monitor.getName())
+        .tenantId(result.getTenantId())
+        .checkedAt(result.getCheckedAt())
+        .statusCode(result.getStatusCode())
+        .responseTimeMs(result.getResponseTimeMs())
+        .isUp(result.getIsUp())
+        .errorMessage(result.getErrorMessage())
+        .build();
+  }
+}
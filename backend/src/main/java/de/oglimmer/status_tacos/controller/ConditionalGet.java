@@ -0,0 +1,32 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Conditional GETs answered from an ETag computed before any query, see {@link
+ * de.oglimmer.status_tacos.service.TenantDataVersions}, or from the cached data served. The
+ * responses may be stored by the browser only, which has to revalidate them on every use.
+ */
+final class ConditionalGet {
+
+  private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+  private ConditionalGet() {}
+
+  /** Sets the ETag and returns whether the client's copy is current. */
+  static boolean isNotModified(WebRequest request, String etag) {
+    return request.checkNotModified(etag);
+  }
+
+  static <T> ResponseEntity<T> notModified() {
+    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CACHE_CONTROL).build();
+  }
+
+  static <T> ResponseEntity<T> ok(T body) {
+    return ResponseEntity.ok().cacheControl(CACHE_CONTROL).body(body);
+  }
+}
@@ -0,0 +1,58 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.controller;
+
+import de.oglimmer.status_tacos.dto.DashboardMonitorDto;
+import de.oglimmer.status_tacos.dto.DashboardResponseDto;
+import de.oglimmer.status_tacos.service.DashboardSnapshotService;
+import de.oglimmer.status_tacos.service.UserTenantResolver;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Everything the dashboard renders in one response, assembled from the shared snapshots of the
+ * user's tenants. The ETag is derived from the snapshots served, see {@link
+ * DashboardSnapshotService#etag}.
+ */
+@RestController
+@RequestMapping("/v1/dashboard")
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardController {
+
+  private final DashboardSnapshotService dashboardSnapshotService;
+  private final UserTenantResolver userTenantResolver;
+
+  @GetMapping
+  public ResponseEntity<DashboardResponseDto> getDashboard(WebRequest request) {
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    SortedMap<Integer, DashboardSnapshotService.TenantSnapshot> snapshots = new TreeMap<>();
+    for (Integer tenantId : tenantIds) {
+      snapshots.put(tenantId, dashboardSnapshotService.getSnapshot(tenantId));
+    }
+    if (ConditionalGet.isNotModified(request, dashboardSnapshotService.etag(snapshots))) {
+      return ConditionalGet.notModified();
+    }
+    log.debug("Getting dashboard for tenants: {}", tenantIds);
+
+    List<DashboardMonitorDto> monitors = new ArrayList<>();
+    LocalDateTime generatedAt = null;
+    for (DashboardSnapshotService.TenantSnapshot snapshot : snapshots.values()) {
+      monitors.addAll(snapshot.monitors());
+      if (generatedAt == null || snapshot.builtAt().isBefore(generatedAt)) {
+        generatedAt = snapshot.builtAt();
+      }
+    }
+
+    return ConditionalGet.ok(
+        DashboardResponseDto.builder().monitors(monitors).generatedAt(generatedAt).build());
+  }
+}
@@ -0,0 +1,86 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.controller;
+
+import de.oglimmer.status_tacos.dto.IncidentResponseDto;
+import de.oglimmer.status_tacos.persistence.Incident;
+import de.oglimmer.status_tacos.service.IncidentService;
+import de.oglimmer.status_tacos.service.MonitorService;
+import de.oglimmer.status_tacos.service.UserTenantResolver;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/v1/incidents")
+@RequiredArgsConstructor
+@Slf4j
+public class IncidentController {
+
+  private static final int MAX_PAGE_SIZE = 500;
+
+  private final IncidentService incidentService;
+  private final MonitorService monitorService;
+  private final UserTenantResolver userTenantResolver;
+
+  /** Incidents of all monitors of the current user's tenants, latest first. */
+  @GetMapping
+  public ResponseEntity<List<IncidentResponseDto>> getIncidents(
+      @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "50") int size) {
+    if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+      return ResponseEntity.badRequest().build();
+    }
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    log.debug("Getting incidents for tenants: {}", tenantIds);
+
+    List<IncidentResponseDto> dtos =
+        incidentService.getIncidents(tenantIds, page, size).stream().map(this::toDto).toList();
+    return ResponseEntity.ok(dtos);
+  }
+
+  /** Incidents of one monitor, latest first. */
+  @GetMapping("/monitor/{monitorId}")
+  public ResponseEntity<List<IncidentResponseDto>> getMonitorIncidents(
+      @PathVariable Integer monitorId,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "50") int size) {
+    if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+      return ResponseEntity.badRequest().build();
+    }
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    log.debug("Getting incidents of monitor {} for tenants: {}", monitorId, tenantIds);
+
+    Integer tenantId;
+    try {
+      tenantId = monitorService.getMonitorById(tenantIds, monitorId).getTenantId();
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.notFound().build();
+    }
+    List<IncidentResponseDto> dtos =
+        incidentService.getIncidents(tenantId, monitorId, page, size).stream()
+            .map(this::toDto)
+            .toList();
+    return ResponseEntity.ok(dtos);
+  }
+
+  private IncidentResponseDto toDto(Incident incident) {
+    return IncidentResponseDto.builder()
+        .id(incident.getId())
+        .monitorId(incident.getMonitor().getId())
+        .monitorName(incident.getMonitor().getName())
+        .tenantId(incident.getTenantId())
+        .startedAt(incident.getStartedAt())
+        .endedAt(incident.getEndedAt())
+        .ongoing(incident.getEndedAt() == null)
+        .firstStatusCode(incident.getFirstStatusCode())
+        .firstErrorMessage(incident.getFirstErrorMessage())
+        .checkCount(incident.getCheckCount())
+        .build();
+  }
+}
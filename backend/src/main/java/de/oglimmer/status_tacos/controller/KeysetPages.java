@@ -0,0 +1,32 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.controller;
+
+import de.oglimmer.status_tacos.dto.KeysetPageResponseDto;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Builds keyset pages from a query that fetched one row more than the page size, so whether there
+ * is a next page is known without a count query.
+ */
+final class KeysetPages {
+
+  static final int DEFAULT_LIMIT = 100;
+  static final int MAX_LIMIT = 500;
+
+  private KeysetPages() {}
+
+  static boolean isValidLimit(int limit) {
+    return limit >= 1 && limit <= MAX_LIMIT;
+  }
+
+  static <E, D> KeysetPageResponseDto<D> of(
+      List<E> rows, int limit, Function<E, D> toDto, Function<E, String> cursorOf) {
+    boolean hasNext = rows.size() > limit;
+    List<E> page = hasNext ? rows.subList(0, limit) : rows;
+    return KeysetPageResponseDto.<D>builder()
+        .items(page.stream().map(toDto).toList())
+        .nextCursor(hasNext ? cursorOf.apply(page.get(limit - 1)) : null)
+        .build();
+  }
+}
@@ -1,18 +1,23 @@
 /* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
 package de.oglimmer.status_tacos.controller;
 
+import de.oglimmer.status_tacos.dto.KeysetPageResponseDto;
+import de.oglimmer.status_tacos.dto.MonitorHistoryResponseDto;
 import de.oglimmer.status_tacos.dto.MonitorRequestDto;
 import de.oglimmer.status_tacos.dto.MonitorResponseDto;
 import de.oglimmer.status_tacos.mapper.EntityMapper;
 import de.oglimmer.status_tacos.persistence.Monitor;
 import de.oglimmer.status_tacos.persistence.MonitorState;
+import de.oglimmer.status_tacos.service.MonitorHistoryService;
 import de.oglimmer.status_tacos.service.MonitorService;
 import de.oglimmer.status_tacos.service.UserTenantResolver;
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,6 +29,7 @@ import org.springframework.web.bind.annotation.*;
 public class MonitorController {
 
   private final MonitorService monitorService;
+  private final MonitorHistoryService monitorHistoryService;
   private final UserTenantResolver userTenantResolver;
   private final EntityMapper entityMapper;
 
@@ -88,6 +94,70 @@ public class MonitorController {
     return ResponseEntity.ok(responseDtos);
   }
 
+  /**
+   * Monitors of the current user's tenants by id, paged by cursor: pass the {@code nextCursor} of a
+   * page to get the next one.
+   */
+  @GetMapping("/page")
+  public ResponseEntity<KeysetPageResponseDto<MonitorResponseDto>> getMonitorsPage(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "" + KeysetPages.DEFAULT_LIMIT) int limit) {
+    int afterId;
+    try {
+      afterId = cursor != null ? Integer.parseInt(cursor) : 0;
+    } catch (NumberFormatException e) {
+      return ResponseEntity.badRequest().build();
+    }
+    if (!KeysetPages.isValidLimit(limit)) {
+      return ResponseEntity.badRequest().build();
+    }
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    log.debug("Getting monitors after ID {} for tenants: {}", afterId, tenantIds);
+
+    List<Monitor> rows = monitorService.getMonitorsPage(tenantIds, afterId, limit + 1);
+    return ResponseEntity.ok(
+        KeysetPages.of(
+            rows, limit, entityMapper::toDto, monitor -> String.valueOf(monitor.getId())));
+  }
+
+  /**
+   * History of a monitor in [from, to] in at most the given number of points, read from raw checks,
+   * rollups or daily aggregates depending on the bucket width. {@code downsample=lttb|m4} reduces
+   * finer buckets to the points instead of widening them.
+   */
+  @GetMapping("/{id}/history")
+  public ResponseEntity<MonitorHistoryResponseDto> getMonitorHistory(
+      @PathVariable Integer id,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      @RequestParam(defaultValue = "200") int points,
+      @RequestParam(defaultValue = "none") String downsample) {
+    MonitorHistoryService.Downsampling downsampling;
+    try {
+      downsampling = MonitorHistoryService.Downsampling.valueOf(downsample.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+    if (!from.isBefore(to)
+        || points < MonitorHistoryService.MIN_POINTS
+        || points > MonitorHistoryService.MAX_POINTS) {
+      return ResponseEntity.badRequest().build();
+    }
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    log.debug(
+        "Getting history of monitor {} from {} to {} for tenants: {}", id, from, to, tenantIds);
+
+    Monitor monitor;
+    try {
+      monitor = monitorService.getMonitorById(tenantIds, id);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok(
+        monitorHistoryService.getHistory(
+            monitor.getTenantId(), monitor, from, to, points, downsampling));
+  }
+
   @PutMapping("/{id}")
   public ResponseEntity<MonitorResponseDto> updateMonitor(
       @PathVariable Integer id, @Valid @RequestBody MonitorRequestDto requestDto) {
@@ -116,20 +186,10 @@ public class MonitorController {
     Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
     log.info("Deleting monitor ID: {} for tenants: {}", id, tenantIds);
 
-    boolean deleted = false;
-    for (Integer tenantId : tenantIds) {
-      try {
-        monitorService.deleteMonitor(tenantId, id);
-        deleted = true;
-        break;
-      } catch (IllegalArgumentException e) {
-        log.debug("Monitor {} not found in tenant {}", id, tenantId);
-      }
-    }
-
-    if (deleted) {
+    try {
+      monitorService.deleteMonitor(tenantIds, id);
       return ResponseEntity.noContent().build();
-    } else {
+    } catch (IllegalArgumentException e) {
       log.warn("Failed to delete monitor: {} - not found in any accessible tenant", id);
       return ResponseEntity.notFound().build();
     }
@@ -141,18 +201,14 @@ public class MonitorController {
     Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
     log.info("Updating state for monitor ID: {} to {} for tenants: {}", id, state, tenantIds);
 
-    for (Integer tenantId : tenantIds) {
-      try {
-        Monitor monitor = monitorService.updateMonitorState(tenantId, id, state);
-        MonitorResponseDto responseDto = entityMapper.toDto(monitor);
-        return ResponseEntity.ok(responseDto);
-      } catch (IllegalArgumentException e) {
-        log.debug("Monitor {} not found in tenant {}", id, tenantId);
-      }
+    try {
+      Monitor monitor = monitorService.updateMonitorState(tenantIds, id, state);
+      MonitorResponseDto responseDto = entityMapper.toDto(monitor);
+      return ResponseEntity.ok(responseDto);
+    } catch (IllegalArgumentException e) {
+      log.warn("Failed to update monitor state: {} - not found in any accessible tenant", id);
+      return ResponseEntity.notFound().build();
     }
-
-    log.warn("Failed to update monitor state: {} - not found in any accessible tenant", id);
-    return ResponseEntity.notFound().build();
   }
 
   // Legacy endpoint for backward compatibility
@@ -161,22 +217,13 @@ public class MonitorController {
     Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
     log.info("Toggling status for monitor ID: {} for tenants: {}", id, tenantIds);
 
-    for (Integer tenantId : tenantIds) {
-      try {
-        Monitor monitor = monitorService.getMonitorById(tenantId, id);
-        MonitorState newState =
-            (monitor.getState() == MonitorState.ACTIVE)
-                ? MonitorState.INACTIVE
-                : MonitorState.ACTIVE;
-        Monitor updatedMonitor = monitorService.updateMonitorState(tenantId, id, newState);
-        MonitorResponseDto responseDto = entityMapper.toDto(updatedMonitor);
-        return ResponseEntity.ok(responseDto);
-      } catch (IllegalArgumentException e) {
-        log.debug("Monitor {} not found in tenant {}", id, tenantId);
-      }
+    try {
+      Monitor updatedMonitor = monitorService.toggleMonitorState(tenantIds, id);
+      MonitorResponseDto responseDto = entityMapper.toDto(updatedMonitor);
+      return ResponseEntity.ok(responseDto);
+    } catch (IllegalArgumentException e) {
+      log.warn("Failed to toggle monitor status: {} - not found in any accessible tenant", id);
+      return ResponseEntity.notFound().build();
     }
-
-    log.warn("Failed to toggle monitor status: {} - not found in any accessible tenant", id);
-    return ResponseEntity.notFound().build();
   }
 }
@@ -6,16 +6,21 @@ import de.oglimmer.status_tacos.dto.ResponseTimeHistoryResponseDto;
 import de.oglimmer.status_tacos.dto.StatusType;
 import de.oglimmer.status_tacos.mapper.EntityMapper;
 import de.oglimmer.status_tacos.persistence.MonitorStatus;
-import de.oglimmer.status_tacos.service.CheckResultService;
 import de.oglimmer.status_tacos.service.MonitorStatusService;
+import de.oglimmer.status_tacos.service.MonitorStatusStreamService;
+import de.oglimmer.status_tacos.service.ResponseTimeHistoryCache;
+import de.oglimmer.status_tacos.service.TenantDataVersions;
 import de.oglimmer.status_tacos.service.UserTenantResolver;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/v1/monitor-statuses")
@@ -24,50 +29,66 @@ import org.springframework.web.bind.annotation.*;
 public class MonitorStatusController {
 
   private final MonitorStatusService monitorStatusService;
-  private final CheckResultService checkResultService;
+  private final MonitorStatusStreamService monitorStatusStreamService;
+  private final ResponseTimeHistoryCache responseTimeHistoryCache;
+  private final TenantDataVersions tenantDataVersions;
   private final UserTenantResolver userTenantResolver;
   private final EntityMapper entityMapper;
 
   @GetMapping
-  public ResponseEntity<List<MonitorStatusResponseDto>> getAllActiveMonitorStatuses() {
+  public ResponseEntity<List<MonitorStatusResponseDto>> getAllActiveMonitorStatuses(
+      WebRequest request) {
     Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    if (ConditionalGet.isNotModified(
+        request, tenantDataVersions.etag(tenantIds, TenantDataVersions.Kind.STATUS))) {
+      return ConditionalGet.notModified();
+    }
     log.debug("Getting all active monitor statuses for tenants: {}", tenantIds);
 
-    List<MonitorStatus> statuses =
-        tenantIds.stream()
-            .flatMap(
-                tenantId -> monitorStatusService.getAllActiveMonitorStatuses(tenantId).stream())
-            .toList();
-    List<MonitorStatusResponseDto> dtos =
-        statuses.stream().map(this::convertToDto).collect(Collectors.toList());
+    return ConditionalGet.ok(getActiveMonitorStatuses(tenantIds));
+  }
+
+  /**
+   * Server-Sent Events of the active monitor statuses: a snapshot, then the changes. See {@link
+   * MonitorStatusStreamService} for the events.
+   */
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamMonitorStatuses() {
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    log.debug("Streaming monitor statuses for tenants: {}", tenantIds);
 
-    return ResponseEntity.ok(dtos);
+    return monitorStatusStreamService.subscribe(
+        tenantIds, () -> getActiveMonitorStatuses(tenantIds));
   }
 
+  /** The 24h response times of a monitor, reduced to at most {@code points} if given. */
   @GetMapping("/{monitorId}/response-time-history-24h")
   public ResponseEntity<ResponseTimeHistoryResponseDto> getResponseTimeHistory24h(
-      @PathVariable Integer monitorId) {
+      @PathVariable Integer monitorId,
+      @RequestParam(required = false) Integer points,
+      WebRequest request) {
+    if (points != null && points < 3) {
+      return ResponseEntity.badRequest().build();
+    }
     Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    if (ConditionalGet.isNotModified(
+        request, tenantDataVersions.etag(tenantIds, TenantDataVersions.Kind.STATUS))) {
+      return ConditionalGet.notModified();
+    }
     log.debug(
         "Getting 24h response time history for monitor: {} across tenants: {}",
         monitorId,
         tenantIds);
 
-    // Find the tenant that owns this monitor
-    for (Integer tenantId : tenantIds) {
-      ResponseTimeHistoryResponseDto history =
-          checkResultService.getResponseTimeHistory24h(tenantId, monitorId);
-      if (!history.getDataPoints().isEmpty()
-          || history.getMonitorName() != null && !history.getMonitorName().equals("Unknown")) {
-        return ResponseEntity.ok(history);
-      }
-    }
+    return ConditionalGet.ok(
+        points == null
+            ? responseTimeHistoryCache.getResponseTimeHistory24h(tenantIds, monitorId)
+            : responseTimeHistoryCache.getResponseTimeHistory24h(tenantIds, monitorId, points));
+  }
 
-    // If no data found in any tenant, return empty response for the first tenant
-    Integer tenantId = tenantIds.iterator().next();
-    ResponseTimeHistoryResponseDto emptyHistory =
-        checkResultService.getResponseTimeHistory24h(tenantId, monitorId);
-    return ResponseEntity.ok(emptyHistory);
+  private List<MonitorStatusResponseDto> getActiveMonitorStatuses(Set<Integer> tenantIds) {
+    List<MonitorStatus> statuses = monitorStatusService.getAllActiveMonitorStatuses(tenantIds);
+    return statuses.stream().map(this::convertToDto).collect(Collectors.toList());
   }
 
   private MonitorStatusResponseDto convertToDto(MonitorStatus status) {
@@ -0,0 +1,54 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.controller;
+
+import de.oglimmer.status_tacos.service.PublicStatusPageService;
+import java.time.Duration;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * The public status pages, unauthenticated and cacheable by shared caches for {@code
+ * monitor.public-status.cache-max-age}, after which they are revalidated by ETag. Unknown codes are
+ * cached as well.
+ */
+@RestController
+@RequestMapping("/public/status")
+@Slf4j
+public class PublicStatusController {
+
+  private final PublicStatusPageService publicStatusPageService;
+  private final CacheControl cacheControl;
+
+  public PublicStatusController(
+      PublicStatusPageService publicStatusPageService,
+      @Value("${monitor.public-status.cache-max-age:30000}") long cacheMaxAgeMillis) {
+    this.publicStatusPageService = publicStatusPageService;
+    this.cacheControl = CacheControl.maxAge(Duration.ofMillis(cacheMaxAgeMillis)).cachePublic();
+  }
+
+  @GetMapping("/{tenantCode}")
+  public ResponseEntity<byte[]> getStatusPage(@PathVariable String tenantCode, WebRequest request) {
+    Optional<PublicStatusPageService.Page> page = publicStatusPageService.getPage(tenantCode);
+    if (page.isEmpty()) {
+      log.debug("No public status page for tenant code: {}", tenantCode);
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).cacheControl(cacheControl).build();
+    }
+    if (request.checkNotModified(page.get().etag())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+    }
+    return ResponseEntity.ok()
+        .cacheControl(cacheControl)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(page.get().body());
+  }
+}
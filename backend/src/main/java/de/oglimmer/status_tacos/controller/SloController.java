@@ -0,0 +1,114 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.controller;
+
+import de.oglimmer.status_tacos.dto.SloRequestDto;
+import de.oglimmer.status_tacos.dto.SloResponseDto;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.persistence.Slo;
+import de.oglimmer.status_tacos.service.MonitorService;
+import de.oglimmer.status_tacos.service.SloService;
+import de.oglimmer.status_tacos.service.UserTenantResolver;
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Service level objectives of monitors. Every read returns the error budget and burn rates of the
+ * rolling window, computed from the in-memory counters.
+ */
+@RestController
+@RequestMapping("/v1/slos")
+@RequiredArgsConstructor
+@Slf4j
+public class SloController {
+
+  private final SloService sloService;
+  private final MonitorService monitorService;
+  private final UserTenantResolver userTenantResolver;
+
+  @GetMapping
+  public ResponseEntity<List<SloResponseDto>> getSlos() {
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    log.debug("Getting SLOs for tenants: {}", tenantIds);
+
+    return ResponseEntity.ok(sloService.getSlos(tenantIds));
+  }
+
+  @GetMapping("/monitor/{monitorId}")
+  public ResponseEntity<List<SloResponseDto>> getMonitorSlos(@PathVariable Integer monitorId) {
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    log.debug("Getting SLOs of monitor {} for tenants: {}", monitorId, tenantIds);
+
+    Integer tenantId;
+    try {
+      tenantId = monitorService.getMonitorById(tenantIds, monitorId).getTenantId();
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok(sloService.getSlosOfMonitor(tenantId, monitorId));
+  }
+
+  @GetMapping("/{id}")
+  public ResponseEntity<SloResponseDto> getSlo(@PathVariable Integer id) {
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+
+    try {
+      return ResponseEntity.ok(sloService.getSlo(tenantIds, id));
+    } catch (IllegalArgumentException e) {
+      log.debug("SLO {} not found in tenants {}", id, tenantIds);
+      return ResponseEntity.notFound().build();
+    }
+  }
+
+  @PostMapping
+  public ResponseEntity<SloResponseDto> createSlo(@Valid @RequestBody SloRequestDto requestDto) {
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    log.info("Creating SLO: {} for monitor: {}", requestDto.getName(), requestDto.getMonitorId());
+
+    Monitor monitor;
+    try {
+      monitor = monitorService.getMonitorById(tenantIds, requestDto.getMonitorId());
+    } catch (IllegalArgumentException e) {
+      log.warn(
+          "Failed to create SLO: monitor {} not found in any accessible tenant",
+          requestDto.getMonitorId());
+      return ResponseEntity.notFound().build();
+    }
+    Slo slo = sloService.createSlo(monitor, requestDto);
+    return ResponseEntity.status(HttpStatus.CREATED)
+        .body(sloService.getSlo(tenantIds, slo.getId()));
+  }
+
+  @PutMapping("/{id}")
+  public ResponseEntity<SloResponseDto> updateSlo(
+      @PathVariable Integer id, @Valid @RequestBody SloRequestDto requestDto) {
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+
+    try {
+      sloService.updateSlo(tenantIds, id, requestDto);
+    } catch (IllegalArgumentException e) {
+      log.warn("Failed to update SLO: {} - {}", id, e.getMessage());
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok(sloService.getSlo(tenantIds, id));
+  }
+
+  @DeleteMapping("/{id}")
+  public ResponseEntity<Void> deleteSlo(@PathVariable Integer id) {
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    log.info("Deleting SLO ID: {} for tenants: {}", id, tenantIds);
+
+    try {
+      sloService.deleteSlo(tenantIds, id);
+    } catch (IllegalArgumentException e) {
+      log.warn("Failed to delete SLO: {} - not found in any accessible tenant", id);
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.noContent().build();
+  }
+}
@@ -0,0 +1,132 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.controller;
+
+import de.oglimmer.status_tacos.dto.StatsBackfillJobResponseDto;
+import de.oglimmer.status_tacos.dto.StatsBackfillRequestDto;
+import de.oglimmer.status_tacos.persistence.StatsBackfillJob;
+import de.oglimmer.status_tacos.service.StatsBackfillService;
+import de.oglimmer.status_tacos.service.UserTenantResolver;
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Jobs that recompute the daily aggregates and uptime stats of past days. A job runs in the
+ * background; its progress is polled by id.
+ */
+@RestController
+@RequestMapping("/v1/admin/stats-backfill")
+@RequiredArgsConstructor
+@Slf4j
+public class StatsBackfillController {
+
+  private final StatsBackfillService statsBackfillService;
+  private final UserTenantResolver userTenantResolver;
+
+  @PostMapping
+  public ResponseEntity<StatsBackfillJobResponseDto> createJob(
+      @Valid @RequestBody StatsBackfillRequestDto requestDto) {
+    if (!userTenantResolver.hasAccessToTenant(requestDto.getTenantId())) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+    log.info(
+        "Creating stats backfill job for tenant {} from {} to {}",
+        requestDto.getTenantId(),
+        requestDto.getFrom(),
+        requestDto.getTo());
+
+    StatsBackfillJob job;
+    try {
+      job =
+          statsBackfillService.createJob(
+              requestDto.getTenantId(),
+              requestDto.getMonitorIds(),
+              requestDto.getFrom(),
+              requestDto.getTo());
+    } catch (IllegalArgumentException e) {
+      log.warn("Failed to create stats backfill job: {}", e.getMessage());
+      return ResponseEntity.badRequest().build();
+    }
+    statsBackfillService.start(job.getId());
+    return ResponseEntity.status(HttpStatus.ACCEPTED).body(toDto(job));
+  }
+
+  @GetMapping
+  public ResponseEntity<List<StatsBackfillJobResponseDto>> getJobs() {
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+
+    return ResponseEntity.ok(
+        statsBackfillService.getJobs(tenantIds).stream().map(this::toDto).toList());
+  }
+
+  @GetMapping("/{id}")
+  public ResponseEntity<StatsBackfillJobResponseDto> getJob(@PathVariable Long id) {
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+
+    try {
+      return ResponseEntity.ok(toDto(statsBackfillService.getJob(tenantIds, id)));
+    } catch (IllegalArgumentException e) {
+      log.debug("Stats backfill job {} not found in tenants {}", id, tenantIds);
+      return ResponseEntity.notFound().build();
+    }
+  }
+
+  @PostMapping("/{id}/cancel")
+  public ResponseEntity<StatsBackfillJobResponseDto> cancelJob(@PathVariable Long id) {
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    log.info("Cancelling stats backfill job {}", id);
+
+    try {
+      return ResponseEntity.ok(toDto(statsBackfillService.cancelJob(tenantIds, id)));
+    } catch (IllegalArgumentException e) {
+      log.debug("Stats backfill job {} not found in tenants {}", id, tenantIds);
+      return ResponseEntity.notFound().build();
+    } catch (IllegalStateException e) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+  }
+
+  @PostMapping("/{id}/resume")
+  public ResponseEntity<StatsBackfillJobResponseDto> resumeJob(@PathVariable Long id) {
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    log.info("Resuming stats backfill job {}", id);
+
+    StatsBackfillJob job;
+    try {
+      job = statsBackfillService.resumeJob(tenantIds, id);
+    } catch (IllegalArgumentException e) {
+      log.debug("Stats backfill job {} not found in tenants {}", id, tenantIds);
+      return ResponseEntity.notFound().build();
+    } catch (IllegalStateException e) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+    statsBackfillService.start(job.getId());
+    return ResponseEntity.status(HttpStatus.ACCEPTED).body(toDto(job));
+  }
+
+  private StatsBackfillJobResponseDto toDto(StatsBackfillJob job) {
+    return StatsBackfillJobResponseDto.builder()
+        .id(job.getId())
+        .tenantId(job.getTenantId())
+        .monitorIds(StatsBackfillService.monitorIdsOf(job))
+        .from(job.getRangeStart())
+        .to(job.getRangeEnd())
+        .status(job.getStatus())
+        .totalChunks(job.getTotalChunks())
+        .completedChunks(job.getCompletedChunks())
+        .failedChunks(job.getFailedChunks())
+        .progressPercentage(
+            job.getTotalChunks() > 0
+                ? job.getCompletedChunks() * 100.0 / job.getTotalChunks()
+                : 100.0)
+        .createdAt(job.getCreatedAt())
+        .startedAt(job.getStartedAt())
+        .finishedAt(job.getFinishedAt())
+        .build();
+  }
+}
@@ -1,8 +1,10 @@
 /* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
 package de.oglimmer.status_tacos.controller;
 
+import de.oglimmer.status_tacos.dto.TenantPublicStatusPageRequestDto;
 import de.oglimmer.status_tacos.dto.TenantRequestDto;
 import de.oglimmer.status_tacos.dto.TenantResponseDto;
+import de.oglimmer.status_tacos.dto.TenantRetentionRequestDto;
 import de.oglimmer.status_tacos.dto.TenantUpdateRequestDto;
 import de.oglimmer.status_tacos.dto.UserResponseDto;
 import de.oglimmer.status_tacos.mapper.EntityMapper;
@@ -114,6 +116,54 @@ public class TenantController {
     }
   }
 
+  @PutMapping("/{id}/retention")
+  public ResponseEntity<TenantResponseDto> updateRetentionPolicy(
+      @PathVariable Integer id, @Valid @RequestBody TenantRetentionRequestDto requestDto) {
+
+    if (!userTenantResolver.hasAccessToTenant(id)) {
+      log.warn("User attempted to update retention policy of unauthorized tenant: {}", id);
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+    if (tenantService.getTenantById(id).isEmpty()) {
+      return ResponseEntity.notFound().build();
+    }
+
+    log.info("Updating retention policy of tenant ID: {}", id);
+
+    try {
+      Tenant tenant =
+          tenantService.updateRetentionPolicy(
+              id,
+              requestDto.getRawRetentionDays(),
+              requestDto.getMinuteRollupRetentionDays(),
+              requestDto.getHourlyRollupRetentionDays());
+      return ResponseEntity.ok(convertToDto(tenant));
+    } catch (IllegalArgumentException e) {
+      log.warn("Failed to update retention policy: {}", e.getMessage());
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  @PutMapping("/{id}/public-status-page")
+  public ResponseEntity<TenantResponseDto> updatePublicStatusPage(
+      @PathVariable Integer id, @Valid @RequestBody TenantPublicStatusPageRequestDto requestDto) {
+
+    if (!userTenantResolver.hasAccessToTenant(id)) {
+      log.warn("User attempted to change the public status page of unauthorized tenant: {}", id);
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+
+    log.info("Setting public status page of tenant ID: {}", id);
+
+    try {
+      Tenant tenant = tenantService.updatePublicStatusPage(id, requestDto.getEnabled());
+      return ResponseEntity.ok(convertToDto(tenant));
+    } catch (IllegalArgumentException e) {
+      log.warn("Failed to set public status page: {}", e.getMessage());
+      return ResponseEntity.notFound().build();
+    }
+  }
+
   @PatchMapping("/{id}/toggle-status")
   public ResponseEntity<TenantResponseDto> toggleTenantStatus(@PathVariable Integer id) {
     if (!userTenantResolver.hasAccessToTenant(id)) {
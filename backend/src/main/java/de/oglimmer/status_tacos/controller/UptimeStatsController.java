@@ -1,18 +1,29 @@
 /* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
 package de.oglimmer.status_tacos.controller;
 
+import de.oglimmer.status_tacos.dto.AvailabilityResponseDto;
+import de.oglimmer.status_tacos.dto.ResponseTimePercentilesResponseDto;
 import de.oglimmer.status_tacos.dto.UptimeStatsResponseDto;
 import de.oglimmer.status_tacos.mapper.EntityMapper;
 import de.oglimmer.status_tacos.persistence.UptimeStats;
 import de.oglimmer.status_tacos.repository.UptimeStatsRepository;
+import de.oglimmer.status_tacos.service.CheckResultRollupService;
+import de.oglimmer.status_tacos.service.MonitorService;
+import de.oglimmer.status_tacos.service.TenantDataVersions;
+import de.oglimmer.status_tacos.service.UptimeDailyAggregateService;
 import de.oglimmer.status_tacos.service.UserTenantResolver;
+import de.oglimmer.status_tacos.store.CheckResultAggregate;
+import de.oglimmer.status_tacos.store.LatencySketch;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/v1/uptime-stats")
@@ -21,28 +32,31 @@ import org.springframework.web.bind.annotation.*;
 public class UptimeStatsController {
 
   private final UptimeStatsRepository uptimeStatsRepository;
+  private final UptimeDailyAggregateService uptimeDailyAggregateService;
+  private final CheckResultRollupService checkResultRollupService;
+  private final MonitorService monitorService;
   private final UserTenantResolver userTenantResolver;
+  private final TenantDataVersions tenantDataVersions;
   private final EntityMapper entityMapper;
 
   @GetMapping("/{monitorId}")
   public ResponseEntity<List<UptimeStatsResponseDto>> getUptimeStats(
-      @PathVariable Integer monitorId) {
+      @PathVariable Integer monitorId, WebRequest request) {
     Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    if (ConditionalGet.isNotModified(
+        request, tenantDataVersions.etag(tenantIds, TenantDataVersions.Kind.STATS))) {
+      return ConditionalGet.notModified();
+    }
     log.debug("Getting uptime stats for monitor {} and tenants: {}", monitorId, tenantIds);
 
     List<UptimeStats> stats =
-        tenantIds.stream()
-            .flatMap(
-                tenantId ->
-                    uptimeStatsRepository
-                        .findByMonitorIdAndTenantIdOrderByPeriodTypeAsc(monitorId, tenantId)
-                        .stream())
-            .toList();
+        uptimeStatsRepository.findByMonitorIdAndTenantIdInOrderByPeriodTypeAsc(
+            monitorId, tenantIds);
 
     List<UptimeStatsResponseDto> dtos =
-        stats.stream().map(this::convertToDto).collect(Collectors.toList());
+        stats.stream().map(entityMapper::toDto).collect(Collectors.toList());
 
-    return ResponseEntity.ok(dtos);
+    return ConditionalGet.ok(dtos);
   }
 
   @GetMapping("/{monitorId}/{periodType}")
@@ -64,39 +78,98 @@ public class UptimeStatsController {
       return ResponseEntity.badRequest().build();
     }
 
-    for (Integer tenantId : tenantIds) {
-      List<UptimeStats> stats =
-          uptimeStatsRepository.findByMonitorIdAndTenantIdAndPeriodTypeOrderByPeriodStartDesc(
-              monitorId, tenantId, period);
-      if (!stats.isEmpty()) {
-        UptimeStatsResponseDto dto = convertToDto(stats.get(0)); // Get most recent
-        return ResponseEntity.ok(dto);
-      }
+    List<UptimeStats> stats =
+        uptimeStatsRepository.findByMonitorIdAndTenantIdInAndPeriodTypeOrderByPeriodStartDesc(
+            monitorId, tenantIds, period);
+    if (!stats.isEmpty()) {
+      UptimeStatsResponseDto dto = entityMapper.toDto(stats.get(0)); // Get most recent
+      return ResponseEntity.ok(dto);
     }
 
     return ResponseEntity.notFound().build();
   }
 
-  private UptimeStatsResponseDto convertToDto(UptimeStats stats) {
-    return UptimeStatsResponseDto.builder()
-        .id(stats.getId())
-        .monitorId(stats.getMonitor().getId())
-        .monitorName(stats.getMonitor().getName())
-        .tenantId(stats.getTenantId())
-        .tenant(entityMapper.toDto(stats.getTenant()))
-        .periodType(stats.getPeriodType())
-        .periodStart(stats.getPeriodStart())
-        .periodEnd(stats.getPeriodEnd())
-        .totalChecks(stats.getTotalChecks())
-        .successfulChecks(stats.getSuccessfulChecks())
-        .uptimePercentage(stats.getUptimePercentage())
-        .minResponseTimeMs(stats.getMinResponseTimeMs())
-        .maxResponseTimeMs(stats.getMaxResponseTimeMs())
-        .avgResponseTimeMs(stats.getAvgResponseTimeMs())
-        .p99ResponseTimeMs(stats.getP99ResponseTimeMs())
-        .responseTimeData(stats.getResponseTimeData())
-        .statusChangeData(stats.getStatusChangeData())
-        .calculatedAt(stats.getCalculatedAt())
-        .build();
+  /** Response time percentiles of successful checks in [from, to], within 1% of the exact value. */
+  @GetMapping("/{monitorId}/percentiles")
+  public ResponseEntity<ResponseTimePercentilesResponseDto> getResponseTimePercentiles(
+      @PathVariable Integer monitorId,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+    if (from.isAfter(to)) {
+      return ResponseEntity.badRequest().build();
+    }
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    log.debug(
+        "Getting response time percentiles for monitor {} from {} to {} and tenants: {}",
+        monitorId,
+        from,
+        to,
+        tenantIds);
+
+    Integer tenantId;
+    try {
+      tenantId = monitorService.getMonitorById(tenantIds, monitorId).getTenantId();
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.notFound().build();
+    }
+    LatencySketch sketch =
+        uptimeDailyAggregateService.getResponseTimeSketch(tenantId, monitorId, from, to);
+    return ResponseEntity.ok(
+        ResponseTimePercentilesResponseDto.builder()
+            .monitorId(monitorId)
+            .from(from)
+            .to(to)
+            .responseTimeCount(sketch.getCount())
+            .p50ResponseTimeMs(sketch.quantile(0.5))
+            .p90ResponseTimeMs(sketch.quantile(0.9))
+            .p95ResponseTimeMs(sketch.quantile(0.95))
+            .p99ResponseTimeMs(sketch.quantile(0.99))
+            .p999ResponseTimeMs(sketch.quantile(0.999))
+            .build());
+  }
+
+  /**
+   * Availability and response times in [from, to], read from raw checks or the rollups of older
+   * data, whichever covers the range.
+   */
+  @GetMapping("/{monitorId}/availability")
+  public ResponseEntity<AvailabilityResponseDto> getAvailability(
+      @PathVariable Integer monitorId,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+    if (from.isAfter(to)) {
+      return ResponseEntity.badRequest().build();
+    }
+    Set<Integer> tenantIds = userTenantResolver.getCurrentUserTenantIds();
+    log.debug(
+        "Getting availability for monitor {} from {} to {} and tenants: {}",
+        monitorId,
+        from,
+        to,
+        tenantIds);
+
+    Integer tenantId;
+    try {
+      tenantId = monitorService.getMonitorById(tenantIds, monitorId).getTenantId();
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.notFound().build();
+    }
+    CheckResultAggregate aggregate =
+        checkResultRollupService.getAggregate(tenantId, monitorId, from, to);
+    return ResponseEntity.ok(
+        AvailabilityResponseDto.builder()
+            .monitorId(monitorId)
+            .from(from)
+            .to(to)
+            .totalChecks(aggregate.count())
+            .successfulChecks(aggregate.successfulCount())
+            .uptimePercentage(
+                aggregate.count() > 0
+                    ? (double) aggregate.successfulCount() / aggregate.count() * 100.0
+                    : null)
+            .averageResponseTimeMs(aggregate.averageResponseTime())
+            .minResponseTimeMs(aggregate.minResponseTime())
+            .maxResponseTimeMs(aggregate.maxResponseTime())
+            .build());
   }
 }
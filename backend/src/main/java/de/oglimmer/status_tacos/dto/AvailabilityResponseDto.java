@@ -0,0 +1,25 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AvailabilityResponseDto {
+
+  private Integer monitorId;
+  private LocalDateTime from;
+  private LocalDateTime to;
+  private Long totalChecks;
+  private Long successfulChecks;
+  private Double uptimePercentage;
+  private Double averageResponseTimeMs;
+  private Integer minResponseTimeMs;
+  private Integer maxResponseTimeMs;
+}
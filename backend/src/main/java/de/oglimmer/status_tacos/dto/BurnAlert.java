@@ -0,0 +1,12 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.dto;
+
+/** Multi-window burn rate alert level of an SLO. */
+public enum BurnAlert {
+  /** The error budget burns at a sustainable rate. */
+  NONE,
+  /** The 6h and 1h burn rates are both above 6, the budget is gone in 5 days at this rate. */
+  SLOW,
+  /** The 1h and 5m burn rates are both above 14.4, 2% of a 30 day budget burn per hour. */
+  FAST
+}
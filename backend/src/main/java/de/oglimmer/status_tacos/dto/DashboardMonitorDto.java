@@ -0,0 +1,25 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardMonitorDto {
+
+  private MonitorResponseDto monitor;
+
+  // null for inactive monitors and monitors that weren't checked yet
+  private MonitorStatusResponseDto status;
+
+  private ResponseTimeHistoryResponseDto responseTimeHistory24h;
+
+  // the most recent stats of each period
+  private List<UptimeStatsResponseDto> uptimeStats;
+}
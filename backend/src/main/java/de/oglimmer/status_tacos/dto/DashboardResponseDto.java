@@ -0,0 +1,21 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardResponseDto {
+
+  private List<DashboardMonitorDto> monitors;
+
+  /** When the oldest of the tenant snapshots the response was assembled from was built. */
+  private LocalDateTime generatedAt;
+}
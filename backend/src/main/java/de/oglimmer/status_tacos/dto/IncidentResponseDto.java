@@ -0,0 +1,26 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IncidentResponseDto {
+
+  private Long id;
+  private Integer monitorId;
+  private String monitorName;
+  private Integer tenantId;
+  private LocalDateTime startedAt;
+  private LocalDateTime endedAt;
+  private boolean ongoing;
+  private Integer firstStatusCode;
+  private String firstErrorMessage;
+  private Integer checkCount;
+}
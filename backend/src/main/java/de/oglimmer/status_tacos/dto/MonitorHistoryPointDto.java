@@ -0,0 +1,30 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Checks of one bucket of a monitor's history. Response time figures only count successful checks;
+ * percentiles are null where the source keeps no distribution (rollups).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MonitorHistoryPointDto {
+
+  private LocalDateTime timestamp;
+  private Long totalChecks;
+  private Long successfulChecks;
+  private Double uptimePercentage;
+  private Integer minResponseTimeMs;
+  private Integer maxResponseTimeMs;
+  private Double averageResponseTimeMs;
+  private Integer p50ResponseTimeMs;
+  private Integer p95ResponseTimeMs;
+  private Integer p99ResponseTimeMs;
+}
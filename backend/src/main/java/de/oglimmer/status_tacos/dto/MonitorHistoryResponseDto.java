@@ -0,0 +1,30 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MonitorHistoryResponseDto {
+
+  private Integer monitorId;
+  private String monitorName;
+  private LocalDateTime from;
+  private LocalDateTime to;
+  private Long bucketSeconds;
+
+  /** The tiers the points were read from: RAW, MINUTE_ROLLUPS, HOURLY_ROLLUPS, DAILY_AGGREGATES. */
+  private List<String> sources;
+
+  /** Buckets with checks, ascending; buckets without checks are left out. */
+  private List<MonitorHistoryPointDto> points;
+
+  private List<StatusDownPeriodsDto> statusDownPeriods;
+}
@@ -0,0 +1,26 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PublicMonitorStatusDto {
+
+  private String name;
+  private StatusType status;
+
+  // the last check with the other status, null if there was none
+  private LocalDateTime since;
+
+  // the latest uptime of each period, e.g. 7d
+  private Map<String, BigDecimal> uptimePercentages;
+}
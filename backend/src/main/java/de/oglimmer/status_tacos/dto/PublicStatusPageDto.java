@@ -0,0 +1,26 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** The public status page of a tenant; holds nothing but names, states and uptimes. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PublicStatusPageDto {
+
+  private String name;
+  private String description;
+
+  // down if any monitor is down
+  private StatusType status;
+
+  private List<PublicMonitorStatusDto> monitors;
+  private LocalDateTime generatedAt;
+}
@@ -0,0 +1,25 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResponseTimePercentilesResponseDto {
+
+  private Integer monitorId;
+  private LocalDateTime from;
+  private LocalDateTime to;
+  private Long responseTimeCount;
+  private Integer p50ResponseTimeMs;
+  private Integer p90ResponseTimeMs;
+  private Integer p95ResponseTimeMs;
+  private Integer p99ResponseTimeMs;
+  private Integer p999ResponseTimeMs;
+}
@@ -0,0 +1,38 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SloRequestDto {
+
+  @NotNull(message = "Monitor ID is required")
+  private Integer monitorId;
+
+  @NotBlank(message = "Name is required")
+  @Size(max = 100, message = "Name must not exceed 100 characters")
+  private String name;
+
+  @NotNull(message = "Target percentage is required")
+  @DecimalMin(value = "0", inclusive = false, message = "Target percentage must be above 0")
+  @DecimalMax(value = "100", inclusive = false, message = "Target percentage must be below 100")
+  private Double targetPercentage;
+
+  @NotNull(message = "Window days is required")
+  @Min(value = 1, message = "Window days must be at least 1")
+  @Max(value = 90, message = "Window days must not exceed 90")
+  private Integer windowDays;
+}
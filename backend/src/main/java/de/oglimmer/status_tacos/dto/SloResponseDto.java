@@ -0,0 +1,39 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SloResponseDto {
+
+  private Integer id;
+  private Integer monitorId;
+  private String monitorName;
+  private Integer tenantId;
+  private String name;
+  private Double targetPercentage;
+  private Integer windowDays;
+
+  // checks of the rolling window
+  private long goodChecks;
+  private long badChecks;
+  private Double availabilityPercentage;
+
+  /** Share of the window's error budget left in percent, negative once it is exhausted. */
+  private Double errorBudgetRemainingPercentage;
+
+  // error rate relative to the budgeted one, 1.0 exhausts the budget exactly at the window's end
+  private Double burnRate5m;
+  private Double burnRate1h;
+  private Double burnRate6h;
+  private BurnAlert burnAlert;
+
+  private LocalDateTime evaluatedAt;
+}
@@ -0,0 +1,35 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.dto;
+
+import de.oglimmer.status_tacos.persistence.StatsBackfillJob;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatsBackfillJobResponseDto {
+
+  private Long id;
+  private Integer tenantId;
+
+  // empty for all monitors of the tenant
+  private List<Integer> monitorIds;
+
+  private LocalDate from;
+  private LocalDate to;
+  private StatsBackfillJob.JobStatus status;
+  private Integer totalChunks;
+  private Integer completedChunks;
+  private Integer failedChunks;
+  private Double progressPercentage;
+  private LocalDateTime createdAt;
+  private LocalDateTime startedAt;
+  private LocalDateTime finishedAt;
+}
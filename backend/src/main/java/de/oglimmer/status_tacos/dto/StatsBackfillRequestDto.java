@@ -0,0 +1,29 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.dto;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatsBackfillRequestDto {
+
+  @NotNull(message = "Tenant ID is required")
+  private Integer tenantId;
+
+  /** Monitors to backfill, all monitors of the tenant if empty. */
+  private List<Integer> monitorIds;
+
+  @NotNull(message = "From date is required")
+  private LocalDate from;
+
+  @NotNull(message = "To date is required")
+  private LocalDate to;
+}
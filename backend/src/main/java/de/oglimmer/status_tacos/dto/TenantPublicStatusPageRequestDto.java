@@ -0,0 +1,19 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Whether the tenant publishes its status page at /public/status/{code}. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TenantPublicStatusPageRequestDto {
+
+  @NotNull(message = "Enabled is required")
+  private Boolean enabled;
+}
@@ -18,6 +18,10 @@ public class TenantResponseDto {
   private String code;
   private String description;
   private Boolean isActive;
+  private Integer rawRetentionDays;
+  private Integer minuteRollupRetentionDays;
+  private Integer hourlyRollupRetentionDays;
+  private Boolean publicStatusPage;
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
 }
@@ -0,0 +1,25 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.dto;
+
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Retention per tier in days; a null value uses the configured default. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TenantRetentionRequestDto {
+
+  @Min(value = 1, message = "Raw retention must be at least 1 day")
+  private Integer rawRetentionDays;
+
+  @Min(value = 1, message = "Minute rollup retention must be at least 1 day")
+  private Integer minuteRollupRetentionDays;
+
+  @Min(value = 1, message = "Hourly rollup retention must be at least 1 day")
+  private Integer hourlyRollupRetentionDays;
+}
@@ -4,6 +4,7 @@ package de.oglimmer.status_tacos.dto;
 import de.oglimmer.status_tacos.persistence.UptimeStats;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -29,8 +30,12 @@ public class UptimeStatsResponseDto {
   private Integer minResponseTimeMs;
   private Integer maxResponseTimeMs;
   private Integer avgResponseTimeMs;
+  private Integer p50ResponseTimeMs;
+  private Integer p90ResponseTimeMs;
+  private Integer p95ResponseTimeMs;
   private Integer p99ResponseTimeMs;
-  private String responseTimeData;
-  private String statusChangeData;
+  private Integer p999ResponseTimeMs;
+  private List<ResponseTimeDataPointDto> responseTimeData;
+  private List<StatusDownPeriodsDto> statusChangeData;
   private LocalDateTime calculatedAt;
 }
@@ -3,6 +3,7 @@ package de.oglimmer.status_tacos.mapper;
 
 import de.oglimmer.status_tacos.dto.*;
 import de.oglimmer.status_tacos.persistence.*;
+import de.oglimmer.status_tacos.service.UptimeStatsSeriesCodec;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
@@ -40,4 +41,33 @@ public interface EntityMapper {
   @Mapping(target = "tenantId", source = "monitor.tenant.id")
   @Mapping(target = "tenant", source = "monitor.tenant")
   MonitorStatusResponseDto toDto(MonitorStatus monitorStatus);
+
+  default UptimeStatsResponseDto toDto(UptimeStats stats) {
+    return UptimeStatsResponseDto.builder()
+        .id(stats.getId())
+        .monitorId(stats.getMonitor().getId())
+        .monitorName(stats.getMonitor().getName())
+        .tenantId(stats.getTenantId())
+        .tenant(toDto(stats.getTenant()))
+        .periodType(stats.getPeriodType())
+        .periodStart(stats.getPeriodStart())
+        .periodEnd(stats.getPeriodEnd())
+        .totalChecks(stats.getTotalChecks())
+        .successfulChecks(stats.getSuccessfulChecks())
+        .uptimePercentage(stats.getUptimePercentage())
+        .minResponseTimeMs(stats.getMinResponseTimeMs())
+        .maxResponseTimeMs(stats.getMaxResponseTimeMs())
+        .avgResponseTimeMs(stats.getAvgResponseTimeMs())
+        .p50ResponseTimeMs(stats.getP50ResponseTimeMs())
+        .p90ResponseTimeMs(stats.getP90ResponseTimeMs())
+        .p95ResponseTimeMs(stats.getP95ResponseTimeMs())
+        .p99ResponseTimeMs(stats.getP99ResponseTimeMs())
+        .p999ResponseTimeMs(stats.getP999ResponseTimeMs())
+        .responseTimeData(
+            UptimeStatsSeriesCodec.decodeResponseTimeData(stats.getResponseTimeData()))
+        .statusChangeData(
+            UptimeStatsSeriesCodec.decodeStatusDownPeriods(stats.getStatusChangeData()))
+        .calculatedAt(stats.getCalculatedAt())
+        .build();
+  }
 }
@@ -9,13 +9,16 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
+/**
+ * A single check outcome. In MariaDB the table is clustered on (monitor_id, checked_at, id), so
+ * range reads should filter by monitor and checkedAt and order by checkedAt, id.
+ */
 @Entity
 @Table(
     name = "check_results",
     indexes = {
-      @Index(name = "idx_check_monitor_time", columnList = "monitor_id, checkedAt"),
-      @Index(name = "idx_check_time", columnList = "checkedAt"),
-      @Index(name = "idx_check_tenant", columnList = "tenantId")
+      @Index(name = "idx_check_tenant_time", columnList = "tenant_id, checked_at"),
+      @Index(name = "idx_check_tenant_up_time", columnList = "tenant_id, is_up, checked_at, id")
     })
 @Data
 @NoArgsConstructor
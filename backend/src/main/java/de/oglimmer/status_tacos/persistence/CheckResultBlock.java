@@ -0,0 +1,93 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.persistence;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A sealed, closed time window of check results for one monitor. The raw rows are encoded with
+ * {@link de.oglimmer.status_tacos.store.CheckResultBlockCodec} into {@link #payload}; the header
+ * columns carry the aggregates so that fully covered blocks never need to be decoded.
+ */
+@Entity
+@Table(
+    name = "check_result_blocks",
+    uniqueConstraints = {
+      @UniqueConstraint(
+          name = "uk_block_monitor_start",
+          columnNames = {"monitor_id", "block_start"})
+    },
+    indexes = {@Index(name = "idx_block_tenant_end", columnList = "tenant_id, block_end")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class CheckResultBlock {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @EqualsAndHashCode.Include
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(
+      name = "monitor_id",
+      nullable = false,
+      foreignKey = @ForeignKey(name = "fk_block_monitor"))
+  private Monitor monitor;
+
+  @Column(name = "tenant_id", nullable = false)
+  private Integer tenantId;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(
+      name = "tenant_id",
+      nullable = false,
+      insertable = false,
+      updatable = false,
+      foreignKey = @ForeignKey(name = "fk_block_tenant"))
+  private Tenant tenant;
+
+  /** Inclusive start of the sealed window. */
+  @Column(name = "block_start", nullable = false)
+  private LocalDateTime blockStart;
+
+  /** Exclusive end of the sealed window. */
+  @Column(name = "block_end", nullable = false)
+  private LocalDateTime blockEnd;
+
+  @Column(name = "check_count", nullable = false)
+  private Integer checkCount;
+
+  @Column(name = "successful_checks", nullable = false)
+  private Integer successfulChecks;
+
+  /** Number of successful checks with a response time, i.e. the denominator of the average. */
+  @Column(name = "response_time_count", nullable = false)
+  private Integer responseTimeCount;
+
+  @Column(name = "response_time_sum_ms", nullable = false)
+  private Long responseTimeSumMs;
+
+  @Column(name = "min_response_time_ms")
+  private Integer minResponseTimeMs;
+
+  @Column(name = "max_response_time_ms")
+  private Integer maxResponseTimeMs;
+
+  @Lob
+  @Column(name = "payload", nullable = false, length = 16_777_215)
+  @ToString.Exclude
+  private byte[] payload;
+
+  @Column(name = "sealed_at", nullable = false)
+  @Builder.Default
+  private LocalDateTime sealedAt = LocalDateTime.now();
+}
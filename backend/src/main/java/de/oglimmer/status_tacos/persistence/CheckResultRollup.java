@@ -0,0 +1,97 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.persistence;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Checks of one monitor in a minute or an hour, written when raw checks leave the raw tier. Like
+ * the aggregates of the raw checks, response time figures only count successful checks.
+ */
+@Entity
+@Table(
+    name = "check_result_rollups",
+    uniqueConstraints = {
+      @UniqueConstraint(
+          name = "uk_rollup_monitor_bucket",
+          columnNames = {"monitor_id", "resolution", "bucket_start"})
+    },
+    indexes = {
+      @Index(name = "idx_rollup_tenant_bucket", columnList = "tenant_id, resolution, bucket_start")
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class CheckResultRollup {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @EqualsAndHashCode.Include
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(
+      name = "monitor_id",
+      nullable = false,
+      foreignKey = @ForeignKey(name = "fk_rollup_monitor"))
+  private Monitor monitor;
+
+  @Column(name = "tenant_id", nullable = false)
+  private Integer tenantId;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(
+      name = "tenant_id",
+      nullable = false,
+      insertable = false,
+      updatable = false,
+      foreignKey = @ForeignKey(name = "fk_rollup_tenant"))
+  private Tenant tenant;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "resolution", nullable = false)
+  private Resolution resolution;
+
+  @Column(name = "bucket_start", nullable = false)
+  private LocalDateTime bucketStart;
+
+  @Column(name = "check_count", nullable = false)
+  private int checkCount;
+
+  @Column(name = "successful_checks", nullable = false)
+  private int successfulChecks;
+
+  @Column(name = "response_time_count", nullable = false)
+  private int responseTimeCount;
+
+  @Column(name = "response_time_sum_ms", nullable = false)
+  private long responseTimeSumMs;
+
+  @Column(name = "min_response_time_ms")
+  private Integer minResponseTimeMs;
+
+  @Column(name = "max_response_time_ms")
+  private Integer maxResponseTimeMs;
+
+  public enum Resolution {
+    MINUTE(1),
+    HOUR(60);
+
+    private final int minutes;
+
+    Resolution(int minutes) {
+      this.minutes = minutes;
+    }
+
+    public int getMinutes() {
+      return minutes;
+    }
+  }
+}
@@ -0,0 +1,101 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.persistence;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * A folded run of consecutive checks with the same outcome (up flag, status code, error message) as
+ * the full {@link CheckResult} row that opened it. Only written in change-only storage mode.
+ */
+@Entity
+@Table(
+    name = "check_result_runs",
+    indexes = {
+      @Index(name = "idx_run_monitor_start", columnList = "monitor_id, run_start"),
+      @Index(name = "idx_run_tenant_end", columnList = "tenant_id, run_end")
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class CheckResultRun {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @EqualsAndHashCode.Include
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(
+      name = "monitor_id",
+      nullable = false,
+      foreignKey = @ForeignKey(name = "fk_run_monitor"))
+  private Monitor monitor;
+
+  @Column(name = "tenant_id", nullable = false)
+  private Integer tenantId;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(
+      name = "tenant_id",
+      nullable = false,
+      insertable = false,
+      updatable = false,
+      foreignKey = @ForeignKey(name = "fk_run_tenant"))
+  private Tenant tenant;
+
+  /** checkedAt of the first folded check. */
+  @Column(name = "run_start", nullable = false)
+  private LocalDateTime runStart;
+
+  /** checkedAt of the last folded check. */
+  @Column(name = "run_end", nullable = false)
+  private LocalDateTime runEnd;
+
+  @Column(name = "check_count", nullable = false)
+  private Integer checkCount;
+
+  @Column(name = "is_up", nullable = false)
+  private Boolean isUp;
+
+  @Column(name = "status_code")
+  private Integer statusCode;
+
+  @Column(name = "response_time_count", nullable = false)
+  private Integer responseTimeCount;
+
+  @Column(name = "response_time_sum_ms", nullable = false)
+  private Long responseTimeSumMs;
+
+  @Column(name = "min_response_time_ms")
+  private Integer minResponseTimeMs;
+
+  @Column(name = "max_response_time_ms")
+  private Integer maxResponseTimeMs;
+
+  /** Folds one more check with the run's outcome into it. */
+  public void add(CheckResult checkResult) {
+    runEnd = checkResult.getCheckedAt();
+    checkCount++;
+    Integer responseTime = checkResult.getResponseTimeMs();
+    if (responseTime != null) {
+      responseTimeCount++;
+      responseTimeSumMs += responseTime;
+      minResponseTimeMs =
+          minResponseTimeMs == null ? responseTime : Math.min(minResponseTimeMs, responseTime);
+      maxResponseTimeMs =
+          maxResponseTimeMs == null ? responseTime : Math.max(maxResponseTimeMs, responseTime);
+    }
+  }
+
+  public Double getAverageResponseTimeMs() {
+    return responseTimeCount == 0 ? null : (double) responseTimeSumMs / responseTimeCount;
+  }
+}
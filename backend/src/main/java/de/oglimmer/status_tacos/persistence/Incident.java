@@ -0,0 +1,70 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.persistence;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * A down period of a monitor: opened by the first failed check, closed by the next successful one.
+ * {@link #endedAt} is null while the incident is open.
+ */
+@Entity
+@Table(
+    name = "incidents",
+    indexes = {
+      @Index(name = "idx_incident_monitor_start", columnList = "monitor_id, started_at"),
+      @Index(name = "idx_incident_monitor_end", columnList = "monitor_id, ended_at"),
+      @Index(name = "idx_incident_tenant_start", columnList = "tenant_id, started_at")
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class Incident {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @EqualsAndHashCode.Include
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(
+      name = "monitor_id",
+      nullable = false,
+      foreignKey = @ForeignKey(name = "fk_incident_monitor"))
+  private Monitor monitor;
+
+  @Column(name = "tenant_id", nullable = false)
+  private Integer tenantId;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(
+      name = "tenant_id",
+      nullable = false,
+      insertable = false,
+      updatable = false,
+      foreignKey = @ForeignKey(name = "fk_incident_tenant"))
+  private Tenant tenant;
+
+  @Column(name = "started_at", nullable = false)
+  private LocalDateTime startedAt;
+
+  @Column(name = "ended_at")
+  private LocalDateTime endedAt;
+
+  @Column(name = "first_status_code")
+  private Integer firstStatusCode;
+
+  @Column(name = "first_error_message", columnDefinition = "TEXT")
+  private String firstErrorMessage;
+
+  /** Failed checks of the incident, including those folded into runs. */
+  @Column(name = "check_count", nullable = false)
+  private Integer checkCount;
+}
@@ -0,0 +1,81 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.persistence;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * A service level objective of a monitor: the share of successful checks to reach over a rolling
+ * window of days. The counters live in memory and are checkpointed to {@link SloCheckpoint}.
+ */
+@Entity
+@Table(
+    name = "slos",
+    indexes = {
+      @Index(name = "idx_slo_monitor", columnList = "monitor_id"),
+      @Index(name = "idx_slo_tenant", columnList = "tenant_id")
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class Slo {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @EqualsAndHashCode.Include
+  private Integer id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(
+      name = "monitor_id",
+      nullable = false,
+      foreignKey = @ForeignKey(name = "fk_slo_monitor"))
+  private Monitor monitor;
+
+  @Column(name = "tenant_id", nullable = false)
+  private Integer tenantId;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(
+      name = "tenant_id",
+      nullable = false,
+      insertable = false,
+      updatable = false,
+      foreignKey = @ForeignKey(name = "fk_slo_tenant"))
+  private Tenant tenant;
+
+  @Column(name = "name", nullable = false, length = 100)
+  private String name;
+
+  /** Target share of successful checks in percent, e.g. 99.9. */
+  @Column(name = "target_percentage", nullable = false)
+  private Double targetPercentage;
+
+  @Column(name = "window_days", nullable = false)
+  private Integer windowDays;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "updated_at", nullable = false)
+  private LocalDateTime updatedAt;
+
+  @PrePersist
+  protected void onCreate() {
+    LocalDateTime now = LocalDateTime.now();
+    createdAt = now;
+    updatedAt = now;
+  }
+
+  @PreUpdate
+  protected void onUpdate() {
+    updatedAt = LocalDateTime.now();
+  }
+}
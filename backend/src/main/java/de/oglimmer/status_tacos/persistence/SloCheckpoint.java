@@ -0,0 +1,42 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.persistence;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * The last checkpoint of the in-memory counters of a {@link Slo}. On startup the counters are
+ * restored from {@link #payload} and the checks after {@link #lastCheckedAt} are replayed from the
+ * store.
+ */
+@Entity
+@Table(name = "slo_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class SloCheckpoint {
+
+  @Id
+  @Column(name = "slo_id")
+  @EqualsAndHashCode.Include
+  private Integer sloId;
+
+  /** checkedAt of the latest check counted in the payload, null if there was none. */
+  @Column(name = "last_checked_at")
+  private LocalDateTime lastCheckedAt;
+
+  @Column(name = "checkpointed_at", nullable = false)
+  private LocalDateTime checkpointedAt;
+
+  @Column(name = "payload", nullable = false, length = 16_777_215)
+  @ToString.Exclude
+  private byte[] payload;
+}
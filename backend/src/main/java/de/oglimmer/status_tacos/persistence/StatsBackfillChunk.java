@@ -0,0 +1,70 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.persistence;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * The days [chunkStart, chunkEnd] of one monitor in a {@link StatsBackfillJob}. A completed chunk
+ * is never run again when the job is resumed.
+ */
+@Entity
+@Table(
+    name = "stats_backfill_chunks",
+    uniqueConstraints = {
+      @UniqueConstraint(
+          name = "uk_backfill_chunk",
+          columnNames = {"job_id", "monitor_id", "chunk_start"})
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class StatsBackfillChunk {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @EqualsAndHashCode.Include
+  private Long id;
+
+  @Column(name = "job_id", nullable = false)
+  private Long jobId;
+
+  @Column(name = "monitor_id", nullable = false)
+  private Integer monitorId;
+
+  @Column(name = "chunk_start", nullable = false)
+  private LocalDate chunkStart;
+
+  @Column(name = "chunk_end", nullable = false)
+  private LocalDate chunkEnd;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false)
+  @Builder.Default
+  private ChunkStatus status = ChunkStatus.pending;
+
+  /** Days whose aggregate was rebuilt; days without checks keep theirs. */
+  @Column(name = "rebuilt_days", nullable = false)
+  @Builder.Default
+  private Integer rebuiltDays = 0;
+
+  @Column(name = "completed_at")
+  private LocalDateTime completedAt;
+
+  @Column(name = "error_message", length = 1000)
+  private String errorMessage;
+
+  public enum ChunkStatus {
+    pending,
+    completed,
+    failed
+  }
+}
@@ -0,0 +1,95 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.persistence;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * A rebuild of the daily uptime aggregates and uptime stats of the days in [rangeStart, rangeEnd]
+ * for the monitors of a tenant. Its progress is checkpointed in {@link StatsBackfillChunk}s.
+ */
+@Entity
+@Table(
+    name = "stats_backfill_jobs",
+    indexes = {
+      @Index(name = "idx_backfill_job_tenant", columnList = "tenant_id"),
+      @Index(name = "idx_backfill_job_status", columnList = "status")
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class StatsBackfillJob {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @EqualsAndHashCode.Include
+  private Long id;
+
+  @Column(name = "tenant_id", nullable = false)
+  private Integer tenantId;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(
+      name = "tenant_id",
+      nullable = false,
+      insertable = false,
+      updatable = false,
+      foreignKey = @ForeignKey(name = "fk_backfill_job_tenant"))
+  private Tenant tenant;
+
+  /** Comma separated ids of the selected monitors, null for all monitors of the tenant. */
+  @Column(name = "monitor_ids", columnDefinition = "TEXT")
+  private String monitorIds;
+
+  @Column(name = "range_start", nullable = false)
+  private LocalDate rangeStart;
+
+  @Column(name = "range_end", nullable = false)
+  private LocalDate rangeEnd;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false)
+  @Builder.Default
+  private JobStatus status = JobStatus.pending;
+
+  @Column(name = "total_chunks", nullable = false)
+  private Integer totalChunks;
+
+  @Column(name = "completed_chunks", nullable = false)
+  @Builder.Default
+  private Integer completedChunks = 0;
+
+  @Column(name = "failed_chunks", nullable = false)
+  @Builder.Default
+  private Integer failedChunks = 0;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "started_at")
+  private LocalDateTime startedAt;
+
+  @Column(name = "finished_at")
+  private LocalDateTime finishedAt;
+
+  public enum JobStatus {
+    pending,
+    running,
+    completed,
+    failed,
+    cancelled
+  }
+
+  @PrePersist
+  protected void onCreate() {
+    createdAt = LocalDateTime.now();
+  }
+}
@@ -39,6 +39,23 @@ public class Tenant {
   @Builder.Default
   private Boolean isActive = true;
 
+  /** Retention of raw checks in days, null for the configured default. */
+  @Column(name = "raw_retention_days")
+  private Integer rawRetentionDays;
+
+  /** Retention of the per minute rollups in days, null for the configured default. */
+  @Column(name = "minute_rollup_retention_days")
+  private Integer minuteRollupRetentionDays;
+
+  /** Retention of the hourly rollups in days, null for the configured default. */
+  @Column(name = "hourly_rollup_retention_days")
+  private Integer hourlyRollupRetentionDays;
+
+  /** Whether the status of the monitors is published at /public/status/{code}. */
+  @Column(name = "public_status_page", nullable = false)
+  @Builder.Default
+  private Boolean publicStatusPage = false;
+
   @ManyToMany(mappedBy = "tenants", fetch = FetchType.LAZY)
   private Set<User> users;
 
@@ -0,0 +1,89 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.persistence;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Partial uptime aggregate of one monitor and day. Folded incrementally while the day is open,
+ * immutable once {@link #closed} is set.
+ */
+@Entity
+@Table(
+    name = "uptime_daily_aggregates",
+    uniqueConstraints = {
+      @UniqueConstraint(
+          name = "uk_daily_monitor_day",
+          columnNames = {"monitor_id", "stats_day"})
+    },
+    indexes = {@Index(name = "idx_daily_tenant_day", columnList = "tenant_id, stats_day")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class UptimeDailyAggregate {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @EqualsAndHashCode.Include
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(
+      name = "monitor_id",
+      nullable = false,
+      foreignKey = @ForeignKey(name = "fk_daily_monitor"))
+  private Monitor monitor;
+
+  @Column(name = "tenant_id", nullable = false)
+  private Integer tenantId;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(
+      name = "tenant_id",
+      nullable = false,
+      insertable = false,
+      updatable = false,
+      foreignKey = @ForeignKey(name = "fk_daily_tenant"))
+  private Tenant tenant;
+
+  @Column(name = "stats_day", nullable = false)
+  private LocalDate day;
+
+  @Column(name = "is_closed", nullable = false)
+  private boolean closed;
+
+  /** Checks with checkedAt up to this instant are folded in. */
+  @Column(name = "folded_until", nullable = false)
+  private LocalDateTime foldedUntil;
+
+  @Column(name = "check_count", nullable = false)
+  private long checkCount;
+
+  @Column(name = "successful_checks", nullable = false)
+  private long successfulChecks;
+
+  @Column(name = "response_time_count", nullable = false)
+  private long responseTimeCount;
+
+  @Column(name = "response_time_sum_ms", nullable = false)
+  private long responseTimeSumMs;
+
+  @Column(name = "min_response_time_ms")
+  private Integer minResponseTimeMs;
+
+  @Column(name = "max_response_time_ms")
+  private Integer maxResponseTimeMs;
+
+  /** Hourly max response times, down periods and latency sketch, see {@code UptimeDay}. */
+  @Lob
+  @Column(name = "payload", nullable = false, length = 65_535)
+  private byte[] payload;
+}
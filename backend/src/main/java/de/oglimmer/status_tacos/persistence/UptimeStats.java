@@ -78,14 +78,30 @@ public class UptimeStats {
   @Column(name = "avg_response_time_ms")
   private Integer avgResponseTimeMs;
 
+  @Column(name = "p50_response_time_ms")
+  private Integer p50ResponseTimeMs;
+
+  @Column(name = "p90_response_time_ms")
+  private Integer p90ResponseTimeMs;
+
+  @Column(name = "p95_response_time_ms")
+  private Integer p95ResponseTimeMs;
+
   @Column(name = "p99_response_time_ms")
   private Integer p99ResponseTimeMs;
 
-  @Column(name = "response_time_data", columnDefinition = "LONGTEXT")
-  private String responseTimeData;
+  @Column(name = "p999_response_time_ms")
+  private Integer p999ResponseTimeMs;
+
+  /** Encoded by {@link de.oglimmer.status_tacos.service.UptimeStatsSeriesCodec}. */
+  @Lob
+  @Column(name = "response_time_data", length = 16_777_215)
+  private byte[] responseTimeData;
 
-  @Column(name = "status_change_data", columnDefinition = "LONGTEXT")
-  private String statusChangeData;
+  /** Encoded by {@link de.oglimmer.status_tacos.service.UptimeStatsSeriesCodec}. */
+  @Lob
+  @Column(name = "status_change_data", length = 16_777_215)
+  private byte[] statusChangeData;
 
   @Column(name = "calculated_at", nullable = false)
   @Builder.Default
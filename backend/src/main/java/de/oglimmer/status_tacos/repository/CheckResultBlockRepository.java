@@ -0,0 +1,33 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.repository;
+
+import de.oglimmer.status_tacos.persistence.CheckResultBlock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CheckResultBlockRepository extends JpaRepository<CheckResultBlock, Long> {
+
+  @Query(
+      "SELECT b FROM CheckResultBlock b WHERE b.monitor.id = :monitorId AND b.tenantId = :tenantId "
+          + "AND b.blockEnd > :start AND b.blockStart <= :end ORDER BY b.blockStart ASC")
+  List<CheckResultBlock> findOverlapping(
+      @Param("monitorId") Integer monitorId,
+      @Param("tenantId") Integer tenantId,
+      @Param("start") LocalDateTime start,
+      @Param("end") LocalDateTime end);
+
+  Optional<CheckResultBlock> findByMonitorIdAndTenantIdAndBlockStart(
+      Integer monitorId, Integer tenantId, LocalDateTime blockStart);
+
+  @Modifying
+  @Query("DELETE FROM CheckResultBlock b WHERE b.tenantId = :tenantId AND b.blockEnd <= :cutoff")
+  int deleteByTenantIdAndBlockEndNotAfter(
+      @Param("tenantId") Integer tenantId, @Param("cutoff") LocalDateTime cutoff);
+}
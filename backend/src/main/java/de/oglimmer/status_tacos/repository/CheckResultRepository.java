@@ -2,101 +2,163 @@
 package de.oglimmer.status_tacos.repository;
 
 import de.oglimmer.status_tacos.persistence.CheckResult;
+import de.oglimmer.status_tacos.store.CheckSample;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CheckResultRepository extends JpaRepository<CheckResult, Long> {
 
-  List<CheckResult> findByMonitorIdAndTenantIdOrderByCheckedAtDesc(
+  List<CheckResult> findByMonitorIdAndTenantIdOrderByCheckedAtDescIdDesc(
       Integer monitorId, Integer tenantId);
 
-  Page<CheckResult> findByMonitorIdAndTenantIdOrderByCheckedAtDesc(
+  Page<CheckResult> findByMonitorIdAndTenantIdOrderByCheckedAtDescIdDesc(
       Integer monitorId, Integer tenantId, Pageable pageable);
 
-  Optional<CheckResult> findTopByMonitorIdAndTenantIdOrderByCheckedAtDesc(
-      Integer monitorId, Integer tenantId);
+  /** First page of the check history of a monitor, latest first. */
+  @Query(
+      "SELECT cr FROM CheckResult cr WHERE cr.monitor.id = :monitorId AND cr.tenantId = :tenantId "
+          + "ORDER BY cr.checkedAt DESC, cr.id DESC")
+  List<CheckResult> findHistoryPage(
+      @Param("monitorId") Integer monitorId, @Param("tenantId") Integer tenantId, Limit limit);
+
+  /**
+   * Page of the check history of a monitor after the row (checkedAt, id). The redundant {@code
+   * checkedAt <= :checkedAt} bounds the range scan on the (monitor_id, checked_at, id) key.
+   */
+  @Query(
+      "SELECT cr FROM CheckResult cr WHERE cr.monitor.id = :monitorId AND cr.tenantId = :tenantId "
+          + "AND cr.checkedAt <= :checkedAt "
+          + "AND (cr.checkedAt < :checkedAt OR cr.id < :id) "
+          + "ORDER BY cr.checkedAt DESC, cr.id DESC")
+  List<CheckResult> findHistoryPageAfter(
+      @Param("monitorId") Integer monitorId,
+      @Param("tenantId") Integer tenantId,
+      @Param("checkedAt") LocalDateTime checkedAt,
+      @Param("id") Long id,
+      Limit limit);
 
-  List<CheckResult> findByMonitorIdAndTenantIdAndCheckedAtBetweenOrderByCheckedAtDesc(
-      Integer monitorId, Integer tenantId, LocalDateTime start, LocalDateTime end);
+  Optional<CheckResult> findTopByMonitorIdAndTenantIdOrderByCheckedAtDescIdDesc(
+      Integer monitorId, Integer tenantId);
 
   @Query(
       "SELECT cr FROM CheckResult cr WHERE cr.monitor.id = :monitorId "
-          + "AND cr.tenantId = :tenantId AND cr.checkedAt >= :since ORDER BY cr.checkedAt DESC")
+          + "AND cr.tenantId = :tenantId AND cr.checkedAt >= :since ORDER BY cr.checkedAt DESC, cr.id DESC")
   List<CheckResult> findRecentByMonitorIdAndTenantId(
       @Param("monitorId") Integer monitorId,
       @Param("tenantId") Integer tenantId,
       @Param("since") LocalDateTime since);
 
   @Query(
-      "SELECT COUNT(cr) FROM CheckResult cr WHERE cr.monitor.id = :monitorId "
-          + "AND cr.tenantId = :tenantId AND cr.checkedAt BETWEEN :start AND :end")
-  long countByMonitorIdAndTenantIdAndCheckedAtBetween(
+      "SELECT COUNT(cr) AS count, "
+          + "SUM(CASE WHEN cr.isUp = true THEN 1 ELSE 0 END) AS successfulCount, "
+          + "COUNT(CASE WHEN cr.isUp = true THEN cr.responseTimeMs END) AS responseTimeCount, "
+          + "SUM(CASE WHEN cr.isUp = true THEN cr.responseTimeMs END) AS responseTimeSum, "
+          + "MIN(CASE WHEN cr.isUp = true THEN cr.responseTimeMs END) AS minResponseTime, "
+          + "MAX(CASE WHEN cr.isUp = true THEN cr.responseTimeMs END) AS maxResponseTime "
+          + "FROM CheckResult cr WHERE cr.monitor.id = :monitorId AND cr.tenantId = :tenantId "
+          + "AND cr.checkedAt BETWEEN :start AND :end")
+  Aggregate aggregateByMonitorIdAndTenantIdAndCheckedAtBetween(
       @Param("monitorId") Integer monitorId,
       @Param("tenantId") Integer tenantId,
       @Param("start") LocalDateTime start,
       @Param("end") LocalDateTime end);
 
   @Query(
-      "SELECT COUNT(cr) FROM CheckResult cr WHERE cr.monitor.id = :monitorId "
-          + "AND cr.tenantId = :tenantId AND cr.isUp = true AND cr.checkedAt BETWEEN :start AND :end")
-  long countSuccessfulByMonitorIdAndTenantIdAndCheckedAtBetween(
+      "SELECT cr FROM CheckResult cr WHERE cr.monitor.id = :monitorId AND cr.tenantId = :tenantId "
+          + "AND cr.checkedAt BETWEEN :start AND :end ORDER BY cr.checkedAt ASC, cr.id ASC")
+  List<CheckResult> findInRange(
       @Param("monitorId") Integer monitorId,
       @Param("tenantId") Integer tenantId,
       @Param("start") LocalDateTime start,
       @Param("end") LocalDateTime end);
 
+  /** Same rows as {@link #findInRange}, projected and fetched in chunks. Needs a transaction. */
   @Query(
-      "SELECT AVG(cr.responseTimeMs) FROM CheckResult cr WHERE cr.monitor.id = :monitorId "
-          + "AND cr.tenantId = :tenantId AND cr.isUp = true AND cr.checkedAt BETWEEN :start AND :end")
-  Double averageResponseTimeByMonitorIdAndTenantIdAndCheckedAtBetween(
+      "SELECT new de.oglimmer.status_tacos.store.CheckSample(cr.checkedAt, cr.isUp, cr.responseTimeMs) "
+          + "FROM CheckResult cr WHERE cr.monitor.id = :monitorId AND cr.tenantId = :tenantId "
+          + "AND cr.checkedAt BETWEEN :start AND :end ORDER BY cr.checkedAt ASC, cr.id ASC")
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "2000"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<CheckSample> streamSamplesInRange(
       @Param("monitorId") Integer monitorId,
       @Param("tenantId") Integer tenantId,
       @Param("start") LocalDateTime start,
       @Param("end") LocalDateTime end);
 
   @Query(
-      "SELECT MIN(cr.responseTimeMs) FROM CheckResult cr WHERE cr.monitor.id = :monitorId "
-          + "AND cr.tenantId = :tenantId AND cr.isUp = true AND cr.checkedAt BETWEEN :start AND :end")
-  Integer minResponseTimeByMonitorIdAndTenantIdAndCheckedAtBetween(
+      "SELECT cr FROM CheckResult cr WHERE cr.monitor.id = :monitorId AND cr.tenantId = :tenantId "
+          + "AND cr.checkedAt >= :start AND cr.checkedAt < :end ORDER BY cr.checkedAt ASC, cr.id ASC")
+  List<CheckResult> findInWindow(
       @Param("monitorId") Integer monitorId,
       @Param("tenantId") Integer tenantId,
       @Param("start") LocalDateTime start,
       @Param("end") LocalDateTime end);
 
   @Query(
-      "SELECT MAX(cr.responseTimeMs) FROM CheckResult cr WHERE cr.monitor.id = :monitorId "
-          + "AND cr.tenantId = :tenantId AND cr.isUp = true AND cr.checkedAt BETWEEN :start AND :end")
-  Integer maxResponseTimeByMonitorIdAndTenantIdAndCheckedAtBetween(
+      "SELECT MIN(cr.checkedAt) FROM CheckResult cr WHERE cr.monitor.id = :monitorId "
+          + "AND cr.tenantId = :tenantId AND cr.checkedAt < :before")
+  LocalDateTime findOldestCheckedAtBefore(
       @Param("monitorId") Integer monitorId,
       @Param("tenantId") Integer tenantId,
-      @Param("start") LocalDateTime start,
-      @Param("end") LocalDateTime end);
+      @Param("before") LocalDateTime before);
 
-  @Query(
-      "SELECT cr.responseTimeMs FROM CheckResult cr WHERE cr.monitor.id = :monitorId "
-          + "AND cr.tenantId = :tenantId AND cr.isUp = true AND cr.responseTimeMs IS NOT NULL "
-          + "AND cr.checkedAt BETWEEN :start AND :end ORDER BY cr.responseTimeMs")
-  List<Integer> findResponseTimesByMonitorIdAndTenantIdAndCheckedAtBetween(
-      @Param("monitorId") Integer monitorId,
-      @Param("tenantId") Integer tenantId,
-      @Param("start") LocalDateTime start,
-      @Param("end") LocalDateTime end);
-
-  List<CheckResult> findByMonitorIdAndTenantIdAndCheckedAtBetweenOrderByCheckedAtAsc(
-      Integer monitorId, Integer tenantId, LocalDateTime start, LocalDateTime end);
-
-  void deleteByTenantIdAndCheckedAtBefore(Integer tenantId, LocalDateTime cutoffDate);
+  @Modifying
+  @Query("DELETE FROM CheckResult cr WHERE cr.tenantId = :tenantId AND cr.checkedAt < :cutoff")
+  int deleteByTenantIdAndCheckedAtBefore(
+      @Param("tenantId") Integer tenantId, @Param("cutoff") LocalDateTime cutoff);
 
   @Query(
-      "SELECT cr FROM CheckResult cr WHERE cr.tenantId = :tenantId AND cr.isUp = false ORDER BY cr.checkedAt DESC")
+      "SELECT cr FROM CheckResult cr WHERE cr.tenantId = :tenantId AND cr.isUp = false ORDER BY cr.checkedAt DESC, cr.id DESC")
   Page<CheckResult> findFailedChecksByTenantId(
       @Param("tenantId") Integer tenantId, Pageable pageable);
+
+  /** First page of the failed checks of a set of tenants, latest first. */
+  @Query(
+      "SELECT cr FROM CheckResult cr JOIN FETCH cr.monitor "
+          + "WHERE cr.tenantId IN :tenantIds AND cr.isUp = false "
+          + "ORDER BY cr.checkedAt DESC, cr.id DESC")
+  List<CheckResult> findFailedChecksPage(@Param("tenantIds") Set<Integer> tenantIds, Limit limit);
+
+  /** Page of the failed checks of a set of tenants after the row (checkedAt, id). */
+  @Query(
+      "SELECT cr FROM CheckResult cr JOIN FETCH cr.monitor "
+          + "WHERE cr.tenantId IN :tenantIds AND cr.isUp = false AND cr.checkedAt <= :checkedAt "
+          + "AND (cr.checkedAt < :checkedAt OR cr.id < :id) "
+          + "ORDER BY cr.checkedAt DESC, cr.id DESC")
+  List<CheckResult> findFailedChecksPageAfter(
+      @Param("tenantIds") Set<Integer> tenantIds,
+      @Param("checkedAt") LocalDateTime checkedAt,
+      @Param("id") Long id,
+      Limit limit);
+
+  interface Aggregate {
+    Long getCount();
+
+    Long getSuccessfulCount();
+
+    Long getResponseTimeCount();
+
+    Long getResponseTimeSum();
+
+    Integer getMinResponseTime();
+
+    Integer getMaxResponseTime();
+  }
 }
@@ -0,0 +1,73 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.repository;
+
+import de.oglimmer.status_tacos.persistence.CheckResultRollup;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CheckResultRollupRepository extends JpaRepository<CheckResultRollup, Long> {
+
+  @Query(
+      "SELECT r FROM CheckResultRollup r WHERE r.monitor.id = :monitorId AND r.tenantId = :tenantId "
+          + "AND r.resolution = :resolution AND r.bucketStart BETWEEN :start AND :end "
+          + "ORDER BY r.bucketStart ASC")
+  List<CheckResultRollup> findByBucketStartBetween(
+      @Param("monitorId") Integer monitorId,
+      @Param("tenantId") Integer tenantId,
+      @Param("resolution") CheckResultRollup.Resolution resolution,
+      @Param("start") LocalDateTime start,
+      @Param("end") LocalDateTime end);
+
+  @Query(
+      "SELECT SUM(r.checkCount) AS count, SUM(r.successfulChecks) AS successfulCount, "
+          + "SUM(r.responseTimeCount) AS responseTimeCount, "
+          + "SUM(r.responseTimeSumMs) AS responseTimeSum, "
+          + "MIN(r.minResponseTimeMs) AS minResponseTime, "
+          + "MAX(r.maxResponseTimeMs) AS maxResponseTime "
+          + "FROM CheckResultRollup r WHERE r.monitor.id = :monitorId AND r.tenantId = :tenantId "
+          + "AND r.resolution = :resolution AND r.bucketStart BETWEEN :start AND :end")
+  CheckResultRepository.Aggregate aggregateByBucketStartBetween(
+      @Param("monitorId") Integer monitorId,
+      @Param("tenantId") Integer tenantId,
+      @Param("resolution") CheckResultRollup.Resolution resolution,
+      @Param("start") LocalDateTime start,
+      @Param("end") LocalDateTime end);
+
+  @Query(
+      "SELECT MIN(r.bucketStart) FROM CheckResultRollup r "
+          + "WHERE r.monitor.id = :monitorId AND r.resolution = :resolution")
+  LocalDateTime findFirstBucketStart(
+      @Param("monitorId") Integer monitorId,
+      @Param("resolution") CheckResultRollup.Resolution resolution);
+
+  @Query(
+      "SELECT MAX(r.bucketStart) FROM CheckResultRollup r "
+          + "WHERE r.monitor.id = :monitorId AND r.resolution = :resolution")
+  LocalDateTime findLastBucketStart(
+      @Param("monitorId") Integer monitorId,
+      @Param("resolution") CheckResultRollup.Resolution resolution);
+
+  @Modifying
+  @Query(
+      "DELETE FROM CheckResultRollup r WHERE r.monitor.id = :monitorId "
+          + "AND r.bucketStart >= :start AND r.bucketStart < :end")
+  int deleteByMonitorIdAndBucketStartBetween(
+      @Param("monitorId") Integer monitorId,
+      @Param("start") LocalDateTime start,
+      @Param("end") LocalDateTime end);
+
+  @Modifying
+  @Query(
+      "DELETE FROM CheckResultRollup r WHERE r.tenantId = :tenantId "
+          + "AND r.resolution = :resolution AND r.bucketStart < :cutoff")
+  int deleteByTenantIdAndResolutionAndBucketStartBefore(
+      @Param("tenantId") Integer tenantId,
+      @Param("resolution") CheckResultRollup.Resolution resolution,
+      @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,44 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.repository;
+
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CheckResultRunRepository extends JpaRepository<CheckResultRun, Long> {
+
+  @Query(
+      "SELECT r FROM CheckResultRun r WHERE r.monitor.id = :monitorId AND r.tenantId = :tenantId "
+          + "AND r.runStart BETWEEN :start AND :end ORDER BY r.runStart ASC")
+  List<CheckResultRun> findByRunStartBetween(
+      @Param("monitorId") Integer monitorId,
+      @Param("tenantId") Integer tenantId,
+      @Param("start") LocalDateTime start,
+      @Param("end") LocalDateTime end);
+
+  @Query(
+      "SELECT SUM(r.checkCount) AS count, "
+          + "SUM(CASE WHEN r.isUp = true THEN r.checkCount ELSE 0 END) AS successfulCount, "
+          + "SUM(CASE WHEN r.isUp = true THEN r.responseTimeCount ELSE 0 END) AS responseTimeCount, "
+          + "SUM(CASE WHEN r.isUp = true THEN r.responseTimeSumMs ELSE 0 END) AS responseTimeSum, "
+          + "MIN(CASE WHEN r.isUp = true THEN r.minResponseTimeMs END) AS minResponseTime, "
+          + "MAX(CASE WHEN r.isUp = true THEN r.maxResponseTimeMs END) AS maxResponseTime "
+          + "FROM CheckResultRun r WHERE r.monitor.id = :monitorId AND r.tenantId = :tenantId "
+          + "AND r.runStart BETWEEN :start AND :end")
+  CheckResultRepository.Aggregate aggregateByRunStartBetween(
+      @Param("monitorId") Integer monitorId,
+      @Param("tenantId") Integer tenantId,
+      @Param("start") LocalDateTime start,
+      @Param("end") LocalDateTime end);
+
+  @Modifying
+  @Query("DELETE FROM CheckResultRun r WHERE r.tenantId = :tenantId AND r.runEnd < :cutoff")
+  int deleteByTenantIdAndRunEndBefore(
+      @Param("tenantId") Integer tenantId, @Param("cutoff") LocalDateTime cutoff);
+}
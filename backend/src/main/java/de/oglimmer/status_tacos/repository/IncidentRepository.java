@@ -0,0 +1,68 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.repository;
+
+import de.oglimmer.status_tacos.persistence.Incident;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IncidentRepository extends JpaRepository<Incident, Long> {
+
+  @Query("SELECT i FROM Incident i WHERE i.monitor.id = :monitorId AND i.endedAt IS NULL")
+  Optional<Incident> findOpenByMonitorId(@Param("monitorId") Integer monitorId);
+
+  /** Counts one more failed check for the open incident of the monitor, if there is one. */
+  @Modifying
+  @Query(
+      "UPDATE Incident i SET i.checkCount = i.checkCount + 1 "
+          + "WHERE i.monitor.id = :monitorId AND i.endedAt IS NULL")
+  int incrementOpenCheckCount(@Param("monitorId") Integer monitorId);
+
+  @Modifying
+  @Query(
+      "UPDATE Incident i SET i.endedAt = :endedAt "
+          + "WHERE i.monitor.id = :monitorId AND i.endedAt IS NULL")
+  int closeOpen(@Param("monitorId") Integer monitorId, @Param("endedAt") LocalDateTime endedAt);
+
+  /** Incidents overlapping [start, end], an open incident overlaps everything after its start. */
+  @Query(
+      "SELECT i FROM Incident i WHERE i.monitor.id = :monitorId AND i.tenantId = :tenantId "
+          + "AND i.startedAt <= :end AND (i.endedAt IS NULL OR i.endedAt >= :start) "
+          + "ORDER BY i.startedAt ASC")
+  List<Incident> findOverlapping(
+      @Param("monitorId") Integer monitorId,
+      @Param("tenantId") Integer tenantId,
+      @Param("start") LocalDateTime start,
+      @Param("end") LocalDateTime end);
+
+  @Query(
+      "SELECT i FROM Incident i JOIN FETCH i.monitor WHERE i.monitor.id = :monitorId "
+          + "AND i.tenantId = :tenantId ORDER BY i.startedAt DESC")
+  List<Incident> findByMonitorIdAndTenantId(
+      @Param("monitorId") Integer monitorId,
+      @Param("tenantId") Integer tenantId,
+      Pageable pageable);
+
+  @Query(
+      "SELECT i FROM Incident i JOIN FETCH i.monitor WHERE i.tenantId IN :tenantIds "
+          + "ORDER BY i.startedAt DESC")
+  List<Incident> findByTenantIds(@Param("tenantIds") Set<Integer> tenantIds, Pageable pageable);
+
+  @Query(
+      "SELECT i FROM Incident i WHERE i.monitor.id = :monitorId "
+          + "ORDER BY i.startedAt ASC LIMIT 1")
+  Optional<Incident> findEarliestByMonitorId(@Param("monitorId") Integer monitorId);
+
+  @Modifying
+  @Query("DELETE FROM Incident i WHERE i.tenantId = :tenantId AND i.endedAt < :cutoff")
+  int deleteByTenantIdAndEndedAtBefore(
+      @Param("tenantId") Integer tenantId, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -6,6 +6,9 @@ import de.oglimmer.status_tacos.persistence.MonitorState;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -19,6 +22,8 @@ public interface MonitorRepository extends JpaRepository<Monitor, Integer> {
   List<Monitor> findByTenantIdAndState(
       @Param("tenantId") Integer tenantId, @Param("state") MonitorState state);
 
+  List<Monitor> findByState(MonitorState state);
+
   // Legacy method for backward compatibility
   @Query(
       "SELECT m FROM Monitor m JOIN FETCH m.tenant WHERE m.tenantId = :tenantId AND m.state = 'ACTIVE'")
@@ -27,10 +32,24 @@ public interface MonitorRepository extends JpaRepository<Monitor, Integer> {
   @Query("SELECT m FROM Monitor m JOIN FETCH m.tenant WHERE m.tenantId = :tenantId")
   List<Monitor> findByTenantId(@Param("tenantId") Integer tenantId);
 
+  Page<Monitor> findByTenantId(Integer tenantId, Pageable pageable);
+
+  /** Page of the monitors of a set of tenants with an id greater than afterId, by id. */
+  @Query(
+      "SELECT m FROM Monitor m JOIN FETCH m.tenant WHERE m.tenantId IN :tenantIds AND m.id > :afterId "
+          + "ORDER BY m.id ASC")
+  List<Monitor> findPageAfter(
+      @Param("tenantIds") Set<Integer> tenantIds, @Param("afterId") Integer afterId, Limit limit);
+
   @Query("SELECT m FROM Monitor m JOIN FETCH m.tenant WHERE m.id = :id AND m.tenantId = :tenantId")
   Optional<Monitor> findByIdAndTenantId(
       @Param("id") Integer id, @Param("tenantId") Integer tenantId);
 
+  @Query(
+      "SELECT m FROM Monitor m JOIN FETCH m.tenant WHERE m.id = :id AND m.tenantId IN :tenantIds")
+  Optional<Monitor> findByIdAndTenantIdIn(
+      @Param("id") Integer id, @Param("tenantIds") Set<Integer> tenantIds);
+
   Optional<Monitor> findByIdAndTenantIdAndState(Integer id, Integer tenantId, MonitorState state);
 
   @Query(
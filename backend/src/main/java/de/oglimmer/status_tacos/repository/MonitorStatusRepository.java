@@ -4,6 +4,7 @@ package de.oglimmer.status_tacos.repository;
 import de.oglimmer.status_tacos.persistence.MonitorStatus;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -24,6 +25,11 @@ public interface MonitorStatusRepository extends JpaRepository<MonitorStatus, In
       "SELECT ms FROM MonitorStatus ms JOIN FETCH ms.monitor m JOIN FETCH m.tenant WHERE ms.tenantId = :tenantId AND m.state IN ('ACTIVE', 'SILENT')")
   List<MonitorStatus> findAllActiveMonitorStatusesByTenantId(@Param("tenantId") Integer tenantId);
 
+  @Query(
+      "SELECT ms FROM MonitorStatus ms JOIN FETCH ms.monitor m JOIN FETCH m.tenant WHERE ms.tenantId IN :tenantIds AND m.state IN ('ACTIVE', 'SILENT')")
+  List<MonitorStatus> findAllActiveMonitorStatusesByTenantIdIn(
+      @Param("tenantIds") Set<Integer> tenantIds);
+
   @Query(
       "SELECT ms FROM MonitorStatus ms JOIN FETCH ms.monitor m JOIN FETCH m.tenant WHERE ms.tenantId = :tenantId AND m.state = 'ACTIVE' "
           + "AND ms.currentStatus = :status")
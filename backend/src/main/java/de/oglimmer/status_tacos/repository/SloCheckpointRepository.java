@@ -0,0 +1,9 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.repository;
+
+import de.oglimmer.status_tacos.persistence.SloCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SloCheckpointRepository extends JpaRepository<SloCheckpoint, Integer> {}
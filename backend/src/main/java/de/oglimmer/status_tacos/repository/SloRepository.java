@@ -0,0 +1,31 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.repository;
+
+import de.oglimmer.status_tacos.persistence.Slo;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SloRepository extends JpaRepository<Slo, Integer> {
+
+  @Query("SELECT s FROM Slo s JOIN FETCH s.monitor WHERE s.tenantId IN :tenantIds ORDER BY s.id")
+  List<Slo> findByTenantIds(@Param("tenantIds") Set<Integer> tenantIds);
+
+  @Query(
+      "SELECT s FROM Slo s JOIN FETCH s.monitor WHERE s.monitor.id = :monitorId"
+          + " AND s.tenantId = :tenantId ORDER BY s.id")
+  List<Slo> findByMonitorIdAndTenantId(
+      @Param("monitorId") Integer monitorId, @Param("tenantId") Integer tenantId);
+
+  @Query("SELECT s FROM Slo s JOIN FETCH s.monitor WHERE s.id = :id AND s.tenantId IN :tenantIds")
+  Optional<Slo> findByIdAndTenantIdIn(
+      @Param("id") Integer id, @Param("tenantIds") Set<Integer> tenantIds);
+
+  @Query("SELECT s FROM Slo s JOIN FETCH s.monitor")
+  List<Slo> findAllWithMonitor();
+}
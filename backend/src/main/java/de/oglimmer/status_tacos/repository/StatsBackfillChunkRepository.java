@@ -0,0 +1,26 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.repository;
+
+import de.oglimmer.status_tacos.persistence.StatsBackfillChunk;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StatsBackfillChunkRepository extends JpaRepository<StatsBackfillChunk, Long> {
+
+  @Query(
+      "SELECT c FROM StatsBackfillChunk c WHERE c.jobId = :jobId AND c.status <> 'completed' "
+          + "ORDER BY c.monitorId ASC, c.chunkStart ASC")
+  List<StatsBackfillChunk> findOpenByJobId(@Param("jobId") Long jobId);
+
+  /** Failed chunks are run again by a resumed job. */
+  @Modifying
+  @Query(
+      "UPDATE StatsBackfillChunk c SET c.status = 'pending', c.errorMessage = NULL "
+          + "WHERE c.jobId = :jobId AND c.status = 'failed'")
+  int resetFailed(@Param("jobId") Long jobId);
+}
@@ -0,0 +1,30 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.repository;
+
+import de.oglimmer.status_tacos.persistence.StatsBackfillJob;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StatsBackfillJobRepository extends JpaRepository<StatsBackfillJob, Long> {
+
+  List<StatsBackfillJob> findByTenantIdInOrderByIdDesc(Set<Integer> tenantIds);
+
+  Optional<StatsBackfillJob> findByIdAndTenantIdIn(Long id, Set<Integer> tenantIds);
+
+  List<StatsBackfillJob> findByStatus(StatsBackfillJob.JobStatus status);
+
+  @Modifying
+  @Query("UPDATE StatsBackfillJob j SET j.completedChunks = j.completedChunks + 1 WHERE j.id = :id")
+  int incrementCompletedChunks(@Param("id") Long id);
+
+  @Modifying
+  @Query("UPDATE StatsBackfillJob j SET j.failedChunks = j.failedChunks + 1 WHERE j.id = :id")
+  int incrementFailedChunks(@Param("id") Long id);
+}
@@ -0,0 +1,46 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.repository;
+
+import de.oglimmer.status_tacos.persistence.UptimeDailyAggregate;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UptimeDailyAggregateRepository extends JpaRepository<UptimeDailyAggregate, Long> {
+
+  @Query(
+      "SELECT d FROM UptimeDailyAggregate d WHERE d.monitor.id = :monitorId "
+          + "AND d.tenantId = :tenantId AND d.day BETWEEN :firstDay AND :lastDay ORDER BY d.day ASC")
+  List<UptimeDailyAggregate> findByDayBetween(
+      @Param("monitorId") Integer monitorId,
+      @Param("tenantId") Integer tenantId,
+      @Param("firstDay") LocalDate firstDay,
+      @Param("lastDay") LocalDate lastDay);
+
+  @Query(
+      "SELECT MAX(d.foldedUntil) FROM UptimeDailyAggregate d WHERE d.monitor.id = :monitorId "
+          + "AND d.tenantId = :tenantId")
+  Optional<LocalDateTime> findFoldedUntil(
+      @Param("monitorId") Integer monitorId, @Param("tenantId") Integer tenantId);
+
+  @Modifying
+  @Query(
+      "DELETE FROM UptimeDailyAggregate d WHERE d.monitor.id = :monitorId "
+          + "AND d.tenantId = :tenantId AND d.day >= :firstDay")
+  int deleteFromDay(
+      @Param("monitorId") Integer monitorId,
+      @Param("tenantId") Integer tenantId,
+      @Param("firstDay") LocalDate firstDay);
+
+  @Modifying
+  @Query("DELETE FROM UptimeDailyAggregate d WHERE d.tenantId = :tenantId AND d.day < :cutoff")
+  int deleteByTenantIdAndDayBefore(
+      @Param("tenantId") Integer tenantId, @Param("cutoff") LocalDate cutoff);
+}
@@ -5,6 +5,7 @@ import de.oglimmer.status_tacos.persistence.UptimeStats;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -23,6 +24,31 @@ public interface UptimeStatsRepository extends JpaRepository<UptimeStats, Long>
   List<UptimeStats> findByMonitorIdAndTenantIdOrderByPeriodTypeAsc(
       @Param("monitorId") Integer monitorId, @Param("tenantId") Integer tenantId);
 
+  /** The most recent stats of every period of every monitor of a tenant. */
+  @Query(
+      "SELECT us FROM UptimeStats us JOIN FETCH us.monitor JOIN FETCH us.tenant "
+          + "WHERE us.tenantId = :tenantId AND us.periodStart = "
+          + "(SELECT MAX(latest.periodStart) FROM UptimeStats latest "
+          + "WHERE latest.monitor = us.monitor AND latest.periodType = us.periodType) "
+          + "ORDER BY us.monitor.id, us.periodType")
+  List<UptimeStats> findLatestByTenantId(@Param("tenantId") Integer tenantId);
+
+  @Query(
+      "SELECT us FROM UptimeStats us JOIN FETCH us.monitor JOIN FETCH us.tenant "
+          + "WHERE us.monitor.id = :monitorId AND us.tenantId IN :tenantIds "
+          + "ORDER BY us.periodType ASC")
+  List<UptimeStats> findByMonitorIdAndTenantIdInOrderByPeriodTypeAsc(
+      @Param("monitorId") Integer monitorId, @Param("tenantIds") Set<Integer> tenantIds);
+
+  @Query(
+      "SELECT us FROM UptimeStats us JOIN FETCH us.monitor JOIN FETCH us.tenant "
+          + "WHERE us.monitor.id = :monitorId AND us.tenantId IN :tenantIds AND us.periodType = :periodType "
+          + "ORDER BY us.periodStart DESC")
+  List<UptimeStats> findByMonitorIdAndTenantIdInAndPeriodTypeOrderByPeriodStartDesc(
+      @Param("monitorId") Integer monitorId,
+      @Param("tenantIds") Set<Integer> tenantIds,
+      @Param("periodType") UptimeStats.PeriodType periodType);
+
   @Query(
       "SELECT us FROM UptimeStats us JOIN FETCH us.monitor JOIN FETCH us.tenant "
           + "WHERE us.monitor.id = :monitorId AND us.tenantId = :tenantId AND us.periodType = :periodType "
@@ -0,0 +1,231 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import de.oglimmer.status_tacos.persistence.CheckResultBlock;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.repository.CheckResultBlockRepository;
+import de.oglimmer.status_tacos.repository.CheckResultRepository;
+import de.oglimmer.status_tacos.store.CheckResultAggregate;
+import de.oglimmer.status_tacos.store.CheckResultBlockCodec;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Seals closed one-day windows of raw check results into compressed {@link CheckResultBlock}s and
+ * serves the sealed data back to the query layer.
+ */
+@Service
+@Slf4j
+public class CheckResultBlockService {
+
+  private final CheckResultBlockRepository checkResultBlockRepository;
+  private final CheckResultRepository checkResultRepository;
+  private final MonitorService monitorService;
+  private final CheckResultBlockService self;
+
+  @Value("${monitor.storage.blocks.hot-days:2}")
+  private int hotDays;
+
+  public CheckResultBlockService(
+      CheckResultBlockRepository checkResultBlockRepository,
+      CheckResultRepository checkResultRepository,
+      MonitorService monitorService,
+      @Lazy CheckResultBlockService self) {
+    this.checkResultBlockRepository = checkResultBlockRepository;
+    this.checkResultRepository = checkResultRepository;
+    this.monitorService = monitorService;
+    this.self = self;
+  }
+
+  /**
+   * Seals every closed day older than the hot window for all monitors of a tenant.
+   *
+   * @return the number of blocks written
+   */
+  public int sealClosedWindows(Integer tenantId) {
+    // the 24h view must always be served from hot rows, so keep at least one full day raw
+    LocalDateTime sealBefore = LocalDate.now().minusDays(Math.max(1, hotDays)).atStartOfDay();
+    log.debug("Sealing check results before {} for tenant {}", sealBefore, tenantId);
+
+    int sealed = 0;
+    for (Monitor monitor : monitorService.getAllMonitors(tenantId)) {
+      try {
+        sealed += sealMonitor(tenantId, monitor, sealBefore);
+      } catch (Exception e) {
+        log.error(
+            "Failed to seal check result blocks for monitor {}: {}",
+            monitor.getId(),
+            e.getMessage(),
+            e);
+      }
+    }
+    return sealed;
+  }
+
+  private int sealMonitor(Integer tenantId, Monitor monitor, LocalDateTime sealBefore) {
+    LocalDateTime oldest =
+        checkResultRepository.findOldestCheckedAtBefore(monitor.getId(), tenantId, sealBefore);
+    if (oldest == null) {
+      return 0;
+    }
+
+    int sealed = 0;
+    for (LocalDateTime windowStart = oldest.toLocalDate().atStartOfDay();
+        windowStart.isBefore(sealBefore);
+        windowStart = windowStart.plusDays(1)) {
+      if (self.sealWindow(tenantId, monitor, windowStart, windowStart.plusDays(1))) {
+        sealed++;
+      }
+    }
+    return sealed;
+  }
+
+  /**
+   * Moves all raw rows of [windowStart, windowEnd) into the block of that window. Rows that arrive
+   * after a window was sealed are merged into the existing block on the next run.
+   */
+  @Transactional
+  public boolean sealWindow(
+      Integer tenantId, Monitor monitor, LocalDateTime windowStart, LocalDateTime windowEnd) {
+    List<CheckResult> rows =
+        checkResultRepository.findInWindow(monitor.getId(), tenantId, windowStart, windowEnd);
+    if (rows.isEmpty()) {
+      return false;
+    }
+
+    Optional<CheckResultBlock> existing =
+        checkResultBlockRepository.findByMonitorIdAndTenantIdAndBlockStart(
+            monitor.getId(), tenantId, windowStart);
+
+    List<CheckResult> results = new ArrayList<>(rows);
+    existing.ifPresent(block -> results.addAll(CheckResultBlockCodec.decode(block.getPayload())));
+    results.sort(Comparator.comparing(CheckResult::getCheckedAt));
+
+    CheckResultBlock block =
+        existing.orElseGet(
+            () ->
+                CheckResultBlock.builder()
+                    .monitor(monitor)
+                    .tenantId(tenantId)
+                    .blockStart(windowStart)
+                    .blockEnd(windowEnd)
+                    .build());
+
+    CheckResultAggregate aggregate = CheckResultAggregate.EMPTY;
+    for (CheckResult result : results) {
+      aggregate = aggregate.plus(result);
+    }
+    block.setCheckCount((int) aggregate.count());
+    block.setSuccessfulChecks((int) aggregate.successfulCount());
+    block.setResponseTimeCount((int) aggregate.responseTimeCount());
+    block.setResponseTimeSumMs(aggregate.responseTimeSum());
+    block.setMinResponseTimeMs(aggregate.minResponseTime());
+    block.setMaxResponseTimeMs(aggregate.maxResponseTime());
+    block.setPayload(CheckResultBlockCodec.encode(results));
+    block.setSealedAt(LocalDateTime.now());
+    checkResultBlockRepository.save(block);
+
+    checkResultRepository.deleteAllByIdInBatch(rows.stream().map(CheckResult::getId).toList());
+
+    log.debug(
+        "Sealed {} check results of monitor {} for window {} into {} bytes",
+        results.size(),
+        monitor.getId(),
+        windowStart,
+        block.getPayload().length);
+    return true;
+  }
+
+  /** Returns the sealed check results with checkedAt in [start, end], ascending. */
+  @Transactional(readOnly = true)
+  public List<CheckResult> findSealedResults(
+      Integer tenantId, Integer monitorId, LocalDateTime start, LocalDateTime end) {
+    List<CheckResultBlock> blocks =
+        checkResultBlockRepository.findOverlapping(monitorId, tenantId, start, end);
+    if (blocks.isEmpty()) {
+      return List.of();
+    }
+
+    List<CheckResult> results = new ArrayList<>();
+    for (CheckResultBlock block : blocks) {
+      for (CheckResult result : decode(block)) {
+        if (isWithin(result.getCheckedAt(), start, end)) {
+          results.add(result);
+        }
+      }
+    }
+    return results;
+  }
+
+  /** Returns the blocks overlapping [start, end], ascending; decode them with {@link #decode}. */
+  @Transactional(readOnly = true)
+  public List<CheckResultBlock> findOverlappingBlocks(
+      Integer tenantId, Integer monitorId, LocalDateTime start, LocalDateTime end) {
+    return checkResultBlockRepository.findOverlapping(monitorId, tenantId, start, end);
+  }
+
+  /**
+   * Aggregates the sealed check results with checkedAt in [start, end]. Blocks fully inside the
+   * range are answered from their header, only the edge blocks are decoded.
+   */
+  @Transactional(readOnly = true)
+  public CheckResultAggregate aggregate(
+      Integer tenantId, Integer monitorId, LocalDateTime start, LocalDateTime end) {
+    List<CheckResultBlock> blocks =
+        checkResultBlockRepository.findOverlapping(monitorId, tenantId, start, end);
+
+    CheckResultAggregate aggregate = CheckResultAggregate.EMPTY;
+    for (CheckResultBlock block : blocks) {
+      if (!block.getBlockStart().isBefore(start) && !block.getBlockEnd().isAfter(end)) {
+        aggregate = aggregate.plus(toAggregate(block));
+      } else {
+        for (CheckResult result : decode(block)) {
+          if (isWithin(result.getCheckedAt(), start, end)) {
+            aggregate = aggregate.plus(result);
+          }
+        }
+      }
+    }
+    return aggregate;
+  }
+
+  @Transactional
+  public void cleanupOldBlocks(Integer tenantId, LocalDateTime cutoffDate) {
+    int deleted =
+        checkResultBlockRepository.deleteByTenantIdAndBlockEndNotAfter(tenantId, cutoffDate);
+    log.info("Deleted {} check result blocks older than {}", deleted, cutoffDate);
+  }
+
+  public List<CheckResult> decode(CheckResultBlock block) {
+    List<CheckResult> results = CheckResultBlockCodec.decode(block.getPayload());
+    for (CheckResult result : results) {
+      result.setMonitor(block.getMonitor());
+      result.setTenantId(block.getTenantId());
+    }
+    return results;
+  }
+
+  private static CheckResultAggregate toAggregate(CheckResultBlock block) {
+    return new CheckResultAggregate(
+        block.getCheckCount(),
+        block.getSuccessfulChecks(),
+        block.getResponseTimeCount(),
+        block.getResponseTimeSumMs(),
+        block.getMinResponseTimeMs(),
+        block.getMaxResponseTimeMs());
+  }
+
+  private static boolean isWithin(LocalDateTime time, LocalDateTime start, LocalDateTime end) {
+    return !time.isBefore(start) && !time.isAfter(end);
+  }
+}
@@ -0,0 +1,301 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Streams the raw check results of a tenant as NDJSON or CSV. Rows are read with a server side
+ * cursor in chunks of {@code monitor.export.fetch-size} and written to the output as they arrive,
+ * so memory stays constant however large the range is.
+ *
+ * <p>Exports use a pool of their own with at most {@code monitor.export.max-concurrent}
+ * connections, so long running exports can't take connections from the checker. The connections are
+ * read only and READ COMMITTED, so an export doesn't pin an old snapshot for its whole run.
+ *
+ * <p>Exports read the full rows of {@code check_results} only. Checks sealed into blocks, folded
+ * into the runs of change-only mode or written by the file store aren't there, so the export is
+ * refused while any of these is configured, see {@link #isSupported()}. Blocks or runs left from a
+ * mode that was enabled earlier aren't exported either.
+ */
+@Service
+@Slf4j
+public class CheckResultExportService {
+
+  public enum Format {
+    NDJSON,
+    CSV
+  }
+
+  /** A check result as exported. */
+  public record Row(
+      Long id,
+      Integer monitorId,
+      String monitorName,
+      LocalDateTime checkedAt,
+      Integer statusCode,
+      Integer responseTimeMs,
+      Boolean isUp,
+      String errorMessage) {}
+
+  static final String CSV_HEADER =
+      "id,monitor_id,monitor_name,checked_at,status_code,response_time_ms,is_up,error_message";
+
+  // ordered like idx_check_tenant_time, which ends with the primary key (monitor_id, checked_at,
+  // id), so the rows come from the index in order and aren't sorted first
+  private static final String EXPORT_SQL =
+      "SELECT id, monitor_id, checked_at, status_code, response_time_ms, is_up, error_message "
+          + "FROM check_results WHERE tenant_id = ? AND checked_at BETWEEN ? AND ? ";
+  private static final String ORDER_BY = "ORDER BY checked_at, monitor_id, id";
+
+  private final HikariDataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final Semaphore slots;
+  private final boolean supported;
+
+  public CheckResultExportService(
+      DataSourceProperties dataSourceProperties,
+      ObjectMapper objectMapper,
+      @Value("${monitor.export.max-concurrent:2}") int maxConcurrent,
+      @Value("${monitor.export.fetch-size:1000}") int fetchSize,
+      @Value("${monitor.storage.type:jpa}") String storageType,
+      @Value("${monitor.storage.change-only.enabled:false}") boolean changeOnly,
+      @Value("${monitor.storage.blocks.enabled:false}") boolean blocks) {
+    this.objectMapper = objectMapper;
+    this.slots = new Semaphore(maxConcurrent);
+    this.supported = "jpa".equals(storageType) && !changeOnly && !blocks;
+
+    // not a bean, a second DataSource bean would turn off the auto-configured one
+    this.dataSource =
+        dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("export");
+    dataSource.setMaximumPoolSize(maxConcurrent);
+    dataSource.setMinimumIdle(0);
+    dataSource.setReadOnly(true);
+    dataSource.setTransactionIsolation("TRANSACTION_READ_COMMITTED");
+
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.setFetchSize(fetchSize);
+  }
+
+  @PreDestroy
+  public void close() {
+    dataSource.close();
+  }
+
+  /**
+   * Whether every check is a full row of {@code check_results}, so an export is complete: the jpa
+   * store without change-only mode and blocks.
+   */
+  public boolean isSupported() {
+    return supported;
+  }
+
+  /**
+   * Reserves one of the export slots; false if all are in use. A reserved slot must be returned
+   * with {@link #release()}.
+   */
+  public boolean tryAcquire() {
+    return slots.tryAcquire();
+  }
+
+  public void release() {
+    slots.release();
+  }
+
+  /**
+   * Writes the check results of a tenant with checkedAt in [from, to] to the output, ascending,
+   * optionally of one monitor only. Doesn't close the output.
+   */
+  public long export(
+      Integer tenantId,
+      Integer monitorId,
+      LocalDateTime from,
+      LocalDateTime to,
+      Format format,
+      boolean gzip,
+      OutputStream output)
+      throws IOException {
+    log.info(
+        "Exporting check results of tenant {} monitor {} from {} to {} as {}",
+        tenantId,
+        monitorId,
+        from,
+        to,
+        format);
+    long startTime = System.currentTimeMillis();
+
+    Map<Integer, String> monitorNames = new HashMap<>();
+    jdbcTemplate.query(
+        "SELECT id, name FROM monitors WHERE tenant_id = ?",
+        (RowCallbackHandler) rs -> monitorNames.put(rs.getInt(1), rs.getString(2)),
+        tenantId);
+
+    GZIPOutputStream gzipOutput = gzip ? new GZIPOutputStream(output, 65536) : null;
+    OutputStream target = new BufferedOutputStream(gzipOutput != null ? gzipOutput : output, 65536);
+    RowWriter writer =
+        format == Format.CSV ? new CsvRowWriter(target) : new NdjsonRowWriter(target);
+
+    String sql = EXPORT_SQL;
+    List<Object> args = new ArrayList<>(List.of(tenantId, from, to));
+    if (monitorId != null) {
+      sql += "AND monitor_id = ? ";
+      args.add(monitorId);
+    }
+    long[] count = new long[1];
+    try {
+      jdbcTemplate.query(
+          sql + ORDER_BY,
+          (RowCallbackHandler)
+              rs -> {
+                try {
+                  writer.write(toRow(rs, monitorNames));
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+                count[0]++;
+              },
+          args.toArray());
+    } catch (UncheckedIOException e) {
+      // the client went away, the cursor is closed by now
+      throw e.getCause();
+    }
+    writer.flush();
+    if (gzipOutput != null) {
+      gzipOutput.finish();
+    }
+    output.flush();
+
+    log.info(
+        "Exported {} check results of tenant {} in {}ms",
+        count[0],
+        tenantId,
+        System.currentTimeMillis() - startTime);
+    return count[0];
+  }
+
+  private static Row toRow(ResultSet rs, Map<Integer, String> monitorNames) throws SQLException {
+    int monitorId = rs.getInt("monitor_id");
+    return new Row(
+        rs.getLong("id"),
+        monitorId,
+        monitorNames.get(monitorId),
+        rs.getObject("checked_at", LocalDateTime.class),
+        rs.getObject("status_code", Integer.class),
+        rs.getObject("response_time_ms", Integer.class),
+        rs.getObject("is_up", Boolean.class),
+        rs.getString("error_message"));
+  }
+
+  /** Quotes a CSV field if it contains a separator, quote or line break (RFC 4180). */
+  static String csvField(Object value) {
+    if (value == null) {
+      return "";
+    }
+    String text = value.toString();
+    if (text.indexOf(',') < 0
+        && text.indexOf('"') < 0
+        && text.indexOf('\n') < 0
+        && text.indexOf('\r') < 0) {
+      return text;
+    }
+    return '"' + text.replace("\"", "\"\"") + '"';
+  }
+
+  private interface RowWriter {
+    void write(Row row) throws IOException;
+
+    void flush() throws IOException;
+  }
+
+  private static final class CsvRowWriter implements RowWriter {
+
+    private final Writer writer;
+
+    CsvRowWriter(OutputStream output) throws IOException {
+      this.writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+      writer.write(CSV_HEADER);
+      writer.write("\r\n");
+    }
+
+    @Override
+    public void write(Row row) throws IOException {
+      writer.write(csvField(row.id()));
+      writer.write(',');
+      writer.write(csvField(row.monitorId()));
+      writer.write(',');
+      writer.write(csvField(row.monitorName()));
+      writer.write(',');
+      writer.write(csvField(row.checkedAt()));
+      writer.write(',');
+      writer.write(csvField(row.statusCode()));
+      writer.write(',');
+      writer.write(csvField(row.responseTimeMs()));
+      writer.write(',');
+      writer.write(csvField(row.isUp()));
+      writer.write(',');
+      writer.write(csvField(row.errorMessage()));
+      writer.write("\r\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+      writer.flush();
+    }
+  }
+
+  private final class NdjsonRowWriter implements RowWriter {
+
+    private final ObjectWriter rowWriter =
+        objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    private final JsonGenerator generator;
+
+    NdjsonRowWriter(OutputStream output) throws IOException {
+      this.generator =
+          objectMapper
+              .getFactory()
+              .createGenerator(output)
+              .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+              .setPrettyPrinter(new MinimalPrettyPrinter(""));
+    }
+
+    @Override
+    public void write(Row row) throws IOException {
+      rowWriter.writeValue(generator, row);
+      generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+      generator.flush();
+    }
+  }
+}
@@ -0,0 +1,193 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.persistence.CheckResultRollup.Resolution;
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.repository.CheckResultRepository;
+import de.oglimmer.status_tacos.repository.CheckResultRollupRepository;
+import de.oglimmer.status_tacos.repository.MonitorRepository;
+import de.oglimmer.status_tacos.store.CheckResultAggregate;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The rollup tiers of the check data: raw checks leaving the raw tier are compacted into per minute
+ * and hourly rollups, a whole day at a time. Reads of a range combine the tiers covering it.
+ */
+@Service
+@Slf4j
+public class CheckResultRollupService {
+
+  // ranges without checks are skipped in steps of this many days
+  private static final int SKIP_DAYS = 30;
+
+  private final CheckResultRollupRepository checkResultRollupRepository;
+  private final CheckResultService checkResultService;
+  private final MonitorRepository monitorRepository;
+  private final CheckResultRollupService self;
+
+  public CheckResultRollupService(
+      CheckResultRollupRepository checkResultRollupRepository,
+      CheckResultService checkResultService,
+      MonitorRepository monitorRepository,
+      @Lazy CheckResultRollupService self) {
+    this.checkResultRollupRepository = checkResultRollupRepository;
+    this.checkResultService = checkResultService;
+    this.monitorRepository = monitorRepository;
+    this.self = self;
+  }
+
+  /**
+   * Compacts the raw checks of the tenant's monitors before the raw cutoff of the policy, from the
+   * day after the last compacted one on. Each day is written in its own transaction.
+   *
+   * @return whether all monitors were compacted; only then may the raw checks be deleted
+   */
+  public boolean compact(Integer tenantId, RetentionPolicy policy, LocalDateTime now) {
+    LocalDate until = policy.rawCutoff(now).toLocalDate();
+    LocalDate earliest = policy.hourlyRollupCutoff(now).toLocalDate();
+    boolean complete = true;
+    int compactedDays = 0;
+    for (Monitor monitor : monitorRepository.findByTenantId(tenantId)) {
+      try {
+        compactedDays += compact(tenantId, monitor, earliest, until, policy.hasMinuteTier());
+      } catch (RuntimeException e) {
+        complete = false;
+        log.warn(
+            "Failed to compact check results of monitor {}: {}", monitor.getId(), e.getMessage());
+      }
+    }
+    log.info("Compacted {} monitor days of tenant {} before {}", compactedDays, tenantId, until);
+    return complete;
+  }
+
+  /** Rolls up the raw checks of one monitor and day, replacing rollups written before. */
+  @Transactional
+  public void rollUpDay(Integer tenantId, Monitor monitor, LocalDate day, boolean withMinutes) {
+    LocalDateTime start = day.atStartOfDay();
+    LocalDateTime end = start.plusDays(1).minusNanos(1);
+    RollupDay rollupDay = new RollupDay(day);
+    checkResultService.forEachSample(tenantId, monitor.getId(), start, end, rollupDay::accept);
+    for (CheckResultRun run : checkResultService.getRuns(tenantId, monitor.getId(), start, end)) {
+      rollupDay.accept(run);
+    }
+    checkResultRollupRepository.deleteByMonitorIdAndBucketStartBetween(
+        monitor.getId(), start, start.plusDays(1));
+    checkResultRollupRepository.saveAll(rollupDay.toRollups(tenantId, monitor, withMinutes));
+  }
+
+  @Transactional
+  public void cleanupOldRollups(Integer tenantId, RetentionPolicy policy, LocalDateTime now) {
+    int minutes =
+        checkResultRollupRepository.deleteByTenantIdAndResolutionAndBucketStartBefore(
+            tenantId, Resolution.MINUTE, policy.minuteRollupCutoff(now));
+    int hours =
+        checkResultRollupRepository.deleteByTenantIdAndResolutionAndBucketStartBefore(
+            tenantId, Resolution.HOUR, policy.hourlyRollupCutoff(now));
+    log.info("Deleted {} per minute and {} hourly rollups of tenant {}", minutes, hours, tenantId);
+  }
+
+  /**
+   * Aggregates the checks of a monitor in [start, end] from the tiers covering the range: raw
+   * checks after the last compacted day, per minute rollups while they're kept and hourly rollups
+   * before. Rollups count with the bucket they start in.
+   */
+  @Transactional(readOnly = true)
+  public CheckResultAggregate getAggregate(
+      Integer tenantId, Integer monitorId, LocalDateTime start, LocalDateTime end) {
+    LocalDateTime lastHour =
+        checkResultRollupRepository.findLastBucketStart(monitorId, Resolution.HOUR);
+    if (lastHour == null) {
+      return checkResultService.getAggregate(tenantId, monitorId, start, end);
+    }
+    // whole days are compacted, the raw checks are authoritative from the next day on
+    LocalDateTime rawStart = lastHour.toLocalDate().plusDays(1).atStartOfDay();
+    CheckResultAggregate aggregate = CheckResultAggregate.EMPTY;
+    if (!end.isBefore(rawStart)) {
+      aggregate =
+          checkResultService.getAggregate(
+              tenantId, monitorId, start.isAfter(rawStart) ? start : rawStart, end);
+    }
+    if (!start.isBefore(rawStart)) {
+      return aggregate;
+    }
+
+    LocalDateTime rolledEnd = end.isBefore(rawStart) ? end : rawStart.minusNanos(1);
+    LocalDateTime hourlyEnd = rolledEnd;
+    LocalDateTime firstMinute =
+        checkResultRollupRepository.findFirstBucketStart(monitorId, Resolution.MINUTE);
+    if (firstMinute != null && !rolledEnd.isBefore(firstMinute)) {
+      aggregate =
+          aggregate.plus(
+              rollups(
+                  tenantId,
+                  monitorId,
+                  Resolution.MINUTE,
+                  start.isAfter(firstMinute) ? start : firstMinute,
+                  rolledEnd));
+      hourlyEnd = firstMinute.minusNanos(1);
+    }
+    if (!hourlyEnd.isBefore(start)) {
+      aggregate = aggregate.plus(rollups(tenantId, monitorId, Resolution.HOUR, start, hourlyEnd));
+    }
+    return aggregate;
+  }
+
+  private int compact(
+      Integer tenantId, Monitor monitor, LocalDate earliest, LocalDate until, boolean withMinutes) {
+    LocalDateTime lastHour =
+        checkResultRollupRepository.findLastBucketStart(monitor.getId(), Resolution.HOUR);
+    LocalDate day = lastHour != null ? lastHour.toLocalDate().plusDays(1) : earliest;
+    if (!day.isBefore(until) || !hasChecks(tenantId, monitor, day, until)) {
+      return 0;
+    }
+    int compactedDays = 0;
+    while (day.isBefore(until)) {
+      LocalDate chunkEnd =
+          day.plusDays(SKIP_DAYS).isBefore(until) ? day.plusDays(SKIP_DAYS) : until;
+      if (!hasChecks(tenantId, monitor, day, chunkEnd)) {
+        day = chunkEnd;
+        continue;
+      }
+      for (; day.isBefore(chunkEnd); day = day.plusDays(1)) {
+        self.rollUpDay(tenantId, monitor, day, withMinutes);
+        compactedDays++;
+      }
+    }
+    return compactedDays;
+  }
+
+  private boolean hasChecks(Integer tenantId, Monitor monitor, LocalDate from, LocalDate until) {
+    return checkResultService
+            .getAggregate(
+                tenantId, monitor.getId(), from.atStartOfDay(), until.atStartOfDay().minusNanos(1))
+            .count()
+        > 0;
+  }
+
+  private CheckResultAggregate rollups(
+      Integer tenantId,
+      Integer monitorId,
+      Resolution resolution,
+      LocalDateTime start,
+      LocalDateTime end) {
+    CheckResultRepository.Aggregate aggregate =
+        checkResultRollupRepository.aggregateByBucketStartBetween(
+            monitorId, tenantId, resolution, start, end);
+    if (aggregate == null || aggregate.getCount() == null || aggregate.getCount() == 0) {
+      return CheckResultAggregate.EMPTY;
+    }
+    return new CheckResultAggregate(
+        aggregate.getCount(),
+        aggregate.getSuccessfulCount(),
+        aggregate.getResponseTimeCount(),
+        aggregate.getResponseTimeSum(),
+        aggregate.getMinResponseTime(),
+        aggregate.getMaxResponseTime());
+  }
+}
@@ -0,0 +1,183 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.dto.DashboardMonitorDto;
+import de.oglimmer.status_tacos.dto.MonitorStatusResponseDto;
+import de.oglimmer.status_tacos.dto.StatusType;
+import de.oglimmer.status_tacos.dto.UptimeStatsResponseDto;
+import de.oglimmer.status_tacos.mapper.EntityMapper;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.persistence.MonitorStatus;
+import de.oglimmer.status_tacos.persistence.UptimeStats;
+import de.oglimmer.status_tacos.repository.MonitorRepository;
+import de.oglimmer.status_tacos.repository.MonitorStatusRepository;
+import de.oglimmer.status_tacos.repository.UptimeStatsRepository;
+import de.oglimmer.status_tacos.util.AfterCommit;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Per tenant snapshot of everything the dashboard shows: the monitors with their status, 24h
+ * response time history and uptime stats.
+ *
+ * <p>A snapshot is shared by all users of a tenant and rebuilt on the first request after a check
+ * cycle completed, so a tenant's dashboard costs one build per cycle however many users refresh it.
+ * Instances that don't run the checks rebuild once the snapshot is older than {@code
+ * monitor.dashboard.max-age}. Changes to the monitors of a tenant drop its snapshot.
+ *
+ * <p>Every build is numbered, and the ETag of a dashboard is made of the numbers of the snapshots
+ * it is assembled from rather than of the {@link TenantDataVersions}: checks bump those as they
+ * commit, while the snapshot only follows with the next cycle, so they would label older data as
+ * current.
+ *
+ * <p>The DTOs of a snapshot are handed out to every request and must not be modified.
+ */
+@Service
+@Slf4j
+public class DashboardSnapshotService {
+
+  private final MonitorRepository monitorRepository;
+  private final MonitorStatusRepository monitorStatusRepository;
+  private final UptimeStatsRepository uptimeStatsRepository;
+  private final ResponseTimeHistoryCache responseTimeHistoryCache;
+  private final EntityMapper entityMapper;
+  private final DashboardSnapshotService self;
+  private final long maxAgeNanos;
+
+  private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+  private final AtomicLong builds = new AtomicLong();
+  private final AtomicLong checkCycle = new AtomicLong();
+  private final Map<Integer, TenantSnapshot> snapshots = new ConcurrentHashMap<>();
+  private final Map<Integer, Object> rebuildLocks = new ConcurrentHashMap<>();
+
+  public DashboardSnapshotService(
+      MonitorRepository monitorRepository,
+      MonitorStatusRepository monitorStatusRepository,
+      UptimeStatsRepository uptimeStatsRepository,
+      ResponseTimeHistoryCache responseTimeHistoryCache,
+      EntityMapper entityMapper,
+      @Lazy DashboardSnapshotService self,
+      @Value("${monitor.dashboard.max-age:${monitor.scheduling.check-interval:60000}}")
+          long maxAgeMillis) {
+    this.monitorRepository = monitorRepository;
+    this.monitorStatusRepository = monitorStatusRepository;
+    this.uptimeStatsRepository = uptimeStatsRepository;
+    this.responseTimeHistoryCache = responseTimeHistoryCache;
+    this.entityMapper = entityMapper;
+    this.self = self;
+    this.maxAgeNanos = maxAgeMillis * 1_000_000L;
+  }
+
+  /** Snapshot of a tenant's dashboard; the build number is unique within this boot. */
+  public record TenantSnapshot(
+      long build,
+      long checkCycle,
+      long builtAtNanos,
+      LocalDateTime builtAt,
+      List<DashboardMonitorDto> monitors) {}
+
+  /** Returns the current snapshot of a tenant, rebuilt if a check cycle completed since. */
+  public TenantSnapshot getSnapshot(Integer tenantId) {
+    TenantSnapshot snapshot = snapshots.get(tenantId);
+    if (isCurrent(snapshot)) {
+      return snapshot;
+    }
+    synchronized (rebuildLocks.computeIfAbsent(tenantId, id -> new Object())) {
+      // another request may have rebuilt it meanwhile
+      snapshot = snapshots.get(tenantId);
+      if (isCurrent(snapshot)) {
+        return snapshot;
+      }
+      long cycle = checkCycle.get();
+      long startTime = System.nanoTime();
+      snapshot =
+          new TenantSnapshot(
+              builds.incrementAndGet(),
+              cycle,
+              startTime,
+              LocalDateTime.now(),
+              self.buildMonitors(tenantId));
+      snapshots.put(tenantId, snapshot);
+      log.debug(
+          "Rebuilt the dashboard snapshot of tenant {} with {} monitors in {}ms",
+          tenantId,
+          snapshot.monitors().size(),
+          (System.nanoTime() - startTime) / 1_000_000);
+      return snapshot;
+    }
+  }
+
+  /**
+   * ETag of a dashboard assembled from the given snapshots by tenant id, e.g. {@code
+   * m1x2k-1:42,3:7}. It changes with every rebuild of one of them.
+   */
+  public String etag(SortedMap<Integer, TenantSnapshot> snapshotsByTenant) {
+    StringBuilder etag = new StringBuilder(bootId);
+    char separator = '-';
+    for (Map.Entry<Integer, TenantSnapshot> entry : snapshotsByTenant.entrySet()) {
+      etag.append(separator).append(entry.getKey()).append(':').append(entry.getValue().build());
+      separator = ',';
+    }
+    return etag.toString();
+  }
+
+  /** Marks all snapshots outdated; called when a check cycle completed. */
+  public void checkCycleCompleted() {
+    checkCycle.incrementAndGet();
+  }
+
+  /**
+   * Drops the snapshot of a tenant after one of its monitors changed, once the change committed so
+   * a concurrent rebuild can't read the old state back in.
+   */
+  public void invalidate(Integer tenantId) {
+    AfterCommit.run(() -> snapshots.remove(tenantId));
+  }
+
+  @Transactional(readOnly = true)
+  public List<DashboardMonitorDto> buildMonitors(Integer tenantId) {
+    Map<Integer, MonitorStatusResponseDto> statuses = new HashMap<>();
+    for (MonitorStatus status :
+        monitorStatusRepository.findAllActiveMonitorStatusesByTenantId(tenantId)) {
+      MonitorStatusResponseDto dto = entityMapper.toDto(status);
+      dto.setCurrentStatus(StatusType.valueOf(status.getCurrentStatus().name()));
+      statuses.put(status.getMonitorId(), dto);
+    }
+    Map<Integer, List<UptimeStatsResponseDto>> uptimeStats = new HashMap<>();
+    for (UptimeStats stats : uptimeStatsRepository.findLatestByTenantId(tenantId)) {
+      uptimeStats
+          .computeIfAbsent(stats.getMonitor().getId(), id -> new ArrayList<>())
+          .add(entityMapper.toDto(stats));
+    }
+
+    List<DashboardMonitorDto> monitors = new ArrayList<>();
+    for (Monitor monitor : monitorRepository.findByTenantId(tenantId)) {
+      monitors.add(
+          DashboardMonitorDto.builder()
+              .monitor(entityMapper.toDto(monitor))
+              .status(statuses.get(monitor.getId()))
+              .responseTimeHistory24h(
+                  responseTimeHistoryCache.getResponseTimeHistory24h(tenantId, monitor.getId()))
+              .uptimeStats(List.copyOf(uptimeStats.getOrDefault(monitor.getId(), List.of())))
+              .build());
+    }
+    return List.copyOf(monitors);
+  }
+
+  private boolean isCurrent(TenantSnapshot snapshot) {
+    return snapshot != null
+        && snapshot.checkCycle() == checkCycle.get()
+        && System.nanoTime() - snapshot.builtAtNanos() < maxAgeNanos;
+  }
+}
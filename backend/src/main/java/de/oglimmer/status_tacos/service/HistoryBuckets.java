@@ -0,0 +1,179 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.dto.MonitorHistoryPointDto;
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import de.oglimmer.status_tacos.store.CheckResultAggregate;
+import de.oglimmer.status_tacos.store.CheckSample;
+import de.oglimmer.status_tacos.store.LatencySketch;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed width buckets over [from, to] aligned to multiples of the width since the epoch, so buckets
+ * of an hour or a day line up with the rollups and daily aggregates they are filled from. Data is
+ * attributed to the bucket it starts in.
+ */
+final class HistoryBuckets {
+
+  private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+  private static final List<Duration> STEPS =
+      List.of(
+          Duration.ofMinutes(1),
+          Duration.ofMinutes(2),
+          Duration.ofMinutes(5),
+          Duration.ofMinutes(10),
+          Duration.ofMinutes(15),
+          Duration.ofMinutes(30),
+          Duration.ofHours(1),
+          Duration.ofHours(2),
+          Duration.ofHours(3),
+          Duration.ofHours(6),
+          Duration.ofHours(12),
+          Duration.ofDays(1));
+
+  private final LocalDateTime start;
+  private final Duration step;
+  private final CheckResultAggregate[] aggregates;
+  private final LatencySketch[] sketches;
+
+  HistoryBuckets(LocalDateTime from, LocalDateTime to, int maxPoints) {
+    this(from, to, stepFor(Duration.between(from, to), maxPoints));
+  }
+
+  HistoryBuckets(LocalDateTime from, LocalDateTime to, Duration step) {
+    this.step = step;
+    long stepSeconds = step.toSeconds();
+    long fromSeconds = Duration.between(EPOCH, from).toSeconds();
+    this.start = EPOCH.plusSeconds(Math.floorDiv(fromSeconds, stepSeconds) * stepSeconds);
+    int count = (int) (Duration.between(start, to).toSeconds() / stepSeconds) + 1;
+    this.aggregates = new CheckResultAggregate[count];
+    this.sketches = new LatencySketch[count];
+  }
+
+  /**
+   * The smallest step from 1m, 2m, 5m, ... 12h, 1d or a number of days that splits the range into
+   * at most maxPoints aligned buckets.
+   */
+  static Duration stepFor(Duration range, int maxPoints) {
+    // an unaligned range touches one bucket more than it spans
+    long minSeconds = Math.ceilDiv(range.toSeconds(), Math.max(1, maxPoints - 1));
+    for (Duration step : STEPS) {
+      if (step.toSeconds() >= minSeconds) {
+        return step;
+      }
+    }
+    return Duration.ofDays(Math.ceilDiv(minSeconds, Duration.ofDays(1).toSeconds()));
+  }
+
+  Duration step() {
+    return step;
+  }
+
+  int size() {
+    return aggregates.length;
+  }
+
+  void add(CheckSample sample) {
+    int index = indexOf(sample.checkedAt());
+    if (index < 0) {
+      return;
+    }
+    boolean up = sample.up();
+    Integer responseTime = up ? sample.responseTimeMs() : null;
+    add(
+        index,
+        new CheckResultAggregate(
+            1,
+            up ? 1 : 0,
+            responseTime != null ? 1 : 0,
+            responseTime != null ? responseTime : 0,
+            responseTime,
+            responseTime));
+    if (responseTime != null) {
+      sketch(index).add(responseTime);
+    }
+  }
+
+  /** Adds a folded run; its average stands in for each of its checks in the percentiles. */
+  void add(CheckResultRun run) {
+    int index = indexOf(run.getRunStart());
+    if (index < 0) {
+      return;
+    }
+    boolean up = run.getIsUp();
+    int responseTimes = up ? run.getResponseTimeCount() : 0;
+    add(
+        index,
+        new CheckResultAggregate(
+            run.getCheckCount(),
+            up ? run.getCheckCount() : 0,
+            responseTimes,
+            responseTimes > 0 ? run.getResponseTimeSumMs() : 0,
+            responseTimes > 0 ? run.getMinResponseTimeMs() : null,
+            responseTimes > 0 ? run.getMaxResponseTimeMs() : null));
+    if (responseTimes > 0) {
+      sketch(index).add((int) Math.round(run.getAverageResponseTimeMs()), responseTimes);
+    }
+  }
+
+  /** Adds pre-aggregated checks starting at the given time, with their distribution if known. */
+  void add(LocalDateTime at, CheckResultAggregate aggregate, LatencySketch sketch) {
+    int index = indexOf(at);
+    if (index < 0) {
+      return;
+    }
+    add(index, aggregate);
+    if (sketch != null && !sketch.isEmpty()) {
+      sketch(index).merge(sketch);
+    }
+  }
+
+  /** The buckets with checks, ascending. */
+  List<MonitorHistoryPointDto> toPoints() {
+    List<MonitorHistoryPointDto> points = new ArrayList<>();
+    for (int i = 0; i < aggregates.length; i++) {
+      CheckResultAggregate aggregate = aggregates[i];
+      if (aggregate == null || aggregate.count() == 0) {
+        continue;
+      }
+      LatencySketch sketch = sketches[i];
+      points.add(
+          MonitorHistoryPointDto.builder()
+              .timestamp(start.plus(step.multipliedBy(i)))
+              .totalChecks(aggregate.count())
+              .successfulChecks(aggregate.successfulCount())
+              .uptimePercentage((double) aggregate.successfulCount() / aggregate.count() * 100.0)
+              .minResponseTimeMs(aggregate.minResponseTime())
+              .maxResponseTimeMs(aggregate.maxResponseTime())
+              .averageResponseTimeMs(aggregate.averageResponseTime())
+              .p50ResponseTimeMs(sketch != null ? sketch.quantile(0.5) : null)
+              .p95ResponseTimeMs(sketch != null ? sketch.quantile(0.95) : null)
+              .p99ResponseTimeMs(sketch != null ? sketch.quantile(0.99) : null)
+              .build());
+    }
+    return points;
+  }
+
+  private int indexOf(LocalDateTime at) {
+    if (at.isBefore(start)) {
+      return -1;
+    }
+    long index = Duration.between(start, at).toSeconds() / step.toSeconds();
+    return index < aggregates.length ? (int) index : -1;
+  }
+
+  private void add(int index, CheckResultAggregate aggregate) {
+    aggregates[index] = aggregates[index] == null ? aggregate : aggregates[index].plus(aggregate);
+  }
+
+  private LatencySketch sketch(int index) {
+    if (sketches[index] == null) {
+      sketches[index] = new LatencySketch();
+    }
+    return sketches[index];
+  }
+}
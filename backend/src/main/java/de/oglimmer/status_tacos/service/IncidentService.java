@@ -0,0 +1,266 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.dto.StatusDownPeriodsDto;
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import de.oglimmer.status_tacos.persistence.Incident;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.persistence.MonitorStatus;
+import de.oglimmer.status_tacos.repository.IncidentRepository;
+import de.oglimmer.status_tacos.repository.MonitorRepository;
+import de.oglimmer.status_tacos.store.CheckResultAggregate;
+import de.oglimmer.status_tacos.store.CheckResultStore;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps the {@link Incident}s of the monitors: opened and closed with the status of the monitor, so
+ * down periods of any range are an interval lookup instead of a walk over the checks.
+ */
+@Service
+@Slf4j
+public class IncidentService {
+
+  private final IncidentRepository incidentRepository;
+  private final MonitorRepository monitorRepository;
+  private final CheckResultStore checkResultStore;
+  private final Executor taskExecutor;
+  private final IncidentService self;
+  private final boolean backfillOnStartup;
+  private final int retentionDays;
+  // taken before the scheduler starts, the checks from here on are recorded live
+  private final LocalDateTime bootTime = LocalDateTime.now();
+
+  public IncidentService(
+      IncidentRepository incidentRepository,
+      MonitorRepository monitorRepository,
+      CheckResultStore checkResultStore,
+      @Qualifier("taskExecutor") Executor taskExecutor,
+      @Lazy IncidentService self,
+      @Value("${monitor.scheduling.enabled:true}") boolean backfillOnStartup,
+      @Value("${monitor.cleanup.retention-days:90}") int retentionDays) {
+    this.incidentRepository = incidentRepository;
+    this.monitorRepository = monitorRepository;
+    this.checkResultStore = checkResultStore;
+    this.taskExecutor = taskExecutor;
+    this.self = self;
+    this.backfillOnStartup = backfillOnStartup;
+    this.retentionDays = retentionDays;
+  }
+
+  /**
+   * Moves the incidents of a monitor along with its status: a failed check opens an incident or
+   * counts towards the open one, the first successful check closes it. A successful check of a
+   * monitor that was up already costs no statement.
+   */
+  @Transactional
+  public void recordCheck(
+      Integer tenantId,
+      Monitor monitor,
+      CheckResult checkResult,
+      MonitorStatus.StatusType previousStatus) {
+    if (Boolean.TRUE.equals(checkResult.getIsUp())) {
+      if (previousStatus != MonitorStatus.StatusType.up
+          && incidentRepository.closeOpen(monitor.getId(), checkResult.getCheckedAt()) > 0) {
+        log.debug("Closed incident of monitor {}", monitor.getId());
+      }
+      return;
+    }
+
+    // the monitor may have been down before incidents were recorded, then one is opened here
+    if (previousStatus == MonitorStatus.StatusType.down
+        && incidentRepository.incrementOpenCheckCount(monitor.getId()) > 0) {
+      return;
+    }
+    Incident incident =
+        incidentRepository.save(
+            Incident.builder()
+                .monitor(monitor)
+                .tenantId(tenantId)
+                .startedAt(checkResult.getCheckedAt())
+                .firstStatusCode(checkResult.getStatusCode())
+                .firstErrorMessage(checkResult.getErrorMessage())
+                .checkCount(1)
+                .build());
+    log.info("Opened incident {} of monitor {}", incident.getId(), monitor.getId());
+  }
+
+  /**
+   * Down periods overlapping [start, end], clipped to the range. An incident still open ends at
+   * {@code end}.
+   */
+  @Transactional(readOnly = true)
+  public List<StatusDownPeriodsDto> getDownPeriods(
+      Integer tenantId, Integer monitorId, LocalDateTime start, LocalDateTime end) {
+    return incidentRepository.findOverlapping(monitorId, tenantId, start, end).stream()
+        .map(
+            incident ->
+                StatusDownPeriodsDto.builder()
+                    .start(
+                        incident.getStartedAt().isBefore(start) ? start : incident.getStartedAt())
+                    .end(
+                        incident.getEndedAt() == null || incident.getEndedAt().isAfter(end)
+                            ? end
+                            : incident.getEndedAt())
+                    .build())
+        .toList();
+  }
+
+  /** Incidents of a monitor, latest first. */
+  @Transactional(readOnly = true)
+  public List<Incident> getIncidents(Integer tenantId, Integer monitorId, int page, int size) {
+    return incidentRepository.findByMonitorIdAndTenantId(
+        monitorId, tenantId, PageRequest.of(page, size));
+  }
+
+  /** Incidents of all monitors of the tenants, latest first. */
+  @Transactional(readOnly = true)
+  public List<Incident> getIncidents(Set<Integer> tenantIds, int page, int size) {
+    return incidentRepository.findByTenantIds(tenantIds, PageRequest.of(page, size));
+  }
+
+  public void cleanupOldIncidents(Integer tenantId, LocalDateTime cutoffDate) {
+    int deleted = incidentRepository.deleteByTenantIdAndEndedAtBefore(tenantId, cutoffDate);
+    log.debug("Deleted {} incidents of tenant {} ended before {}", deleted, tenantId, cutoffDate);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfillOnStartup() {
+    if (backfillOnStartup) {
+      taskExecutor.execute(this::backfillIncidents);
+    }
+  }
+
+  /**
+   * Creates the incidents of the checks stored before the first incident of each monitor, back to
+   * the retention of the check results. Running it again finds no new incidents: a monitor whose
+   * earlier checks all succeeded is skipped after one aggregate query. The checks of this boot are
+   * left to {@link #recordCheck}, which runs meanwhile.
+   */
+  public void backfillIncidents() {
+    long startTime = System.currentTimeMillis();
+    List<Monitor> monitors = monitorRepository.findAll();
+    int created = 0;
+    for (Monitor monitor : monitors) {
+      try {
+        created += self.backfillIncidents(monitor.getTenantId(), monitor);
+      } catch (Exception e) {
+        log.warn("Failed to backfill incidents of monitor {}: {}", monitor.getId(), e.getMessage());
+      }
+    }
+    log.info(
+        "Backfilled {} incidents of {} monitors in {}ms",
+        created,
+        monitors.size(),
+        System.currentTimeMillis() - startTime);
+  }
+
+  /** Backfills the incidents of one monitor, see {@link #backfillIncidents()}. */
+  @Transactional
+  public int backfillIncidents(Integer tenantId, Monitor monitor) {
+    LocalDateTime from = LocalDateTime.now().minusDays(retentionDays);
+    Optional<Incident> earliest = incidentRepository.findEarliestByMonitorId(monitor.getId());
+    // the store's ranges are inclusive, the first check of the earliest incident is excluded
+    LocalDateTime until =
+        earliest
+            .map(Incident::getStartedAt)
+            .filter(startedAt -> startedAt.isBefore(bootTime))
+            .orElse(bootTime)
+            .minusNanos(1);
+    if (!until.isAfter(from)) {
+      return 0;
+    }
+    CheckResultAggregate aggregate =
+        checkResultStore.aggregate(tenantId, monitor.getId(), from, until);
+    if (aggregate.count() == aggregate.successfulCount()) {
+      return 0;
+    }
+
+    IncidentTracker tracker = new IncidentTracker(tenantId, monitor);
+    // a day at a time, so the checks of the whole retention are never loaded at once
+    for (LocalDateTime dayStart = from; !dayStart.isAfter(until); dayStart = dayStart.plusDays(1)) {
+      LocalDateTime dayEnd = dayStart.plusDays(1).minusNanos(1);
+      if (dayEnd.isAfter(until)) {
+        dayEnd = until;
+      }
+      fold(
+          tracker,
+          checkResultStore.scan(tenantId, monitor.getId(), dayStart, dayEnd),
+          checkResultStore.scanRuns(tenantId, monitor.getId(), dayStart, dayEnd));
+    }
+
+    List<Incident> incidents = tracker.incidents();
+    Incident open = tracker.open();
+    // a live check may have opened the monitor's first incident while the checks were folded
+    Optional<Incident> next =
+        open == null || earliest.isPresent()
+            ? earliest
+            : incidentRepository.findEarliestByMonitorId(monitor.getId());
+    if (open != null && next.isPresent()) {
+      // the monitor was down already when the earliest incident was opened, it started earlier
+      Incident first = next.get();
+      first.setStartedAt(open.getStartedAt());
+      first.setFirstStatusCode(open.getFirstStatusCode());
+      first.setFirstErrorMessage(open.getFirstErrorMessage());
+      first.setCheckCount(first.getCheckCount() + open.getCheckCount());
+      incidents.remove(open);
+    } else if (open != null) {
+      // no live check failed, the first one that succeeded closes it; without one it stays open
+      // and the next live check closes or continues it
+      firstSuccessfulCheck(tenantId, monitor.getId(), until.plusNanos(1))
+          .ifPresent(open::setEndedAt);
+    }
+    incidentRepository.saveAll(incidents);
+    if (!incidents.isEmpty()) {
+      log.info("Backfilled {} incidents of monitor {}", incidents.size(), monitor.getId());
+    }
+    return incidents.size();
+  }
+
+  private Optional<LocalDateTime> firstSuccessfulCheck(
+      Integer tenantId, Integer monitorId, LocalDateTime from) {
+    LocalDateTime now = LocalDateTime.now();
+    Optional<LocalDateTime> check =
+        checkResultStore.scan(tenantId, monitorId, from, now).stream()
+            .filter(checkResult -> Boolean.TRUE.equals(checkResult.getIsUp()))
+            .map(CheckResult::getCheckedAt)
+            .findFirst();
+    Optional<LocalDateTime> run =
+        checkResultStore.scanRuns(tenantId, monitorId, from, now).stream()
+            .filter(checkResultRun -> Boolean.TRUE.equals(checkResultRun.getIsUp()))
+            .map(CheckResultRun::getRunStart)
+            .findFirst();
+    if (check.isPresent() && run.isPresent()) {
+      return check.get().isBefore(run.get()) ? check : run;
+    }
+    return check.or(() -> run);
+  }
+
+  /** Folds checks and runs in check order; the full check a run continues comes before it. */
+  private static void fold(
+      IncidentTracker tracker, List<CheckResult> checks, List<CheckResultRun> runs) {
+    int r = 0;
+    for (CheckResult check : checks) {
+      while (r < runs.size() && runs.get(r).getRunStart().isBefore(check.getCheckedAt())) {
+        tracker.accept(runs.get(r++));
+      }
+      tracker.accept(check);
+    }
+    while (r < runs.size()) {
+      tracker.accept(runs.get(r++));
+    }
+  }
+}
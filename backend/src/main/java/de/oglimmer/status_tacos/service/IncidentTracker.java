@@ -0,0 +1,77 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import de.oglimmer.status_tacos.persistence.Incident;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Folds the checks of a monitor, in check order, into incidents: the first failed check opens one,
+ * the next successful check closes it. Used to rebuild incidents from stored checks, live checks go
+ * through the same transitions in {@link IncidentService#recordCheck}.
+ */
+final class IncidentTracker {
+
+  private final Integer tenantId;
+  private final Monitor monitor;
+  private final List<Incident> incidents = new ArrayList<>();
+  private Incident open;
+
+  IncidentTracker(Integer tenantId, Monitor monitor) {
+    this.tenantId = tenantId;
+    this.monitor = monitor;
+  }
+
+  void accept(CheckResult checkResult) {
+    accept(
+        checkResult.getCheckedAt(),
+        Boolean.TRUE.equals(checkResult.getIsUp()),
+        checkResult.getStatusCode(),
+        checkResult.getErrorMessage(),
+        1);
+  }
+
+  /** A run continues the outcome of the check before it; its checks extend an open incident. */
+  void accept(CheckResultRun run) {
+    accept(run.getRunStart(), run.getIsUp(), run.getStatusCode(), null, run.getCheckCount());
+  }
+
+  private void accept(
+      LocalDateTime checkedAt,
+      boolean up,
+      Integer statusCode,
+      String errorMessage,
+      int checkCount) {
+    if (!up && open == null) {
+      open =
+          Incident.builder()
+              .monitor(monitor)
+              .tenantId(tenantId)
+              .startedAt(checkedAt)
+              .firstStatusCode(statusCode)
+              .firstErrorMessage(errorMessage)
+              .checkCount(checkCount)
+              .build();
+      incidents.add(open);
+    } else if (!up) {
+      open.setCheckCount(open.getCheckCount() + checkCount);
+    } else if (open != null) {
+      open.setEndedAt(checkedAt);
+      open = null;
+    }
+  }
+
+  /** All incidents in start order, the last one may still be open. */
+  List<Incident> incidents() {
+    return incidents;
+  }
+
+  /** The incident still open after the folded checks, or null. */
+  Incident open() {
+    return open;
+  }
+}
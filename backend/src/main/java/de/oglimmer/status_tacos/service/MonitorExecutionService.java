@@ -6,6 +6,7 @@ import de.oglimmer.status_tacos.persistence.Monitor;
 import de.oglimmer.status_tacos.persistence.MonitorState;
 import de.oglimmer.status_tacos.persistence.MonitorStatus;
 import de.oglimmer.status_tacos.persistence.Tenant;
+import de.oglimmer.status_tacos.store.CheckResultSpool;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
@@ -15,7 +16,11 @@ import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationContext;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -28,9 +33,13 @@ public class MonitorExecutionService {
   private final MonitorService monitorService;
   private final TenantService tenantService;
   private final AlertService alertService;
+  private final CheckResultSpool checkResultSpool;
   private final Executor taskExecutor;
   private final ApplicationContext applicationContext;
 
+  // monitors of the last successful load, used while the database is unavailable
+  private volatile List<Monitor> lastMonitorsToCheck = List.of();
+
   // Self-reference for @Transactional proxy to work
   private MonitorExecutionService self;
 
@@ -41,6 +50,7 @@ public class MonitorExecutionService {
       MonitorService monitorService,
       TenantService tenantService,
       AlertService alertService,
+      CheckResultSpool checkResultSpool,
       Executor taskExecutor,
       ApplicationContext applicationContext) {
     this.httpClientService = httpClientService;
@@ -49,6 +59,7 @@ public class MonitorExecutionService {
     this.monitorService = monitorService;
     this.tenantService = tenantService;
     this.alertService = alertService;
+    this.checkResultSpool = checkResultSpool;
     this.taskExecutor = taskExecutor;
     this.applicationContext = applicationContext;
   }
@@ -81,7 +92,7 @@ public class MonitorExecutionService {
               monitor.getPrometheusMaxValue());
 
       // Save results in a separate transaction (using self-reference for proxy)
-      CheckResult checkResult = getSelf().saveCheckResultAndUpdateStatus(monitor, httpResult);
+      CheckResult checkResult = saveOrSpool(monitor, httpResult);
 
       log.info(
           "Monitor check completed for {}: status={}, responseTime={}ms",
@@ -96,12 +107,42 @@ public class MonitorExecutionService {
 
       HttpClientService.HttpCheckResult errorHttpResult =
           createErrorHttpResult(monitor.getUrl(), e.getMessage());
-      CheckResult savedResult = getSelf().saveCheckResultAndUpdateStatus(monitor, errorHttpResult);
+      CheckResult savedResult = saveOrSpool(monitor, errorHttpResult);
 
       return savedResult;
     }
   }
 
+  /**
+   * Writes the check result to the database, or to the local spool while the database is
+   * unavailable or older spooled results still wait for replay. A database failure does not turn
+   * the check into a DOWN result.
+   */
+  private CheckResult saveOrSpool(Monitor monitor, HttpClientService.HttpCheckResult httpResult) {
+    LocalDateTime checkedAt = LocalDateTime.now();
+    if (!checkResultSpool.isActive()) {
+      try {
+        return getSelf().saveCheckResultAndUpdateStatus(monitor, httpResult);
+      } catch (DataAccessResourceFailureException
+          | TransientDataAccessException
+          | CannotCreateTransactionException e) {
+        if (!checkResultSpool.isEnabled()) {
+          throw e;
+        }
+        log.warn(
+            "Database unavailable while saving check result of {}: {}",
+            monitor.getName(),
+            e.getMessage());
+        checkResultSpool.markDatabaseUnavailable();
+      }
+    }
+    CheckResult checkResult =
+        CheckResultService.toCheckResult(monitor.getTenantId(), monitor, httpResult);
+    checkResult.setCheckedAt(checkedAt);
+    checkResultSpool.append(monitor.getTenantId(), monitor.getId(), checkResult);
+    return checkResult;
+  }
+
   @Transactional
   protected CheckResult saveCheckResultAndUpdateStatus(
       Monitor monitor, HttpClientService.HttpCheckResult httpResult) {
@@ -138,41 +179,78 @@ public class MonitorExecutionService {
     return checkResult;
   }
 
-  public void executeAllActiveMonitors() {
-    log.debug("Starting execution of all active monitors");
-
-    // Get all active tenants and their monitors
-    List<Tenant> activeTenants = tenantService.getAllActiveTenants();
-    if (activeTenants.isEmpty()) {
-      log.info("No active tenants found");
-      return;
+  /**
+   * Replays up to {@code maxRecords} spooled check results in check order. The monitor status is
+   * updated from the original check time; alerts are not sent for replayed results, the next live
+   * check raises them. Results of monitors deleted in the meantime are dropped; results failing
+   * with anything but a transient database error are moved to the spool's dead letter file. Saving
+   * a replayed result invalidates the daily uptime aggregates already folded for its day in the
+   * same transaction.
+   *
+   * @return the number of results taken off the spool
+   */
+  public int replaySpooledCheckResults(int maxRecords) {
+    if (!checkResultSpool.isActive()) {
+      return 0;
     }
+    return checkResultSpool.replay(
+        maxRecords,
+        spooled -> {
+          try {
+            getSelf().saveSpooledCheckResult(spooled);
+          } catch (IllegalArgumentException e) {
+            log.warn(
+                "Dropping spooled check result of monitor {}: {}",
+                spooled.monitorId(),
+                e.getMessage());
+          }
+        },
+        MonitorExecutionService::isDatabaseUnavailable);
+  }
 
-    Set<Integer> activeTenantIds =
-        activeTenants.stream().map(Tenant::getId).collect(Collectors.toSet());
+  private static boolean isDatabaseUnavailable(RuntimeException e) {
+    return e instanceof DataAccessResourceFailureException
+        || e instanceof TransientDataAccessException
+        || e instanceof RecoverableDataAccessException
+        || e instanceof CannotCreateTransactionException;
+  }
 
-    log.debug("Found {} active tenants: {}", activeTenants.size(), activeTenantIds);
+  @Transactional
+  protected void saveSpooledCheckResult(CheckResultSpool.SpooledCheckResult spooled) {
+    Monitor monitor = monitorService.getMonitorById(spooled.tenantId(), spooled.monitorId());
+    CheckResult checkResult = spooled.checkResult();
+    checkResult.setMonitor(monitor);
+    CheckResult saved = checkResultService.saveCheckResult(checkResult);
+    monitorStatusService.updateMonitorStatus(spooled.tenantId(), monitor, saved);
+  }
 
-    // Get both ACTIVE and SILENT monitors (both should be monitored)
-    List<Monitor> activeMonitors =
-        monitorService.getMonitorsByState(activeTenantIds, MonitorState.ACTIVE);
-    List<Monitor> silentMonitors =
-        monitorService.getMonitorsByState(activeTenantIds, MonitorState.SILENT);
+  public void executeAllActiveMonitors() {
+    log.debug("Starting execution of all active monitors");
 
-    List<Monitor> monitorsToCheck = new java.util.ArrayList<>(activeMonitors);
-    monitorsToCheck.addAll(silentMonitors);
+    List<Monitor> monitorsToCheck;
+    if (checkResultSpool.isActive()) {
+      // don't wait for the database, check the monitors known from the last cycle
+      monitorsToCheck = lastMonitorsToCheck;
+    } else {
+      try {
+        monitorsToCheck = loadMonitorsToCheck();
+      } catch (DataAccessResourceFailureException
+          | TransientDataAccessException
+          | CannotCreateTransactionException e) {
+        if (!checkResultSpool.isEnabled()) {
+          throw e;
+        }
+        log.warn("Database unavailable while loading monitors: {}", e.getMessage());
+        checkResultSpool.markDatabaseUnavailable();
+        monitorsToCheck = lastMonitorsToCheck;
+      }
+    }
 
     if (monitorsToCheck.isEmpty()) {
       log.info("No monitors to check found");
       return;
     }
 
-    log.debug(
-        "Found {} monitors to check ({} active, {} silent)",
-        monitorsToCheck.size(),
-        activeMonitors.size(),
-        silentMonitors.size());
-
     List<CompletableFuture<Void>> futures =
         monitorsToCheck.stream()
             .map(
@@ -200,6 +278,39 @@ public class MonitorExecutionService {
     }
   }
 
+  private List<Monitor> loadMonitorsToCheck() {
+    // Get all active tenants and their monitors
+    List<Tenant> activeTenants = tenantService.getAllActiveTenants();
+    if (activeTenants.isEmpty()) {
+      log.info("No active tenants found");
+      lastMonitorsToCheck = List.of();
+      return lastMonitorsToCheck;
+    }
+
+    Set<Integer> activeTenantIds =
+        activeTenants.stream().map(Tenant::getId).collect(Collectors.toSet());
+
+    log.debug("Found {} active tenants: {}", activeTenants.size(), activeTenantIds);
+
+    // Get both ACTIVE and SILENT monitors (both should be monitored)
+    List<Monitor> activeMonitors =
+        monitorService.getMonitorsByState(activeTenantIds, MonitorState.ACTIVE);
+    List<Monitor> silentMonitors =
+        monitorService.getMonitorsByState(activeTenantIds, MonitorState.SILENT);
+
+    List<Monitor> monitorsToCheck = new java.util.ArrayList<>(activeMonitors);
+    monitorsToCheck.addAll(silentMonitors);
+
+    log.debug(
+        "Found {} monitors to check ({} active, {} silent)",
+        monitorsToCheck.size(),
+        activeMonitors.size(),
+        silentMonitors.size());
+
+    lastMonitorsToCheck = List.copyOf(monitorsToCheck);
+    return lastMonitorsToCheck;
+  }
+
   public CompletableFuture<CheckResult> executeMonitorCheckAsync(Monitor monitor) {
     log.debug("Executing async check for monitor: {}", monitor.getName());
 
@@ -0,0 +1,292 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.dto.MonitorHistoryPointDto;
+import de.oglimmer.status_tacos.dto.MonitorHistoryResponseDto;
+import de.oglimmer.status_tacos.persistence.CheckResultRollup;
+import de.oglimmer.status_tacos.persistence.CheckResultRollup.Resolution;
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.repository.CheckResultRollupRepository;
+import de.oglimmer.status_tacos.store.CheckResultAggregate;
+import de.oglimmer.status_tacos.util.SeriesDownsampler;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * History of a monitor over any range in at most a given number of buckets, read from the cheapest
+ * tier that still resolves the buckets:
+ *
+ * <ul>
+ *   <li>buckets of a day or more from the daily aggregates, including their latency sketches, and
+ *       buckets of an hour or more from their hours. Open days are completed with the checks since
+ *       their last fold. Before the oldest daily aggregate in the range, and on days aggregated
+ *       without hours, from the hourly rollups of compacted days and the raw checks after them
+ *   <li>finer buckets from the per minute rollups while they are kept, the hourly rollups before
+ *       and the raw checks after the compacted days
+ * </ul>
+ *
+ * Percentiles need a distribution, so buckets filled from rollups have none. Charts can ask for a
+ * {@link Downsampling} that keeps the spikes and dips of finer buckets within the same points.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MonitorHistoryService {
+
+  public static final int MIN_POINTS = 4;
+  public static final int MAX_POINTS = 1000;
+
+  // downsampled histories are bucketed this much finer first, within the same tier
+  private static final int OVERSAMPLING = 4;
+
+  private final CheckResultService checkResultService;
+  private final CheckResultRollupRepository checkResultRollupRepository;
+  private final UptimeDailyAggregateService uptimeDailyAggregateService;
+  private final IncidentService incidentService;
+
+  /** How the buckets are reduced to the requested number of points. */
+  public enum Downsampling {
+    /** None, the buckets are as wide as needed to stay within the points. */
+    NONE,
+    /** Finer buckets reduced by LTTB on the average response time. */
+    LTTB,
+    /** Finer buckets reduced by M4 on the average response time, a quarter of the points wide. */
+    M4
+  }
+
+  enum Source {
+    RAW,
+    MINUTE_ROLLUPS,
+    HOURLY_ROLLUPS,
+    DAILY_AGGREGATES
+  }
+
+  /**
+   * History of a monitor in [from, to] in at most maxPoints buckets. Downsampled histories are read
+   * in up to four times as many buckets and then reduced, buckets with failed checks only count as
+   * a response time of 0 so outages survive the reduction.
+   */
+  @Transactional(readOnly = true)
+  public MonitorHistoryResponseDto getHistory(
+      Integer tenantId,
+      Monitor monitor,
+      LocalDateTime from,
+      LocalDateTime to,
+      int maxPoints,
+      Downsampling downsampling) {
+    long startTime = System.currentTimeMillis();
+    Duration range = Duration.between(from, to);
+    Duration step = HistoryBuckets.stepFor(range, maxPoints);
+    if (downsampling != Downsampling.NONE) {
+      // finer, but not so fine that the buckets need a more detailed tier
+      Duration tier =
+          step.compareTo(Duration.ofDays(1)) >= 0
+              ? Duration.ofDays(1)
+              : step.compareTo(Duration.ofHours(1)) >= 0 ? Duration.ofHours(1) : Duration.ZERO;
+      Duration fineStep = HistoryBuckets.stepFor(range, maxPoints * OVERSAMPLING);
+      step = fineStep.compareTo(tier) >= 0 ? fineStep : tier;
+    }
+    HistoryBuckets buckets = new HistoryBuckets(from, to, step);
+    Set<Source> sources = EnumSet.noneOf(Source.class);
+
+    if (buckets.step().compareTo(Duration.ofHours(1)) >= 0) {
+      addDays(tenantId, monitor.getId(), from, to, buckets, sources);
+    } else {
+      addRollupsAndChecks(tenantId, monitor.getId(), from, to, buckets, sources);
+    }
+
+    log.debug(
+        "Built the history of monitor {} from {} to {} in {} buckets of {} from {} in {}ms",
+        monitor.getId(),
+        from,
+        to,
+        buckets.size(),
+        buckets.step(),
+        sources,
+        System.currentTimeMillis() - startTime);
+    return MonitorHistoryResponseDto.builder()
+        .monitorId(monitor.getId())
+        .monitorName(monitor.getName())
+        .from(from)
+        .to(to)
+        .bucketSeconds(buckets.step().toSeconds())
+        .sources(sources.stream().map(Source::name).toList())
+        .points(downsample(buckets.toPoints(), maxPoints, downsampling))
+        .statusDownPeriods(incidentService.getDownPeriods(tenantId, monitor.getId(), from, to))
+        .build();
+  }
+
+  private static List<MonitorHistoryPointDto> downsample(
+      List<MonitorHistoryPointDto> points, int maxPoints, Downsampling downsampling) {
+    if (downsampling == Downsampling.NONE || points.size() <= maxPoints) {
+      return points;
+    }
+    long[] x = new long[points.size()];
+    double[] y = new double[points.size()];
+    for (int i = 0; i < x.length; i++) {
+      MonitorHistoryPointDto point = points.get(i);
+      x[i] = point.getTimestamp().toEpochSecond(ZoneOffset.UTC);
+      y[i] = point.getAverageResponseTimeMs() != null ? point.getAverageResponseTimeMs() : 0;
+    }
+    int[] selected =
+        downsampling == Downsampling.LTTB
+            ? SeriesDownsampler.lttb(x, y, maxPoints)
+            : SeriesDownsampler.m4(x, y, maxPoints / 4);
+    List<MonitorHistoryPointDto> reduced = new ArrayList<>(selected.length);
+    for (int index : selected) {
+      reduced.add(points.get(index));
+    }
+    return reduced;
+  }
+
+  private void addDays(
+      Integer tenantId,
+      Integer monitorId,
+      LocalDateTime from,
+      LocalDateTime to,
+      HistoryBuckets buckets,
+      Set<Source> sources) {
+    boolean wholeDays = buckets.step().toSeconds() % Duration.ofDays(1).toSeconds() == 0;
+    Map<LocalDate, UptimeDay> days = new HashMap<>();
+    LocalDate firstDay = null;
+    for (UptimeDay day :
+        uptimeDailyAggregateService.getDays(
+            tenantId, monitorId, from.toLocalDate(), to.toLocalDate())) {
+      days.put(day.day(), day);
+      if (firstDay == null) {
+        firstDay = day.day();
+      }
+    }
+
+    // days before the first aggregate may be deleted already, days after it without one had no
+    // checks
+    LocalDateTime fallbackStart = null;
+    for (LocalDate date = from.toLocalDate();
+        !date.isAfter(to.toLocalDate());
+        date = date.plusDays(1)) {
+      UptimeDay day = days.get(date);
+      boolean aggregated =
+          day != null ? wholeDays || day.hasHours() : firstDay != null && date.isAfter(firstDay);
+      if (!aggregated) {
+        if (fallbackStart == null) {
+          fallbackStart = date.atStartOfDay().isBefore(from) ? from : date.atStartOfDay();
+        }
+        continue;
+      }
+      if (fallbackStart != null) {
+        addRollupsAndChecks(
+            tenantId,
+            monitorId,
+            fallbackStart,
+            date.atStartOfDay().minusNanos(1),
+            buckets,
+            sources);
+        fallbackStart = null;
+      }
+      if (day == null) {
+        continue;
+      }
+      if (wholeDays) {
+        // days are aligned with the buckets
+        buckets.add(date.atStartOfDay(), day.aggregate(), day.sketch());
+      } else {
+        for (int hour = 0; hour < UptimeDay.HOURS; hour++) {
+          LocalDateTime hourStart = date.atTime(hour, 0);
+          CheckResultAggregate aggregate = day.hourAggregate(hour);
+          if (aggregate != null && !hourStart.isBefore(from) && !hourStart.isAfter(to)) {
+            buckets.add(hourStart, aggregate, null);
+          }
+        }
+      }
+      sources.add(Source.DAILY_AGGREGATES);
+    }
+    if (fallbackStart != null) {
+      addRollupsAndChecks(tenantId, monitorId, fallbackStart, to, buckets, sources);
+    }
+  }
+
+  private void addRollupsAndChecks(
+      Integer tenantId,
+      Integer monitorId,
+      LocalDateTime from,
+      LocalDateTime to,
+      HistoryBuckets buckets,
+      Set<Source> sources) {
+    // like CheckResultRollupService#getAggregate: whole days are compacted, the raw checks are
+    // authoritative from the day after the last hourly rollup on
+    LocalDateTime lastHour =
+        checkResultRollupRepository.findLastBucketStart(monitorId, Resolution.HOUR);
+    LocalDateTime rawStart =
+        lastHour != null ? lastHour.toLocalDate().plusDays(1).atStartOfDay() : null;
+
+    if (rawStart != null && from.isBefore(rawStart)) {
+      LocalDateTime rolledEnd = to.isBefore(rawStart) ? to : rawStart.minusNanos(1);
+      LocalDateTime hourlyEnd = rolledEnd;
+      if (buckets.step().compareTo(Duration.ofHours(1)) < 0) {
+        LocalDateTime firstMinute =
+            checkResultRollupRepository.findFirstBucketStart(monitorId, Resolution.MINUTE);
+        if (firstMinute != null && !rolledEnd.isBefore(firstMinute)) {
+          addRollups(
+              tenantId,
+              monitorId,
+              Resolution.MINUTE,
+              from.isAfter(firstMinute) ? from : firstMinute,
+              rolledEnd,
+              buckets);
+          sources.add(Source.MINUTE_ROLLUPS);
+          hourlyEnd = firstMinute.minusNanos(1);
+        }
+      }
+      if (!hourlyEnd.isBefore(from)) {
+        // finer buckets get the whole hour at its start where only hourly rollups are left
+        addRollups(tenantId, monitorId, Resolution.HOUR, from, hourlyEnd, buckets);
+        sources.add(Source.HOURLY_ROLLUPS);
+      }
+    }
+
+    if (rawStart == null || !to.isBefore(rawStart)) {
+      LocalDateTime scanStart = rawStart != null && rawStart.isAfter(from) ? rawStart : from;
+      checkResultService.forEachSample(tenantId, monitorId, scanStart, to, buckets::add);
+      for (CheckResultRun run : checkResultService.getRuns(tenantId, monitorId, scanStart, to)) {
+        buckets.add(run);
+      }
+      sources.add(Source.RAW);
+    }
+  }
+
+  private void addRollups(
+      Integer tenantId,
+      Integer monitorId,
+      Resolution resolution,
+      LocalDateTime start,
+      LocalDateTime end,
+      HistoryBuckets buckets) {
+    for (CheckResultRollup rollup :
+        checkResultRollupRepository.findByBucketStartBetween(
+            monitorId, tenantId, resolution, start, end)) {
+      buckets.add(
+          rollup.getBucketStart(),
+          new CheckResultAggregate(
+              rollup.getCheckCount(),
+              rollup.getSuccessfulChecks(),
+              rollup.getResponseTimeCount(),
+              rollup.getResponseTimeSumMs(),
+              rollup.getMinResponseTimeMs(),
+              rollup.getMaxResponseTimeMs()),
+          null);
+    }
+  }
+}
@@ -10,6 +10,7 @@ import java.util.Optional;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -22,6 +23,12 @@ import org.springframework.transaction.annotation.Transactional;
 public class MonitorService {
 
   private final MonitorRepository monitorRepository;
+  private final ResponseTimeHistoryCache responseTimeHistoryCache;
+  private final SloService sloService;
+  private final MonitorStatusStreamService monitorStatusStreamService;
+  private final DashboardSnapshotService dashboardSnapshotService;
+  private final TenantDataVersions tenantDataVersions;
+  private final PublicStatusPageService publicStatusPageService;
 
   public Monitor createMonitor(Integer tenantId, MonitorRequestDto requestDto) {
     log.info("Creating new monitor: {}", requestDto.getName());
@@ -48,6 +55,9 @@ public class MonitorService {
             .build();
 
     Monitor savedMonitor = monitorRepository.save(monitor);
+    dashboardSnapshotService.invalidate(tenantId);
+    tenantDataVersions.bumpAll(tenantId);
+    publicStatusPageService.invalidate(tenantId);
     log.info("Monitor created with ID: {}", savedMonitor.getId());
 
     return savedMonitor;
@@ -62,6 +72,16 @@ public class MonitorService {
         .orElseThrow(() -> new IllegalArgumentException("Monitor not found with ID: " + id));
   }
 
+  /** Finds a monitor of any of the given tenants in one query. */
+  @Transactional(readOnly = true)
+  public Monitor getMonitorById(Set<Integer> tenantIds, Integer id) {
+    log.debug("Fetching monitor by ID: {} for tenants: {}", id, tenantIds);
+
+    return monitorRepository
+        .findByIdAndTenantIdIn(id, tenantIds)
+        .orElseThrow(() -> new IllegalArgumentException("Monitor not found with ID: " + id));
+  }
+
   @Transactional(readOnly = true)
   public List<Monitor> getAllMonitors(Integer tenantId) {
     log.debug("Fetching all monitors");
@@ -73,9 +93,18 @@ public class MonitorService {
   public Page<Monitor> getAllMonitors(Integer tenantId, Pageable pageable) {
     log.debug("Fetching monitors with pagination: {}", pageable);
 
-    // TODO: Add tenant-aware pageable method to MonitorRepository
-    // For now, fall back to filtering in service layer (not optimal for large datasets)
-    return monitorRepository.findAll(pageable);
+    return monitorRepository.findByTenantId(tenantId, pageable);
+  }
+
+  /**
+   * Returns up to limit monitors of the given tenants with an id greater than afterId, by id. Seeks
+   * on the primary key, so every page costs the same.
+   */
+  @Transactional(readOnly = true)
+  public List<Monitor> getMonitorsPage(Set<Integer> tenantIds, Integer afterId, int limit) {
+    log.debug("Fetching {} monitors after ID {} for tenants: {}", limit, afterId, tenantIds);
+
+    return monitorRepository.findPageAfter(tenantIds, afterId, Limit.of(limit));
   }
 
   @Transactional(readOnly = true)
@@ -128,6 +157,12 @@ public class MonitorService {
     existingMonitor.setAlertingThreshold(requestDto.getAlertingThreshold());
 
     Monitor updatedMonitor = monitorRepository.save(existingMonitor);
+    dashboardSnapshotService.invalidate(tenantId);
+    tenantDataVersions.bumpAll(tenantId);
+    publicStatusPageService.invalidate(tenantId);
+    if (updatedMonitor.getState() == MonitorState.INACTIVE) {
+      monitorStatusStreamService.publishRemoved(tenantId, id);
+    }
     log.info("Monitor updated: {}", updatedMonitor.getId());
 
     return updatedMonitor;
@@ -141,7 +176,26 @@ public class MonitorService {
             .findByIdAndTenantId(id, tenantId)
             .orElseThrow(() -> new IllegalArgumentException("Monitor not found with ID: " + id));
 
+    delete(tenantId, monitor);
+  }
+
+  /** Deletes a monitor of any of the given tenants. */
+  public void deleteMonitor(Set<Integer> tenantIds, Integer id) {
+    log.info("Deleting monitor ID: {} of tenants: {}", id, tenantIds);
+
+    Monitor monitor = getMonitorById(tenantIds, id);
+    delete(monitor.getTenantId(), monitor);
+  }
+
+  private void delete(Integer tenantId, Monitor monitor) {
+    Integer id = monitor.getId();
     monitorRepository.delete(monitor);
+    responseTimeHistoryCache.evict(id);
+    sloService.evictMonitor(id);
+    monitorStatusStreamService.publishRemoved(tenantId, id);
+    dashboardSnapshotService.invalidate(tenantId);
+    tenantDataVersions.bumpAll(tenantId);
+    publicStatusPageService.invalidate(tenantId);
     log.info("Monitor deleted: {}", id);
   }
 
@@ -153,8 +207,36 @@ public class MonitorService {
             .findByIdAndTenantId(id, tenantId)
             .orElseThrow(() -> new IllegalArgumentException("Monitor not found with ID: " + id));
 
+    return updateState(tenantId, monitor, newState);
+  }
+
+  /** Updates the state of a monitor of any of the given tenants. */
+  public Monitor updateMonitorState(Set<Integer> tenantIds, Integer id, MonitorState newState) {
+    log.info("Updating state for monitor ID: {} of tenants: {} to {}", id, tenantIds, newState);
+
+    Monitor monitor = getMonitorById(tenantIds, id);
+    return updateState(monitor.getTenantId(), monitor, newState);
+  }
+
+  /** Switches a monitor of any of the given tenants between ACTIVE and INACTIVE. */
+  public Monitor toggleMonitorState(Set<Integer> tenantIds, Integer id) {
+    Monitor monitor = getMonitorById(tenantIds, id);
+    MonitorState newState =
+        monitor.getState() == MonitorState.ACTIVE ? MonitorState.INACTIVE : MonitorState.ACTIVE;
+    log.info("Toggling state for monitor ID: {} to {}", id, newState);
+    return updateState(monitor.getTenantId(), monitor, newState);
+  }
+
+  private Monitor updateState(Integer tenantId, Monitor monitor, MonitorState newState) {
+    Integer id = monitor.getId();
     monitor.setState(newState);
     Monitor updatedMonitor = monitorRepository.save(monitor);
+    dashboardSnapshotService.invalidate(tenantId);
+    tenantDataVersions.bumpAll(tenantId);
+    publicStatusPageService.invalidate(tenantId);
+    if (newState == MonitorState.INACTIVE) {
+      monitorStatusStreamService.publishRemoved(tenantId, id);
+    }
 
     log.info("Monitor {} state changed to: {}", id, updatedMonitor.getState());
     return updatedMonitor;
@@ -6,6 +6,7 @@ import de.oglimmer.status_tacos.repository.MonitorRepository;
 import de.oglimmer.status_tacos.repository.MonitorStatusRepository;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -20,6 +21,10 @@ public class MonitorStatusService {
   private final MonitorStatusRepository monitorStatusRepository;
   private final MonitorRepository monitorRepository;
   private final TxDebug txDebug;
+  private final IncidentService incidentService;
+  private final MonitorStatusStreamService monitorStatusStreamService;
+  private final TenantDataVersions tenantDataVersions;
+  private final PublicStatusPageService publicStatusPageService;
 
   public MonitorStatus updateMonitorStatus(
       Integer tenantId, Monitor monitor, CheckResult checkResult) {
@@ -52,7 +57,8 @@ public class MonitorStatusService {
     MonitorStatus.StatusType newStatus =
         checkResult.getIsUp() ? MonitorStatus.StatusType.up : MonitorStatus.StatusType.down;
 
-    boolean statusChanged = status.getCurrentStatus() != newStatus;
+    MonitorStatus.StatusType previousStatus = status.getCurrentStatus();
+    boolean statusChanged = previousStatus != newStatus;
 
     status.setCurrentStatus(newStatus);
     status.setLastCheckedAt(checkResult.getCheckedAt());
@@ -68,8 +74,12 @@ public class MonitorStatusService {
     }
 
     MonitorStatus savedStatus = monitorStatusRepository.save(status);
+    incidentService.recordCheck(tenantId, monitor, checkResult, previousStatus);
+    monitorStatusStreamService.publishStatus(tenantId, monitor, savedStatus);
+    tenantDataVersions.bumpStatus(tenantId);
 
     if (statusChanged) {
+      publicStatusPageService.invalidate(tenantId);
       log.info(
           "Monitor {} status changed to: {} (consecutive failures: {})",
           monitor.getId(),
@@ -86,6 +96,12 @@ public class MonitorStatusService {
     return monitorStatusRepository.findAllActiveMonitorStatusesByTenantId(tenantId);
   }
 
+  @Transactional(readOnly = true)
+  public List<MonitorStatus> getAllActiveMonitorStatuses(Set<Integer> tenantIds) {
+    log.debug("Getting all active monitor statuses for tenants: {}", tenantIds);
+    return monitorStatusRepository.findAllActiveMonitorStatusesByTenantIdIn(tenantIds);
+  }
+
   @Transactional(readOnly = true)
   public List<MonitorStatus> getMonitorsWithConsecutiveFailures(Integer tenantId, int threshold) {
     log.debug("Getting monitors with consecutive failures >= {}", threshold);
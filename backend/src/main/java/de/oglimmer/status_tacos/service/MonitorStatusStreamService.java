@@ -0,0 +1,372 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.oglimmer.status_tacos.dto.MonitorStatusResponseDto;
+import de.oglimmer.status_tacos.dto.StatusType;
+import de.oglimmer.status_tacos.dto.UptimeStatsResponseDto;
+import de.oglimmer.status_tacos.mapper.EntityMapper;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.persistence.MonitorStatus;
+import de.oglimmer.status_tacos.persistence.UptimeStats;
+import de.oglimmer.status_tacos.util.AfterCommit;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes monitor status changes to Server-Sent Events subscribers.
+ *
+ * <p>A subscriber gets a snapshot of the active monitor statuses of its tenants, then a delta
+ * whenever the check pipeline of this instance changes the status or the latency bucket of a
+ * monitor, or the uptime stats job changes its uptime. Deltas are published after the transaction
+ * that wrote them committed, serialized once and fanned out on a single thread into a bounded queue
+ * per subscriber, so a subscriber receives them in order and idle subscribers cost no thread, only
+ * their open connection. The queues are written by the writer executor; a subscriber whose queue
+ * overflows reads slower than the monitors change and is disconnected, it resubscribes for a new
+ * snapshot.
+ *
+ * <p>Events: {@code snapshot} (list of monitor statuses), {@code status} (one monitor status),
+ * {@code stats} (the uptime stats of a monitor, without series) and {@code removed} (a monitor left
+ * the active monitors).
+ */
+@Service
+@Slf4j
+public class MonitorStatusStreamService {
+
+  // upper bounds of the latency buckets in ms, a response time change within a bucket isn't pushed
+  static final int[] LATENCY_BUCKETS_MS = {100, 250, 500, 1000, 2500, 5000};
+
+  private final ObjectMapper objectMapper;
+  private final EntityMapper entityMapper;
+  private final Executor statusStreamExecutor;
+  private final Executor statusStreamWriterExecutor;
+  private final long timeoutMillis;
+  private final int queueCapacity;
+
+  private final Map<Integer, Set<Subscriber>> subscribersByTenant = new ConcurrentHashMap<>();
+
+  // last pushed state per monitor, only touched by the stream executor
+  private final Map<Integer, StatusFingerprint> publishedStatuses = new ConcurrentHashMap<>();
+  private final Map<Integer, List<Long>> publishedStats = new ConcurrentHashMap<>();
+
+  public MonitorStatusStreamService(
+      ObjectMapper objectMapper,
+      EntityMapper entityMapper,
+      @Qualifier("statusStreamExecutor") Executor statusStreamExecutor,
+      @Qualifier("statusStreamWriterExecutor") Executor statusStreamWriterExecutor,
+      @Value("${monitor.stream.timeout:1800000}") long timeoutMillis,
+      @Value("${monitor.stream.queue-capacity:256}") int queueCapacity) {
+    this.objectMapper = objectMapper;
+    this.entityMapper = entityMapper;
+    this.statusStreamExecutor = statusStreamExecutor;
+    this.statusStreamWriterExecutor = statusStreamWriterExecutor;
+    this.timeoutMillis = timeoutMillis;
+    this.queueCapacity = queueCapacity;
+  }
+
+  /**
+   * Subscribes to the monitors of the given tenants. Deltas published while the snapshot is read
+   * are held back and sent after it, so none is lost between the snapshot and the stream.
+   */
+  public SseEmitter subscribe(
+      Set<Integer> tenantIds, Supplier<List<MonitorStatusResponseDto>> snapshot) {
+    SseEmitter emitter = createEmitter(timeoutMillis);
+    Subscriber subscriber = new Subscriber(emitter, Set.copyOf(tenantIds));
+    emitter.onCompletion(() -> unsubscribe(subscriber));
+    emitter.onTimeout(() -> unsubscribe(subscriber));
+    emitter.onError(e -> unsubscribe(subscriber));
+    for (Integer tenantId : subscriber.tenantIds) {
+      subscribersByTenant
+          .computeIfAbsent(tenantId, id -> ConcurrentHashMap.newKeySet())
+          .add(subscriber);
+    }
+
+    try {
+      subscriber.enqueueSnapshot(objectMapper.writeValueAsString(snapshot.get()));
+    } catch (Exception e) {
+      log.debug("Failed to send the monitor status snapshot: {}", e.getMessage());
+      unsubscribe(subscriber);
+      emitter.completeWithError(e);
+    }
+    return emitter;
+  }
+
+  /** Publishes the status a check wrote, if its status or latency bucket changed. */
+  public void publishStatus(Integer tenantId, Monitor monitor, MonitorStatus status) {
+    MonitorStatusResponseDto dto =
+        MonitorStatusResponseDto.builder()
+            .monitorId(monitor.getId())
+            .monitorName(monitor.getName())
+            .monitorUrl(monitor.getUrl())
+            .tenantId(tenantId)
+            .tenant(
+                monitor.getTenant() != null && Hibernate.isInitialized(monitor.getTenant())
+                    ? entityMapper.toDto(monitor.getTenant())
+                    : null)
+            .currentStatus(StatusType.valueOf(status.getCurrentStatus().name()))
+            .lastCheckedAt(status.getLastCheckedAt())
+            .lastUpAt(status.getLastUpAt())
+            .lastDownAt(status.getLastDownAt())
+            .consecutiveFailures(status.getConsecutiveFailures())
+            .lastResponseTimeMs(status.getLastResponseTimeMs())
+            .lastStatusCode(status.getLastStatusCode())
+            .updatedAt(status.getUpdatedAt())
+            .build();
+    StatusFingerprint fingerprint =
+        new StatusFingerprint(dto.getCurrentStatus(), latencyBucket(dto.getLastResponseTimeMs()));
+
+    afterCommit(
+        () -> {
+          if (!fingerprint.equals(publishedStatuses.put(monitor.getId(), fingerprint))) {
+            broadcast(tenantId, "status", dto);
+          }
+        });
+  }
+
+  /** Publishes the stats the uptime stats job wrote, if the uptime of a period changed. */
+  public void publishStats(Integer tenantId, Integer monitorId, List<UptimeStats> stats) {
+    List<UptimeStatsResponseDto> dtos = new ArrayList<>(stats.size());
+    List<Long> fingerprint = new ArrayList<>(stats.size() * 2);
+    for (UptimeStats stat : stats) {
+      dtos.add(
+          UptimeStatsResponseDto.builder()
+              .monitorId(monitorId)
+              .tenantId(tenantId)
+              .periodType(stat.getPeriodType())
+              .periodStart(stat.getPeriodStart())
+              .periodEnd(stat.getPeriodEnd())
+              .totalChecks(stat.getTotalChecks())
+              .successfulChecks(stat.getSuccessfulChecks())
+              .uptimePercentage(stat.getUptimePercentage())
+              .minResponseTimeMs(stat.getMinResponseTimeMs())
+              .maxResponseTimeMs(stat.getMaxResponseTimeMs())
+              .avgResponseTimeMs(stat.getAvgResponseTimeMs())
+              .calculatedAt(stat.getCalculatedAt())
+              .build());
+      fingerprint.add((long) stat.getPeriodType().ordinal());
+      fingerprint.add(
+          stat.getUptimePercentage() == null
+              ? -1L
+              : stat.getUptimePercentage().movePointRight(2).longValue());
+    }
+
+    afterCommit(
+        () -> {
+          if (!fingerprint.equals(publishedStats.put(monitorId, fingerprint))) {
+            broadcast(tenantId, "stats", dtos);
+          }
+        });
+  }
+
+  /** Publishes that a monitor was deleted or deactivated. */
+  public void publishRemoved(Integer tenantId, Integer monitorId) {
+    afterCommit(
+        () -> {
+          publishedStatuses.remove(monitorId);
+          publishedStats.remove(monitorId);
+          broadcast(tenantId, "removed", Map.of("monitorId", monitorId));
+        });
+  }
+
+  /** Keeps idle connections open through proxies and detects the closed ones. */
+  @Scheduled(fixedDelayString = "${monitor.stream.heartbeat-interval:30000}")
+  public void sendHeartbeats() {
+    if (subscribersByTenant.isEmpty()) {
+      return;
+    }
+    statusStreamExecutor.execute(
+        () -> {
+          Set<Subscriber> all = ConcurrentHashMap.newKeySet();
+          subscribersByTenant.values().forEach(all::addAll);
+          all.forEach(Subscriber::enqueueHeartbeat);
+        });
+  }
+
+  public int getSubscriberCount() {
+    Set<Subscriber> all = ConcurrentHashMap.newKeySet();
+    subscribersByTenant.values().forEach(all::addAll);
+    return all.size();
+  }
+
+  SseEmitter createEmitter(long timeoutMillis) {
+    return new SseEmitter(timeoutMillis);
+  }
+
+  static int latencyBucket(Integer responseTimeMs) {
+    if (responseTimeMs == null) {
+      return -1;
+    }
+    int bucket = 0;
+    while (bucket < LATENCY_BUCKETS_MS.length && responseTimeMs >= LATENCY_BUCKETS_MS[bucket]) {
+      bucket++;
+    }
+    return bucket;
+  }
+
+  private void broadcast(Integer tenantId, String name, Object payload) {
+    Set<Subscriber> subscribers = subscribersByTenant.get(tenantId);
+    if (subscribers == null || subscribers.isEmpty()) {
+      return;
+    }
+    String data;
+    try {
+      data = objectMapper.writeValueAsString(payload);
+    } catch (JsonProcessingException e) {
+      log.warn("Failed to serialize the {} event: {}", name, e.getMessage());
+      return;
+    }
+    subscribers.forEach(subscriber -> subscriber.enqueue(new Event(name, data)));
+  }
+
+  private void afterCommit(Runnable publish) {
+    AfterCommit.run(() -> statusStreamExecutor.execute(publish));
+  }
+
+  private void unsubscribe(Subscriber subscriber) {
+    for (Integer tenantId : subscriber.tenantIds) {
+      subscribersByTenant.computeIfPresent(
+          tenantId,
+          (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+          });
+    }
+  }
+
+  private record StatusFingerprint(StatusType status, int latencyBucket) {}
+
+  /** An event as sent, a heartbeat comment if the name is null. */
+  private record Event(String name, String data) {
+
+    static final Event HEARTBEAT = new Event(null, null);
+
+    SseEmitter.SseEventBuilder toSse() {
+      return name == null
+          ? SseEmitter.event().comment("heartbeat")
+          : SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+    }
+  }
+
+  /**
+   * The queue of a subscriber. Only enqueueing holds its lock; the events are written outside of it
+   * by at most one drain task at a time, so the fan-out never waits on a client.
+   */
+  private final class Subscriber {
+
+    private final SseEmitter emitter;
+    private final Set<Integer> tenantIds;
+    private final Deque<Event> queue = new ArrayDeque<>();
+
+    // the snapshot is queued first, events published before are held back until then
+    private boolean snapshotQueued;
+    private boolean draining;
+    private Exception closedBy;
+
+    private Subscriber(SseEmitter emitter, Set<Integer> tenantIds) {
+      this.emitter = emitter;
+      this.tenantIds = tenantIds;
+    }
+
+    void enqueueSnapshot(String data) {
+      boolean drain;
+      synchronized (this) {
+        queue.addFirst(new Event("snapshot", data));
+        snapshotQueued = true;
+        drain = startDrain();
+      }
+      if (drain) {
+        statusStreamWriterExecutor.execute(this::drain);
+      }
+    }
+
+    void enqueue(Event event) {
+      boolean overflowed;
+      boolean drain;
+      synchronized (this) {
+        if (closedBy != null) {
+          return;
+        }
+        overflowed = queue.size() >= queueCapacity;
+        if (overflowed) {
+          queue.clear();
+          closedBy = new IOException("More than " + queueCapacity + " events queued");
+        } else {
+          queue.addLast(event);
+        }
+        drain = startDrain();
+      }
+      if (overflowed) {
+        unsubscribe(this);
+      }
+      if (drain) {
+        statusStreamWriterExecutor.execute(this::drain);
+      }
+    }
+
+    void enqueueHeartbeat() {
+      synchronized (this) {
+        // a subscriber with events queued is written to anyway
+        if (!snapshotQueued || !queue.isEmpty()) {
+          return;
+        }
+      }
+      enqueue(Event.HEARTBEAT);
+    }
+
+    private boolean startDrain() {
+      if (draining || !snapshotQueued) {
+        return false;
+      }
+      draining = true;
+      return true;
+    }
+
+    private void drain() {
+      while (true) {
+        Event event;
+        Exception closed;
+        synchronized (this) {
+          closed = closedBy;
+          event = closed == null ? queue.pollFirst() : null;
+          if (event == null) {
+            draining = false;
+            if (closed == null) {
+              return;
+            }
+          }
+        }
+        if (closed != null) {
+          log.debug("Closing monitor status stream: {}", closed.getMessage());
+          emitter.completeWithError(closed);
+          return;
+        }
+        try {
+          emitter.send(event.toSse());
+        } catch (Exception e) {
+          synchronized (this) {
+            closedBy = e;
+            queue.clear();
+          }
+          unsubscribe(this);
+        }
+      }
+    }
+  }
+}
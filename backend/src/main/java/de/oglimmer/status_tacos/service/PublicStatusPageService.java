@@ -0,0 +1,223 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.oglimmer.status_tacos.dto.PublicMonitorStatusDto;
+import de.oglimmer.status_tacos.dto.PublicStatusPageDto;
+import de.oglimmer.status_tacos.dto.StatusType;
+import de.oglimmer.status_tacos.persistence.MonitorStatus;
+import de.oglimmer.status_tacos.persistence.Tenant;
+import de.oglimmer.status_tacos.persistence.UptimeStats;
+import de.oglimmer.status_tacos.repository.MonitorStatusRepository;
+import de.oglimmer.status_tacos.repository.TenantRepository;
+import de.oglimmer.status_tacos.repository.UptimeStatsRepository;
+import de.oglimmer.status_tacos.util.AfterCommit;
+import de.oglimmer.status_tacos.util.ExpiringCache;
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The public status pages of the tenants that publish one, rendered to JSON once and served as is
+ * until the tenant changes: a monitor changes its status, is added, changed or removed, its uptime
+ * stats are updated or the tenant itself is changed. Serving a current page touches neither the
+ * database nor the serializer.
+ *
+ * <p>The ETag of a page is a weak one hashing its content but the generation time, so all instances
+ * agree on it and a rebuild that renders the same page doesn't bust the caches in front. Instances
+ * that don't run the checks see no changes and rebuild once a page is older than {@code
+ * monitor.public-status.max-age}. Codes without a page are remembered for the same time, so unknown
+ * codes don't query the database either.
+ */
+@Service
+@Slf4j
+public class PublicStatusPageService {
+
+  private static final int LOCK_STRIPES = 64;
+
+  private final TenantRepository tenantRepository;
+  private final MonitorStatusRepository monitorStatusRepository;
+  private final UptimeStatsRepository uptimeStatsRepository;
+  private final ObjectMapper objectMapper;
+  private final PublicStatusPageService self;
+  private final boolean changedLocally;
+  private final long maxAgeNanos;
+
+  private final Map<String, Page> pages = new ConcurrentHashMap<>();
+  private final Map<Integer, AtomicLong> versions = new ConcurrentHashMap<>();
+  private final ExpiringCache<String, Boolean> unpublished;
+  private final Object[] rebuildLocks = new Object[LOCK_STRIPES];
+
+  public PublicStatusPageService(
+      TenantRepository tenantRepository,
+      MonitorStatusRepository monitorStatusRepository,
+      UptimeStatsRepository uptimeStatsRepository,
+      ObjectMapper objectMapper,
+      @Lazy PublicStatusPageService self,
+      @Value("${monitor.scheduling.enabled:true}") boolean changedLocally,
+      @Value("${monitor.public-status.max-age:60000}") long maxAgeMillis,
+      @Value("${monitor.public-status.unpublished-cache-max-size:10000}") int unpublishedMaxSize) {
+    this.tenantRepository = tenantRepository;
+    this.monitorStatusRepository = monitorStatusRepository;
+    this.uptimeStatsRepository = uptimeStatsRepository;
+    this.objectMapper = objectMapper;
+    this.self = self;
+    this.changedLocally = changedLocally;
+    this.maxAgeNanos = maxAgeMillis * 1_000_000L;
+    this.unpublished = new ExpiringCache<>(unpublishedMaxSize, maxAgeMillis);
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      rebuildLocks[i] = new Object();
+    }
+  }
+
+  /**
+   * A rendered status page; the ETag is formatted as sent. The body is handed out to every request
+   * and must not be modified.
+   */
+  public record Page(Integer tenantId, long version, long builtAtNanos, String etag, byte[] body) {}
+
+  /** The current page of a tenant code, empty if there is no such tenant or it publishes none. */
+  public Optional<Page> getPage(String code) {
+    Page page = pages.get(code);
+    if (isCurrent(page)) {
+      return Optional.of(page);
+    }
+    if (page == null && unpublished.get(code) != null) {
+      return Optional.empty();
+    }
+    synchronized (rebuildLocks[Math.floorMod(code.hashCode(), LOCK_STRIPES)]) {
+      // another request may have rebuilt it meanwhile
+      page = pages.get(code);
+      if (isCurrent(page)) {
+        return Optional.of(page);
+      }
+      long startTime = System.nanoTime();
+      page = self.build(code, page != null ? version(page.tenantId()).get() : null);
+      if (page == null) {
+        pages.remove(code);
+        unpublished.put(code, Boolean.TRUE);
+        return Optional.empty();
+      }
+      pages.put(code, page);
+      log.debug(
+          "Rebuilt the public status page of tenant {} in {}ms",
+          page.tenantId(),
+          (System.nanoTime() - startTime) / 1_000_000);
+      return Optional.of(page);
+    }
+  }
+
+  /**
+   * Marks the page of a tenant outdated, once the change committed so a concurrent rebuild can't
+   * read the old state back in.
+   */
+  public void invalidate(Integer tenantId) {
+    AfterCommit.run(() -> version(tenantId).incrementAndGet());
+  }
+
+  /** Like {@link #invalidate(Integer)}, for changes to the tenant that may publish its page. */
+  public void invalidate(Tenant tenant) {
+    AfterCommit.run(
+        () -> {
+          version(tenant.getId()).incrementAndGet();
+          unpublished.invalidate(tenant.getCode());
+        });
+  }
+
+  /**
+   * Renders the page of a tenant code, null if it has none. The version the page is current for is
+   * read before the data, so a change committed during the build causes another one.
+   *
+   * @param version the version of the tenant if known, read before the call
+   */
+  @Transactional(readOnly = true)
+  public Page build(String code, Long version) {
+    Optional<Tenant> found = tenantRepository.findByCode(code);
+    if (found.isEmpty()
+        || !Boolean.TRUE.equals(found.get().getIsActive())
+        || !Boolean.TRUE.equals(found.get().getPublicStatusPage())) {
+      return null;
+    }
+    Tenant tenant = found.get();
+    long currentVersion = version != null ? version : version(tenant.getId()).get();
+
+    Map<Integer, Map<String, BigDecimal>> uptimes = new HashMap<>();
+    for (UptimeStats stats : uptimeStatsRepository.findLatestByTenantId(tenant.getId())) {
+      uptimes
+          .computeIfAbsent(stats.getMonitor().getId(), id -> new LinkedHashMap<>())
+          .put(stats.getPeriodType().getValue(), stats.getUptimePercentage());
+    }
+    List<PublicMonitorStatusDto> monitors = new ArrayList<>();
+    StatusType status = StatusType.up;
+    for (MonitorStatus monitorStatus :
+        monitorStatusRepository.findAllActiveMonitorStatusesByTenantId(tenant.getId())) {
+      boolean up = monitorStatus.getCurrentStatus() == MonitorStatus.StatusType.up;
+      if (!up) {
+        status = StatusType.down;
+      }
+      monitors.add(
+          PublicMonitorStatusDto.builder()
+              .name(monitorStatus.getMonitor().getName())
+              .status(up ? StatusType.up : StatusType.down)
+              .since(up ? monitorStatus.getLastDownAt() : monitorStatus.getLastUpAt())
+              .uptimePercentages(uptimes.getOrDefault(monitorStatus.getMonitorId(), Map.of()))
+              .build());
+    }
+    monitors.sort(Comparator.comparing(PublicMonitorStatusDto::getName));
+
+    PublicStatusPageDto dto =
+        PublicStatusPageDto.builder()
+            .name(tenant.getName())
+            .description(tenant.getDescription())
+            .status(status)
+            .monitors(monitors)
+            .generatedAt(LocalDateTime.now())
+            .build();
+    byte[] body;
+    try {
+      body = objectMapper.writeValueAsBytes(dto);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to render the public status page of " + code, e);
+    }
+    // the generation time alone doesn't make a new page
+    dto.setGeneratedAt(null);
+    return new Page(tenant.getId(), currentVersion, System.nanoTime(), etag(dto), body);
+  }
+
+  private boolean isCurrent(Page page) {
+    return page != null
+        && page.version() == version(page.tenantId()).get()
+        && (changedLocally || System.nanoTime() - page.builtAtNanos() < maxAgeNanos);
+  }
+
+  private AtomicLong version(Integer tenantId) {
+    return versions.computeIfAbsent(tenantId, id -> new AtomicLong());
+  }
+
+  private String etag(PublicStatusPageDto dto) {
+    try {
+      byte[] hash =
+          MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(dto));
+      return "W/\"" + HexFormat.of().formatHex(hash, 0, 16) + '"';
+    } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,240 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.dto.ResponseTimeDataPointDto;
+import de.oglimmer.status_tacos.dto.ResponseTimeHistoryResponseDto;
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.persistence.MonitorState;
+import de.oglimmer.status_tacos.repository.MonitorRepository;
+import de.oglimmer.status_tacos.store.CheckResultStore;
+import de.oglimmer.status_tacos.util.AfterCommit;
+import de.oglimmer.status_tacos.util.SeriesDownsampler;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves the 24h response time history of the dashboard from a {@link ResponseTimeRing} per
+ * monitor, without a query per request.
+ *
+ * <p>Rings are updated with every check result saved through {@link CheckResultService}, after its
+ * transaction committed. A monitor's ring is hydrated from the store on the first request for it;
+ * with scheduling enabled all active monitors are hydrated in the background at startup. Instances
+ * that don't run the checks never see a check recorded, they hydrate a ring again once it is older
+ * than {@code monitor.response-time-history.max-age}.
+ */
+@Service
+@Slf4j
+public class ResponseTimeHistoryCache {
+
+  private final CheckResultStore checkResultStore;
+  private final MonitorRepository monitorRepository;
+  private final Executor taskExecutor;
+  private final boolean recordedLocally;
+  private final long maxAgeNanos;
+
+  private final Map<Integer, ResponseTimeRing> rings = new ConcurrentHashMap<>();
+
+  public ResponseTimeHistoryCache(
+      @Lazy CheckResultStore checkResultStore,
+      MonitorRepository monitorRepository,
+      @Qualifier("taskExecutor") Executor taskExecutor,
+      @Value("${monitor.scheduling.enabled:true}") boolean recordedLocally,
+      @Value("${monitor.response-time-history.max-age:${monitor.scheduling.check-interval:60000}}")
+          long maxAgeMillis) {
+    this.checkResultStore = checkResultStore;
+    this.monitorRepository = monitorRepository;
+    this.taskExecutor = taskExecutor;
+    this.recordedLocally = recordedLocally;
+    this.maxAgeNanos = maxAgeMillis * 1_000_000L;
+  }
+
+  /** Adds a saved check result to the ring of its monitor once the transaction committed. */
+  public void record(CheckResult checkResult) {
+    Integer monitorId = checkResult.getMonitor().getId();
+    String monitorName = checkResult.getMonitor().getName();
+    LocalDateTime checkedAt = checkResult.getCheckedAt();
+    boolean up = Boolean.TRUE.equals(checkResult.getIsUp());
+    Integer responseTimeMs = checkResult.getResponseTimeMs();
+
+    Runnable apply =
+        () -> {
+          ResponseTimeRing ring = rings.get(monitorId);
+          if (ring != null) {
+            ring.setMonitorName(monitorName);
+            ring.record(checkedAt, up, responseTimeMs);
+          }
+        };
+    AfterCommit.run(apply);
+  }
+
+  public ResponseTimeHistoryResponseDto getResponseTimeHistory24h(
+      Integer tenantId, Integer monitorId) {
+    LocalDateTime now = LocalDateTime.now();
+    ResponseTimeRing ring = rings.get(monitorId);
+    if (ring != null && isOutdated(ring)) {
+      rings.remove(monitorId, ring);
+      ring = null;
+    }
+    if (ring == null) {
+      ring = hydrate(tenantId, monitorId, now);
+    }
+    if (ring == null || !ring.tenantId().equals(tenantId)) {
+      // monitor ids are unique, a ring of another tenant means it's not a monitor of this one
+      return emptyHistory(monitorId);
+    }
+    if (!ring.isHydrated()) {
+      // another request hydrates this ring right now
+      ResponseTimeRing loaded = new ResponseTimeRing(tenantId, ring.monitorName(), false);
+      load(loaded, tenantId, monitorId, now);
+      return loaded.toDto(monitorId, now);
+    }
+    return ring.toDto(monitorId, now);
+  }
+
+  /**
+   * The history of a monitor of any of the given tenants. A ring in memory tells the owner without
+   * a query, otherwise the monitor is looked up once for all tenants.
+   */
+  public ResponseTimeHistoryResponseDto getResponseTimeHistory24h(
+      Set<Integer> tenantIds, Integer monitorId) {
+    ResponseTimeRing ring = rings.get(monitorId);
+    if (ring != null) {
+      return tenantIds.contains(ring.tenantId())
+          ? getResponseTimeHistory24h(ring.tenantId(), monitorId)
+          : emptyHistory(monitorId);
+    }
+    return monitorRepository
+        .findByIdAndTenantIdIn(monitorId, tenantIds)
+        .map(monitor -> getResponseTimeHistory24h(monitor.getTenantId(), monitorId))
+        .orElseGet(() -> emptyHistory(monitorId));
+  }
+
+  /**
+   * Like {@link #getResponseTimeHistory24h(Set, Integer)}, with the data points reduced to at most
+   * maxPoints by LTTB, which keeps the spikes a chart of that width would otherwise lose.
+   */
+  public ResponseTimeHistoryResponseDto getResponseTimeHistory24h(
+      Set<Integer> tenantIds, Integer monitorId, int maxPoints) {
+    ResponseTimeHistoryResponseDto history = getResponseTimeHistory24h(tenantIds, monitorId);
+    List<ResponseTimeDataPointDto> dataPoints = history.getDataPoints();
+    if (dataPoints.size() <= maxPoints) {
+      return history;
+    }
+    long[] x = new long[dataPoints.size()];
+    double[] y = new double[dataPoints.size()];
+    for (int i = 0; i < x.length; i++) {
+      x[i] = dataPoints.get(i).getTimestamp().toEpochSecond(ZoneOffset.UTC);
+      y[i] = dataPoints.get(i).getMaxResponseTimeMs();
+    }
+    List<ResponseTimeDataPointDto> reduced = new ArrayList<>(maxPoints);
+    for (int index : SeriesDownsampler.lttb(x, y, maxPoints)) {
+      reduced.add(dataPoints.get(index));
+    }
+    // a fresh DTO per call, the cached rings hand out copies
+    history.setDataPoints(reduced);
+    return history;
+  }
+
+  public void evict(Integer monitorId) {
+    rings.remove(monitorId);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    if (!recordedLocally) {
+      return;
+    }
+    taskExecutor.execute(
+        () -> {
+          long startTime = System.currentTimeMillis();
+          List<Monitor> monitors = monitorRepository.findByState(MonitorState.ACTIVE);
+          for (Monitor monitor : monitors) {
+            try {
+              if (!rings.containsKey(monitor.getId())) {
+                hydrate(monitor.getTenantId(), monitor.getId(), LocalDateTime.now());
+              }
+            } catch (Exception e) {
+              log.warn(
+                  "Failed to hydrate response time history of monitor {}: {}",
+                  monitor.getId(),
+                  e.getMessage());
+            }
+          }
+          log.info(
+              "Hydrated response time history of {} monitors in {}ms",
+              monitors.size(),
+              System.currentTimeMillis() - startTime);
+        });
+  }
+
+  // a hydrated ring that no check is recorded to
+  private boolean isOutdated(ResponseTimeRing ring) {
+    return !recordedLocally
+        && ring.isHydrated()
+        && System.nanoTime() - ring.createdAtNanos() >= maxAgeNanos;
+  }
+
+  private ResponseTimeRing hydrate(Integer tenantId, Integer monitorId, LocalDateTime now) {
+    Optional<Monitor> monitor = monitorRepository.findByIdAndTenantId(monitorId, tenantId);
+    if (monitor.isEmpty()) {
+      return null;
+    }
+    ResponseTimeRing ring = new ResponseTimeRing(tenantId, monitor.get().getName(), true);
+    ResponseTimeRing existing = rings.putIfAbsent(monitorId, ring);
+    if (existing != null) {
+      return existing;
+    }
+    try {
+      load(ring, tenantId, monitorId, now);
+      ring.finishHydration(now);
+    } catch (RuntimeException e) {
+      rings.remove(monitorId, ring);
+      throw e;
+    }
+    log.debug("Hydrated response time history of monitor {}", monitorId);
+    return ring;
+  }
+
+  private void load(ResponseTimeRing ring, Integer tenantId, Integer monitorId, LocalDateTime now) {
+    LocalDateTime start =
+        now.minusMinutes((long) ResponseTimeRing.BUCKETS * ResponseTimeRing.BUCKET_MINUTES);
+    checkResultStore.forEachSample(
+        tenantId,
+        monitorId,
+        start,
+        now,
+        sample -> ring.add(sample.checkedAt(), sample.up(), sample.responseTimeMs()));
+    for (CheckResultRun run : checkResultStore.scanRuns(tenantId, monitorId, start, now)) {
+      ring.add(run);
+    }
+  }
+
+  private static ResponseTimeHistoryResponseDto emptyHistory(Integer monitorId) {
+    return ResponseTimeHistoryResponseDto.builder()
+        .monitorId(monitorId)
+        .monitorName("Unknown")
+        .intervalMinutes(ResponseTimeRing.BUCKET_MINUTES)
+        .totalDataPoints(ResponseTimeRing.BUCKETS)
+        .uptimePercentage24h(0.0)
+        .totalChecks24h(0)
+        .successfulChecks24h(0)
+        .dataPoints(List.of())
+        .build();
+  }
+}
@@ -0,0 +1,223 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.dto.ResponseTimeDataPointDto;
+import de.oglimmer.status_tacos.dto.ResponseTimeHistoryResponseDto;
+import de.oglimmer.status_tacos.dto.StatusDownPeriodsDto;
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import de.oglimmer.status_tacos.store.CheckResultBlockCodec;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The last 24 hours of one monitor in 480 buckets of 3 minutes: max response time, checks and
+ * successful checks, plus the down periods of the last 24 hours.
+ *
+ * <p>Buckets are aligned to the epoch; slot {@code bucket % 480} is reused once its bucket has left
+ * the window. While the ring is hydrated from the database, recorded checks are buffered and only
+ * those after the loaded range are applied afterwards, so no check is counted twice.
+ */
+final class ResponseTimeRing {
+
+  static final int BUCKETS = 480;
+  static final int BUCKET_MINUTES = 3;
+
+  private static final long BUCKET_MILLIS = BUCKET_MINUTES * 60_000L;
+  private static final int NO_VALUE = Integer.MIN_VALUE;
+
+  private final Integer tenantId;
+  private final long createdAtNanos = System.nanoTime();
+  private volatile String monitorName;
+
+  // bucket number held by each slot, 0 for a never used slot
+  private final long[] buckets = new long[BUCKETS];
+  private final int[] maxResponseTimes = new int[BUCKETS];
+  private final int[] counts = new int[BUCKETS];
+  private final int[] upCounts = new int[BUCKETS];
+
+  private final Deque<StatusDownPeriodsDto> downPeriods = new ArrayDeque<>();
+  private LocalDateTime openDownStart;
+  private LocalDateTime lastCheckedAt;
+
+  // checks recorded while hydrating, null once hydrated
+  private List<PendingCheck> pending;
+
+  ResponseTimeRing(Integer tenantId, String monitorName, boolean hydrating) {
+    this.tenantId = tenantId;
+    this.monitorName = monitorName;
+    this.pending = hydrating ? new ArrayList<>() : null;
+    Arrays.fill(maxResponseTimes, NO_VALUE);
+  }
+
+  Integer tenantId() {
+    return tenantId;
+  }
+
+  long createdAtNanos() {
+    return createdAtNanos;
+  }
+
+  String monitorName() {
+    return monitorName;
+  }
+
+  void setMonitorName(String monitorName) {
+    this.monitorName = monitorName;
+  }
+
+  synchronized boolean isHydrated() {
+    return pending == null;
+  }
+
+  /** Records a live check, buffered while the ring is hydrated. */
+  synchronized void record(LocalDateTime checkedAt, boolean up, Integer responseTimeMs) {
+    if (pending != null) {
+      pending.add(new PendingCheck(checkedAt, up, responseTimeMs));
+    } else {
+      add(checkedAt, up, responseTimeMs);
+    }
+  }
+
+  /** Ends the hydration; buffered checks after {@code loadedUntil} are applied. */
+  synchronized void finishHydration(LocalDateTime loadedUntil) {
+    for (PendingCheck check : pending) {
+      if (check.checkedAt().isAfter(loadedUntil)) {
+        add(check.checkedAt(), check.up(), check.responseTimeMs());
+      }
+    }
+    pending = null;
+  }
+
+  synchronized void add(LocalDateTime checkedAt, boolean up, Integer responseTimeMs) {
+    int slot = slot(bucketOf(checkedAt));
+    if (slot >= 0) {
+      counts[slot]++;
+      if (up) {
+        upCounts[slot]++;
+      }
+      if (responseTimeMs != null) {
+        maxResponseTimes[slot] = Math.max(maxResponseTimes[slot], responseTimeMs);
+      }
+    }
+
+    // down periods follow the checks in order, a late check only counts in its bucket
+    if (lastCheckedAt != null && checkedAt.isBefore(lastCheckedAt)) {
+      return;
+    }
+    lastCheckedAt = checkedAt;
+    if (!up && openDownStart == null) {
+      openDownStart = checkedAt;
+    } else if (up && openDownStart != null) {
+      downPeriods.addLast(
+          StatusDownPeriodsDto.builder().start(openDownStart).end(checkedAt).build());
+      openDownStart = null;
+    }
+  }
+
+  /**
+   * Adds a run of identical checks: its checks count in the bucket it starts in, its max in every
+   * bucket it spans.
+   */
+  synchronized void add(CheckResultRun run) {
+    long first = bucketOf(run.getRunStart());
+    long last = bucketOf(run.getRunEnd());
+    int startSlot = slot(first);
+    if (startSlot >= 0) {
+      counts[startSlot] += run.getCheckCount();
+      if (run.getIsUp()) {
+        upCounts[startSlot] += run.getCheckCount();
+      }
+    }
+    if (run.getMaxResponseTimeMs() != null) {
+      for (long bucket = Math.max(first, last - BUCKETS + 1); bucket <= last; bucket++) {
+        int slot = slot(bucket);
+        if (slot >= 0) {
+          maxResponseTimes[slot] = Math.max(maxResponseTimes[slot], run.getMaxResponseTimeMs());
+        }
+      }
+    }
+  }
+
+  /** The history of the 480 buckets up to and including the bucket of {@code now}. */
+  synchronized ResponseTimeHistoryResponseDto toDto(Integer monitorId, LocalDateTime now) {
+    long lastBucket = bucketOf(now);
+    long firstBucket = lastBucket - BUCKETS + 1;
+    LocalDateTime windowStart = CheckResultBlockCodec.fromEpochMillis(firstBucket * BUCKET_MILLIS);
+
+    List<ResponseTimeDataPointDto> dataPoints = new ArrayList<>();
+    long totalChecks = 0;
+    long successfulChecks = 0;
+    for (long bucket = firstBucket; bucket <= lastBucket; bucket++) {
+      int slot = (int) Math.floorMod(bucket, (long) BUCKETS);
+      if (buckets[slot] != bucket) {
+        continue;
+      }
+      totalChecks += counts[slot];
+      successfulChecks += upCounts[slot];
+      if (maxResponseTimes[slot] != NO_VALUE) {
+        dataPoints.add(
+            ResponseTimeDataPointDto.builder()
+                .timestamp(CheckResultBlockCodec.fromEpochMillis(bucket * BUCKET_MILLIS))
+                .maxResponseTimeMs(maxResponseTimes[slot])
+                .build());
+      }
+    }
+
+    while (!downPeriods.isEmpty() && downPeriods.peekFirst().getEnd().isBefore(windowStart)) {
+      downPeriods.removeFirst();
+    }
+    List<StatusDownPeriodsDto> periods = new ArrayList<>(downPeriods.size() + 1);
+    for (StatusDownPeriodsDto period : downPeriods) {
+      periods.add(clip(period.getStart(), period.getEnd(), windowStart));
+    }
+    if (openDownStart != null) {
+      periods.add(clip(openDownStart, now, windowStart));
+    }
+
+    return ResponseTimeHistoryResponseDto.builder()
+        .monitorId(monitorId)
+        .monitorName(monitorName)
+        .intervalMinutes(BUCKET_MINUTES)
+        .totalDataPoints(BUCKETS)
+        .uptimePercentage24h(
+            totalChecks > 0 ? (double) successfulChecks / totalChecks * 100.0 : 0.0)
+        .totalChecks24h((int) totalChecks)
+        .successfulChecks24h((int) successfulChecks)
+        .dataPoints(dataPoints)
+        .statusDownPeriods(periods)
+        .build();
+  }
+
+  /** The slot of the bucket, cleared if it held an older bucket; -1 if the bucket is too old. */
+  private int slot(long bucket) {
+    int slot = (int) Math.floorMod(bucket, (long) BUCKETS);
+    if (buckets[slot] > bucket) {
+      return -1;
+    }
+    if (buckets[slot] < bucket) {
+      buckets[slot] = bucket;
+      maxResponseTimes[slot] = NO_VALUE;
+      counts[slot] = 0;
+      upCounts[slot] = 0;
+    }
+    return slot;
+  }
+
+  private static long bucketOf(LocalDateTime time) {
+    return Math.floorDiv(CheckResultBlockCodec.toEpochMillis(time), BUCKET_MILLIS);
+  }
+
+  private static StatusDownPeriodsDto clip(
+      LocalDateTime start, LocalDateTime end, LocalDateTime windowStart) {
+    return StatusDownPeriodsDto.builder()
+        .start(start.isBefore(windowStart) ? windowStart : start)
+        .end(end)
+        .build();
+  }
+
+  private record PendingCheck(LocalDateTime checkedAt, boolean up, Integer responseTimeMs) {}
+}
@@ -0,0 +1,46 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Retention of a tenant's check data per tier in days: raw checks, then per minute rollups, then
+ * hourly rollups. Each tier is kept at least as long as the finer one before it. Cutoffs are at the
+ * start of a day, so the rollups always cover whole days.
+ */
+public record RetentionPolicy(int rawDays, int minuteRollupDays, int hourlyRollupDays) {
+
+  public RetentionPolicy {
+    if (rawDays < 1 || minuteRollupDays < rawDays || hourlyRollupDays < minuteRollupDays) {
+      throw new IllegalArgumentException(
+          "Retention must be at least 1 day and must not shrink from raw ("
+              + rawDays
+              + ") to minute ("
+              + minuteRollupDays
+              + ") to hourly ("
+              + hourlyRollupDays
+              + ") data");
+    }
+  }
+
+  public LocalDateTime rawCutoff(LocalDateTime now) {
+    return cutoff(now, rawDays);
+  }
+
+  public LocalDateTime minuteRollupCutoff(LocalDateTime now) {
+    return cutoff(now, minuteRollupDays);
+  }
+
+  public LocalDateTime hourlyRollupCutoff(LocalDateTime now) {
+    return cutoff(now, hourlyRollupDays);
+  }
+
+  /** Whether the per minute tier is kept longer than the raw checks, else it's not written. */
+  public boolean hasMinuteTier() {
+    return minuteRollupDays > rawDays;
+  }
+
+  private static LocalDateTime cutoff(LocalDateTime now, int days) {
+    return now.toLocalDate().minusDays(days).atStartOfDay();
+  }
+}
@@ -0,0 +1,137 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.persistence.CheckResultRollup;
+import de.oglimmer.status_tacos.persistence.CheckResultRollup.Resolution;
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.store.CheckSample;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Folds the checks of one monitor and day into 1440 per minute buckets, the hourly rollups are
+ * merged from those. Runs are attributed to the minute they start in, like in the aggregates of the
+ * raw checks.
+ */
+final class RollupDay {
+
+  private static final int MINUTES = 24 * 60;
+
+  private final LocalDateTime dayStart;
+  private final int[] counts = new int[MINUTES];
+  private final int[] successfulCounts = new int[MINUTES];
+  private final int[] responseTimeCounts = new int[MINUTES];
+  private final long[] responseTimeSums = new long[MINUTES];
+  private final int[] minResponseTimes = new int[MINUTES];
+  private final int[] maxResponseTimes = new int[MINUTES];
+
+  RollupDay(LocalDate day) {
+    this.dayStart = day.atStartOfDay();
+    Arrays.fill(minResponseTimes, Integer.MAX_VALUE);
+    Arrays.fill(maxResponseTimes, Integer.MIN_VALUE);
+  }
+
+  void accept(CheckSample sample) {
+    int minute = minuteOf(sample.checkedAt());
+    if (minute < 0) {
+      return;
+    }
+    counts[minute]++;
+    if (sample.up()) {
+      successfulCounts[minute]++;
+      if (sample.responseTimeMs() != null) {
+        addResponseTimes(
+            minute, 1, sample.responseTimeMs(), sample.responseTimeMs(), sample.responseTimeMs());
+      }
+    }
+  }
+
+  void accept(CheckResultRun run) {
+    int minute = minuteOf(run.getRunStart());
+    if (minute < 0) {
+      return;
+    }
+    counts[minute] += run.getCheckCount();
+    if (run.getIsUp()) {
+      successfulCounts[minute] += run.getCheckCount();
+      if (run.getResponseTimeCount() > 0) {
+        addResponseTimes(
+            minute,
+            run.getResponseTimeCount(),
+            run.getResponseTimeSumMs(),
+            run.getMinResponseTimeMs(),
+            run.getMaxResponseTimeMs());
+      }
+    }
+  }
+
+  /** The rollups of all minutes and hours with checks, the minutes only if requested. */
+  List<CheckResultRollup> toRollups(Integer tenantId, Monitor monitor, boolean withMinutes) {
+    List<CheckResultRollup> rollups = new ArrayList<>();
+    for (int hour = 0; hour < 24; hour++) {
+      CheckResultRollup hourly = null;
+      for (int minute = hour * 60; minute < (hour + 1) * 60; minute++) {
+        if (counts[minute] == 0) {
+          continue;
+        }
+        if (withMinutes) {
+          CheckResultRollup rollup = rollup(tenantId, monitor, Resolution.MINUTE, minute);
+          rollup.setCheckCount(counts[minute]);
+          addMinute(rollup, minute);
+          rollups.add(rollup);
+        }
+        if (hourly == null) {
+          hourly = rollup(tenantId, monitor, Resolution.HOUR, hour * 60);
+          rollups.add(hourly);
+        }
+        hourly.setCheckCount(hourly.getCheckCount() + counts[minute]);
+        addMinute(hourly, minute);
+      }
+    }
+    return rollups;
+  }
+
+  private void addResponseTimes(int minute, int count, long sum, int min, int max) {
+    responseTimeCounts[minute] += count;
+    responseTimeSums[minute] += sum;
+    minResponseTimes[minute] = Math.min(minResponseTimes[minute], min);
+    maxResponseTimes[minute] = Math.max(maxResponseTimes[minute], max);
+  }
+
+  private void addMinute(CheckResultRollup rollup, int minute) {
+    rollup.setSuccessfulChecks(rollup.getSuccessfulChecks() + successfulCounts[minute]);
+    if (responseTimeCounts[minute] == 0) {
+      return;
+    }
+    rollup.setResponseTimeCount(rollup.getResponseTimeCount() + responseTimeCounts[minute]);
+    rollup.setResponseTimeSumMs(rollup.getResponseTimeSumMs() + responseTimeSums[minute]);
+    rollup.setMinResponseTimeMs(
+        rollup.getMinResponseTimeMs() == null
+            ? minResponseTimes[minute]
+            : Math.min(rollup.getMinResponseTimeMs(), minResponseTimes[minute]));
+    rollup.setMaxResponseTimeMs(
+        rollup.getMaxResponseTimeMs() == null
+            ? maxResponseTimes[minute]
+            : Math.max(rollup.getMaxResponseTimeMs(), maxResponseTimes[minute]));
+  }
+
+  private CheckResultRollup rollup(
+      Integer tenantId, Monitor monitor, Resolution resolution, int minuteOfDay) {
+    return CheckResultRollup.builder()
+        .monitor(monitor)
+        .tenantId(tenantId)
+        .resolution(resolution)
+        .bucketStart(dayStart.plusMinutes(minuteOfDay))
+        .build();
+  }
+
+  private int minuteOf(LocalDateTime time) {
+    long minute = Duration.between(dayStart, time).toMinutes();
+    return time.isBefore(dayStart) || minute >= MINUTES ? -1 : (int) minute;
+  }
+}
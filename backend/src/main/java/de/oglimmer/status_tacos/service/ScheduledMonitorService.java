@@ -1,7 +1,9 @@
 /* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
 package de.oglimmer.status_tacos.service;
 
+import de.oglimmer.status_tacos.persistence.Tenant;
 import java.time.LocalDateTime;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,13 +24,21 @@ public class ScheduledMonitorService {
   private final CheckResultService checkResultService;
   private final UptimeStatsService uptimeStatsService;
   private final TenantService tenantService;
-
-  @Value("${monitor.cleanup.retention-days:90}")
-  private int retentionDays;
+  private final CheckResultBlockService checkResultBlockService;
+  private final IncidentService incidentService;
+  private final CheckResultRollupService checkResultRollupService;
+  private final SloService sloService;
+  private final DashboardSnapshotService dashboardSnapshotService;
 
   @Value("${monitor.retry.consecutive-failures-threshold:3}")
   private int consecutiveFailuresThreshold;
 
+  @Value("${monitor.storage.blocks.enabled:false}")
+  private boolean blockSealingEnabled;
+
+  @Value("${monitor.storage.spool.replay-batch-size:500}")
+  private int spoolReplayBatchSize;
+
   @Scheduled(initialDelay = 5000, fixedRateString = "${monitor.scheduling.check-interval:60000}")
   public void executeAllMonitorChecks() {
     log.debug("Starting scheduled monitor checks");
@@ -36,6 +46,7 @@ public class ScheduledMonitorService {
     try {
       long startTime = System.currentTimeMillis();
       monitorExecutionService.executeAllActiveMonitors();
+      dashboardSnapshotService.checkCycleCompleted();
       long duration = System.currentTimeMillis() - startTime;
 
       log.debug("Completed scheduled monitor checks in {}ms", duration);
@@ -71,9 +82,10 @@ public class ScheduledMonitorService {
       long startTime = System.currentTimeMillis();
       var activeTenants = tenantService.getAllActiveTenants();
 
-      for (var tenant : activeTenants) {
-        log.debug("Calculating uptime stats for tenant: {}", tenant.getId());
-        uptimeStatsService.calculateAndSaveUptimeStats(tenant.getId());
+      // all tenants in one go, so the monitors of all tenants share the stats workers
+      if (!activeTenants.isEmpty()) {
+        uptimeStatsService.calculateAndSaveUptimeStats(
+            activeTenants.stream().map(Tenant::getId).collect(Collectors.toSet()));
       }
 
       long duration = System.currentTimeMillis() - startTime;
@@ -89,17 +101,27 @@ public class ScheduledMonitorService {
 
   @Scheduled(cron = "${monitor.scheduling.cleanup-cron:0 0 2 * * *}")
   public void cleanupOldData() {
-    log.info("Starting cleanup of old data (retention: {} days)", retentionDays);
+    log.info("Starting compaction and cleanup of old data");
 
     try {
       long startTime = System.currentTimeMillis();
-      LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
+      LocalDateTime now = LocalDateTime.now();
       var activeTenants = tenantService.getAllActiveTenants();
 
       for (var tenant : activeTenants) {
-        log.debug("Cleaning up old data for tenant: {}", tenant.getId());
-        checkResultService.cleanupOldCheckResults(tenant.getId(), cutoffDate);
-        uptimeStatsService.cleanupOldUptimeStats(tenant.getId(), cutoffDate);
+        RetentionPolicy policy = tenantService.getRetentionPolicy(tenant);
+        LocalDateTime rawCutoff = policy.rawCutoff(now);
+        log.debug("Cleaning up old data for tenant: {} ({})", tenant.getId(), policy);
+
+        // raw checks are only deleted once they are rolled up
+        if (checkResultRollupService.compact(tenant.getId(), policy, now)) {
+          checkResultService.cleanupOldCheckResults(tenant.getId(), rawCutoff);
+        } else {
+          log.warn("Keeping raw check results of tenant {}, compaction failed", tenant.getId());
+        }
+        checkResultRollupService.cleanupOldRollups(tenant.getId(), policy, now);
+        uptimeStatsService.cleanupOldUptimeStats(tenant.getId(), rawCutoff);
+        incidentService.cleanupOldIncidents(tenant.getId(), policy.hourlyRollupCutoff(now));
       }
 
       long duration = System.currentTimeMillis() - startTime;
@@ -110,6 +132,73 @@ public class ScheduledMonitorService {
     }
   }
 
+  @Scheduled(cron = "${monitor.scheduling.block-seal-cron:0 30 2 * * *}")
+  public void sealCheckResultBlocks() {
+    if (!blockSealingEnabled) {
+      return;
+    }
+    log.info("Starting sealing of closed check result windows");
+
+    try {
+      long startTime = System.currentTimeMillis();
+      var activeTenants = tenantService.getAllActiveTenants();
+      int sealedBlocks = 0;
+
+      for (var tenant : activeTenants) {
+        log.debug("Sealing check result blocks for tenant: {}", tenant.getId());
+        sealedBlocks += checkResultBlockService.sealClosedWindows(tenant.getId());
+      }
+
+      long duration = System.currentTimeMillis() - startTime;
+      log.info(
+          "Sealed {} check result blocks for {} tenants in {}ms",
+          sealedBlocks,
+          activeTenants.size(),
+          duration);
+
+    } catch (Exception e) {
+      log.error("Error during check result block sealing: {}", e.getMessage(), e);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${monitor.storage.spool.replay-interval-ms:5000}")
+  public void replaySpooledCheckResults() {
+    try {
+      long startTime = System.currentTimeMillis();
+      int replayed = 0;
+      int batch;
+      do {
+        batch = monitorExecutionService.replaySpooledCheckResults(spoolReplayBatchSize);
+        replayed += batch;
+      } while (batch == spoolReplayBatchSize);
+
+      if (replayed > 0) {
+        log.info(
+            "Replayed {} spooled check results in {}ms",
+            replayed,
+            System.currentTimeMillis() - startTime);
+      }
+
+    } catch (Exception e) {
+      // the database is still unavailable, the spool keeps the remaining results
+      log.warn("Replay of spooled check results stopped: {}", e.getMessage());
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${monitor.slo.checkpoint-interval:60000}")
+  public void checkpointSlos() {
+    try {
+      long startTime = System.currentTimeMillis();
+      int written = sloService.checkpoint();
+      if (written > 0) {
+        log.debug("Checkpointed {} SLOs in {}ms", written, System.currentTimeMillis() - startTime);
+      }
+
+    } catch (Exception e) {
+      log.error("Error during SLO checkpointing: {}", e.getMessage(), e);
+    }
+  }
+
   @Scheduled(fixedDelayString = "${monitor.scheduling.health-check-interval:30000}")
   public void healthCheck() {
     log.debug("Performing scheduler health check");
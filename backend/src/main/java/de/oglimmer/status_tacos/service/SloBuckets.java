@@ -0,0 +1,260 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.dto.BurnAlert;
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import de.oglimmer.status_tacos.store.CheckResultBlockCodec;
+import de.oglimmer.status_tacos.store.CheckResultBlockCodec.VarIntReader;
+import de.oglimmer.status_tacos.store.CheckResultBlockCodec.VarIntWriter;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Good and bad check counters of one SLO in two circular rings of epoch aligned buckets: 360
+ * minutes for the burn rate windows up to 6 hours and one hour per hour of the SLO window for the
+ * error budget. Every check counts in both rings, so any window is a sum over at most the buckets
+ * it spans and never a scan of the history.
+ *
+ * <p>While the buckets are hydrated from a checkpoint and the store, recorded checks are buffered
+ * and only those after the loaded range are applied afterwards, as in {@link ResponseTimeRing}.
+ *
+ * <p>Checkpoint encoding: a version byte, the last checkedAt as epoch millis (0 for none), then per
+ * ring the number of used slots and per slot the bucket number as delta to the previous one, the
+ * good and the bad count.
+ */
+final class SloBuckets {
+
+  static final int MINUTE_BUCKETS = 360;
+  static final byte VERSION = 1;
+
+  // burn rates of the multi-window alerts, see BurnAlert
+  static final double FAST_BURN_RATE = 14.4;
+  static final double SLOW_BURN_RATE = 6.0;
+
+  private static final long MINUTE_MILLIS = 60_000L;
+  private static final long HOUR_MILLIS = 3_600_000L;
+
+  private final Ring minutes = new Ring(MINUTE_BUCKETS);
+  private final Ring hours;
+
+  private LocalDateTime lastCheckedAt;
+  private boolean dirty;
+
+  // checks recorded while hydrating, null once hydrated
+  private List<PendingCheck> pending;
+
+  SloBuckets(int windowDays, boolean hydrating) {
+    this.hours = new Ring(windowDays * 24);
+    this.pending = hydrating ? new ArrayList<>() : null;
+  }
+
+  /** Good and bad checks of a window. */
+  record Counts(long good, long bad) {
+
+    long total() {
+      return good + bad;
+    }
+
+    /** Share of bad checks, 0 without checks. */
+    double errorRate() {
+      return total() > 0 ? (double) bad / total() : 0.0;
+    }
+  }
+
+  /** Error rates of the last 5 minutes, hour and 6 hours relative to the budgeted error rate. */
+  record BurnRates(double last5m, double last1h, double last6h) {
+
+    /** A window pair alerts if both its long and its short window burn too fast. */
+    BurnAlert alert() {
+      if (last1h > FAST_BURN_RATE && last5m > FAST_BURN_RATE) {
+        return BurnAlert.FAST;
+      }
+      if (last6h > SLOW_BURN_RATE && last1h > SLOW_BURN_RATE) {
+        return BurnAlert.SLOW;
+      }
+      return BurnAlert.NONE;
+    }
+  }
+
+  synchronized boolean isHydrated() {
+    return pending == null;
+  }
+
+  synchronized LocalDateTime lastCheckedAt() {
+    return lastCheckedAt;
+  }
+
+  /** Records a live check, buffered while the buckets are hydrated. */
+  synchronized void record(LocalDateTime checkedAt, boolean good) {
+    if (pending != null) {
+      pending.add(new PendingCheck(checkedAt, good));
+    } else {
+      add(checkedAt, good);
+    }
+  }
+
+  /** Ends the hydration; buffered checks after {@code loadedUntil} are applied. */
+  synchronized void finishHydration(LocalDateTime loadedUntil) {
+    for (PendingCheck check : pending) {
+      if (check.checkedAt().isAfter(loadedUntil)) {
+        add(check.checkedAt(), check.good());
+      }
+    }
+    pending = null;
+  }
+
+  synchronized void add(LocalDateTime checkedAt, boolean good) {
+    long millis = CheckResultBlockCodec.toEpochMillis(checkedAt);
+    minutes.add(Math.floorDiv(millis, MINUTE_MILLIS), good ? 1 : 0, good ? 0 : 1);
+    hours.add(Math.floorDiv(millis, HOUR_MILLIS), good ? 1 : 0, good ? 0 : 1);
+    if (lastCheckedAt == null || checkedAt.isAfter(lastCheckedAt)) {
+      lastCheckedAt = checkedAt;
+    }
+    dirty = true;
+  }
+
+  /**
+   * Adds the checks of a folded run after {@code after} (exclusive, null for all). The checks of a
+   * run are spread evenly between its first and last check, so a run that was partially counted
+   * before a checkpoint only adds its remaining checks.
+   */
+  synchronized void add(CheckResultRun run, LocalDateTime after) {
+    long start = CheckResultBlockCodec.toEpochMillis(run.getRunStart());
+    long end = CheckResultBlockCodec.toEpochMillis(run.getRunEnd());
+    int checkCount = run.getCheckCount();
+    long interval = checkCount > 1 ? (end - start) / (checkCount - 1) : 0;
+    for (int i = 0; i < checkCount; i++) {
+      LocalDateTime checkedAt =
+          CheckResultBlockCodec.fromEpochMillis(i == checkCount - 1 ? end : start + i * interval);
+      if (after == null || checkedAt.isAfter(after)) {
+        add(checkedAt, run.getIsUp());
+      }
+    }
+  }
+
+  /** Counts of the {@code windowMinutes} minutes up to and including the minute of {@code now}. */
+  synchronized Counts lastMinutes(int windowMinutes, LocalDateTime now) {
+    long last = Math.floorDiv(CheckResultBlockCodec.toEpochMillis(now), MINUTE_MILLIS);
+    return minutes.sum(last - windowMinutes + 1, last);
+  }
+
+  /** Counts of the SLO window: its hours up to and including the hour of {@code now}. */
+  synchronized Counts window(LocalDateTime now) {
+    long last = Math.floorDiv(CheckResultBlockCodec.toEpochMillis(now), HOUR_MILLIS);
+    return hours.sum(last - hours.size() + 1, last);
+  }
+
+  /** Burn rates up to and including the minute of {@code now}. */
+  synchronized BurnRates burnRates(double allowedErrorRate, LocalDateTime now) {
+    return new BurnRates(
+        lastMinutes(5, now).errorRate() / allowedErrorRate,
+        lastMinutes(60, now).errorRate() / allowedErrorRate,
+        lastMinutes(360, now).errorRate() / allowedErrorRate);
+  }
+
+  /** Returns whether checks were added since the last call. */
+  synchronized boolean clearDirty() {
+    boolean wasDirty = dirty;
+    dirty = false;
+    return wasDirty;
+  }
+
+  synchronized byte[] encode() {
+    VarIntWriter out = new VarIntWriter();
+    out.writeByte(VERSION);
+    out.writeSigned(lastCheckedAt == null ? 0 : CheckResultBlockCodec.toEpochMillis(lastCheckedAt));
+    minutes.encode(out);
+    hours.encode(out);
+    return out.toByteArray();
+  }
+
+  /** Adds the counters of a checkpoint; rings of another size keep the buckets that still fit. */
+  synchronized void restore(byte[] payload) {
+    VarIntReader in = new VarIntReader(payload);
+    byte version = in.readByte();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported SLO checkpoint version: " + version);
+    }
+    long lastMillis = in.readSigned();
+    lastCheckedAt = lastMillis == 0 ? null : CheckResultBlockCodec.fromEpochMillis(lastMillis);
+    minutes.decode(in);
+    hours.decode(in);
+  }
+
+  private static final class Ring {
+
+    // bucket number held by each slot, 0 for a never used slot
+    private final long[] buckets;
+    private final long[] good;
+    private final long[] bad;
+
+    Ring(int size) {
+      buckets = new long[size];
+      good = new long[size];
+      bad = new long[size];
+    }
+
+    int size() {
+      return buckets.length;
+    }
+
+    void add(long bucket, long goodCount, long badCount) {
+      int slot = (int) Math.floorMod(bucket, (long) buckets.length);
+      if (buckets[slot] > bucket) {
+        // left the ring already
+        return;
+      }
+      if (buckets[slot] < bucket) {
+        buckets[slot] = bucket;
+        good[slot] = 0;
+        bad[slot] = 0;
+      }
+      good[slot] += goodCount;
+      bad[slot] += badCount;
+    }
+
+    Counts sum(long first, long last) {
+      long goodSum = 0;
+      long badSum = 0;
+      for (long bucket = Math.max(first, last - buckets.length + 1); bucket <= last; bucket++) {
+        int slot = (int) Math.floorMod(bucket, (long) buckets.length);
+        if (buckets[slot] == bucket) {
+          goodSum += good[slot];
+          badSum += bad[slot];
+        }
+      }
+      return new Counts(goodSum, badSum);
+    }
+
+    void encode(VarIntWriter out) {
+      int used = 0;
+      for (long bucket : buckets) {
+        if (bucket != 0) {
+          used++;
+        }
+      }
+      out.writeUnsigned(used);
+      long previous = 0;
+      for (int slot = 0; slot < buckets.length; slot++) {
+        if (buckets[slot] != 0) {
+          out.writeSigned(buckets[slot] - previous);
+          out.writeUnsigned(good[slot]);
+          out.writeUnsigned(bad[slot]);
+          previous = buckets[slot];
+        }
+      }
+    }
+
+    void decode(VarIntReader in) {
+      int used = (int) in.readUnsigned();
+      long bucket = 0;
+      for (int i = 0; i < used; i++) {
+        bucket += in.readSigned();
+        add(bucket, in.readUnsigned(), in.readUnsigned());
+      }
+    }
+  }
+
+  private record PendingCheck(LocalDateTime checkedAt, boolean good) {}
+}
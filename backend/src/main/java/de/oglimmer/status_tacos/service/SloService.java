@@ -0,0 +1,404 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.dto.BurnAlert;
+import de.oglimmer.status_tacos.dto.SloRequestDto;
+import de.oglimmer.status_tacos.dto.SloResponseDto;
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.persistence.Slo;
+import de.oglimmer.status_tacos.persistence.SloCheckpoint;
+import de.oglimmer.status_tacos.repository.MonitorRepository;
+import de.oglimmer.status_tacos.repository.SloCheckpointRepository;
+import de.oglimmer.status_tacos.repository.SloRepository;
+import de.oglimmer.status_tacos.store.CheckResultStore;
+import de.oglimmer.status_tacos.util.AfterCommit;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service level objectives of monitors with their error budget and burn rates.
+ *
+ * <p>The good/bad counters of an SLO are kept in {@link SloBuckets}, updated with every check
+ * result saved through {@link CheckResultService} after its transaction committed; the burn rate
+ * alert level is re-evaluated with every check. The counters are hydrated on first use from the
+ * last checkpoint plus the checks after it, so checks saved while an SLO isn't in memory are never
+ * lost, and checkpointed periodically and on shutdown.
+ *
+ * <p>Instances that don't run the checks never record any, their counters are hydrated again once
+ * older than {@code monitor.slo.max-age}.
+ */
+@Service
+@Slf4j
+public class SloService {
+
+  private final SloRepository sloRepository;
+  private final SloCheckpointRepository sloCheckpointRepository;
+  private final MonitorRepository monitorRepository;
+  private final CheckResultStore checkResultStore;
+  private final Executor taskExecutor;
+  private final boolean recordedLocally;
+  private final int maxRunMinutes;
+  private final long maxAgeNanos;
+
+  // by SLO id, and the same states by monitor id for the ingest
+  private final Map<Integer, SloState> states = new ConcurrentHashMap<>();
+  private final Map<Integer, Map<Integer, SloState>> statesByMonitor = new ConcurrentHashMap<>();
+
+  public SloService(
+      SloRepository sloRepository,
+      SloCheckpointRepository sloCheckpointRepository,
+      MonitorRepository monitorRepository,
+      @Lazy CheckResultStore checkResultStore,
+      @Qualifier("taskExecutor") Executor taskExecutor,
+      @Value("${monitor.scheduling.enabled:true}") boolean recordedLocally,
+      @Value("${monitor.storage.change-only.max-run-minutes:15}") int maxRunMinutes,
+      @Value("${monitor.slo.max-age:${monitor.scheduling.check-interval:60000}}")
+          long maxAgeMillis) {
+    this.sloRepository = sloRepository;
+    this.sloCheckpointRepository = sloCheckpointRepository;
+    this.monitorRepository = monitorRepository;
+    this.checkResultStore = checkResultStore;
+    this.taskExecutor = taskExecutor;
+    this.recordedLocally = recordedLocally;
+    this.maxRunMinutes = maxRunMinutes;
+    this.maxAgeNanos = maxAgeMillis * 1_000_000;
+  }
+
+  /** Counts a saved check result in the SLOs of its monitor once the transaction committed. */
+  public void record(CheckResult checkResult) {
+    Integer monitorId = checkResult.getMonitor().getId();
+    LocalDateTime checkedAt = checkResult.getCheckedAt();
+    boolean up = Boolean.TRUE.equals(checkResult.getIsUp());
+
+    Runnable apply =
+        () -> {
+          Map<Integer, SloState> monitorStates = statesByMonitor.get(monitorId);
+          if (monitorStates == null) {
+            return;
+          }
+          LocalDateTime now = LocalDateTime.now();
+          for (SloState state : monitorStates.values()) {
+            state.buckets.record(checkedAt, up);
+            if (state.buckets.isHydrated()) {
+              evaluateBurnAlert(state, now);
+            }
+          }
+        };
+    AfterCommit.run(apply);
+  }
+
+  /** Creates an SLO of a monitor, in the monitor's tenant. */
+  @Transactional
+  public Slo createSlo(Monitor monitor, SloRequestDto request) {
+    Slo slo =
+        sloRepository.save(
+            Slo.builder()
+                .monitor(monitor)
+                .tenantId(monitor.getTenantId())
+                .name(request.getName())
+                .targetPercentage(request.getTargetPercentage())
+                .windowDays(request.getWindowDays())
+                .build());
+    log.info("Created SLO {} for monitor {}", slo.getId(), monitor.getId());
+    return slo;
+  }
+
+  /**
+   * Updates an SLO. Its counters are rebuilt on next use; for another monitor or a longer window
+   * from the checks only, as the checkpoint doesn't cover them. The monitor must be of the SLO's
+   * tenant.
+   */
+  @Transactional
+  public Slo updateSlo(Set<Integer> tenantIds, Integer id, SloRequestDto request) {
+    Slo slo = findSlo(tenantIds, id);
+    Monitor monitor = getMonitor(slo.getTenantId(), request.getMonitorId());
+    if (!monitor.getId().equals(slo.getMonitor().getId())
+        || request.getWindowDays() > slo.getWindowDays()) {
+      sloCheckpointRepository.deleteById(id);
+    }
+    slo.setMonitor(monitor);
+    slo.setName(request.getName());
+    slo.setTargetPercentage(request.getTargetPercentage());
+    slo.setWindowDays(request.getWindowDays());
+    Slo saved = sloRepository.save(slo);
+    evict(id);
+    log.info("Updated SLO {}", id);
+    return saved;
+  }
+
+  @Transactional
+  public void deleteSlo(Set<Integer> tenantIds, Integer id) {
+    Slo slo = findSlo(tenantIds, id);
+    sloCheckpointRepository.deleteById(id);
+    sloRepository.delete(slo);
+    evict(id);
+    log.info("Deleted SLO {}", id);
+  }
+
+  @Transactional(readOnly = true)
+  public SloResponseDto getSlo(Set<Integer> tenantIds, Integer id) {
+    return evaluate(findSlo(tenantIds, id), LocalDateTime.now());
+  }
+
+  @Transactional(readOnly = true)
+  public List<SloResponseDto> getSlos(Set<Integer> tenantIds) {
+    LocalDateTime now = LocalDateTime.now();
+    return sloRepository.findByTenantIds(tenantIds).stream()
+        .map(slo -> evaluate(slo, now))
+        .toList();
+  }
+
+  @Transactional(readOnly = true)
+  public List<SloResponseDto> getSlosOfMonitor(Integer tenantId, Integer monitorId) {
+    LocalDateTime now = LocalDateTime.now();
+    return sloRepository.findByMonitorIdAndTenantId(monitorId, tenantId).stream()
+        .map(slo -> evaluate(slo, now))
+        .toList();
+  }
+
+  /** Drops the counters of a deleted monitor's SLOs; the rows are deleted by the database. */
+  public void evictMonitor(Integer monitorId) {
+    Map<Integer, SloState> monitorStates = statesByMonitor.remove(monitorId);
+    if (monitorStates != null) {
+      monitorStates.keySet().forEach(states::remove);
+    }
+  }
+
+  /**
+   * Writes the counters of all SLOs that counted checks since their last checkpoint, each in its
+   * own transaction.
+   *
+   * @return the number of checkpoints written
+   */
+  public int checkpoint() {
+    LocalDateTime now = LocalDateTime.now();
+    int written = 0;
+    for (SloState state : states.values()) {
+      if (!state.buckets.isHydrated() || !state.buckets.clearDirty()) {
+        continue;
+      }
+      try {
+        sloCheckpointRepository.save(
+            SloCheckpoint.builder()
+                .sloId(state.sloId)
+                .lastCheckedAt(state.buckets.lastCheckedAt())
+                .checkpointedAt(now)
+                .payload(state.buckets.encode())
+                .build());
+        written++;
+      } catch (RuntimeException e) {
+        // the SLO was deleted meanwhile or the database is unavailable, retried with the next check
+        log.warn("Failed to checkpoint SLO {}: {}", state.sloId, e.getMessage());
+      }
+    }
+    return written;
+  }
+
+  @PreDestroy
+  public void checkpointOnShutdown() {
+    try {
+      int written = checkpoint();
+      log.info("Checkpointed {} SLOs on shutdown", written);
+    } catch (Exception e) {
+      log.warn("Failed to checkpoint SLOs on shutdown: {}", e.getMessage());
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    if (!recordedLocally) {
+      return;
+    }
+    taskExecutor.execute(
+        () -> {
+          long startTime = System.currentTimeMillis();
+          List<Slo> slos = sloRepository.findAllWithMonitor();
+          for (Slo slo : slos) {
+            try {
+              hydrate(slo, LocalDateTime.now());
+            } catch (Exception e) {
+              log.warn("Failed to hydrate SLO {}: {}", slo.getId(), e.getMessage());
+            }
+          }
+          log.info("Hydrated {} SLOs in {}ms", slos.size(), System.currentTimeMillis() - startTime);
+        });
+  }
+
+  private SloResponseDto evaluate(Slo slo, LocalDateTime now) {
+    SloState state = hydrate(slo, now);
+    SloBuckets buckets = state.buckets;
+    if (!buckets.isHydrated()) {
+      // another request hydrates this SLO right now
+      buckets = new SloBuckets(slo.getWindowDays(), false);
+      load(buckets, slo, now);
+    }
+
+    double allowedErrorRate = 1.0 - slo.getTargetPercentage() / 100.0;
+    SloBuckets.Counts window = buckets.window(now);
+    SloBuckets.BurnRates burnRates = buckets.burnRates(allowedErrorRate, now);
+    return SloResponseDto.builder()
+        .id(slo.getId())
+        .monitorId(slo.getMonitor().getId())
+        .monitorName(slo.getMonitor().getName())
+        .tenantId(slo.getTenantId())
+        .name(slo.getName())
+        .targetPercentage(slo.getTargetPercentage())
+        .windowDays(slo.getWindowDays())
+        .goodChecks(window.good())
+        .badChecks(window.bad())
+        .availabilityPercentage(
+            window.total() > 0 ? (double) window.good() / window.total() * 100.0 : null)
+        .errorBudgetRemainingPercentage((1.0 - window.errorRate() / allowedErrorRate) * 100.0)
+        .burnRate5m(burnRates.last5m())
+        .burnRate1h(burnRates.last1h())
+        .burnRate6h(burnRates.last6h())
+        .burnAlert(burnRates.alert())
+        .evaluatedAt(now)
+        .build();
+  }
+
+  private void evaluateBurnAlert(SloState state, LocalDateTime now) {
+    BurnAlert alert = state.buckets.burnRates(state.allowedErrorRate, now).alert();
+    BurnAlert previous = state.burnAlert;
+    state.burnAlert = alert;
+    if (alert != previous && previous != null) {
+      if (alert == BurnAlert.NONE) {
+        log.info(
+            "SLO {} of monitor {} stopped burning its error budget", state.sloId, state.monitorId);
+      } else {
+        log.warn(
+            "SLO {} of monitor {} burns its error budget: {}", state.sloId, state.monitorId, alert);
+      }
+    }
+  }
+
+  /** The counters of an SLO, hydrated if it isn't in memory yet or outdated. */
+  private SloState hydrate(Slo slo, LocalDateTime now) {
+    SloState existing = states.get(slo.getId());
+    if (existing != null && isOutdated(existing)) {
+      evict(existing);
+    } else if (existing != null) {
+      return existing;
+    }
+    SloState state = new SloState(slo);
+    existing = states.putIfAbsent(slo.getId(), state);
+    if (existing != null) {
+      return existing;
+    }
+    // registered before loading, so that checks saved meanwhile are buffered
+    statesByMonitor
+        .computeIfAbsent(state.monitorId, monitorId -> new ConcurrentHashMap<>())
+        .put(state.sloId, state);
+    try {
+      load(state.buckets, slo, now);
+      state.buckets.finishHydration(now);
+      evaluateBurnAlert(state, now);
+    } catch (RuntimeException e) {
+      evict(slo.getId());
+      throw e;
+    }
+    log.debug("Hydrated SLO {}", slo.getId());
+    return state;
+  }
+
+  /** Loads the last checkpoint and the checks of the SLO window after it up to {@code now}. */
+  private void load(SloBuckets buckets, Slo slo, LocalDateTime now) {
+    Integer tenantId = slo.getTenantId();
+    Integer monitorId = slo.getMonitor().getId();
+    LocalDateTime windowStart =
+        now.truncatedTo(ChronoUnit.HOURS).minusHours(slo.getWindowDays() * 24L - 1);
+
+    sloCheckpointRepository
+        .findById(slo.getId())
+        .ifPresent(checkpoint -> buckets.restore(checkpoint.getPayload()));
+    LocalDateTime after = buckets.lastCheckedAt();
+    LocalDateTime start = after != null && after.isAfter(windowStart) ? after : windowStart;
+
+    checkResultStore.forEachSample(
+        tenantId,
+        monitorId,
+        start,
+        now,
+        sample -> {
+          if (after == null || sample.checkedAt().isAfter(after)) {
+            buckets.add(sample.checkedAt(), sample.up());
+          }
+        });
+    // runs are closed after max-run-minutes, one starting earlier doesn't reach into the range
+    for (CheckResultRun run :
+        checkResultStore.scanRuns(tenantId, monitorId, start.minusMinutes(maxRunMinutes), now)) {
+      buckets.add(run, after != null ? after : windowStart.minusNanos(1));
+    }
+  }
+
+  private boolean isOutdated(SloState state) {
+    return !recordedLocally
+        && state.buckets.isHydrated()
+        && System.nanoTime() - state.createdAtNanos >= maxAgeNanos;
+  }
+
+  /** Drops the given counters of an SLO unless they were replaced already. */
+  private void evict(SloState state) {
+    if (states.remove(state.sloId, state)) {
+      Map<Integer, SloState> monitorStates = statesByMonitor.get(state.monitorId);
+      if (monitorStates != null) {
+        monitorStates.remove(state.sloId, state);
+      }
+    }
+  }
+
+  private void evict(Integer id) {
+    SloState state = states.remove(id);
+    if (state != null) {
+      Map<Integer, SloState> monitorStates = statesByMonitor.get(state.monitorId);
+      if (monitorStates != null) {
+        monitorStates.remove(id);
+      }
+    }
+  }
+
+  private Slo findSlo(Set<Integer> tenantIds, Integer id) {
+    return sloRepository
+        .findByIdAndTenantIdIn(id, tenantIds)
+        .orElseThrow(() -> new IllegalArgumentException("SLO not found with ID: " + id));
+  }
+
+  private Monitor getMonitor(Integer tenantId, Integer monitorId) {
+    return monitorRepository
+        .findByIdAndTenantId(monitorId, tenantId)
+        .orElseThrow(() -> new IllegalArgumentException("Monitor not found with ID: " + monitorId));
+  }
+
+  private static final class SloState {
+    private final Integer sloId;
+    private final Integer monitorId;
+    private final double allowedErrorRate;
+    private final SloBuckets buckets;
+    private final long createdAtNanos = System.nanoTime();
+    // null until the first evaluation
+    private volatile BurnAlert burnAlert;
+
+    SloState(Slo slo) {
+      this.sloId = slo.getId();
+      this.monitorId = slo.getMonitor().getId();
+      this.allowedErrorRate = 1.0 - slo.getTargetPercentage() / 100.0;
+      this.buckets = new SloBuckets(slo.getWindowDays(), true);
+    }
+  }
+}
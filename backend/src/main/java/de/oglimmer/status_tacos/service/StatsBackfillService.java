@@ -0,0 +1,443 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.persistence.StatsBackfillChunk;
+import de.oglimmer.status_tacos.persistence.StatsBackfillJob;
+import de.oglimmer.status_tacos.persistence.StatsBackfillJob.JobStatus;
+import de.oglimmer.status_tacos.repository.MonitorRepository;
+import de.oglimmer.status_tacos.repository.StatsBackfillChunkRepository;
+import de.oglimmer.status_tacos.repository.StatsBackfillJobRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Rebuilds the daily uptime aggregates and the uptime stats of a past date range, e.g. after the
+ * stats calculation changed or check results were imported.
+ *
+ * <p>A job is split into chunks of {@code monitor.backfill.chunk-days} days per monitor. The
+ * monitors run in parallel on the backfill executor, the chunks of a monitor in ascending order, so
+ * the stats of a day are calculated from the already rebuilt days before it. A chunk is marked
+ * completed once all its days are written; a cancelled or interrupted job resumes with the chunks
+ * that are not completed. Days are rate limited over all jobs, so a backfill can run beside the
+ * checker; the days the scheduled uptime stats job still rolls forward are left to it.
+ */
+@Service
+@Slf4j
+public class StatsBackfillService {
+
+  static final int MAX_RANGE_DAYS = 366;
+
+  private final StatsBackfillJobRepository statsBackfillJobRepository;
+  private final StatsBackfillChunkRepository statsBackfillChunkRepository;
+  private final MonitorRepository monitorRepository;
+  private final UptimeDailyAggregateService uptimeDailyAggregateService;
+  private final UptimeStatsService uptimeStatsService;
+  private final Executor backfillExecutor;
+  private final StatsBackfillService self;
+  private final boolean resumeOnStartup;
+  private final int chunkDays;
+  private final DayRateLimiter rateLimiter;
+
+  // jobs with workers in this instance, and those cancelled while running
+  private final Set<Long> activeJobs = ConcurrentHashMap.newKeySet();
+  private final Set<Long> cancelledJobs = ConcurrentHashMap.newKeySet();
+
+  public StatsBackfillService(
+      StatsBackfillJobRepository statsBackfillJobRepository,
+      StatsBackfillChunkRepository statsBackfillChunkRepository,
+      MonitorRepository monitorRepository,
+      UptimeDailyAggregateService uptimeDailyAggregateService,
+      UptimeStatsService uptimeStatsService,
+      @Qualifier("backfillExecutor") Executor backfillExecutor,
+      @Lazy StatsBackfillService self,
+      @Value("${monitor.scheduling.enabled:true}") boolean resumeOnStartup,
+      @Value("${monitor.backfill.chunk-days:7}") int chunkDays,
+      @Value("${monitor.backfill.max-days-per-second:20}") double maxDaysPerSecond) {
+    this.statsBackfillJobRepository = statsBackfillJobRepository;
+    this.statsBackfillChunkRepository = statsBackfillChunkRepository;
+    this.monitorRepository = monitorRepository;
+    this.uptimeDailyAggregateService = uptimeDailyAggregateService;
+    this.uptimeStatsService = uptimeStatsService;
+    this.backfillExecutor = backfillExecutor;
+    this.self = self;
+    this.resumeOnStartup = resumeOnStartup;
+    this.chunkDays = chunkDays;
+    this.rateLimiter = new DayRateLimiter(maxDaysPerSecond);
+  }
+
+  /**
+   * Creates a job for the days in [from, to] of the given monitors, all monitors of the tenant if
+   * none are given. The job is run by {@link #start}.
+   */
+  @Transactional
+  public StatsBackfillJob createJob(
+      Integer tenantId, List<Integer> monitorIds, LocalDate from, LocalDate to) {
+    if (from.isAfter(to)) {
+      throw new IllegalArgumentException("The range must not end before it starts");
+    }
+    if (!to.isBefore(LocalDate.now())) {
+      // the current day is rolled forward by the scheduled uptime stats job
+      throw new IllegalArgumentException("The range must end before today");
+    }
+    if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+      throw new IllegalArgumentException("The range must not exceed " + MAX_RANGE_DAYS + " days");
+    }
+
+    List<Integer> selected;
+    if (monitorIds == null || monitorIds.isEmpty()) {
+      selected = monitorRepository.findByTenantId(tenantId).stream().map(Monitor::getId).toList();
+    } else {
+      for (Integer monitorId : monitorIds) {
+        if (monitorRepository.findByIdAndTenantId(monitorId, tenantId).isEmpty()) {
+          throw new IllegalArgumentException("Monitor not found with ID: " + monitorId);
+        }
+      }
+      selected = monitorIds.stream().distinct().sorted().toList();
+    }
+
+    List<StatsBackfillChunk> chunks = new ArrayList<>();
+    for (Integer monitorId : selected) {
+      for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(chunkDays)) {
+        LocalDate end = start.plusDays(chunkDays - 1L);
+        chunks.add(
+            StatsBackfillChunk.builder()
+                .monitorId(monitorId)
+                .chunkStart(start)
+                .chunkEnd(end.isAfter(to) ? to : end)
+                .build());
+      }
+    }
+
+    StatsBackfillJob job =
+        statsBackfillJobRepository.save(
+            StatsBackfillJob.builder()
+                .tenantId(tenantId)
+                .monitorIds(
+                    monitorIds == null || monitorIds.isEmpty()
+                        ? null
+                        : selected.stream().map(String::valueOf).collect(Collectors.joining(",")))
+                .rangeStart(from)
+                .rangeEnd(to)
+                .totalChunks(chunks.size())
+                .build());
+    chunks.forEach(chunk -> chunk.setJobId(job.getId()));
+    statsBackfillChunkRepository.saveAll(chunks);
+
+    log.info(
+        "Created stats backfill job {} for {} monitors of tenant {} from {} to {} in {} chunks",
+        job.getId(),
+        selected.size(),
+        tenantId,
+        from,
+        to,
+        chunks.size());
+    return job;
+  }
+
+  /**
+   * Runs the chunks of a job that are not completed in the background. Does nothing if the job
+   * already runs in this instance.
+   */
+  public void start(Long jobId) {
+    if (!activeJobs.add(jobId)) {
+      return;
+    }
+    try {
+      cancelledJobs.remove(jobId);
+      StatsBackfillJob job = self.markRunning(jobId);
+      Map<Integer, List<StatsBackfillChunk>> chunksByMonitor = new LinkedHashMap<>();
+      for (StatsBackfillChunk chunk : statsBackfillChunkRepository.findOpenByJobId(jobId)) {
+        chunksByMonitor.computeIfAbsent(chunk.getMonitorId(), id -> new ArrayList<>()).add(chunk);
+      }
+      log.info(
+          "Starting stats backfill job {} with {} open chunks",
+          jobId,
+          chunksByMonitor.values().stream().mapToInt(List::size).sum());
+
+      CompletableFuture.allOf(
+              chunksByMonitor.entrySet().stream()
+                  .map(
+                      entry ->
+                          CompletableFuture.runAsync(
+                              () -> runMonitor(job, entry.getKey(), entry.getValue()),
+                              backfillExecutor))
+                  .toArray(CompletableFuture[]::new))
+          .whenComplete(
+              (ignored, e) -> {
+                try {
+                  self.finishJob(jobId);
+                } catch (Exception finishFailure) {
+                  log.error(
+                      "Failed to finish stats backfill job {}: {}",
+                      jobId,
+                      finishFailure.getMessage());
+                } finally {
+                  activeJobs.remove(jobId);
+                }
+              });
+    } catch (RuntimeException e) {
+      activeJobs.remove(jobId);
+      throw e;
+    }
+  }
+
+  /** Stops a pending or running job after the day its workers are on. */
+  @Transactional
+  public StatsBackfillJob cancelJob(Set<Integer> tenantIds, Long id) {
+    StatsBackfillJob job = findJob(tenantIds, id);
+    if (job.getStatus() != JobStatus.pending && job.getStatus() != JobStatus.running) {
+      throw new IllegalStateException("Job " + id + " is " + job.getStatus());
+    }
+    cancelledJobs.add(id);
+    job.setStatus(JobStatus.cancelled);
+    job.setFinishedAt(LocalDateTime.now());
+    log.info("Cancelled stats backfill job {}", id);
+    return statsBackfillJobRepository.save(job);
+  }
+
+  /** Prepares a failed, cancelled or interrupted job to run its open chunks by {@link #start}. */
+  @Transactional
+  public StatsBackfillJob resumeJob(Set<Integer> tenantIds, Long id) {
+    StatsBackfillJob job = findJob(tenantIds, id);
+    if (job.getStatus() == JobStatus.completed || activeJobs.contains(id)) {
+      throw new IllegalStateException("Job " + id + " is " + job.getStatus());
+    }
+    statsBackfillChunkRepository.resetFailed(id);
+    job.setFailedChunks(0);
+    job.setStatus(JobStatus.pending);
+    job.setFinishedAt(null);
+    log.info("Resuming stats backfill job {}", id);
+    return statsBackfillJobRepository.save(job);
+  }
+
+  @Transactional(readOnly = true)
+  public StatsBackfillJob getJob(Set<Integer> tenantIds, Long id) {
+    return findJob(tenantIds, id);
+  }
+
+  @Transactional(readOnly = true)
+  public List<StatsBackfillJob> getJobs(Set<Integer> tenantIds) {
+    return statsBackfillJobRepository.findByTenantIdInOrderByIdDesc(tenantIds);
+  }
+
+  /** Resumes the jobs a shutdown interrupted. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void resumeInterruptedJobs() {
+    if (!resumeOnStartup) {
+      return;
+    }
+    for (JobStatus status : List.of(JobStatus.pending, JobStatus.running)) {
+      for (StatsBackfillJob job : statsBackfillJobRepository.findByStatus(status)) {
+        try {
+          start(job.getId());
+        } catch (Exception e) {
+          log.warn("Failed to resume stats backfill job {}: {}", job.getId(), e.getMessage());
+        }
+      }
+    }
+  }
+
+  /**
+   * Rebuilds the daily aggregate of a monitor's day and recalculates the day's stats from it. A day
+   * the scheduled uptime stats job hasn't closed yet is skipped, that job rebuilds it anyway.
+   */
+  @Transactional
+  public boolean backfillDay(Integer tenantId, Monitor monitor, LocalDate day) {
+    if (!uptimeDailyAggregateService.isClosed(tenantId, monitor.getId(), day)) {
+      log.debug("Skipped the open day {} of monitor {}", day, monitor.getId());
+      return false;
+    }
+    boolean rebuilt = uptimeDailyAggregateService.rebuildDay(tenantId, monitor, day);
+    uptimeStatsService.recalculateMonitorStats(tenantId, monitor, day);
+    return rebuilt;
+  }
+
+  @Transactional
+  public StatsBackfillJob markRunning(Long jobId) {
+    StatsBackfillJob job =
+        statsBackfillJobRepository
+            .findById(jobId)
+            .orElseThrow(() -> new IllegalArgumentException("Job not found with ID: " + jobId));
+    job.setStatus(JobStatus.running);
+    if (job.getStartedAt() == null) {
+      job.setStartedAt(LocalDateTime.now());
+    }
+    return statsBackfillJobRepository.save(job);
+  }
+
+  @Transactional
+  public void completeChunk(Long chunkId, Long jobId, int rebuiltDays) {
+    statsBackfillChunkRepository
+        .findById(chunkId)
+        .ifPresent(
+            chunk -> {
+              chunk.setStatus(StatsBackfillChunk.ChunkStatus.completed);
+              chunk.setRebuiltDays(rebuiltDays);
+              chunk.setCompletedAt(LocalDateTime.now());
+              statsBackfillJobRepository.incrementCompletedChunks(jobId);
+            });
+  }
+
+  @Transactional
+  public void failChunk(Long chunkId, Long jobId, String errorMessage) {
+    statsBackfillChunkRepository
+        .findById(chunkId)
+        .ifPresent(
+            chunk -> {
+              chunk.setStatus(StatsBackfillChunk.ChunkStatus.failed);
+              chunk.setErrorMessage(
+                  errorMessage != null && errorMessage.length() > 1000
+                      ? errorMessage.substring(0, 1000)
+                      : errorMessage);
+              statsBackfillJobRepository.incrementFailedChunks(jobId);
+            });
+  }
+
+  /** Completes a job whose workers are done; a cancelled job stays cancelled. */
+  @Transactional
+  public void finishJob(Long jobId) {
+    cancelledJobs.remove(jobId);
+    statsBackfillJobRepository
+        .findById(jobId)
+        .filter(job -> job.getStatus() == JobStatus.running)
+        .ifPresent(
+            job -> {
+              job.setStatus(
+                  job.getCompletedChunks().equals(job.getTotalChunks())
+                      ? JobStatus.completed
+                      : JobStatus.failed);
+              job.setFinishedAt(LocalDateTime.now());
+              log.info(
+                  "Stats backfill job {} {}: {} of {} chunks completed, {} failed",
+                  jobId,
+                  job.getStatus(),
+                  job.getCompletedChunks(),
+                  job.getTotalChunks(),
+                  job.getFailedChunks());
+            });
+  }
+
+  private void runMonitor(
+      StatsBackfillJob job, Integer monitorId, List<StatsBackfillChunk> chunks) {
+    Long jobId = job.getId();
+    Optional<Monitor> monitor = monitorRepository.findByIdAndTenantId(monitorId, job.getTenantId());
+    for (StatsBackfillChunk chunk : chunks) {
+      if (isCancelled(jobId)) {
+        return;
+      }
+      if (monitor.isEmpty()) {
+        self.failChunk(chunk.getId(), jobId, "Monitor not found with ID: " + monitorId);
+        continue;
+      }
+      try {
+        int rebuiltDays = 0;
+        for (LocalDate day = chunk.getChunkStart();
+            !day.isAfter(chunk.getChunkEnd());
+            day = day.plusDays(1)) {
+          if (cancelledJobs.contains(jobId)) {
+            // the chunk stays open and is run again when the job is resumed
+            return;
+          }
+          rateLimiter.acquire();
+          if (self.backfillDay(job.getTenantId(), monitor.get(), day)) {
+            rebuiltDays++;
+          }
+        }
+        self.completeChunk(chunk.getId(), jobId, rebuiltDays);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception e) {
+        log.warn(
+            "Stats backfill job {} failed for monitor {} from {} to {}: {}",
+            jobId,
+            monitorId,
+            chunk.getChunkStart(),
+            chunk.getChunkEnd(),
+            e.getMessage());
+        self.failChunk(chunk.getId(), jobId, e.getMessage());
+      }
+    }
+  }
+
+  /** Checks the database too, as the job may have been cancelled through another instance. */
+  private boolean isCancelled(Long jobId) {
+    if (cancelledJobs.contains(jobId)) {
+      return true;
+    }
+    boolean cancelled =
+        statsBackfillJobRepository
+            .findById(jobId)
+            .map(job -> job.getStatus() == JobStatus.cancelled)
+            .orElse(true);
+    if (cancelled) {
+      cancelledJobs.add(jobId);
+    }
+    return cancelled;
+  }
+
+  private StatsBackfillJob findJob(Set<Integer> tenantIds, Long id) {
+    return statsBackfillJobRepository
+        .findByIdAndTenantIdIn(id, tenantIds)
+        .orElseThrow(() -> new IllegalArgumentException("Job not found with ID: " + id));
+  }
+
+  /** The selected monitor ids of a job, empty for all monitors of its tenant. */
+  public static List<Integer> monitorIdsOf(StatsBackfillJob job) {
+    if (job.getMonitorIds() == null || job.getMonitorIds().isBlank()) {
+      return List.of();
+    }
+    return Arrays.stream(job.getMonitorIds().split(",")).map(Integer::valueOf).toList();
+  }
+
+  /** Spaces the days of all jobs at least 1 / maxDaysPerSecond apart; unlimited if not positive. */
+  private static final class DayRateLimiter {
+
+    private final long intervalNanos;
+    private long next;
+
+    DayRateLimiter(double maxDaysPerSecond) {
+      this.intervalNanos = maxDaysPerSecond > 0 ? (long) (1_000_000_000L / maxDaysPerSecond) : 0;
+    }
+
+    void acquire() throws InterruptedException {
+      if (intervalNanos == 0) {
+        return;
+      }
+      long wait;
+      synchronized (this) {
+        long now = System.nanoTime();
+        if (next < now) {
+          next = now;
+        }
+        wait = next - now;
+        next += intervalNanos;
+      }
+      if (wait > 0) {
+        TimeUnit.NANOSECONDS.sleep(wait);
+      }
+    }
+  }
+}
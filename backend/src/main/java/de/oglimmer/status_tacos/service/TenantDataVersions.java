@@ -0,0 +1,89 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.util.AfterCommit;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Monotonic per tenant versions of the data the read endpoints serve, used as their ETags: the
+ * {@link Kind#STATUS} version is bumped by every check, the {@link Kind#STATS} version by the
+ * uptime stats job, both by changes to the monitors. Versions are bumped after the writing
+ * transaction committed, so a client never holds a current version with older data.
+ *
+ * <p>The versions live in memory and start over with every boot, so ETags carry a boot id. An
+ * instance that doesn't run the checks sees no bumps; its ETags expire after {@code
+ * monitor.etag.max-age} instead.
+ */
+@Service
+public class TenantDataVersions {
+
+  public enum Kind {
+    STATUS,
+    STATS
+  }
+
+  private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+  private final boolean bumpedLocally;
+  private final long maxAgeMillis;
+
+  private final Map<Integer, AtomicLong> statusVersions = new ConcurrentHashMap<>();
+  private final Map<Integer, AtomicLong> statsVersions = new ConcurrentHashMap<>();
+
+  public TenantDataVersions(
+      @Value("${monitor.scheduling.enabled:true}") boolean bumpedLocally,
+      @Value("${monitor.etag.max-age:${monitor.scheduling.check-interval:60000}}")
+          long maxAgeMillis) {
+    this.bumpedLocally = bumpedLocally;
+    this.maxAgeMillis = maxAgeMillis;
+  }
+
+  public void bumpStatus(Integer tenantId) {
+    AfterCommit.run(() -> version(statusVersions, tenantId).incrementAndGet());
+  }
+
+  public void bumpStats(Integer tenantId) {
+    AfterCommit.run(() -> version(statsVersions, tenantId).incrementAndGet());
+  }
+
+  public void bumpAll(Integer tenantId) {
+    AfterCommit.run(
+        () -> {
+          version(statusVersions, tenantId).incrementAndGet();
+          version(statsVersions, tenantId).incrementAndGet();
+        });
+  }
+
+  public long getVersion(Integer tenantId, Kind kind) {
+    return version(kind == Kind.STATUS ? statusVersions : statsVersions, tenantId).get();
+  }
+
+  /** ETag of the data of the given kinds of a tenant set, e.g. {@code m1x2k-1:42.7,3:5.1}. */
+  public String etag(Set<Integer> tenantIds, Kind... kinds) {
+    StringBuilder etag = new StringBuilder(bootId);
+    if (!bumpedLocally) {
+      etag.append('.').append(System.currentTimeMillis() / maxAgeMillis);
+    }
+    char separator = '-';
+    for (Integer tenantId : new TreeSet<>(tenantIds)) {
+      etag.append(separator).append(tenantId).append(':');
+      for (int i = 0; i < kinds.length; i++) {
+        if (i > 0) {
+          etag.append('.');
+        }
+        etag.append(getVersion(tenantId, kinds[i]));
+      }
+      separator = ',';
+    }
+    return etag.toString();
+  }
+
+  private static AtomicLong version(Map<Integer, AtomicLong> versions, Integer tenantId) {
+    return versions.computeIfAbsent(tenantId, id -> new AtomicLong());
+  }
+}
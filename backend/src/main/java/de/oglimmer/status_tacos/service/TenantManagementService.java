@@ -25,6 +25,7 @@ public class TenantManagementService {
   private final UserRepository userRepository;
   private final TenantCodeGenerator tenantCodeGenerator;
   private final AlertContactRepository alertContactRepository;
+  private final TenantMembershipCache tenantMembershipCache;
 
   public Tenant createTenantAndAssignUser(String name, String code, String description, User user) {
     log.info("Creating new tenant with code: {} and assigning user {}", code, user.getEmail());
@@ -38,6 +39,7 @@ public class TenantManagementService {
     }
     user.getTenants().add(tenant);
     userRepository.save(user);
+    tenantMembershipCache.invalidate(user.getOidcSubject());
 
     log.info(
         "Successfully created tenant {} and assigned user {}", tenant.getCode(), user.getEmail());
@@ -99,6 +101,7 @@ public class TenantManagementService {
     // Assign user to tenant
     savedUser.getTenants().add(newTenant);
     User finalUser = userRepository.save(savedUser);
+    tenantMembershipCache.invalidate(subject);
 
     // Create default email alert contact for the new user
     if (email != null && !email.endsWith("@unknown.com")) {
@@ -0,0 +1,58 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.persistence.Tenant;
+import de.oglimmer.status_tacos.repository.UserRepository;
+import de.oglimmer.status_tacos.util.AfterCommit;
+import de.oglimmer.status_tacos.util.ExpiringCache;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Caches the tenant ids of a user by OIDC subject, so resolving the tenants of a request doesn't
+ * query the user and its tenants every time. Entries expire after {@code
+ * monitor.auth.membership-cache-ttl} and are invalidated when the tenants of a user change.
+ */
+@Service
+@Slf4j
+public class TenantMembershipCache {
+
+  private final UserRepository userRepository;
+  private final ExpiringCache<String, Set<Integer>> tenantIds;
+
+  public TenantMembershipCache(
+      UserRepository userRepository,
+      @Value("${monitor.auth.membership-cache-max-size:10000}") int maxSize,
+      @Value("${monitor.auth.membership-cache-ttl:60000}") long ttlMillis) {
+    this.userRepository = userRepository;
+    this.tenantIds = new ExpiringCache<>(maxSize, ttlMillis);
+  }
+
+  /** The tenant ids of an active user, empty if there is no such user or it has no tenants. */
+  public Set<Integer> getTenantIds(String oidcSubject) {
+    return tenantIds.get(oidcSubject, this::load);
+  }
+
+  /** Drops the cached tenants of a user once the transaction changing them committed. */
+  public void invalidate(String oidcSubject) {
+    if (oidcSubject == null) {
+      return;
+    }
+    AfterCommit.run(() -> tenantIds.invalidate(oidcSubject));
+  }
+
+  private Set<Integer> load(String oidcSubject) {
+    log.debug("Loading tenants of user {}", oidcSubject);
+    return userRepository
+        .findByOidcSubjectAndIsActiveTrue(oidcSubject)
+        .map(
+            user ->
+                user.getTenants().stream()
+                    .map(Tenant::getId)
+                    .collect(Collectors.<Integer>toUnmodifiableSet()))
+        .orElse(Set.of());
+  }
+}
@@ -11,6 +11,7 @@ import java.util.Optional;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +23,17 @@ public class TenantService {
 
   private final TenantRepository tenantRepository;
   private final UserRepository userRepository;
+  private final TenantMembershipCache tenantMembershipCache;
+  private final PublicStatusPageService publicStatusPageService;
+
+  @Value("${monitor.cleanup.retention-days:90}")
+  private int defaultRawRetentionDays;
+
+  @Value("${monitor.cleanup.minute-rollup-retention-days:180}")
+  private int defaultMinuteRollupRetentionDays;
+
+  @Value("${monitor.cleanup.hourly-rollup-retention-days:730}")
+  private int defaultHourlyRollupRetentionDays;
 
   public Tenant createTenant(String name, String code, String description) {
     log.info("Creating new tenant with code: {}", code);
@@ -64,10 +76,63 @@ public class TenantService {
 
     tenant.setName(name);
     tenant.setDescription(description);
+    publicStatusPageService.invalidate(tenant);
+
+    return tenantRepository.save(tenant);
+  }
+
+  /** Publishes or withdraws the public status page of the tenant. */
+  public Tenant updatePublicStatusPage(Integer id, boolean enabled) {
+    log.info("Setting public status page of tenant ID {} to {}", id, enabled);
+
+    Tenant tenant =
+        tenantRepository
+            .findById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Tenant not found with ID: " + id));
+
+    tenant.setPublicStatusPage(enabled);
+    publicStatusPageService.invalidate(tenant);
 
     return tenantRepository.save(tenant);
   }
 
+  /**
+   * Overrides the retention of the tenant's check data per tier, null keeps the configured default.
+   *
+   * @throws IllegalArgumentException if the resulting policy is invalid, see {@link
+   *     RetentionPolicy}
+   */
+  public Tenant updateRetentionPolicy(
+      Integer id, Integer rawDays, Integer minuteRollupDays, Integer hourlyRollupDays) {
+    log.info("Updating retention policy of tenant ID: {}", id);
+
+    Tenant tenant =
+        tenantRepository
+            .findById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Tenant not found with ID: " + id));
+
+    tenant.setRawRetentionDays(rawDays);
+    tenant.setMinuteRollupRetentionDays(minuteRollupDays);
+    tenant.setHourlyRollupRetentionDays(hourlyRollupDays);
+    getRetentionPolicy(tenant);
+
+    return tenantRepository.save(tenant);
+  }
+
+  /** The retention policy of the tenant, its overrides applied to the configured defaults. */
+  public RetentionPolicy getRetentionPolicy(Tenant tenant) {
+    return new RetentionPolicy(
+        tenant.getRawRetentionDays() != null
+            ? tenant.getRawRetentionDays()
+            : defaultRawRetentionDays,
+        tenant.getMinuteRollupRetentionDays() != null
+            ? tenant.getMinuteRollupRetentionDays()
+            : defaultMinuteRollupRetentionDays,
+        tenant.getHourlyRollupRetentionDays() != null
+            ? tenant.getHourlyRollupRetentionDays()
+            : defaultHourlyRollupRetentionDays);
+  }
+
   public Tenant toggleTenantStatus(Integer id) {
     log.info("Toggling status for tenant ID: {}", id);
 
@@ -77,6 +142,7 @@ public class TenantService {
             .orElseThrow(() -> new IllegalArgumentException("Tenant not found with ID: " + id));
 
     tenant.setIsActive(!tenant.getIsActive());
+    publicStatusPageService.invalidate(tenant);
 
     return tenantRepository.save(tenant);
   }
@@ -130,6 +196,7 @@ public class TenantService {
 
     user.getTenants().add(tenant);
     userRepository.save(user);
+    tenantMembershipCache.invalidate(user.getOidcSubject());
   }
 
   public void removeUserFromTenant(Integer tenantId, String email) {
@@ -152,5 +219,6 @@ public class TenantService {
 
     user.getTenants().remove(tenant);
     userRepository.save(user);
+    tenantMembershipCache.invalidate(user.getOidcSubject());
   }
 }
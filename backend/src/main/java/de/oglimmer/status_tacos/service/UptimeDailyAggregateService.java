@@ -0,0 +1,370 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.persistence.UptimeDailyAggregate;
+import de.oglimmer.status_tacos.repository.UptimeDailyAggregateRepository;
+import de.oglimmer.status_tacos.store.LatencySketch;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintains the per-day partial aggregates the uptime statistics are rolled forward from.
+ *
+ * <p>Every run only folds the checks that arrived since the last run ({@code folded_until}) into
+ * the aggregate of their day. A day is closed once the fold has passed its end, with the folded
+ * runs of change-only mode added, and is never written again. The initial run of a monitor folds
+ * its whole history once.
+ *
+ * <p>Checks that are written with a checkedAt before {@code folded_until}, e.g. replayed from the
+ * spool or imported, drop the aggregates from their day on when they are saved (see {@link
+ * CheckResultService#saveCheckResult(de.oglimmer.status_tacos.persistence.CheckResult)}), so the
+ * next run folds them again. Runs are only persisted once they ended, so a day closes {@code
+ * max-run-minutes} after the fold passed its end, when no run starting on it can be open anymore.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class UptimeDailyAggregateService {
+
+  private final UptimeDailyAggregateRepository uptimeDailyAggregateRepository;
+  private final CheckResultService checkResultService;
+
+  // checks still in flight may be written with a slightly older checkedAt, leave them for the next
+  // run
+  @Value("${monitor.uptime.settle-seconds:30}")
+  private int settleSeconds;
+
+  @Value("${monitor.storage.change-only.max-run-minutes:15}")
+  private int maxRunMinutes;
+
+  /**
+   * Folds the new checks of a monitor and returns the days in [firstDay, today], ascending. The
+   * open days include their folded runs, which are only persisted when the day closes.
+   */
+  public List<UptimeDay> rollForward(
+      Integer tenantId, Monitor monitor, LocalDate firstDay, LocalDateTime now) {
+    LocalDate today = now.toLocalDate();
+    LocalDateTime foldUntil = now.minusSeconds(settleSeconds).truncatedTo(ChronoUnit.SECONDS);
+
+    Map<LocalDate, UptimeDailyAggregate> rows = new TreeMap<>();
+    Map<LocalDate, UptimeDay> days = new TreeMap<>();
+    LocalDateTime foldedUntil = firstDay.atStartOfDay().minusNanos(1);
+    for (UptimeDailyAggregate row :
+        uptimeDailyAggregateRepository.findByDayBetween(
+            monitor.getId(), tenantId, firstDay, today)) {
+      rows.put(row.getDay(), row);
+      days.put(row.getDay(), UptimeDay.of(row));
+      if (row.getFoldedUntil().isAfter(foldedUntil)) {
+        foldedUntil = row.getFoldedUntil();
+      }
+    }
+
+    List<UptimeDailyAggregate> changed = new ArrayList<>();
+    if (foldUntil.isAfter(foldedUntil)) {
+      LocalDateTime from = foldedUntil.plusNanos(1);
+      long[] folded = new long[1];
+      checkResultService.forEachSample(
+          tenantId,
+          monitor.getId(),
+          from,
+          foldUntil,
+          sample -> {
+            LocalDate day = sample.checkedAt().toLocalDate();
+            UptimeDailyAggregate row = rows.get(day);
+            if (row != null && row.isClosed()) {
+              // a closed day is final, checks saved for it later dropped it
+              return;
+            }
+            days.computeIfAbsent(day, UptimeDay::new).accept(sample);
+            folded[0]++;
+          });
+      for (UptimeDay uptimeDay : days.values()) {
+        UptimeDailyAggregate row =
+            rows.computeIfAbsent(
+                uptimeDay.day(),
+                day ->
+                    UptimeDailyAggregate.builder()
+                        .monitor(monitor)
+                        .tenantId(tenantId)
+                        .day(day)
+                        .build());
+        if (!row.isClosed()) {
+          row.setFoldedUntil(foldUntil);
+          changed.add(row);
+        }
+      }
+      log.debug(
+          "Folded {} checks of monitor {} from {} to {}",
+          folded[0],
+          monitor.getId(),
+          from,
+          foldUntil);
+    }
+
+    // close the days the fold has passed by the longest run, runs are attributed to the day they
+    // start on
+    LocalDateTime watermark = foldUntil.isAfter(foldedUntil) ? foldUntil : foldedUntil;
+    LocalDate closeBefore = watermark.minusMinutes(maxRunMinutes).toLocalDate();
+    LocalDate firstOpenDay = firstDay;
+    for (UptimeDailyAggregate row : rows.values()) {
+      if (row.isClosed() && !row.getDay().isBefore(firstOpenDay)) {
+        firstOpenDay = row.getDay().plusDays(1);
+      }
+    }
+    List<CheckResultRun> runs =
+        checkResultService.getRuns(tenantId, monitor.getId(), firstOpenDay.atStartOfDay(), now);
+    for (CheckResultRun run : runs) {
+      LocalDate day = run.getRunStart().toLocalDate();
+      if (!day.isBefore(firstOpenDay) && day.isBefore(closeBefore) && !rows.containsKey(day)) {
+        // a day covered by runs only
+        days.put(day, new UptimeDay(day));
+        UptimeDailyAggregate row =
+            UptimeDailyAggregate.builder()
+                .monitor(monitor)
+                .tenantId(tenantId)
+                .day(day)
+                .foldedUntil(watermark)
+                .build();
+        rows.put(day, row);
+        changed.add(row);
+      }
+    }
+    for (UptimeDailyAggregate row : rows.values()) {
+      if (!row.isClosed() && row.getDay().isBefore(closeBefore)) {
+        UptimeDay uptimeDay = days.get(row.getDay());
+        runsOf(runs, row.getDay()).forEach(uptimeDay::accept);
+        row.setClosed(true);
+        if (!changed.contains(row)) {
+          changed.add(row);
+        }
+      }
+    }
+
+    for (UptimeDailyAggregate row : changed) {
+      days.get(row.getDay()).writeTo(row);
+    }
+    uptimeDailyAggregateRepository.saveAll(changed);
+
+    // open days are served with their runs, but persisted without them
+    for (LocalDate day = closeBefore; !day.isAfter(today); day = day.plusDays(1)) {
+      UptimeDay openDay = rows.containsKey(day) ? UptimeDay.of(rows.get(day)) : new UptimeDay(day);
+      runsOf(runs, day).forEach(openDay::accept);
+      if (openDay.aggregate().count() > 0) {
+        days.put(day, openDay);
+      }
+    }
+    return new ArrayList<>(days.values());
+  }
+
+  /**
+   * Sketch of the successful response times in [from, to]. Whole days are merged from the sketches
+   * of the closed daily aggregates, the rest, i.e. partial days at the edges and days not closed
+   * yet, is read from the checks. Memory is independent of the length of the range.
+   */
+  @Transactional(readOnly = true)
+  public LatencySketch getResponseTimeSketch(
+      Integer tenantId, Integer monitorId, LocalDateTime from, LocalDateTime to) {
+    Map<LocalDate, UptimeDailyAggregate> closedDays = new HashMap<>();
+    for (UptimeDailyAggregate row :
+        uptimeDailyAggregateRepository.findByDayBetween(
+            monitorId, tenantId, from.toLocalDate(), to.toLocalDate())) {
+      if (row.isClosed()) {
+        closedDays.put(row.getDay(), row);
+      }
+    }
+
+    LatencySketch sketch = new LatencySketch();
+    LocalDateTime scanStart = null;
+    for (LocalDate day = from.toLocalDate();
+        !day.isAfter(to.toLocalDate());
+        day = day.plusDays(1)) {
+      LocalDateTime dayStart = day.atStartOfDay();
+      UptimeDailyAggregate closedDay = closedDays.get(day);
+      boolean wholeDay = !dayStart.isBefore(from) && !day.plusDays(1).atStartOfDay().isAfter(to);
+      if (wholeDay && closedDay != null) {
+        if (scanStart != null) {
+          addChecks(sketch, tenantId, monitorId, scanStart, dayStart.minusNanos(1));
+          scanStart = null;
+        }
+        sketch.merge(UptimeDay.of(closedDay).sketch());
+      } else if (scanStart == null) {
+        scanStart = dayStart.isBefore(from) ? from : dayStart;
+      }
+    }
+    if (scanStart != null) {
+      addChecks(sketch, tenantId, monitorId, scanStart, to);
+    }
+    return sketch;
+  }
+
+  /**
+   * Whether {@link #rollForward} is done with a day of a monitor: its fold passed the day by the
+   * longest run, so the day is closed or was never folded. A monitor not folded yet is measured
+   * from now.
+   */
+  @Transactional(readOnly = true)
+  public boolean isClosed(Integer tenantId, Integer monitorId, LocalDate day) {
+    LocalDateTime watermark =
+        uptimeDailyAggregateRepository
+            .findFoldedUntil(monitorId, tenantId)
+            .orElseGet(LocalDateTime::now);
+    return day.isBefore(watermark.minusMinutes(maxRunMinutes).toLocalDate());
+  }
+
+  /**
+   * Rebuilds the closed aggregate of a past day from its checks, replacing what was folded before.
+   * A day without checks, e.g. one whose checks are already deleted, keeps its aggregate. The day
+   * must be {@link #isClosed closed}, an open one is still written by {@link #rollForward}.
+   *
+   * @return whether the aggregate was rebuilt
+   */
+  public boolean rebuildDay(Integer tenantId, Monitor monitor, LocalDate day) {
+    LocalDateTime start = day.atStartOfDay();
+    LocalDateTime end = day.plusDays(1).atStartOfDay().minusNanos(1);
+    UptimeDay uptimeDay = new UptimeDay(day);
+    checkResultService.forEachSample(tenantId, monitor.getId(), start, end, uptimeDay::accept);
+    checkResultService.getRuns(tenantId, monitor.getId(), start, end).forEach(uptimeDay::accept);
+    if (uptimeDay.aggregate().count() == 0) {
+      return false;
+    }
+
+    UptimeDailyAggregate row =
+        uptimeDailyAggregateRepository
+            .findByDayBetween(monitor.getId(), tenantId, day, day)
+            .stream()
+            .findFirst()
+            .orElseGet(
+                () ->
+                    UptimeDailyAggregate.builder()
+                        .monitor(monitor)
+                        .tenantId(tenantId)
+                        .day(day)
+                        .foldedUntil(end)
+                        .build());
+    // the fold watermark of the monitor must not move back
+    if (row.getFoldedUntil().isBefore(end)) {
+      row.setFoldedUntil(end);
+    }
+    row.setClosed(true);
+    uptimeDay.writeTo(row);
+    uptimeDailyAggregateRepository.save(row);
+    return true;
+  }
+
+  /**
+   * The days of a monitor in [firstDay, lastDay] with checks, ascending, like {@link #rollForward}
+   * serves them but without folding: closed days as stored, open days with the checks since the
+   * last fold and their runs added. Empty for a monitor not folded yet.
+   */
+  @Transactional(readOnly = true)
+  public List<UptimeDay> getDays(
+      Integer tenantId, Integer monitorId, LocalDate firstDay, LocalDate lastDay) {
+    Optional<LocalDateTime> foldedUntil =
+        uptimeDailyAggregateRepository.findFoldedUntil(monitorId, tenantId);
+    if (foldedUntil.isEmpty()) {
+      return List.of();
+    }
+    Map<LocalDate, UptimeDailyAggregate> rows = new HashMap<>();
+    Map<LocalDate, UptimeDay> days = new TreeMap<>();
+    for (UptimeDailyAggregate row :
+        uptimeDailyAggregateRepository.findByDayBetween(monitorId, tenantId, firstDay, lastDay)) {
+      rows.put(row.getDay(), row);
+      days.put(row.getDay(), UptimeDay.of(row));
+    }
+
+    LocalDate closeBefore = foldedUntil.get().minusMinutes(maxRunMinutes).toLocalDate();
+    LocalDate firstOpenDay = closeBefore.isAfter(firstDay) ? closeBefore : firstDay;
+    if (!firstOpenDay.isAfter(lastDay)) {
+      LocalDateTime openStart = firstOpenDay.atStartOfDay();
+      LocalDateTime end = lastDay.plusDays(1).atStartOfDay().minusNanos(1);
+      LocalDateTime scanStart = foldedUntil.get().plusNanos(1);
+      checkResultService.forEachSample(
+          tenantId,
+          monitorId,
+          scanStart.isAfter(openStart) ? scanStart : openStart,
+          end,
+          sample -> openDay(rows, days, sample.checkedAt().toLocalDate()).accept(sample));
+      for (CheckResultRun run : checkResultService.getRuns(tenantId, monitorId, openStart, end)) {
+        openDay(rows, days, run.getRunStart().toLocalDate()).accept(run);
+      }
+    }
+    return days.values().stream().filter(day -> day.aggregate().count() > 0).toList();
+  }
+
+  /** The closed days of a monitor in [firstDay, lastDay], ascending. */
+  @Transactional(readOnly = true)
+  public List<UptimeDay> getClosedDays(
+      Integer tenantId, Integer monitorId, LocalDate firstDay, LocalDate lastDay) {
+    return uptimeDailyAggregateRepository
+        .findByDayBetween(monitorId, tenantId, firstDay, lastDay)
+        .stream()
+        .filter(UptimeDailyAggregate::isClosed)
+        .map(UptimeDay::of)
+        .toList();
+  }
+
+  /** Drops the aggregates of a monitor from the given day on; the next run folds them again. */
+  public void invalidateFrom(Integer tenantId, Integer monitorId, LocalDate day) {
+    int deleted = uptimeDailyAggregateRepository.deleteFromDay(monitorId, tenantId, day);
+    if (deleted > 0) {
+      log.debug("Invalidated {} daily aggregates of monitor {} from {}", deleted, monitorId, day);
+    }
+  }
+
+  public void cleanupOldAggregates(Integer tenantId, LocalDate cutoff) {
+    int deleted = uptimeDailyAggregateRepository.deleteByTenantIdAndDayBefore(tenantId, cutoff);
+    log.info("Deleted {} daily uptime aggregates older than {}", deleted, cutoff);
+  }
+
+  private void addChecks(
+      LatencySketch sketch,
+      Integer tenantId,
+      Integer monitorId,
+      LocalDateTime start,
+      LocalDateTime end) {
+    checkResultService.forEachSample(
+        tenantId,
+        monitorId,
+        start,
+        end,
+        sample -> {
+          if (sample.up() && sample.responseTimeMs() != null) {
+            sketch.add(sample.responseTimeMs());
+          }
+        });
+    for (CheckResultRun run : checkResultService.getRuns(tenantId, monitorId, start, end)) {
+      if (run.getIsUp() && run.getResponseTimeCount() > 0) {
+        sketch.add((int) Math.round(run.getAverageResponseTimeMs()), run.getResponseTimeCount());
+      }
+    }
+  }
+
+  /** The open day to fold into; a day closed meanwhile is final and takes nothing. */
+  private static UptimeDay openDay(
+      Map<LocalDate, UptimeDailyAggregate> rows, Map<LocalDate, UptimeDay> days, LocalDate day) {
+    UptimeDailyAggregate row = rows.get(day);
+    if (row != null && row.isClosed()) {
+      return new UptimeDay(day);
+    }
+    return days.computeIfAbsent(day, UptimeDay::new);
+  }
+
+  private static List<CheckResultRun> runsOf(List<CheckResultRun> runs, LocalDate day) {
+    return runs.stream().filter(run -> run.getRunStart().toLocalDate().equals(day)).toList();
+  }
+}
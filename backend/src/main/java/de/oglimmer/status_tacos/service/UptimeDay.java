@@ -0,0 +1,321 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.dto.StatusDownPeriodsDto;
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import de.oglimmer.status_tacos.persistence.UptimeDailyAggregate;
+import de.oglimmer.status_tacos.store.CheckResultAggregate;
+import de.oglimmer.status_tacos.store.CheckResultBlockCodec;
+import de.oglimmer.status_tacos.store.CheckSample;
+import de.oglimmer.status_tacos.store.LatencySketch;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Working copy of an {@link UptimeDailyAggregate}: everything the uptime statistics of any window
+ * need from one day, folded check by check.
+ *
+ * <p>Down periods are kept as in the day; a period still open at the end of the day and the first
+ * check of the day let {@link UptimeStatsWindow} join periods across midnight.
+ *
+ * <p>The checks are also aggregated per hour, runs in the hour they start in, so histories can be
+ * bucketed by the hour from the closed days. Aggregates written before that have no hours.
+ */
+final class UptimeDay {
+
+  static final int HOURS = 24;
+  private static final int NO_VALUE = Integer.MIN_VALUE;
+
+  private final LocalDate day;
+
+  private long count;
+  private long successfulCount;
+  private long responseTimeCount;
+  private long responseTimeSum;
+  private Integer minResponseTime;
+  private Integer maxResponseTime;
+
+  private final int[] hourlyMaxima = new int[HOURS];
+  private final CheckResultAggregate[] hours = new CheckResultAggregate[HOURS];
+  private boolean hasHours = true;
+  private LatencySketch sketch = new LatencySketch();
+
+  private LocalDateTime firstCheckAt;
+  private boolean firstCheckUp;
+  private final List<StatusDownPeriodsDto> downPeriods = new ArrayList<>();
+  private LocalDateTime openDownStart;
+
+  UptimeDay(LocalDate day) {
+    this.day = day;
+    Arrays.fill(hourlyMaxima, NO_VALUE);
+  }
+
+  static UptimeDay of(UptimeDailyAggregate aggregate) {
+    UptimeDay uptimeDay = new UptimeDay(aggregate.getDay());
+    uptimeDay.count = aggregate.getCheckCount();
+    uptimeDay.successfulCount = aggregate.getSuccessfulChecks();
+    uptimeDay.responseTimeCount = aggregate.getResponseTimeCount();
+    uptimeDay.responseTimeSum = aggregate.getResponseTimeSumMs();
+    uptimeDay.minResponseTime = aggregate.getMinResponseTimeMs();
+    uptimeDay.maxResponseTime = aggregate.getMaxResponseTimeMs();
+    uptimeDay.readPayload(aggregate.getPayload());
+    return uptimeDay;
+  }
+
+  void writeTo(UptimeDailyAggregate aggregate) {
+    aggregate.setDay(day);
+    aggregate.setCheckCount(count);
+    aggregate.setSuccessfulChecks(successfulCount);
+    aggregate.setResponseTimeCount(responseTimeCount);
+    aggregate.setResponseTimeSumMs(responseTimeSum);
+    aggregate.setMinResponseTimeMs(minResponseTime);
+    aggregate.setMaxResponseTimeMs(maxResponseTime);
+    aggregate.setPayload(payload());
+  }
+
+  /** Folds in the next check of this day; checks must arrive in ascending checkedAt order. */
+  void accept(CheckSample sample) {
+    LocalDateTime checkedAt = sample.checkedAt();
+    boolean up = sample.up();
+    Integer responseTime = sample.responseTimeMs();
+
+    count++;
+    if (up) {
+      successfulCount++;
+      if (responseTime != null) {
+        responseTimeCount++;
+        responseTimeSum += responseTime;
+        minResponseTime = min(minResponseTime, responseTime);
+        maxResponseTime = max(maxResponseTime, responseTime);
+        sketch.add(responseTime);
+      }
+    }
+
+    // like the raw data points, the hourly max includes the response times of failed checks
+    int hour = checkedAt.getHour();
+    if (responseTime != null) {
+      hourlyMaxima[hour] = Math.max(hourlyMaxima[hour], responseTime);
+    }
+    Integer successfulResponseTime = up ? responseTime : null;
+    addHour(
+        hour,
+        new CheckResultAggregate(
+            1,
+            up ? 1 : 0,
+            successfulResponseTime != null ? 1 : 0,
+            successfulResponseTime != null ? successfulResponseTime : 0,
+            successfulResponseTime,
+            successfulResponseTime));
+
+    if (firstCheckAt == null) {
+      firstCheckAt = checkedAt;
+      firstCheckUp = up;
+    }
+    if (!up && openDownStart == null) {
+      openDownStart = checkedAt;
+    } else if (up && openDownStart != null) {
+      downPeriods.add(StatusDownPeriodsDto.builder().start(openDownStart).end(checkedAt).build());
+      openDownStart = null;
+    }
+  }
+
+  /** Folds in a run of identical checks starting on this day. */
+  void accept(CheckResultRun run) {
+    count += run.getCheckCount();
+    boolean withResponseTimes = run.getIsUp() && run.getResponseTimeCount() > 0;
+    addHour(
+        run.getRunStart().getHour(),
+        new CheckResultAggregate(
+            run.getCheckCount(),
+            run.getIsUp() ? run.getCheckCount() : 0,
+            withResponseTimes ? run.getResponseTimeCount() : 0,
+            withResponseTimes ? run.getResponseTimeSumMs() : 0,
+            withResponseTimes ? run.getMinResponseTimeMs() : null,
+            withResponseTimes ? run.getMaxResponseTimeMs() : null));
+    if (!run.getIsUp()) {
+      return;
+    }
+    successfulCount += run.getCheckCount();
+    if (run.getResponseTimeCount() > 0) {
+      responseTimeCount += run.getResponseTimeCount();
+      responseTimeSum += run.getResponseTimeSumMs();
+      minResponseTime = min(minResponseTime, run.getMinResponseTimeMs());
+      maxResponseTime = max(maxResponseTime, run.getMaxResponseTimeMs());
+      // folded runs only keep their average, which stands in for each of their checks
+      sketch.add((int) Math.round(run.getAverageResponseTimeMs()), run.getResponseTimeCount());
+    }
+    if (run.getMaxResponseTimeMs() != null) {
+      // a run only knows its overall max, which is applied to every hour it spans on this day
+      LocalDateTime dayEnd = day.plusDays(1).atStartOfDay();
+      int first = run.getRunStart().getHour();
+      int last = run.getRunEnd().isBefore(dayEnd) ? run.getRunEnd().getHour() : HOURS - 1;
+      for (int hour = first; hour <= last; hour++) {
+        hourlyMaxima[hour] = Math.max(hourlyMaxima[hour], run.getMaxResponseTimeMs());
+      }
+    }
+  }
+
+  LocalDate day() {
+    return day;
+  }
+
+  CheckResultAggregate aggregate() {
+    return new CheckResultAggregate(
+        count,
+        successfulCount,
+        responseTimeCount,
+        responseTimeSum,
+        minResponseTime,
+        maxResponseTime);
+  }
+
+  LatencySketch sketch() {
+    return sketch;
+  }
+
+  /** Max response time of the hour, null if the hour saw none. */
+  Integer hourlyMax(int hour) {
+    return hourlyMaxima[hour] == NO_VALUE ? null : hourlyMaxima[hour];
+  }
+
+  /** Whether the checks are aggregated per hour, see {@link #hourAggregate}. */
+  boolean hasHours() {
+    return hasHours;
+  }
+
+  /** Checks of the hour, null if the hour saw none. */
+  CheckResultAggregate hourAggregate(int hour) {
+    return hours[hour];
+  }
+
+  LocalDateTime firstCheckAt() {
+    return firstCheckAt;
+  }
+
+  boolean firstCheckUp() {
+    return firstCheckUp;
+  }
+
+  /** Down periods that started and ended on this day. */
+  List<StatusDownPeriodsDto> downPeriods() {
+    return downPeriods;
+  }
+
+  /** Start of the down period still open at the end of the folded checks, or null. */
+  LocalDateTime openDownStart() {
+    return openDownStart;
+  }
+
+  private byte[] payload() {
+    long dayStart = CheckResultBlockCodec.toEpochMillis(day.atStartOfDay());
+    CheckResultBlockCodec.VarIntWriter out = new CheckResultBlockCodec.VarIntWriter();
+    for (int max : hourlyMaxima) {
+      out.writeUnsigned(max == NO_VALUE ? 0 : max + 1L);
+    }
+    writeOffset(out, dayStart, firstCheckAt);
+    out.writeByte((byte) (firstCheckUp ? 1 : 0));
+    writeOffset(out, dayStart, openDownStart);
+    out.writeUnsigned(downPeriods.size());
+    for (StatusDownPeriodsDto period : downPeriods) {
+      out.writeUnsigned(CheckResultBlockCodec.toEpochMillis(period.getStart()) - dayStart);
+      out.writeUnsigned(Duration.between(period.getStart(), period.getEnd()).toMillis());
+    }
+    sketch.writeTo(out);
+    if (hasHours) {
+      for (CheckResultAggregate hour : hours) {
+        writeHour(out, hour == null ? CheckResultAggregate.EMPTY : hour);
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private void readPayload(byte[] payload) {
+    long dayStart = CheckResultBlockCodec.toEpochMillis(day.atStartOfDay());
+    CheckResultBlockCodec.VarIntReader in = new CheckResultBlockCodec.VarIntReader(payload);
+    for (int hour = 0; hour < HOURS; hour++) {
+      long value = in.readUnsigned();
+      hourlyMaxima[hour] = value == 0 ? NO_VALUE : (int) (value - 1);
+    }
+    firstCheckAt = readOffset(in, dayStart);
+    firstCheckUp = in.readByte() == 1;
+    openDownStart = readOffset(in, dayStart);
+    int periods = (int) in.readUnsigned();
+    for (int i = 0; i < periods; i++) {
+      LocalDateTime start = CheckResultBlockCodec.fromEpochMillis(dayStart + in.readUnsigned());
+      LocalDateTime end = start.plus(Duration.ofMillis(in.readUnsigned()));
+      downPeriods.add(StatusDownPeriodsDto.builder().start(start).end(end).build());
+    }
+    sketch = LatencySketch.readFrom(in);
+    hasHours = in.hasRemaining();
+    if (hasHours) {
+      for (int hour = 0; hour < HOURS; hour++) {
+        hours[hour] = readHour(in);
+      }
+    }
+  }
+
+  private void addHour(int hour, CheckResultAggregate aggregate) {
+    hours[hour] = hours[hour] == null ? aggregate : hours[hour].plus(aggregate);
+  }
+
+  private static void writeHour(CheckResultBlockCodec.VarIntWriter out, CheckResultAggregate hour) {
+    out.writeUnsigned(hour.count());
+    if (hour.count() == 0) {
+      return;
+    }
+    out.writeUnsigned(hour.successfulCount());
+    out.writeUnsigned(hour.responseTimeCount());
+    if (hour.responseTimeCount() > 0) {
+      out.writeUnsigned(hour.responseTimeSum());
+      out.writeUnsigned(hour.minResponseTime());
+      out.writeUnsigned(hour.maxResponseTime());
+    }
+  }
+
+  private static CheckResultAggregate readHour(CheckResultBlockCodec.VarIntReader in) {
+    long count = in.readUnsigned();
+    if (count == 0) {
+      return null;
+    }
+    long successfulCount = in.readUnsigned();
+    long responseTimeCount = in.readUnsigned();
+    if (responseTimeCount == 0) {
+      return new CheckResultAggregate(count, successfulCount, 0, 0, null, null);
+    }
+    return new CheckResultAggregate(
+        count,
+        successfulCount,
+        responseTimeCount,
+        in.readUnsigned(),
+        (int) in.readUnsigned(),
+        (int) in.readUnsigned());
+  }
+
+  private static void writeOffset(
+      CheckResultBlockCodec.VarIntWriter out, long dayStart, LocalDateTime time) {
+    out.writeUnsigned(time == null ? 0 : CheckResultBlockCodec.toEpochMillis(time) - dayStart + 1);
+  }
+
+  private static LocalDateTime readOffset(CheckResultBlockCodec.VarIntReader in, long dayStart) {
+    long value = in.readUnsigned();
+    return value == 0 ? null : CheckResultBlockCodec.fromEpochMillis(dayStart + value - 1);
+  }
+
+  private static Integer min(Integer current, Integer candidate) {
+    if (candidate == null || (current != null && current <= candidate)) {
+      return current;
+    }
+    return candidate;
+  }
+
+  private static Integer max(Integer current, Integer candidate) {
+    if (candidate == null || (current != null && current >= candidate)) {
+      return current;
+    }
+    return candidate;
+  }
+}
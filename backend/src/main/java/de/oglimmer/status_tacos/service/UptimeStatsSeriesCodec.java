@@ -0,0 +1,108 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.dto.ResponseTimeDataPointDto;
+import de.oglimmer.status_tacos.dto.StatusDownPeriodsDto;
+import de.oglimmer.status_tacos.store.CheckResultBlockCodec;
+import de.oglimmer.status_tacos.store.CheckResultBlockCodec.VarIntReader;
+import de.oglimmer.status_tacos.store.CheckResultBlockCodec.VarIntWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact encoding of the time series stored with the uptime stats.
+ *
+ * <ul>
+ *   <li>response time data: count, then per point the timestamp as epoch millis delta to the
+ *       previous point (the first to zero) and the max response time + 1, 0 meaning none
+ *   <li>status down periods: count, then per period the start as epoch millis delta to the previous
+ *       start and the duration in millis
+ * </ul>
+ *
+ * <p>Both start with a version byte; deltas are zigzag varints, so unsorted input still round
+ * trips.
+ */
+public final class UptimeStatsSeriesCodec {
+
+  static final byte VERSION = 1;
+
+  private UptimeStatsSeriesCodec() {}
+
+  public static byte[] encodeResponseTimeData(List<ResponseTimeDataPointDto> dataPoints) {
+    VarIntWriter out = new VarIntWriter();
+    out.writeByte(VERSION);
+    out.writeUnsigned(dataPoints.size());
+    long previous = 0;
+    for (ResponseTimeDataPointDto dataPoint : dataPoints) {
+      long timestamp = CheckResultBlockCodec.toEpochMillis(dataPoint.getTimestamp());
+      out.writeSigned(timestamp - previous);
+      previous = timestamp;
+      Integer value = dataPoint.getMaxResponseTimeMs();
+      out.writeUnsigned(value == null ? 0 : value + 1L);
+    }
+    return out.toByteArray();
+  }
+
+  public static List<ResponseTimeDataPointDto> decodeResponseTimeData(byte[] payload) {
+    if (payload == null || payload.length == 0) {
+      return new ArrayList<>();
+    }
+    VarIntReader in = readerOf(payload);
+    int count = (int) in.readUnsigned();
+    List<ResponseTimeDataPointDto> dataPoints = new ArrayList<>(count);
+    long timestamp = 0;
+    for (int i = 0; i < count; i++) {
+      timestamp += in.readSigned();
+      long value = in.readUnsigned();
+      dataPoints.add(
+          ResponseTimeDataPointDto.builder()
+              .timestamp(CheckResultBlockCodec.fromEpochMillis(timestamp))
+              .maxResponseTimeMs(value == 0 ? null : (int) (value - 1))
+              .build());
+    }
+    return dataPoints;
+  }
+
+  public static byte[] encodeStatusDownPeriods(List<StatusDownPeriodsDto> periods) {
+    VarIntWriter out = new VarIntWriter();
+    out.writeByte(VERSION);
+    out.writeUnsigned(periods.size());
+    long previous = 0;
+    for (StatusDownPeriodsDto period : periods) {
+      long start = CheckResultBlockCodec.toEpochMillis(period.getStart());
+      out.writeSigned(start - previous);
+      out.writeSigned(CheckResultBlockCodec.toEpochMillis(period.getEnd()) - start);
+      previous = start;
+    }
+    return out.toByteArray();
+  }
+
+  public static List<StatusDownPeriodsDto> decodeStatusDownPeriods(byte[] payload) {
+    if (payload == null || payload.length == 0) {
+      return new ArrayList<>();
+    }
+    VarIntReader in = readerOf(payload);
+    int count = (int) in.readUnsigned();
+    List<StatusDownPeriodsDto> periods = new ArrayList<>(count);
+    long start = 0;
+    for (int i = 0; i < count; i++) {
+      start += in.readSigned();
+      long end = start + in.readSigned();
+      periods.add(
+          StatusDownPeriodsDto.builder()
+              .start(CheckResultBlockCodec.fromEpochMillis(start))
+              .end(CheckResultBlockCodec.fromEpochMillis(end))
+              .build());
+    }
+    return periods;
+  }
+
+  private static VarIntReader readerOf(byte[] payload) {
+    VarIntReader in = new VarIntReader(payload);
+    byte version = in.readByte();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported uptime stats series version: " + version);
+    }
+    return in;
+  }
+}
@@ -1,17 +1,24 @@
 /* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
 package de.oglimmer.status_tacos.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import de.oglimmer.status_tacos.dto.ResponseTimeDataPointDto;
 import de.oglimmer.status_tacos.dto.StatusDownPeriodsDto;
 import de.oglimmer.status_tacos.persistence.Monitor;
 import de.oglimmer.status_tacos.persistence.UptimeStats;
 import de.oglimmer.status_tacos.repository.UptimeStatsRepository;
+import de.oglimmer.status_tacos.store.CheckResultAggregate;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,29 +28,47 @@ import org.springframework.transaction.annotation.Transactional;
 public class UptimeStatsService {
 
   private final UptimeStatsRepository uptimeStatsRepository;
-  private final CheckResultService checkResultService;
   private final MonitorService monitorService;
-  private final ObjectMapper objectMapper;
+  private final UptimeDailyAggregateService uptimeDailyAggregateService;
+  private final Executor uptimeStatsExecutor;
   private final UptimeStatsService self;
+  private final MonitorStatusStreamService monitorStatusStreamService;
+  private final TenantDataVersions tenantDataVersions;
+  private final PublicStatusPageService publicStatusPageService;
 
   public UptimeStatsService(
       UptimeStatsRepository uptimeStatsRepository,
-      CheckResultService checkResultService,
       MonitorService monitorService,
-      ObjectMapper objectMapper,
-      @Lazy UptimeStatsService self) {
+      UptimeDailyAggregateService uptimeDailyAggregateService,
+      @Qualifier("uptimeStatsExecutor") Executor uptimeStatsExecutor,
+      @Lazy UptimeStatsService self,
+      MonitorStatusStreamService monitorStatusStreamService,
+      TenantDataVersions tenantDataVersions,
+      PublicStatusPageService publicStatusPageService) {
     this.uptimeStatsRepository = uptimeStatsRepository;
-    this.checkResultService = checkResultService;
     this.monitorService = monitorService;
-    this.objectMapper = objectMapper;
+    this.uptimeDailyAggregateService = uptimeDailyAggregateService;
+    this.uptimeStatsExecutor = uptimeStatsExecutor;
     this.self = self;
+    this.monitorStatusStreamService = monitorStatusStreamService;
+    this.tenantDataVersions = tenantDataVersions;
+    this.publicStatusPageService = publicStatusPageService;
   }
 
   public void calculateAndSaveUptimeStats(Integer tenantId) {
+    calculateAndSaveUptimeStats(Set.of(tenantId));
+  }
+
+  /**
+   * Calculates and saves the stats of the active monitors of the given tenants. The monitors are
+   * spread over the workers of the uptime stats executor, whose size bounds the database
+   * connections the job takes; all periods of a monitor are written in one transaction.
+   */
+  public void calculateAndSaveUptimeStats(Set<Integer> tenantIds) {
     log.info("Starting uptime statistics calculation for all monitors");
 
     List<Monitor> activeMonitors =
-        monitorService.getActiveMonitors(tenantId).stream()
+        monitorService.getActiveMonitors(tenantIds).stream()
             .map(
                 dto ->
                     Monitor.builder()
@@ -51,6 +76,7 @@ public class UptimeStatsService {
                         .name(dto.getName())
                         .url(dto.getUrl())
                         .state(dto.getState())
+                        .tenantId(dto.getTenantId())
                         .build())
             .toList();
 
@@ -60,88 +86,122 @@ public class UptimeStatsService {
     }
 
     LocalDateTime now = LocalDateTime.now();
+    AtomicInteger failed = new AtomicInteger();
 
-    for (Monitor monitor : activeMonitors) {
-      try {
-        self.calculate7DayStats(tenantId, monitor, now);
-        self.calculate90DayStats(tenantId, monitor, now);
-        self.calculate365DayStats(tenantId, monitor, now);
-      } catch (Exception e) {
-        log.error(
-            "Failed to calculate uptime stats for monitor {}: {}",
-            monitor.getId(),
-            e.getMessage(),
-            e);
-      }
-    }
+    CompletableFuture.allOf(
+            activeMonitors.stream()
+                .map(
+                    monitor ->
+                        CompletableFuture.runAsync(
+                            () -> {
+                              try {
+                                self.calculateAndSaveMonitorStats(
+                                    monitor.getTenantId(), monitor, now);
+                              } catch (Exception e) {
+                                failed.incrementAndGet();
+                                log.error(
+                                    "Failed to calculate uptime stats for monitor {}: {}",
+                                    monitor.getId(),
+                                    e.getMessage(),
+                                    e);
+                              }
+                            },
+                            uptimeStatsExecutor))
+                .toArray(CompletableFuture[]::new))
+        .join();
 
-    log.info("Completed uptime statistics calculation for {} monitors", activeMonitors.size());
+    log.info(
+        "Completed uptime statistics calculation for {} monitors, {} failed",
+        activeMonitors.size(),
+        failed.get());
   }
 
-  public void calculate7DayStats(Integer tenantId, Monitor monitor, LocalDateTime now) {
-    LocalDateTime start = now.minusDays(7);
-    UptimeStats stats =
-        calculateStats(tenantId, monitor, UptimeStats.PeriodType.SEVEN_DAYS, start, now);
-    if (stats != null) {
-      self.saveStats(stats);
-    }
+  @Transactional
+  public void calculateAndSaveMonitorStats(Integer tenantId, Monitor monitor, LocalDateTime now) {
+    List<UptimeStats> stats = calculateMonitorStats(tenantId, monitor, now);
+    uptimeStatsRepository.saveAll(stats);
+    monitorStatusStreamService.publishStats(tenantId, monitor.getId(), stats);
+    tenantDataVersions.bumpStats(tenantId);
+    publicStatusPageService.invalidate(tenantId);
+    log.debug("Saved {} stats for monitor {}", stats.size(), monitor.getId());
   }
 
-  public void calculate90DayStats(Integer tenantId, Monitor monitor, LocalDateTime now) {
-    LocalDateTime start = now.minusDays(90);
-    UptimeStats stats =
-        calculateStats(tenantId, monitor, UptimeStats.PeriodType.NINETY_DAYS, start, now);
-    if (stats != null) {
-      self.saveStats(stats);
-    }
+  /**
+   * Calculates the stats of all periods of a monitor from its daily aggregates, rolled forward by
+   * the checks since the last run. Periods start at midnight; periods without checks are skipped.
+   */
+  @Transactional
+  public List<UptimeStats> calculateMonitorStats(
+      Integer tenantId, Monitor monitor, LocalDateTime now) {
+    LocalDate firstDay = now.toLocalDate().minusDays(maxPeriodDays());
+    List<UptimeDay> days =
+        uptimeDailyAggregateService.rollForward(tenantId, monitor, firstDay, now);
+    return toUptimeStats(tenantId, monitor, days, now.toLocalDate(), now);
+  }
+
+  /**
+   * Recalculates the stats of all periods of a monitor as they were at the end of a past day, from
+   * its closed daily aggregates. Replaces the stats the scheduled job saved for that day.
+   */
+  @Transactional
+  public List<UptimeStats> recalculateMonitorStats(
+      Integer tenantId, Monitor monitor, LocalDate day) {
+    List<UptimeDay> days =
+        uptimeDailyAggregateService.getClosedDays(
+            tenantId, monitor.getId(), day.minusDays(maxPeriodDays()), day);
+    List<UptimeStats> stats =
+        toUptimeStats(tenantId, monitor, days, day, day.plusDays(1).atStartOfDay());
+    uptimeStatsRepository.saveAll(stats);
+    tenantDataVersions.bumpStats(tenantId);
+    publicStatusPageService.invalidate(tenantId);
+    return stats;
   }
 
-  public void calculate365DayStats(Integer tenantId, Monitor monitor, LocalDateTime now) {
-    LocalDateTime start = now.minusDays(365);
-    UptimeStats stats =
-        calculateStats(tenantId, monitor, UptimeStats.PeriodType.THREE_SIXTY_FIVE_DAYS, start, now);
-    if (stats != null) {
-      self.saveStats(stats);
+  /**
+   * The stats of all periods of {@code day} ending at {@code end}; periods without checks are
+   * skipped.
+   */
+  private List<UptimeStats> toUptimeStats(
+      Integer tenantId, Monitor monitor, List<UptimeDay> days, LocalDate day, LocalDateTime end) {
+    List<UptimeStats> result = new ArrayList<>();
+    for (UptimeStats.PeriodType periodType : UptimeStats.PeriodType.values()) {
+      LocalDateTime start = day.minusDays(getPeriodDays(periodType)).atStartOfDay();
+      UptimeStatsWindow window =
+          UptimeStatsWindow.of(days, start, end, getIntervalMinutes(periodType));
+      UptimeStats stats = toUptimeStats(tenantId, monitor, periodType, start, end, window);
+      if (stats != null) {
+        result.add(stats);
+      }
     }
+    return result;
   }
 
-  private UptimeStats calculateStats(
+  private UptimeStats toUptimeStats(
       Integer tenantId,
       Monitor monitor,
       UptimeStats.PeriodType periodType,
       LocalDateTime start,
-      LocalDateTime end) {
+      LocalDateTime end,
+      UptimeStatsWindow window) {
 
-    log.debug(
-        "Calculating {} stats for monitor {} from {} to {}",
-        periodType,
-        monitor.getId(),
-        start,
-        end);
-
-    long totalChecks = checkResultService.getCheckCount(tenantId, monitor.getId(), start, end);
+    CheckResultAggregate aggregate = window.aggregate();
+    long totalChecks = aggregate.count();
     if (totalChecks == 0) {
       log.debug("No checks found for monitor {} in period {}", monitor.getId(), periodType);
       return null;
     }
 
-    long successfulChecks =
-        checkResultService.getSuccessfulCheckCount(tenantId, monitor.getId(), start, end);
-    Double avgResponseTime =
-        checkResultService.getAverageResponseTime(tenantId, monitor.getId(), start, end);
-    Integer minResponseTime =
-        checkResultService.getMinResponseTime(tenantId, monitor.getId(), start, end);
-    Integer maxResponseTime =
-        checkResultService.getMaxResponseTime(tenantId, monitor.getId(), start, end);
-    Integer p99ResponseTime =
-        checkResultService.getPercentileResponseTime(tenantId, monitor.getId(), start, end, 99);
-
-    int intervalMinutes = getIntervalMinutes(periodType);
-    List<ResponseTimeDataPointDto> responseTimeData =
-        checkResultService.getResponseTimeDataPoints(
-            tenantId, monitor.getId(), start, end, intervalMinutes);
-    List<StatusDownPeriodsDto> statusDownPeriods =
-        checkResultService.getStatusDownPeriods(tenantId, monitor.getId(), start, end);
+    long successfulChecks = aggregate.successfulCount();
+    Double avgResponseTime = aggregate.averageResponseTime();
+    Integer minResponseTime = aggregate.minResponseTime();
+    Integer maxResponseTime = aggregate.maxResponseTime();
+    Integer p50ResponseTime = window.percentile(50);
+    Integer p90ResponseTime = window.percentile(90);
+    Integer p95ResponseTime = window.percentile(95);
+    Integer p99ResponseTime = window.percentile(99);
+    Integer p999ResponseTime = window.percentile(99.9);
+    List<ResponseTimeDataPointDto> responseTimeData = window.responseTimeData();
+    List<StatusDownPeriodsDto> statusDownPeriods = window.downPeriods();
 
     double uptimePercentage = (double) successfulChecks / totalChecks * 100.0;
     BigDecimal uptimeDecimal =
@@ -149,19 +209,10 @@ public class UptimeStatsService {
 
     LocalDateTime periodStart = getPeriodStart(start, periodType);
 
-    String responseTimeDataJson = null;
-    String statusDownPeriodsJson = null;
-
-    try {
-      responseTimeDataJson = objectMapper.writeValueAsString(responseTimeData);
-      statusDownPeriodsJson = objectMapper.writeValueAsString(statusDownPeriods);
-    } catch (Exception e) {
-      log.error(
-          "Failed to serialize data for monitor {} period {}: {}",
-          monitor.getId(),
-          periodType,
-          e.getMessage());
-    }
+    byte[] responseTimeDataEncoded =
+        UptimeStatsSeriesCodec.encodeResponseTimeData(responseTimeData);
+    byte[] statusDownPeriodsEncoded =
+        UptimeStatsSeriesCodec.encodeStatusDownPeriods(statusDownPeriods);
 
     // Create or update the stats object, but don't save yet
     UptimeStats existingStats =
@@ -179,9 +230,13 @@ public class UptimeStatsService {
       existingStats.setMaxResponseTimeMs(maxResponseTime);
       existingStats.setAvgResponseTimeMs(
           avgResponseTime != null ? avgResponseTime.intValue() : null);
+      existingStats.setP50ResponseTimeMs(p50ResponseTime);
+      existingStats.setP90ResponseTimeMs(p90ResponseTime);
+      existingStats.setP95ResponseTimeMs(p95ResponseTime);
       existingStats.setP99ResponseTimeMs(p99ResponseTime);
-      existingStats.setResponseTimeData(responseTimeDataJson);
-      existingStats.setStatusChangeData(statusDownPeriodsJson);
+      existingStats.setP999ResponseTimeMs(p999ResponseTime);
+      existingStats.setResponseTimeData(responseTimeDataEncoded);
+      existingStats.setStatusChangeData(statusDownPeriodsEncoded);
       existingStats.setCalculatedAt(LocalDateTime.now());
 
       log.debug(
@@ -202,9 +257,13 @@ public class UptimeStatsService {
               .minResponseTimeMs(minResponseTime)
               .maxResponseTimeMs(maxResponseTime)
               .avgResponseTimeMs(avgResponseTime != null ? avgResponseTime.intValue() : null)
+              .p50ResponseTimeMs(p50ResponseTime)
+              .p90ResponseTimeMs(p90ResponseTime)
+              .p95ResponseTimeMs(p95ResponseTime)
               .p99ResponseTimeMs(p99ResponseTime)
-              .responseTimeData(responseTimeDataJson)
-              .statusChangeData(statusDownPeriodsJson)
+              .p999ResponseTimeMs(p999ResponseTime)
+              .responseTimeData(responseTimeDataEncoded)
+              .statusChangeData(statusDownPeriodsEncoded)
               .build();
 
       log.debug(
@@ -214,12 +273,6 @@ public class UptimeStatsService {
     }
   }
 
-  @Transactional
-  public void saveStats(UptimeStats stats) {
-    uptimeStatsRepository.save(stats);
-    log.debug("Saved {} stats for monitor {}", stats.getPeriodType(), stats.getMonitor().getId());
-  }
-
   private LocalDateTime getPeriodStart(LocalDateTime start, UptimeStats.PeriodType periodType) {
     return switch (periodType) {
       case SEVEN_DAYS -> start.withHour(0).withMinute(0).withSecond(0).withNano(0);
@@ -228,6 +281,22 @@ public class UptimeStatsService {
     };
   }
 
+  private int getPeriodDays(UptimeStats.PeriodType periodType) {
+    return switch (periodType) {
+      case SEVEN_DAYS -> 7;
+      case NINETY_DAYS -> 90;
+      case THREE_SIXTY_FIVE_DAYS -> 365;
+    };
+  }
+
+  private int maxPeriodDays() {
+    int max = 0;
+    for (UptimeStats.PeriodType periodType : UptimeStats.PeriodType.values()) {
+      max = Math.max(max, getPeriodDays(periodType));
+    }
+    return max;
+  }
+
   private int getIntervalMinutes(UptimeStats.PeriodType periodType) {
     return switch (periodType) {
       case SEVEN_DAYS -> 60; // 1 hour intervals for 7 days
@@ -240,6 +309,8 @@ public class UptimeStatsService {
   public void cleanupOldUptimeStats(Integer tenantId, LocalDateTime cutoffDate) {
     log.info("Cleaning up uptime stats older than {}", cutoffDate);
     uptimeStatsRepository.deleteByTenantIdAndCalculatedAtBefore(tenantId, cutoffDate);
+    uptimeDailyAggregateService.cleanupOldAggregates(
+        tenantId, LocalDate.now().minusDays(maxPeriodDays()));
     log.info("Cleanup of old uptime stats completed");
   }
 }
@@ -0,0 +1,137 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import de.oglimmer.status_tacos.dto.ResponseTimeDataPointDto;
+import de.oglimmer.status_tacos.dto.StatusDownPeriodsDto;
+import de.oglimmer.status_tacos.store.CheckResultAggregate;
+import de.oglimmer.status_tacos.store.LatencySketch;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The uptime statistics of a window [start, end] combined from the {@link UptimeDay}s it covers.
+ * The window starts at midnight; its response time intervals are whole hours.
+ */
+final class UptimeStatsWindow {
+
+  private final LocalDateTime start;
+  private final LocalDateTime end;
+  private final int intervalMinutes;
+
+  private CheckResultAggregate aggregate = CheckResultAggregate.EMPTY;
+  private final LatencySketch sketch = new LatencySketch();
+  private final Integer[] intervalMaxima;
+  private final List<StatusDownPeriodsDto> downPeriods = new ArrayList<>();
+
+  private UptimeStatsWindow(LocalDateTime start, LocalDateTime end, int intervalMinutes) {
+    if (intervalMinutes % 60 != 0) {
+      throw new IllegalArgumentException("Interval must be whole hours: " + intervalMinutes);
+    }
+    this.start = start;
+    this.end = end;
+    this.intervalMinutes = intervalMinutes;
+    this.intervalMaxima =
+        new Integer[(int) (Duration.between(start, end).toMinutes() / intervalMinutes)];
+  }
+
+  /** Combines the days in [start, end], which must be ascending. Other days are ignored. */
+  static UptimeStatsWindow of(
+      List<UptimeDay> days, LocalDateTime start, LocalDateTime end, int intervalMinutes) {
+    UptimeStatsWindow window = new UptimeStatsWindow(start, end, intervalMinutes);
+    LocalDateTime openDownStart = null;
+    for (UptimeDay day : days) {
+      LocalDateTime dayStart = day.day().atStartOfDay();
+      if (dayStart.isBefore(start) || dayStart.isAfter(end)) {
+        continue;
+      }
+      window.aggregate = window.aggregate.plus(day.aggregate());
+      window.sketch.merge(day.sketch());
+      window.addHourlyMaxima(day, dayStart);
+      openDownStart = window.addDownPeriods(day, openDownStart);
+    }
+    if (openDownStart != null) {
+      window.downPeriods.add(StatusDownPeriodsDto.builder().start(openDownStart).end(end).build());
+    }
+    return window;
+  }
+
+  CheckResultAggregate aggregate() {
+    return aggregate;
+  }
+
+  /** Response time percentile of successful checks, within the sketch accuracy; null if none. */
+  Integer percentile(double percentile) {
+    return sketch.quantile(percentile / 100.0);
+  }
+
+  LatencySketch sketch() {
+    return sketch;
+  }
+
+  /** Max response time per interval, only intervals that saw a response time. */
+  List<ResponseTimeDataPointDto> responseTimeData() {
+    List<ResponseTimeDataPointDto> dataPoints = new ArrayList<>();
+    for (int i = 0; i < intervalMaxima.length; i++) {
+      if (intervalMaxima[i] != null) {
+        dataPoints.add(
+            ResponseTimeDataPointDto.builder()
+                .timestamp(start.plusMinutes((long) i * intervalMinutes))
+                .maxResponseTimeMs(intervalMaxima[i])
+                .build());
+      }
+    }
+    return dataPoints;
+  }
+
+  List<StatusDownPeriodsDto> downPeriods() {
+    return downPeriods;
+  }
+
+  private void addHourlyMaxima(UptimeDay day, LocalDateTime dayStart) {
+    long firstHour = ChronoUnit.HOURS.between(start, dayStart);
+    int hoursPerInterval = intervalMinutes / 60;
+    for (int hour = 0; hour < UptimeDay.HOURS; hour++) {
+      Integer max = day.hourlyMax(hour);
+      int interval = (int) ((firstHour + hour) / hoursPerInterval);
+      if (max != null && interval < intervalMaxima.length) {
+        if (intervalMaxima[interval] == null || intervalMaxima[interval] < max) {
+          intervalMaxima[interval] = max;
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds the down periods of the day and returns the start of the period still open at its end. A
+   * period open at the end of the previous day continues until the first successful check.
+   */
+  private LocalDateTime addDownPeriods(UptimeDay day, LocalDateTime openDownStart) {
+    if (day.firstCheckAt() == null) {
+      return openDownStart;
+    }
+    List<StatusDownPeriodsDto> periods = day.downPeriods();
+    int next = 0;
+    if (openDownStart != null) {
+      if (day.firstCheckUp()) {
+        downPeriods.add(
+            StatusDownPeriodsDto.builder().start(openDownStart).end(day.firstCheckAt()).build());
+      } else if (!periods.isEmpty()) {
+        // the first period of the day continues the one from the previous day
+        downPeriods.add(
+            StatusDownPeriodsDto.builder()
+                .start(openDownStart)
+                .end(periods.get(0).getEnd())
+                .build());
+        next = 1;
+      } else {
+        // down the whole folded day
+        return openDownStart;
+      }
+    }
+    downPeriods.addAll(periods.subList(next, periods.size()));
+    return day.openDownStart();
+  }
+}
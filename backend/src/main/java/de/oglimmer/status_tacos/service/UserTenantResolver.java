@@ -1,7 +1,6 @@
 /* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
 package de.oglimmer.status_tacos.service;
 
-import de.oglimmer.status_tacos.persistence.Tenant;
 import de.oglimmer.status_tacos.persistence.User;
 import de.oglimmer.status_tacos.repository.UserRepository;
 import java.util.Optional;
@@ -20,6 +19,7 @@ public class UserTenantResolver {
 
   private final UserRepository userRepository;
   private final TenantService tenantService;
+  private final TenantMembershipCache tenantMembershipCache;
 
   public Optional<User> getCurrentUser() {
     Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -52,27 +52,29 @@ public class UserTenantResolver {
   }
 
   public boolean hasAccessToTenant(Integer tenantId) {
-    Optional<User> currentUser = getCurrentUser();
-    if (currentUser.isEmpty()) {
-      return false;
-    }
-
-    Set<Tenant> userTenants = currentUser.get().getTenants();
-    return userTenants != null
-        && userTenants.stream().anyMatch(tenant -> tenant.getId().equals(tenantId));
+    return getCachedTenantIds().contains(tenantId);
   }
 
   public Set<Integer> getCurrentUserTenantIds() {
-    Optional<User> currentUser = getCurrentUser();
-    if (currentUser.isEmpty()) {
-      return Set.of(1); // Default tenant for unauthenticated users
+    Set<Integer> tenantIds = getCachedTenantIds();
+    if (tenantIds.isEmpty()) {
+      return Set.of(1); // Default tenant for unauthenticated users and users without tenants
     }
+    return tenantIds;
+  }
 
-    Set<Tenant> userTenants = currentUser.get().getTenants();
-    if (userTenants == null || userTenants.isEmpty()) {
-      return Set.of(1); // Default tenant if user has no tenants
+  /** The tenant ids of the current user from the membership cache, empty if there is no user. */
+  private Set<Integer> getCachedTenantIds() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null || !authentication.isAuthenticated()) {
+      return Set.of();
+    }
+
+    String userIdentifier = extractUserIdentifier(authentication);
+    if (userIdentifier == null) {
+      return Set.of();
     }
 
-    return userTenants.stream().map(Tenant::getId).collect(java.util.stream.Collectors.toSet());
+    return tenantMembershipCache.getTenantIds(userIdentifier);
   }
 }
@@ -0,0 +1,59 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.store;
+
+import de.oglimmer.status_tacos.persistence.CheckResult;
+
+/**
+ * Aggregates over a range of check results. Response time figures only consider successful checks
+ * with a response time, matching the uptime statistics semantics.
+ */
+public record CheckResultAggregate(
+    long count,
+    long successfulCount,
+    long responseTimeCount,
+    long responseTimeSum,
+    Integer minResponseTime,
+    Integer maxResponseTime) {
+
+  public static final CheckResultAggregate EMPTY = new CheckResultAggregate(0, 0, 0, 0, null, null);
+
+  public Double averageResponseTime() {
+    return responseTimeCount == 0 ? null : (double) responseTimeSum / responseTimeCount;
+  }
+
+  public CheckResultAggregate plus(CheckResult result) {
+    boolean up = Boolean.TRUE.equals(result.getIsUp());
+    Integer responseTime = up ? result.getResponseTimeMs() : null;
+    return new CheckResultAggregate(
+        count + 1,
+        successfulCount + (up ? 1 : 0),
+        responseTimeCount + (responseTime != null ? 1 : 0),
+        responseTimeSum + (responseTime != null ? responseTime : 0),
+        min(minResponseTime, responseTime),
+        max(maxResponseTime, responseTime));
+  }
+
+  public CheckResultAggregate plus(CheckResultAggregate other) {
+    return new CheckResultAggregate(
+        count + other.count,
+        successfulCount + other.successfulCount,
+        responseTimeCount + other.responseTimeCount,
+        responseTimeSum + other.responseTimeSum,
+        min(minResponseTime, other.minResponseTime),
+        max(maxResponseTime, other.maxResponseTime));
+  }
+
+  private static Integer min(Integer a, Integer b) {
+    if (a == null || b == null) {
+      return a == null ? b : a;
+    }
+    return Math.min(a, b);
+  }
+
+  private static Integer max(Integer a, Integer b) {
+    if (a == null || b == null) {
+      return a == null ? b : a;
+    }
+    return Math.max(a, b);
+  }
+}
@@ -0,0 +1,376 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.store;
+
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Columnar codec for a sealed window of check results.
+ *
+ * <p>Each column is encoded separately and the concatenation is deflated:
+ *
+ * <ul>
+ *   <li>checkedAt: epoch millis, delta-of-delta, zigzag varints
+ *   <li>isUp: run-length encoded
+ *   <li>statusCode: run-length encoded (value, run) pairs
+ *   <li>responseTimeMs: delta to the previous value, zigzag varints
+ *   <li>errorMessage: run-length encoded (run, string) pairs
+ * </ul>
+ *
+ * <p>Input must be sorted by checkedAt ascending; decoding returns the same order. Decoded results
+ * are detached value objects without id, monitor or tenant.
+ */
+public final class CheckResultBlockCodec {
+
+  static final byte VERSION = 1;
+
+  private CheckResultBlockCodec() {}
+
+  public static byte[] encode(List<CheckResult> results) {
+    VarIntWriter out = new VarIntWriter();
+    out.writeByte(VERSION);
+    out.writeUnsigned(results.size());
+    if (!results.isEmpty()) {
+      encodeTimestamps(results, out);
+      encodeUpFlags(results, out);
+      encodeStatusCodes(results, out);
+      encodeResponseTimes(results, out);
+      encodeErrorMessages(results, out);
+    }
+    return deflate(out.toByteArray());
+  }
+
+  public static List<CheckResult> decode(byte[] payload) {
+    VarIntReader in = new VarIntReader(inflate(payload));
+    byte version = in.readByte();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported check result block version: " + version);
+    }
+    int count = (int) in.readUnsigned();
+    List<CheckResult> results = new ArrayList<>(count);
+    if (count == 0) {
+      return results;
+    }
+
+    long[] timestamps = decodeTimestamps(in, count);
+    boolean[] upFlags = decodeUpFlags(in, count);
+    Integer[] statusCodes = decodeStatusCodes(in, count);
+    Integer[] responseTimes = decodeResponseTimes(in, count);
+    String[] errorMessages = decodeErrorMessages(in, count);
+
+    for (int i = 0; i < count; i++) {
+      results.add(
+          CheckResult.builder()
+              .checkedAt(fromEpochMillis(timestamps[i]))
+              .isUp(upFlags[i])
+              .statusCode(statusCodes[i])
+              .responseTimeMs(responseTimes[i])
+              .errorMessage(errorMessages[i])
+              .build());
+    }
+    return results;
+  }
+
+  private static void encodeTimestamps(List<CheckResult> results, VarIntWriter out) {
+    long previous = 0;
+    long previousDelta = 0;
+    for (int i = 0; i < results.size(); i++) {
+      long millis = toEpochMillis(results.get(i).getCheckedAt());
+      if (i == 0) {
+        out.writeSigned(millis);
+      } else {
+        long delta = millis - previous;
+        out.writeSigned(delta - previousDelta);
+        previousDelta = delta;
+      }
+      previous = millis;
+    }
+  }
+
+  private static long[] decodeTimestamps(VarIntReader in, int count) {
+    long[] timestamps = new long[count];
+    timestamps[0] = in.readSigned();
+    long previousDelta = 0;
+    for (int i = 1; i < count; i++) {
+      long delta = previousDelta + in.readSigned();
+      timestamps[i] = timestamps[i - 1] + delta;
+      previousDelta = delta;
+    }
+    return timestamps;
+  }
+
+  private static void encodeUpFlags(List<CheckResult> results, VarIntWriter out) {
+    boolean current = Boolean.TRUE.equals(results.get(0).getIsUp());
+    out.writeByte((byte) (current ? 1 : 0));
+    int run = 0;
+    for (CheckResult result : results) {
+      boolean up = Boolean.TRUE.equals(result.getIsUp());
+      if (up != current) {
+        out.writeUnsigned(run);
+        current = up;
+        run = 0;
+      }
+      run++;
+    }
+    out.writeUnsigned(run);
+  }
+
+  private static boolean[] decodeUpFlags(VarIntReader in, int count) {
+    boolean[] flags = new boolean[count];
+    boolean current = in.readByte() == 1;
+    int index = 0;
+    while (index < count) {
+      int run = (int) in.readUnsigned();
+      for (int i = 0; i < run; i++) {
+        flags[index++] = current;
+      }
+      current = !current;
+    }
+    return flags;
+  }
+
+  private static void encodeStatusCodes(List<CheckResult> results, VarIntWriter out) {
+    Integer current = results.get(0).getStatusCode();
+    int run = 0;
+    for (CheckResult result : results) {
+      if (!Objects.equals(result.getStatusCode(), current)) {
+        out.writeUnsigned(nullableToUnsigned(current));
+        out.writeUnsigned(run);
+        current = result.getStatusCode();
+        run = 0;
+      }
+      run++;
+    }
+    out.writeUnsigned(nullableToUnsigned(current));
+    out.writeUnsigned(run);
+  }
+
+  private static Integer[] decodeStatusCodes(VarIntReader in, int count) {
+    Integer[] codes = new Integer[count];
+    int index = 0;
+    while (index < count) {
+      Integer value = unsignedToNullable(in.readUnsigned());
+      int run = (int) in.readUnsigned();
+      for (int i = 0; i < run; i++) {
+        codes[index++] = value;
+      }
+    }
+    return codes;
+  }
+
+  private static void encodeResponseTimes(List<CheckResult> results, VarIntWriter out) {
+    long previous = 0;
+    for (CheckResult result : results) {
+      long value = nullableToUnsigned(result.getResponseTimeMs());
+      out.writeSigned(value - previous);
+      previous = value;
+    }
+  }
+
+  private static Integer[] decodeResponseTimes(VarIntReader in, int count) {
+    Integer[] values = new Integer[count];
+    long previous = 0;
+    for (int i = 0; i < count; i++) {
+      previous += in.readSigned();
+      values[i] = unsignedToNullable(previous);
+    }
+    return values;
+  }
+
+  private static void encodeErrorMessages(List<CheckResult> results, VarIntWriter out) {
+    String current = results.get(0).getErrorMessage();
+    int run = 0;
+    for (CheckResult result : results) {
+      if (!Objects.equals(result.getErrorMessage(), current)) {
+        out.writeUnsigned(run);
+        out.writeString(current);
+        current = result.getErrorMessage();
+        run = 0;
+      }
+      run++;
+    }
+    out.writeUnsigned(run);
+    out.writeString(current);
+  }
+
+  private static String[] decodeErrorMessages(VarIntReader in, int count) {
+    String[] messages = new String[count];
+    int index = 0;
+    while (index < count) {
+      int run = (int) in.readUnsigned();
+      String value = in.readString();
+      for (int i = 0; i < run; i++) {
+        messages[index++] = value;
+      }
+    }
+    return messages;
+  }
+
+  /** Maps null to 0 and every non-negative value v to v + 1. */
+  private static long nullableToUnsigned(Integer value) {
+    return value == null ? 0 : value.longValue() + 1;
+  }
+
+  private static Integer unsignedToNullable(long value) {
+    return value == 0 ? null : (int) (value - 1);
+  }
+
+  /** Writes a single check result row-wise, as used by the segment files and the spool. */
+  static void writeRecord(VarIntWriter out, CheckResult result) {
+    out.writeSigned(toEpochMillis(result.getCheckedAt()));
+    out.writeByte((byte) (Boolean.TRUE.equals(result.getIsUp()) ? 1 : 0));
+    out.writeUnsigned(nullableToUnsigned(result.getStatusCode()));
+    out.writeUnsigned(nullableToUnsigned(result.getResponseTimeMs()));
+    out.writeString(result.getErrorMessage());
+  }
+
+  static CheckResult readRecord(VarIntReader in) {
+    LocalDateTime checkedAt = fromEpochMillis(in.readSigned());
+    boolean up = in.readByte() == 1;
+    Integer statusCode = unsignedToNullable(in.readUnsigned());
+    Integer responseTime = unsignedToNullable(in.readUnsigned());
+    return CheckResult.builder()
+        .checkedAt(checkedAt)
+        .isUp(up)
+        .statusCode(statusCode)
+        .responseTimeMs(responseTime)
+        .errorMessage(in.readString())
+        .build();
+  }
+
+  public static long toEpochMillis(LocalDateTime dateTime) {
+    return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+  }
+
+  public static LocalDateTime fromEpochMillis(long millis) {
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+  }
+
+  private static byte[] deflate(byte[] raw) {
+    Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    try {
+      deflater.setInput(raw);
+      deflater.finish();
+      ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+      byte[] buffer = new byte[4096];
+      while (!deflater.finished()) {
+        int n = deflater.deflate(buffer);
+        out.write(buffer, 0, n);
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static byte[] inflate(byte[] compressed) {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(compressed);
+      ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+      byte[] buffer = new byte[4096];
+      while (!inflater.finished()) {
+        int n = inflater.inflate(buffer);
+        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IllegalArgumentException("Truncated check result block payload");
+        }
+        out.write(buffer, 0, n);
+      }
+      return out.toByteArray();
+    } catch (DataFormatException e) {
+      throw new IllegalArgumentException("Corrupt check result block payload", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  /** Growable buffer of LEB128 varints, zig-zag for signed values. */
+  public static final class VarIntWriter {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    public void writeByte(byte value) {
+      out.write(value);
+    }
+
+    public void writeUnsigned(long value) {
+      while ((value & ~0x7FL) != 0) {
+        out.write((int) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      out.write((int) value);
+    }
+
+    public void writeSigned(long value) {
+      writeUnsigned((value << 1) ^ (value >> 63));
+    }
+
+    public void writeString(String value) {
+      if (value == null) {
+        writeUnsigned(0);
+        return;
+      }
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeUnsigned(bytes.length + 1L);
+      out.write(bytes, 0, bytes.length);
+    }
+
+    public byte[] toByteArray() {
+      return out.toByteArray();
+    }
+  }
+
+  public static final class VarIntReader {
+    private final byte[] data;
+    private int position;
+
+    public VarIntReader(byte[] data) {
+      this.data = data;
+    }
+
+    public byte readByte() {
+      return data[position++];
+    }
+
+    public boolean hasRemaining() {
+      return position < data.length;
+    }
+
+    public long readUnsigned() {
+      long result = 0;
+      int shift = 0;
+      while (true) {
+        byte b = data[position++];
+        result |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return result;
+        }
+        shift += 7;
+      }
+    }
+
+    public long readSigned() {
+      long raw = readUnsigned();
+      return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public String readString() {
+      int length = (int) readUnsigned();
+      if (length == 0) {
+        return null;
+      }
+      String value = new String(data, position, length - 1, StandardCharsets.UTF_8);
+      position += length - 1;
+      return value;
+    }
+  }
+}
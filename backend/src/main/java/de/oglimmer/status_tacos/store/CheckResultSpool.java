@@ -0,0 +1,454 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.store;
+
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local write-ahead spool for check results that cannot be written to the database.
+ *
+ * <p>Once a write failed because the database is unreachable the spool is {@link #isActive()
+ * active}: every following result is appended here without touching the database, so checker
+ * threads do not wait for the connection timeout again and the order of results is kept. A single
+ * replay job drains the spool in append order; the spool deactivates when it is empty.
+ *
+ * <p>Records live in memory-mapped segment files {@code <directory>/<sequence>.spool}, framed by a
+ * length prefix. Dirty pages are forced to disk in batches every {@code fsync-interval-ms}. The
+ * replay position is kept in {@code <directory>/checkpoint}; records replayed after the last
+ * checkpoint write are replayed again after a crash. Records that can never be written are moved to
+ * {@code <directory>/dead-letter} in the same framing, so they don't block the replay.
+ */
+@Component
+@Slf4j
+public class CheckResultSpool {
+
+  private static final String SEGMENT_SUFFIX = ".spool";
+  private static final String CHECKPOINT_FILE = "checkpoint";
+  private static final String DEAD_LETTER_FILE = "dead-letter";
+
+  private final Path directory;
+  private final int segmentSizeBytes;
+  private final boolean enabled;
+
+  private final List<SpoolSegment> segments = new ArrayList<>();
+  private MappedByteBuffer checkpoint;
+  private long nextSequence = 1;
+  private int readOffset;
+  private long pendingCount;
+  private long oldestPendingMillis;
+  private boolean databaseUnavailable;
+  private boolean dirty;
+  private volatile double lastReplayRate;
+
+  private final Counter appendedCounter;
+  private final Counter replayedCounter;
+  private final Counter deadLetteredCounter;
+
+  public CheckResultSpool(
+      @Value("${monitor.storage.spool.directory:./data/spool}") Path directory,
+      @Value("${monitor.storage.spool.segment-size-bytes:1048576}") int segmentSizeBytes,
+      @Value("${monitor.storage.spool.enabled:true}") boolean enabled,
+      MeterRegistry meterRegistry) {
+    this.directory = directory;
+    this.segmentSizeBytes = Math.max(4096, segmentSizeBytes);
+    this.enabled = enabled;
+
+    this.appendedCounter =
+        Counter.builder("monitor.spool.appended")
+            .description("Check results written to the local spool")
+            .register(meterRegistry);
+    this.replayedCounter =
+        Counter.builder("monitor.spool.replayed")
+            .description("Spooled check results replayed into the database")
+            .register(meterRegistry);
+    this.deadLetteredCounter =
+        Counter.builder("monitor.spool.dead.lettered")
+            .description("Spooled check results moved to the dead letter file")
+            .register(meterRegistry);
+    Gauge.builder("monitor.spool.pending", this, CheckResultSpool::getPendingCount)
+        .description("Check results waiting in the spool")
+        .register(meterRegistry);
+    Gauge.builder("monitor.spool.size.bytes", this, CheckResultSpool::getSizeBytes)
+        .description("Disk space used by the spool segments")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    Gauge.builder("monitor.spool.oldest.age", this, CheckResultSpool::getOldestAgeSeconds)
+        .description("Age of the oldest spooled check result")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+    Gauge.builder("monitor.spool.replay.rate", this, spool -> spool.lastReplayRate)
+        .description("Check results per second replayed by the last replay run")
+        .register(meterRegistry);
+
+    if (enabled) {
+      recover();
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** True while the database is known to be down or older results still wait for replay. */
+  public synchronized boolean isActive() {
+    return enabled && (databaseUnavailable || pendingCount > 0);
+  }
+
+  /** Called by writers when the database failed; all writes go to the spool until it drained. */
+  public synchronized void markDatabaseUnavailable() {
+    if (!databaseUnavailable && enabled) {
+      log.warn("Database unavailable, spooling check results to {}", directory.toAbsolutePath());
+    }
+    databaseUnavailable = true;
+  }
+
+  public synchronized void append(Integer tenantId, Integer monitorId, CheckResult checkResult) {
+    if (!enabled) {
+      throw new IllegalStateException("Check result spool is disabled");
+    }
+    CheckResultBlockCodec.VarIntWriter out = new CheckResultBlockCodec.VarIntWriter();
+    out.writeUnsigned(tenantId);
+    out.writeUnsigned(monitorId);
+    CheckResultBlockCodec.writeRecord(out, checkResult);
+    byte[] record = out.toByteArray();
+
+    SpoolSegment active = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+    if (active == null || active.remaining() < Integer.BYTES + record.length) {
+      active = roll(Integer.BYTES + record.length);
+    }
+    active.append(record);
+
+    if (pendingCount == 0) {
+      oldestPendingMillis = CheckResultBlockCodec.toEpochMillis(checkResult.getCheckedAt());
+    }
+    pendingCount++;
+    dirty = true;
+    appendedCounter.increment();
+  }
+
+  /**
+   * Hands up to {@code maxRecords} spooled results in append order to the handler. A result counts
+   * as replayed once the handler returned; if it throws, the result stays at the head of the spool
+   * and the exception is rethrown. When the spool is empty afterwards it deactivates.
+   *
+   * @return the number of replayed results
+   */
+  public int replay(int maxRecords, Consumer<SpooledCheckResult> handler) {
+    return replay(maxRecords, handler, e -> true);
+  }
+
+  /**
+   * Like {@link #replay(int, Consumer)}, but only exceptions the predicate calls transient keep the
+   * result at the head of the spool. A result failing with any other exception can't ever be
+   * written; it is moved to the dead letter file and the replay goes on with the next one.
+   *
+   * @return the number of results taken off the spool, replayed or dead lettered
+   */
+  public int replay(
+      int maxRecords,
+      Consumer<SpooledCheckResult> handler,
+      Predicate<RuntimeException> isTransient) {
+    long begin = System.nanoTime();
+    int replayed = 0;
+    try {
+      while (replayed < maxRecords) {
+        SpooledCheckResult next;
+        synchronized (this) {
+          next = peek();
+          if (next == null) {
+            if (databaseUnavailable) {
+              log.info("Check result spool drained, writing to the database again");
+            }
+            databaseUnavailable = false;
+            break;
+          }
+        }
+        try {
+          handler.accept(next);
+        } catch (RuntimeException e) {
+          if (isTransient.test(e)) {
+            throw e;
+          }
+          log.error(
+              "Moving spooled check result of monitor {} at {} to the dead letter file: {}",
+              next.monitorId(),
+              next.checkResult().getCheckedAt(),
+              e.toString());
+          synchronized (this) {
+            deadLetter();
+            advance();
+          }
+          replayed++;
+          deadLetteredCounter.increment();
+          continue;
+        }
+        synchronized (this) {
+          advance();
+        }
+        replayed++;
+        replayedCounter.increment();
+      }
+    } finally {
+      if (replayed > 0) {
+        lastReplayRate = replayed / Math.max(1e-9, (System.nanoTime() - begin) / 1e9);
+      }
+    }
+    return replayed;
+  }
+
+  @Scheduled(fixedDelayString = "${monitor.storage.spool.fsync-interval-ms:200}")
+  public synchronized void force() {
+    if (!dirty) {
+      return;
+    }
+    for (SpoolSegment segment : segments) {
+      segment.buffer.force();
+    }
+    if (checkpoint != null) {
+      checkpoint.force();
+    }
+    dirty = false;
+  }
+
+  @PreDestroy
+  public void close() {
+    force();
+  }
+
+  public synchronized long getPendingCount() {
+    return pendingCount;
+  }
+
+  public synchronized long getSizeBytes() {
+    return segments.stream().mapToLong(segment -> segment.buffer.capacity()).sum();
+  }
+
+  public synchronized double getOldestAgeSeconds() {
+    if (pendingCount == 0) {
+      return 0;
+    }
+    long now = CheckResultBlockCodec.toEpochMillis(LocalDateTime.now());
+    return Math.max(0, now - oldestPendingMillis) / 1000.0;
+  }
+
+  private SpooledCheckResult peek() {
+    if (segments.isEmpty()) {
+      return null;
+    }
+    SpoolSegment head = segments.get(0);
+    if (readOffset >= head.writePosition) {
+      return null;
+    }
+    CheckResultBlockCodec.VarIntReader in =
+        new CheckResultBlockCodec.VarIntReader(head.read(readOffset));
+    Integer tenantId = (int) in.readUnsigned();
+    Integer monitorId = (int) in.readUnsigned();
+    CheckResult checkResult = CheckResultBlockCodec.readRecord(in);
+    checkResult.setTenantId(tenantId);
+    return new SpooledCheckResult(tenantId, monitorId, checkResult);
+  }
+
+  private void advance() {
+    SpoolSegment head = segments.get(0);
+    readOffset += Integer.BYTES + head.buffer.getInt(readOffset);
+    pendingCount--;
+
+    if (readOffset >= head.writePosition && (segments.size() > 1 || pendingCount == 0)) {
+      // fully replayed, the next append starts a fresh segment
+      segments.remove(0);
+      deleteSegment(head);
+      readOffset = 0;
+    }
+    writeCheckpoint(segments.isEmpty() ? nextSequence : segments.get(0).sequence, readOffset);
+
+    SpooledCheckResult next = peek();
+    if (next != null) {
+      oldestPendingMillis = CheckResultBlockCodec.toEpochMillis(next.checkResult().getCheckedAt());
+    }
+  }
+
+  // appends the record at the head to the dead letter file, framed like in a segment
+  private void deadLetter() {
+    byte[] record = segments.get(0).read(readOffset);
+    ByteBuffer framed = ByteBuffer.allocate(Integer.BYTES + record.length);
+    framed.putInt(record.length).put(record);
+    try {
+      Files.write(
+          directory.resolve(DEAD_LETTER_FILE),
+          framed.array(),
+          StandardOpenOption.CREATE,
+          StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      log.error("Failed to write to the dead letter file, the record is lost: {}", e.getMessage());
+    }
+  }
+
+  private SpoolSegment roll(int required) {
+    try {
+      Files.createDirectories(directory);
+      if (checkpoint == null) {
+        checkpoint = map(directory.resolve(CHECKPOINT_FILE), Long.BYTES);
+      }
+      long sequence = nextSequence++;
+      Path file = directory.resolve(String.format("%012d%s", sequence, SEGMENT_SUFFIX));
+      SpoolSegment segment =
+          new SpoolSegment(sequence, file, map(file, Math.max(segmentSizeBytes, required)), 0);
+      if (segments.isEmpty()) {
+        readOffset = 0;
+        writeCheckpoint(sequence, 0);
+      }
+      segments.add(segment);
+      return segment;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void recover() {
+    if (!Files.isDirectory(directory)) {
+      return;
+    }
+    try {
+      checkpoint = map(directory.resolve(CHECKPOINT_FILE), Long.BYTES);
+      long position = checkpoint.getLong(0);
+      long checkpointSequence = position >>> 32;
+      int checkpointOffset = (int) position;
+
+      List<Path> files;
+      try (Stream<Path> stream = Files.list(directory)) {
+        files =
+            stream
+                .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                .sorted(Comparator.comparingLong(CheckResultSpool::sequenceOf))
+                .toList();
+      }
+      for (Path file : files) {
+        long sequence = sequenceOf(file);
+        nextSequence = Math.max(nextSequence, sequence + 1);
+        if (sequence < checkpointSequence || Files.size(file) < Integer.BYTES) {
+          Files.delete(file);
+          continue;
+        }
+        MappedByteBuffer buffer = map(file, (int) Files.size(file));
+        segments.add(new SpoolSegment(sequence, file, buffer, endOfRecords(buffer)));
+      }
+
+      readOffset =
+          !segments.isEmpty() && segments.get(0).sequence == checkpointSequence
+              ? checkpointOffset
+              : 0;
+      for (int i = 0; i < segments.size(); i++) {
+        SpoolSegment segment = segments.get(i);
+        int offset = i == 0 ? readOffset : 0;
+        while (offset < segment.writePosition) {
+          offset += Integer.BYTES + segment.buffer.getInt(offset);
+          pendingCount++;
+        }
+      }
+      SpooledCheckResult head = peek();
+      if (head != null) {
+        oldestPendingMillis =
+            CheckResultBlockCodec.toEpochMillis(head.checkResult().getCheckedAt());
+        log.warn("Recovered {} spooled check results from {}", pendingCount, directory);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void writeCheckpoint(long sequence, int offset) {
+    // one aligned long, so a crash never leaves a torn position behind
+    checkpoint.putLong(0, (sequence << 32) | (offset & 0xFFFFFFFFL));
+    dirty = true;
+  }
+
+  private void deleteSegment(SpoolSegment segment) {
+    try {
+      Files.deleteIfExists(segment.file);
+    } catch (IOException e) {
+      log.warn("Failed to delete replayed spool segment {}: {}", segment.file, e.getMessage());
+    }
+  }
+
+  private static int endOfRecords(MappedByteBuffer buffer) {
+    int position = 0;
+    while (position + Integer.BYTES <= buffer.capacity()) {
+      int length = buffer.getInt(position);
+      if (length <= 0 || position + Integer.BYTES + length > buffer.capacity()) {
+        break;
+      }
+      position += Integer.BYTES + length;
+    }
+    return position;
+  }
+
+  private static MappedByteBuffer map(Path file, int size) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+  }
+
+  private static long sequenceOf(Path file) {
+    String name = file.getFileName().toString();
+    return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+  }
+
+  /** A spooled check result with the ids needed to attach it again. */
+  public record SpooledCheckResult(Integer tenantId, Integer monitorId, CheckResult checkResult) {}
+
+  private static final class SpoolSegment {
+
+    private final long sequence;
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+
+    SpoolSegment(long sequence, Path file, MappedByteBuffer buffer, int writePosition) {
+      this.sequence = sequence;
+      this.file = file;
+      this.buffer = buffer;
+      this.writePosition = writePosition;
+    }
+
+    int remaining() {
+      return buffer.capacity() - writePosition;
+    }
+
+    void append(byte[] record) {
+      // payload first, length last: a half written record is never visible to recovery
+      buffer.put(writePosition + Integer.BYTES, record);
+      buffer.putInt(writePosition, record.length);
+      writePosition += Integer.BYTES + record.length;
+    }
+
+    byte[] read(int offset) {
+      byte[] record = new byte[buffer.getInt(offset)];
+      buffer.get(offset + Integer.BYTES, record);
+      return record;
+    }
+  }
+}
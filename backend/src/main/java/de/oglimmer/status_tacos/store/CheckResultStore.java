@@ -0,0 +1,63 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.store;
+
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Storage SPI for the raw check history. The implementation is selected with {@code
+ * monitor.storage.type}: {@code jpa} (default, MariaDB) or {@code file} (embedded segment files).
+ *
+ * <p>All ranges are inclusive on both ends, like the {@code BETWEEN} queries they replace.
+ */
+public interface CheckResultStore {
+
+  /** Persists a check result. Tenant, monitor and checkedAt must be set. */
+  CheckResult append(CheckResult checkResult);
+
+  /**
+   * Returns the check results of a monitor with checkedAt in [start, end], ascending. In
+   * change-only mode these are only the checks that changed the outcome, the others are in {@link
+   * #scanRuns}.
+   */
+  List<CheckResult> scan(
+      Integer tenantId, Integer monitorId, LocalDateTime start, LocalDateTime end);
+
+  /**
+   * Streams the checks of a monitor with checkedAt in [start, end] in ascending order without
+   * materializing the whole range. Same rows as {@link #scan}.
+   */
+  default void forEachSample(
+      Integer tenantId,
+      Integer monitorId,
+      LocalDateTime start,
+      LocalDateTime end,
+      Consumer<CheckSample> consumer) {
+    for (CheckResult result : scan(tenantId, monitorId, start, end)) {
+      consumer.accept(
+          new CheckSample(result.getCheckedAt(), result.getIsUp(), result.getResponseTimeMs()));
+    }
+  }
+
+  /**
+   * Returns the folded runs of a monitor starting in [start, end], ascending, including the run
+   * that is still open. Stores without change-only mode have none.
+   */
+  default List<CheckResultRun> scanRuns(
+      Integer tenantId, Integer monitorId, LocalDateTime start, LocalDateTime end) {
+    return List.of();
+  }
+
+  /**
+   * Aggregates the check results of a monitor with checkedAt in [start, end]. Runs are attributed
+   * to their start.
+   */
+  CheckResultAggregate aggregate(
+      Integer tenantId, Integer monitorId, LocalDateTime start, LocalDateTime end);
+
+  /** Removes all check results of a tenant older than the cutoff. */
+  void deleteBefore(Integer tenantId, LocalDateTime cutoffDate);
+}
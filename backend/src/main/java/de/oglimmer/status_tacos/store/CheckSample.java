@@ -0,0 +1,12 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.store;
+
+import java.time.LocalDateTime;
+
+/** The columns of a check result needed for statistics, without loading the entity. */
+public record CheckSample(LocalDateTime checkedAt, Boolean isUp, Integer responseTimeMs) {
+
+  public boolean up() {
+    return Boolean.TRUE.equals(isUp);
+  }
+}
@@ -0,0 +1,388 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.store;
+
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Embedded store that keeps the check history in memory-mapped, append-only segment files instead
+ * of the database.
+ *
+ * <p>Layout: {@code <directory>/tenant-<id>/monitor-<id>/<sequence>.seg}. Each segment starts with
+ * a 16 byte header holding the min and max checkedAt (epoch millis) of its records, followed by
+ * length-prefixed records; a zero length marks the end of the written data. Scans skip segments by
+ * their header, retention drops whole segments and records the cutoff in {@code
+ * tenant-<id>/retention} so partially expired segments are filtered on read.
+ *
+ * <p>Dirty pages of a mapping survive a process crash; segments are forced to disk when they are
+ * rolled over and on shutdown. Returned results carry the tenant id but neither an id nor the
+ * monitor.
+ */
+@Component
+@ConditionalOnProperty(name = "monitor.storage.type", havingValue = "file")
+@Slf4j
+public class FileCheckResultStore implements CheckResultStore {
+
+  private static final int HEADER_SIZE = 16;
+  private static final String SEGMENT_SUFFIX = ".seg";
+  private static final String RETENTION_FILE = "retention";
+
+  private final Path directory;
+  private final int segmentSizeBytes;
+  private final Map<String, MonitorLog> logs = new ConcurrentHashMap<>();
+  private final Map<Integer, Long> retentionCutoffs = new ConcurrentHashMap<>();
+
+  public FileCheckResultStore(
+      @Value("${monitor.storage.file.directory:./data/check-results}") Path directory,
+      @Value("${monitor.storage.file.segment-size-bytes:4194304}") int segmentSizeBytes) {
+    this.directory = directory;
+    this.segmentSizeBytes = Math.max(4096, segmentSizeBytes);
+    log.info("Using file check result store in {}", directory.toAbsolutePath());
+  }
+
+  @Override
+  public CheckResult append(CheckResult checkResult) {
+    if (checkResult.getCheckedAt() == null) {
+      checkResult.setCheckedAt(LocalDateTime.now());
+    }
+    byte[] record = encode(checkResult);
+    long millis = CheckResultBlockCodec.toEpochMillis(checkResult.getCheckedAt());
+
+    MonitorLog monitorLog = monitorLog(checkResult.getTenantId(), checkResult.getMonitor().getId());
+    synchronized (monitorLog) {
+      monitorLog.append(record, millis);
+    }
+    return checkResult;
+  }
+
+  @Override
+  public List<CheckResult> scan(
+      Integer tenantId, Integer monitorId, LocalDateTime start, LocalDateTime end) {
+    long from = Math.max(CheckResultBlockCodec.toEpochMillis(start), retentionCutoff(tenantId));
+    long to = CheckResultBlockCodec.toEpochMillis(end);
+
+    List<CheckResult> results = new ArrayList<>();
+    MonitorLog monitorLog = monitorLog(tenantId, monitorId);
+    synchronized (monitorLog) {
+      for (Segment segment : monitorLog.segments) {
+        if (segment.maxMillis < from || segment.minMillis > to) {
+          continue;
+        }
+        ByteBuffer buffer = segment.readView();
+        while (buffer.remaining() >= Integer.BYTES) {
+          int length = buffer.getInt();
+          if (length <= 0 || length > buffer.remaining()) {
+            break;
+          }
+          byte[] record = new byte[length];
+          buffer.get(record);
+          CheckResult result = decode(record);
+          long millis = CheckResultBlockCodec.toEpochMillis(result.getCheckedAt());
+          if (millis >= from && millis <= to) {
+            result.setTenantId(tenantId);
+            results.add(result);
+          }
+        }
+      }
+    }
+    // segments are in append order, checks of one monitor may still complete out of order
+    results.sort(Comparator.comparing(CheckResult::getCheckedAt));
+    return results;
+  }
+
+  @Override
+  public CheckResultAggregate aggregate(
+      Integer tenantId, Integer monitorId, LocalDateTime start, LocalDateTime end) {
+    CheckResultAggregate aggregate = CheckResultAggregate.EMPTY;
+    for (CheckResult result : scan(tenantId, monitorId, start, end)) {
+      aggregate = aggregate.plus(result);
+    }
+    return aggregate;
+  }
+
+  @Override
+  public void deleteBefore(Integer tenantId, LocalDateTime cutoffDate) {
+    long cutoff = CheckResultBlockCodec.toEpochMillis(cutoffDate);
+    Path tenantDirectory = tenantDirectory(tenantId);
+    if (!Files.isDirectory(tenantDirectory)) {
+      return;
+    }
+    writeRetentionCutoff(tenantId, cutoff);
+
+    int deleted = 0;
+    try (Stream<Path> monitorDirectories = Files.list(tenantDirectory)) {
+      for (Path monitorDirectory : monitorDirectories.filter(Files::isDirectory).toList()) {
+        Integer monitorId = parseMonitorId(monitorDirectory);
+        if (monitorId == null) {
+          continue;
+        }
+        MonitorLog monitorLog = monitorLog(tenantId, monitorId);
+        synchronized (monitorLog) {
+          deleted += monitorLog.deleteSegmentsBefore(cutoff);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    log.info(
+        "Deleted {} check result segments of tenant {} older than {}",
+        deleted,
+        tenantId,
+        cutoffDate);
+  }
+
+  @PreDestroy
+  public void close() {
+    for (MonitorLog monitorLog : logs.values()) {
+      synchronized (monitorLog) {
+        monitorLog.force();
+      }
+    }
+  }
+
+  private MonitorLog monitorLog(Integer tenantId, Integer monitorId) {
+    return logs.computeIfAbsent(
+        tenantId + "/" + monitorId,
+        key -> new MonitorLog(tenantDirectory(tenantId).resolve("monitor-" + monitorId)));
+  }
+
+  private Path tenantDirectory(Integer tenantId) {
+    return directory.resolve("tenant-" + tenantId);
+  }
+
+  private long retentionCutoff(Integer tenantId) {
+    return retentionCutoffs.computeIfAbsent(
+        tenantId,
+        id -> {
+          Path file = tenantDirectory(id).resolve(RETENTION_FILE);
+          try {
+            return Files.exists(file)
+                ? Long.parseLong(Files.readString(file).trim())
+                : Long.MIN_VALUE;
+          } catch (IOException | NumberFormatException e) {
+            log.warn("Ignoring unreadable retention file {}: {}", file, e.getMessage());
+            return Long.MIN_VALUE;
+          }
+        });
+  }
+
+  private void writeRetentionCutoff(Integer tenantId, long cutoff) {
+    try {
+      Path file = tenantDirectory(tenantId).resolve(RETENTION_FILE);
+      Path temp = file.resolveSibling(RETENTION_FILE + ".tmp");
+      Files.writeString(temp, Long.toString(cutoff));
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      retentionCutoffs.put(tenantId, cutoff);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Integer parseMonitorId(Path monitorDirectory) {
+    String name = monitorDirectory.getFileName().toString();
+    if (!name.startsWith("monitor-")) {
+      return null;
+    }
+    try {
+      return Integer.valueOf(name.substring("monitor-".length()));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static byte[] encode(CheckResult result) {
+    CheckResultBlockCodec.VarIntWriter out = new CheckResultBlockCodec.VarIntWriter();
+    CheckResultBlockCodec.writeRecord(out, result);
+    return out.toByteArray();
+  }
+
+  private static CheckResult decode(byte[] record) {
+    return CheckResultBlockCodec.readRecord(new CheckResultBlockCodec.VarIntReader(record));
+  }
+
+  /** The segments of one monitor; all access is synchronized on the instance. */
+  private final class MonitorLog {
+
+    private final Path directory;
+    private final List<Segment> segments = new ArrayList<>();
+    private Segment active;
+    private long nextSequence = 1;
+
+    MonitorLog(Path directory) {
+      this.directory = directory;
+      recover();
+    }
+
+    private void recover() {
+      if (!Files.isDirectory(directory)) {
+        return;
+      }
+      try (Stream<Path> files = Files.list(directory)) {
+        List<Path> segmentFiles =
+            files
+                .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                .sorted(Comparator.comparingLong(Segment::sequenceOf))
+                .toList();
+        for (Path file : segmentFiles) {
+          nextSequence = Segment.sequenceOf(file) + 1;
+          if (Files.size(file) < HEADER_SIZE) {
+            // crashed between creating and sizing the file, it never held a record
+            Files.delete(file);
+            continue;
+          }
+          segments.add(Segment.open(file));
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      if (!segments.isEmpty()) {
+        active = segments.get(segments.size() - 1);
+      }
+    }
+
+    void append(byte[] record, long millis) {
+      int required = Integer.BYTES + record.length;
+      if (active == null || active.remaining() < required) {
+        roll(required);
+      }
+      active.append(record, millis);
+    }
+
+    private void roll(int required) {
+      if (active != null) {
+        active.force();
+      }
+      try {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(String.format("%012d%s", nextSequence++, SEGMENT_SUFFIX));
+        active = Segment.create(file, Math.max(segmentSizeBytes, HEADER_SIZE + required));
+        segments.add(active);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    int deleteSegmentsBefore(long cutoff) {
+      int deleted = 0;
+      for (Segment segment : List.copyOf(segments)) {
+        if (segment.maxMillis < cutoff) {
+          try {
+            Files.deleteIfExists(segment.file);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+          segments.remove(segment);
+          if (segment == active) {
+            active = null;
+          }
+          deleted++;
+        }
+      }
+      return deleted;
+    }
+
+    void force() {
+      if (active != null) {
+        active.force();
+      }
+    }
+  }
+
+  /** One mapped segment file. */
+  private static final class Segment {
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+    private long minMillis = Long.MAX_VALUE;
+    private long maxMillis = Long.MIN_VALUE;
+
+    private Segment(Path file, MappedByteBuffer buffer) {
+      this.file = file;
+      this.buffer = buffer;
+    }
+
+    static Segment create(Path file, int size) throws IOException {
+      Segment segment = new Segment(file, map(file, size));
+      segment.writePosition = HEADER_SIZE;
+      segment.writeHeader();
+      return segment;
+    }
+
+    static Segment open(Path file) throws IOException {
+      Segment segment = new Segment(file, map(file, (int) Files.size(file)));
+      segment.minMillis = segment.buffer.getLong(0);
+      segment.maxMillis = segment.buffer.getLong(Long.BYTES);
+      int position = HEADER_SIZE;
+      while (position + Integer.BYTES <= segment.buffer.capacity()) {
+        int length = segment.buffer.getInt(position);
+        if (length <= 0 || position + Integer.BYTES + length > segment.buffer.capacity()) {
+          break;
+        }
+        position += Integer.BYTES + length;
+      }
+      segment.writePosition = position;
+      return segment;
+    }
+
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+      try (FileChannel channel =
+          FileChannel.open(
+              file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+      }
+    }
+
+    static long sequenceOf(Path file) {
+      String name = file.getFileName().toString();
+      return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    int remaining() {
+      return buffer.capacity() - writePosition;
+    }
+
+    void append(byte[] record, long millis) {
+      // payload first, length last: a half written record is never visible to recovery
+      buffer.put(writePosition + Integer.BYTES, record);
+      buffer.putInt(writePosition, record.length);
+      writePosition += Integer.BYTES + record.length;
+      minMillis = Math.min(minMillis, millis);
+      maxMillis = Math.max(maxMillis, millis);
+      writeHeader();
+    }
+
+    ByteBuffer readView() {
+      return buffer.slice(HEADER_SIZE, writePosition - HEADER_SIZE);
+    }
+
+    private void writeHeader() {
+      buffer.putLong(0, minMillis);
+      buffer.putLong(Long.BYTES, maxMillis);
+    }
+
+    void force() {
+      buffer.force();
+    }
+  }
+}
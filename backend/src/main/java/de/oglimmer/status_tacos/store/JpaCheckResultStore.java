@@ -0,0 +1,281 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.store;
+
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import de.oglimmer.status_tacos.persistence.CheckResultBlock;
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import de.oglimmer.status_tacos.repository.CheckResultRepository;
+import de.oglimmer.status_tacos.repository.CheckResultRunRepository;
+import de.oglimmer.status_tacos.service.CheckResultBlockService;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Default store: hot rows in {@code check_results}, closed windows in the compressed {@code
+ * check_result_blocks}. Aggregates over hot rows are answered by a single query.
+ *
+ * <p>In change-only mode ({@code monitor.storage.change-only.enabled}) a full row is only written
+ * when the outcome of a monitor changes; the following identical checks are folded into a {@link
+ * CheckResultRun} that is kept in memory and written when the outcome changes, after {@code
+ * max-run-minutes} or on shutdown. A crash loses at most the counters of the open runs.
+ */
+@Component
+@ConditionalOnProperty(name = "monitor.storage.type", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class JpaCheckResultStore implements CheckResultStore {
+
+  private final CheckResultRepository checkResultRepository;
+  private final CheckResultRunRepository checkResultRunRepository;
+  private final CheckResultBlockService checkResultBlockService;
+
+  private final Map<Integer, RunState> runStates = new ConcurrentHashMap<>();
+
+  @Value("${monitor.storage.change-only.enabled:false}")
+  private boolean changeOnlyEnabled;
+
+  @Value("${monitor.storage.change-only.max-run-minutes:15}")
+  private int maxRunMinutes;
+
+  @Override
+  public CheckResult append(CheckResult checkResult) {
+    if (!changeOnlyEnabled) {
+      return checkResultRepository.save(checkResult);
+    }
+
+    RunState state =
+        runStates.computeIfAbsent(checkResult.getMonitor().getId(), id -> new RunState());
+    synchronized (state) {
+      if (state.matches(checkResult)) {
+        state.fold(checkResult);
+        if (Duration.between(state.run.getRunStart(), state.run.getRunEnd()).toMinutes()
+            >= maxRunMinutes) {
+          checkResultRunRepository.save(state.run);
+          state.run = null;
+        }
+        return checkResult;
+      }
+
+      if (state.run != null) {
+        checkResultRunRepository.save(state.run);
+      }
+      state.open(checkResult);
+      return checkResultRepository.save(checkResult);
+    }
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<CheckResult> scan(
+      Integer tenantId, Integer monitorId, LocalDateTime start, LocalDateTime end) {
+    List<CheckResult> hot = checkResultRepository.findInRange(monitorId, tenantId, start, end);
+    List<CheckResult> sealed =
+        checkResultBlockService.findSealedResults(tenantId, monitorId, start, end);
+    if (sealed.isEmpty()) {
+      return hot;
+    }
+
+    List<CheckResult> merged = new ArrayList<>(sealed);
+    merged.addAll(hot);
+    merged.sort(Comparator.comparing(CheckResult::getCheckedAt));
+    return merged;
+  }
+
+  /**
+   * Streams the hot rows as projections and merges the sealed blocks in one block at a time, so
+   * memory stays bounded by one decoded block regardless of the range.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public void forEachSample(
+      Integer tenantId,
+      Integer monitorId,
+      LocalDateTime start,
+      LocalDateTime end,
+      Consumer<CheckSample> consumer) {
+    List<CheckResultBlock> blocks =
+        checkResultBlockService.findOverlappingBlocks(tenantId, monitorId, start, end);
+    try (Stream<CheckSample> hotStream =
+        checkResultRepository.streamSamplesInRange(monitorId, tenantId, start, end)) {
+      Iterator<CheckSample> hot = hotStream.iterator();
+      CheckSample nextHot = hot.hasNext() ? hot.next() : null;
+
+      // rows that arrived after their window was sealed can interleave with block contents
+      for (CheckResultBlock block : blocks) {
+        for (CheckResult sealed : checkResultBlockService.decode(block)) {
+          LocalDateTime checkedAt = sealed.getCheckedAt();
+          if (checkedAt.isBefore(start) || checkedAt.isAfter(end)) {
+            continue;
+          }
+          while (nextHot != null && nextHot.checkedAt().isBefore(checkedAt)) {
+            consumer.accept(nextHot);
+            nextHot = hot.hasNext() ? hot.next() : null;
+          }
+          consumer.accept(new CheckSample(checkedAt, sealed.getIsUp(), sealed.getResponseTimeMs()));
+        }
+      }
+      while (nextHot != null) {
+        consumer.accept(nextHot);
+        nextHot = hot.hasNext() ? hot.next() : null;
+      }
+    }
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<CheckResultRun> scanRuns(
+      Integer tenantId, Integer monitorId, LocalDateTime start, LocalDateTime end) {
+    // runs written while change-only mode was enabled stay readable after disabling it
+    CheckResultRun open = openRun(tenantId, monitorId, start, end);
+    List<CheckResultRun> runs =
+        new ArrayList<>(
+            checkResultRunRepository.findByRunStartBetween(monitorId, tenantId, start, end));
+    if (open != null) {
+      runs.add(open);
+    }
+    return runs;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public CheckResultAggregate aggregate(
+      Integer tenantId, Integer monitorId, LocalDateTime start, LocalDateTime end) {
+    CheckResultAggregate aggregate =
+        toAggregate(
+                checkResultRepository.aggregateByMonitorIdAndTenantIdAndCheckedAtBetween(
+                    monitorId, tenantId, start, end))
+            .plus(checkResultBlockService.aggregate(tenantId, monitorId, start, end))
+            .plus(
+                toAggregate(
+                    checkResultRunRepository.aggregateByRunStartBetween(
+                        monitorId, tenantId, start, end)));
+    CheckResultRun open = openRun(tenantId, monitorId, start, end);
+    return open != null ? aggregate.plus(toAggregate(open)) : aggregate;
+  }
+
+  @Override
+  public void deleteBefore(Integer tenantId, LocalDateTime cutoffDate) {
+    checkResultRepository.deleteByTenantIdAndCheckedAtBefore(tenantId, cutoffDate);
+    checkResultRunRepository.deleteByTenantIdAndRunEndBefore(tenantId, cutoffDate);
+    checkResultBlockService.cleanupOldBlocks(tenantId, cutoffDate);
+  }
+
+  @PreDestroy
+  public void flushOpenRuns() {
+    int flushed = 0;
+    for (RunState state : runStates.values()) {
+      synchronized (state) {
+        if (state.run != null) {
+          checkResultRunRepository.save(state.run);
+          state.run = null;
+          flushed++;
+        }
+      }
+    }
+    if (flushed > 0) {
+      log.info("Flushed {} open check result runs", flushed);
+    }
+  }
+
+  /** A snapshot of the open run of a monitor if it starts in [start, end]. */
+  private CheckResultRun openRun(
+      Integer tenantId, Integer monitorId, LocalDateTime start, LocalDateTime end) {
+    RunState state = runStates.get(monitorId);
+    if (state == null) {
+      return null;
+    }
+    synchronized (state) {
+      CheckResultRun run = state.run;
+      if (run == null
+          || !run.getTenantId().equals(tenantId)
+          || run.getRunStart().isBefore(start)
+          || run.getRunStart().isAfter(end)) {
+        return null;
+      }
+      return run.toBuilder().build();
+    }
+  }
+
+  private static CheckResultAggregate toAggregate(CheckResultRepository.Aggregate aggregate) {
+    if (aggregate == null || aggregate.getCount() == null || aggregate.getCount() == 0) {
+      return CheckResultAggregate.EMPTY;
+    }
+    return new CheckResultAggregate(
+        aggregate.getCount(),
+        valueOrZero(aggregate.getSuccessfulCount()),
+        valueOrZero(aggregate.getResponseTimeCount()),
+        valueOrZero(aggregate.getResponseTimeSum()),
+        aggregate.getMinResponseTime(),
+        aggregate.getMaxResponseTime());
+  }
+
+  private static CheckResultAggregate toAggregate(CheckResultRun run) {
+    if (!run.getIsUp()) {
+      return new CheckResultAggregate(run.getCheckCount(), 0, 0, 0, null, null);
+    }
+    return new CheckResultAggregate(
+        run.getCheckCount(),
+        run.getCheckCount(),
+        run.getResponseTimeCount(),
+        run.getResponseTimeSumMs(),
+        run.getMinResponseTimeMs(),
+        run.getMaxResponseTimeMs());
+  }
+
+  private static long valueOrZero(Long value) {
+    return value != null ? value : 0;
+  }
+
+  /** Last written outcome of a monitor and the run of identical checks since then. */
+  private static final class RunState {
+
+    private CheckResult outcome;
+    private CheckResultRun run;
+
+    boolean matches(CheckResult checkResult) {
+      return outcome != null
+          && Objects.equals(outcome.getIsUp(), checkResult.getIsUp())
+          && Objects.equals(outcome.getStatusCode(), checkResult.getStatusCode())
+          && Objects.equals(outcome.getErrorMessage(), checkResult.getErrorMessage());
+    }
+
+    void open(CheckResult checkResult) {
+      outcome = checkResult;
+      run = null;
+    }
+
+    void fold(CheckResult checkResult) {
+      if (run == null) {
+        run =
+            CheckResultRun.builder()
+                .monitor(checkResult.getMonitor())
+                .tenantId(checkResult.getTenantId())
+                .runStart(checkResult.getCheckedAt())
+                .checkCount(0)
+                .isUp(checkResult.getIsUp())
+                .statusCode(checkResult.getStatusCode())
+                .responseTimeCount(0)
+                .responseTimeSumMs(0L)
+                .build();
+      }
+      run.add(checkResult);
+    }
+  }
+}
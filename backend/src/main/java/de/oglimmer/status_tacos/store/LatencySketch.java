@@ -0,0 +1,149 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.store;
+
+/**
+ * Mergeable quantile sketch for response times in milliseconds, after DDSketch: values are counted
+ * in logarithmic bins, so every quantile is answered with a relative error of at most {@link
+ * #RELATIVE_ACCURACY}. Memory depends on the spread of the values, not on their number; one to
+ * 60000 ms needs about 550 bins.
+ *
+ * <p>Sketches of disjoint ranges can be merged into the sketch of the union, which makes them
+ * suitable to be stored per time bucket and combined for any window.
+ */
+public final class LatencySketch {
+
+  public static final double RELATIVE_ACCURACY = 0.01;
+
+  private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+  private static final double LOG_GAMMA = Math.log(GAMMA);
+
+  // counts[i] is the number of values v with index(v) == offset + i
+  private long[] counts = new long[0];
+  private int offset;
+  private long zeroCount;
+  private long totalCount;
+
+  public void add(int valueMs) {
+    add(valueMs, 1);
+  }
+
+  public void add(int valueMs, long count) {
+    if (count <= 0) {
+      return;
+    }
+    totalCount += count;
+    if (valueMs <= 0) {
+      zeroCount += count;
+      return;
+    }
+    int index = index(valueMs);
+    ensureCapacity(index, index);
+    counts[index - offset] += count;
+  }
+
+  public void merge(LatencySketch other) {
+    if (other.totalCount == 0) {
+      return;
+    }
+    totalCount += other.totalCount;
+    zeroCount += other.zeroCount;
+    if (other.counts.length == 0) {
+      return;
+    }
+    ensureCapacity(other.offset, other.offset + other.counts.length - 1);
+    for (int i = 0; i < other.counts.length; i++) {
+      counts[other.offset + i - offset] += other.counts[i];
+    }
+  }
+
+  public long getCount() {
+    return totalCount;
+  }
+
+  public boolean isEmpty() {
+    return totalCount == 0;
+  }
+
+  /**
+   * Nearest-rank quantile, q in [0, 1], or null if the sketch is empty. Matches the rank of the
+   * exact {@code ceil(q * n)}-th smallest value within the relative accuracy.
+   */
+  public Integer quantile(double q) {
+    if (totalCount == 0) {
+      return null;
+    }
+    long rank = Math.max(1, (long) Math.ceil(q * totalCount));
+    long seen = zeroCount;
+    if (seen >= rank) {
+      return 0;
+    }
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return (int) Math.round(value(offset + i));
+      }
+    }
+    return (int) Math.round(value(offset + counts.length - 1));
+  }
+
+  public void writeTo(CheckResultBlockCodec.VarIntWriter out) {
+    out.writeUnsigned(zeroCount);
+    out.writeSigned(offset);
+    out.writeUnsigned(counts.length);
+    for (long count : counts) {
+      out.writeUnsigned(count);
+    }
+  }
+
+  public static LatencySketch readFrom(CheckResultBlockCodec.VarIntReader in) {
+    LatencySketch sketch = new LatencySketch();
+    sketch.zeroCount = in.readUnsigned();
+    sketch.offset = (int) in.readSigned();
+    sketch.counts = new long[(int) in.readUnsigned()];
+    sketch.totalCount = sketch.zeroCount;
+    for (int i = 0; i < sketch.counts.length; i++) {
+      sketch.counts[i] = in.readUnsigned();
+      sketch.totalCount += sketch.counts[i];
+    }
+    return sketch;
+  }
+
+  public byte[] toBytes() {
+    CheckResultBlockCodec.VarIntWriter out = new CheckResultBlockCodec.VarIntWriter();
+    writeTo(out);
+    return out.toByteArray();
+  }
+
+  public static LatencySketch fromBytes(byte[] bytes) {
+    if (bytes == null || bytes.length == 0) {
+      return new LatencySketch();
+    }
+    return readFrom(new CheckResultBlockCodec.VarIntReader(bytes));
+  }
+
+  private static int index(int valueMs) {
+    return (int) Math.ceil(Math.log(valueMs) / LOG_GAMMA);
+  }
+
+  /** The value in the middle of bin {@code index}, relative error to both bin edges is equal. */
+  private static double value(int index) {
+    return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+  }
+
+  private void ensureCapacity(int minIndex, int maxIndex) {
+    if (counts.length == 0) {
+      counts = new long[maxIndex - minIndex + 1];
+      offset = minIndex;
+      return;
+    }
+    int newOffset = Math.min(offset, minIndex);
+    int newEnd = Math.max(offset + counts.length - 1, maxIndex);
+    if (newOffset == offset && newEnd == offset + counts.length - 1) {
+      return;
+    }
+    long[] grown = new long[newEnd - newOffset + 1];
+    System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+    counts = grown;
+    offset = newOffset;
+  }
+}
@@ -0,0 +1,105 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A size bounded cache whose entries expire a fixed time after they were put; the least recently
+ * used entry is evicted once it is full.
+ *
+ * <p>A value loaded by {@link #get(Object, Function)} isn't stored if an invalidation happened
+ * while it was loaded, so an invalidation can't be undone by a load that read the old state.
+ */
+public final class ExpiringCache<K, V> {
+
+  private final int maxSize;
+  private final long ttlNanos;
+  private final LongSupplier nanoClock;
+  private final Map<K, Entry<V>> entries;
+
+  // incremented by every invalidation
+  private long generation;
+
+  public ExpiringCache(int maxSize, long ttlMillis) {
+    this(maxSize, ttlMillis, System::nanoTime);
+  }
+
+  ExpiringCache(int maxSize, long ttlMillis, LongSupplier nanoClock) {
+    this.maxSize = maxSize;
+    this.ttlNanos = ttlMillis * 1_000_000L;
+    this.nanoClock = nanoClock;
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            return size() > ExpiringCache.this.maxSize;
+          }
+        };
+  }
+
+  /** Returns the value of a key, null if there is none or it expired. */
+  public synchronized V get(K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (nanoClock.getAsLong() - entry.expiresAtNanos() >= 0) {
+      entries.remove(key);
+      return null;
+    }
+    return entry.value();
+  }
+
+  /** Returns the value of a key, loaded outside the lock if there is none; null isn't cached. */
+  public V get(K key, Function<K, V> loader) {
+    V value;
+    long loadGeneration;
+    synchronized (this) {
+      value = get(key);
+      if (value != null) {
+        return value;
+      }
+      loadGeneration = generation;
+    }
+    value = loader.apply(key);
+    if (value != null) {
+      synchronized (this) {
+        if (generation == loadGeneration) {
+          put(key, value);
+        }
+      }
+    }
+    return value;
+  }
+
+  public synchronized void put(K key, V value) {
+    put(key, value, ttlNanos);
+  }
+
+  /** Puts a value that expires after the given time or the cache's TTL, whichever is earlier. */
+  public synchronized void put(K key, V value, long maxTtlNanos) {
+    if (maxTtlNanos <= 0) {
+      return;
+    }
+    entries.put(key, new Entry<>(value, nanoClock.getAsLong() + Math.min(ttlNanos, maxTtlNanos)));
+  }
+
+  public synchronized void invalidate(K key) {
+    generation++;
+    entries.remove(key);
+  }
+
+  public synchronized void invalidateAll() {
+    generation++;
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  private record Entry<V>(V value, long expiresAtNanos) {}
+}
@@ -0,0 +1,147 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.util;
+
+import java.util.Arrays;
+
+/**
+ * Reduces a time series to the points a chart can show without losing its shape. Both methods take
+ * the series as parallel primitive arrays ordered by x and return the indices of the points to
+ * keep, ascending, so callers can pick whatever belongs to a point.
+ *
+ * <ul>
+ *   <li>{@link #lttb} (Largest-Triangle-Three-Buckets) keeps a fixed number of points, in each
+ *       bucket the one spanning the largest triangle with its neighbours, which keeps spikes and
+ *       dips.
+ *   <li>{@link #m4} keeps the first, last, minimum and maximum point of each pixel column, which
+ *       renders exactly like the full series at that width.
+ * </ul>
+ */
+public final class SeriesDownsampler {
+
+  private SeriesDownsampler() {}
+
+  /**
+   * Indices of at most {@code threshold} points chosen by LTTB; all if there are no more.
+   *
+   * @throws IllegalArgumentException if threshold is less than 3
+   */
+  public static int[] lttb(long[] x, double[] y, int threshold) {
+    if (threshold < 3) {
+      throw new IllegalArgumentException("LTTB needs a threshold of at least 3: " + threshold);
+    }
+    int n = x.length;
+    if (threshold >= n) {
+      return identity(n);
+    }
+
+    int[] selected = new int[threshold];
+    // the first and last point are always kept, the others are split into threshold - 2 buckets
+    double bucketSize = (double) (n - 2) / (threshold - 2);
+    int previous = 0;
+    for (int bucket = 0; bucket < threshold - 2; bucket++) {
+      // the average of the next bucket stands in for the next selected point
+      int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+      int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, n);
+      double averageX = 0;
+      double averageY = 0;
+      for (int i = nextStart; i < nextEnd; i++) {
+        averageX += x[i];
+        averageY += y[i];
+      }
+      averageX /= nextEnd - nextStart;
+      averageY /= nextEnd - nextStart;
+
+      int start = (int) (bucket * bucketSize) + 1;
+      int end = (int) ((bucket + 1) * bucketSize) + 1;
+      double previousX = x[previous];
+      double previousY = y[previous];
+      double maxArea = -1;
+      int chosen = start;
+      for (int i = start; i < end; i++) {
+        double area =
+            Math.abs(
+                (previousX - averageX) * (y[i] - previousY)
+                    - (previousX - x[i]) * (averageY - previousY));
+        if (area > maxArea) {
+          maxArea = area;
+          chosen = i;
+        }
+      }
+      selected[bucket + 1] = chosen;
+      previous = chosen;
+    }
+    selected[threshold - 1] = n - 1;
+    return selected;
+  }
+
+  /**
+   * Indices of the first, last, minimum and maximum point of each of {@code columns} equally wide
+   * columns over [x[0], x[n - 1]], at most 4 per column; all if there are no more.
+   *
+   * @throws IllegalArgumentException if columns is less than 1
+   */
+  public static int[] m4(long[] x, double[] y, int columns) {
+    if (columns < 1) {
+      throw new IllegalArgumentException("M4 needs at least one column: " + columns);
+    }
+    int n = x.length;
+    if (n <= 4L * columns) {
+      return identity(n);
+    }
+
+    long firstX = x[0];
+    double columnWidth = (double) (x[n - 1] - firstX + 1) / columns;
+    int[] selected = new int[4 * columns];
+    int count = 0;
+    int column = -1;
+    int first = 0;
+    int last = 0;
+    int min = 0;
+    int max = 0;
+    for (int i = 0; i < n; i++) {
+      int c = Math.min((int) ((x[i] - firstX) / columnWidth), columns - 1);
+      if (c != column) {
+        if (column >= 0) {
+          count = addColumn(selected, count, first, min, max, last);
+        }
+        column = c;
+        first = last = min = max = i;
+      } else {
+        last = i;
+        if (y[i] < y[min]) {
+          min = i;
+        }
+        if (y[i] > y[max]) {
+          max = i;
+        }
+      }
+    }
+    count = addColumn(selected, count, first, min, max, last);
+    return Arrays.copyOf(selected, count);
+  }
+
+  // adds the distinct indices of a column in ascending order
+  private static int addColumn(int[] selected, int count, int first, int min, int max, int last) {
+    int low = Math.min(min, max);
+    int high = Math.max(min, max);
+    selected[count++] = first;
+    if (low != first) {
+      selected[count++] = low;
+    }
+    if (high != low && high != first) {
+      selected[count++] = high;
+    }
+    if (last != high && last != first) {
+      selected[count++] = last;
+    }
+    return count;
+  }
+
+  private static int[] identity(int n) {
+    int[] indices = new int[n];
+    for (int i = 0; i < n; i++) {
+      indices[i] = i;
+    }
+    return indices;
+  }
+}
@@ -0,0 +1,28 @@
+-- Sealed, compressed one-day windows of check results per monitor.
+-- The header columns hold the aggregates of the window, payload holds the columnar encoded rows.
+
+CREATE TABLE check_result_blocks
+(
+    id                  BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+    monitor_id          INT UNSIGNED    NOT NULL,
+    tenant_id           bigint          NOT NULL,
+    block_start         TIMESTAMP       NOT NULL,
+    block_end           TIMESTAMP       NOT NULL,
+    check_count         INT UNSIGNED    NOT NULL,
+    successful_checks   INT UNSIGNED    NOT NULL,
+    response_time_count INT UNSIGNED    NOT NULL,
+    response_time_sum_ms BIGINT UNSIGNED NOT NULL,
+    min_response_time_ms INT UNSIGNED   NULL,
+    max_response_time_ms INT UNSIGNED   NULL,
+    payload             MEDIUMBLOB      NOT NULL,
+    sealed_at           TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (id),
+    FOREIGN KEY fk_block_monitor (monitor_id) REFERENCES monitors (id) ON DELETE CASCADE,
+    CONSTRAINT fk_block_tenant FOREIGN KEY (tenant_id) REFERENCES tenant (id),
+    UNIQUE KEY uk_block_monitor_start (monitor_id, block_start),
+    INDEX idx_block_tenant_end (tenant_id, block_end)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci
+  ROW_FORMAT = DYNAMIC;
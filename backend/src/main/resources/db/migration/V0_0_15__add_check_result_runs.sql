@@ -0,0 +1,27 @@
+-- Steady-state runs of identical check outcomes, written instead of one row per check when
+-- monitor.storage.change-only.enabled is set. The first check of every run is a full check_results row.
+
+CREATE TABLE check_result_runs
+(
+    id                   BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+    monitor_id           INT UNSIGNED    NOT NULL,
+    tenant_id            bigint          NOT NULL,
+    run_start            TIMESTAMP       NOT NULL,
+    run_end              TIMESTAMP       NOT NULL,
+    check_count          INT UNSIGNED    NOT NULL,
+    is_up                BOOLEAN         NOT NULL,
+    status_code          INT             NULL,
+    response_time_count  INT UNSIGNED    NOT NULL,
+    response_time_sum_ms BIGINT UNSIGNED NOT NULL,
+    min_response_time_ms INT UNSIGNED    NULL,
+    max_response_time_ms INT UNSIGNED    NULL,
+
+    PRIMARY KEY (id),
+    FOREIGN KEY fk_run_monitor (monitor_id) REFERENCES monitors (id) ON DELETE CASCADE,
+    CONSTRAINT fk_run_tenant FOREIGN KEY (tenant_id) REFERENCES tenant (id),
+    INDEX idx_run_monitor_start (monitor_id, run_start),
+    INDEX idx_run_tenant_end (tenant_id, run_end)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci
+  ROW_FORMAT = DYNAMIC;
@@ -0,0 +1,15 @@
+-- Cluster check_results on (monitor_id, checked_at, id) so that the per-monitor range reads scan
+-- one contiguous part of the clustered index instead of doing a lookup per row from a secondary index.
+-- id stays AUTO_INCREMENT as tie breaker and row identity, which needs a key of its own.
+-- idx_check_monitor_time is the new primary key's prefix, idx_check_time has no reader, and
+-- idx_check_tenant is extended by checked_at for the retention delete and the failure feed.
+-- On large tables this rebuilds the table; run it in a maintenance window.
+
+ALTER TABLE check_results
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (monitor_id, checked_at, id),
+    ADD UNIQUE KEY uk_check_id (id),
+    DROP INDEX idx_check_monitor_time,
+    DROP INDEX idx_check_time,
+    DROP INDEX idx_check_tenant,
+    ADD INDEX idx_check_tenant_time (tenant_id, checked_at);
@@ -0,0 +1,30 @@
+-- Per monitor and day partial aggregates the uptime statistics are rolled forward from.
+-- A row is folded incrementally up to folded_until while its day is open and never changes once
+-- is_closed is set. payload holds the hourly max response times, the down periods of the day and
+-- the latency sketch.
+
+CREATE TABLE uptime_daily_aggregates
+(
+    id                   BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+    monitor_id           INT UNSIGNED    NOT NULL,
+    tenant_id            bigint          NOT NULL,
+    stats_day            DATE            NOT NULL,
+    is_closed            BOOLEAN         NOT NULL DEFAULT FALSE,
+    folded_until         TIMESTAMP       NOT NULL,
+    check_count          INT UNSIGNED    NOT NULL,
+    successful_checks    INT UNSIGNED    NOT NULL,
+    response_time_count  INT UNSIGNED    NOT NULL,
+    response_time_sum_ms BIGINT UNSIGNED NOT NULL,
+    min_response_time_ms INT UNSIGNED    NULL,
+    max_response_time_ms INT UNSIGNED    NULL,
+    payload              BLOB            NOT NULL,
+
+    PRIMARY KEY (id),
+    FOREIGN KEY fk_daily_monitor (monitor_id) REFERENCES monitors (id) ON DELETE CASCADE,
+    CONSTRAINT fk_daily_tenant FOREIGN KEY (tenant_id) REFERENCES tenant (id),
+    UNIQUE KEY uk_daily_monitor_day (monitor_id, stats_day),
+    INDEX idx_daily_tenant_day (tenant_id, stats_day)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci
+  ROW_FORMAT = DYNAMIC;
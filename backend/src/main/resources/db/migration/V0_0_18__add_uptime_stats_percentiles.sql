@@ -0,0 +1,7 @@
+-- Response time percentiles besides p99, read from the merged latency sketches of the daily aggregates.
+
+ALTER TABLE uptime_stats
+    ADD COLUMN p50_response_time_ms INT UNSIGNED NULL AFTER avg_response_time_ms,
+    ADD COLUMN p90_response_time_ms INT UNSIGNED NULL AFTER p50_response_time_ms,
+    ADD COLUMN p95_response_time_ms INT UNSIGNED NULL AFTER p90_response_time_ms,
+    ADD COLUMN p999_response_time_ms INT UNSIGNED NULL AFTER p99_response_time_ms;
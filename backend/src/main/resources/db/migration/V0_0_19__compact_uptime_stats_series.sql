@@ -0,0 +1,11 @@
+-- Store the uptime stats time series in the compact binary encoding of UptimeStatsSeriesCodec
+-- instead of JSON text. The series are rewritten by the next stats run (every 15 minutes); the
+-- series of rows of earlier period starts are dropped.
+
+ALTER TABLE uptime_stats
+    DROP COLUMN response_time_data,
+    DROP COLUMN status_change_data;
+
+ALTER TABLE uptime_stats
+    ADD COLUMN response_time_data MEDIUMBLOB NULL AFTER p999_response_time_ms,
+    ADD COLUMN status_change_data MEDIUMBLOB NULL AFTER response_time_data;
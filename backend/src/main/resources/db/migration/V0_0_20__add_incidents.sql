@@ -0,0 +1,25 @@
+-- Down periods of a monitor, opened by the first failed check after a successful one and closed by
+-- the next successful check. ended_at is NULL while the incident is open; there is at most one open
+-- incident per monitor. Incidents before this migration are created by a backfill from the checks.
+
+CREATE TABLE incidents
+(
+    id                  BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+    monitor_id          INT UNSIGNED    NOT NULL,
+    tenant_id           bigint          NOT NULL,
+    started_at          TIMESTAMP       NOT NULL,
+    ended_at            TIMESTAMP       NULL DEFAULT NULL,
+    first_status_code   INT             NULL,
+    first_error_message TEXT            NULL,
+    check_count         INT UNSIGNED    NOT NULL,
+
+    PRIMARY KEY (id),
+    FOREIGN KEY fk_incident_monitor (monitor_id) REFERENCES monitors (id) ON DELETE CASCADE,
+    CONSTRAINT fk_incident_tenant FOREIGN KEY (tenant_id) REFERENCES tenant (id),
+    INDEX idx_incident_monitor_start (monitor_id, started_at),
+    INDEX idx_incident_monitor_end (monitor_id, ended_at),
+    INDEX idx_incident_tenant_start (tenant_id, started_at)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci
+  ROW_FORMAT = DYNAMIC;
@@ -0,0 +1,32 @@
+-- Tiered retention: raw checks are compacted into per minute and per hour rollups before they
+-- are deleted; each tier has its own retention. A tenant can override the retention of each tier,
+-- NULL means the configured default.
+
+ALTER TABLE tenant
+    ADD COLUMN raw_retention_days           INT UNSIGNED NULL,
+    ADD COLUMN minute_rollup_retention_days INT UNSIGNED NULL,
+    ADD COLUMN hourly_rollup_retention_days INT UNSIGNED NULL;
+
+CREATE TABLE check_result_rollups
+(
+    id                   BIGINT UNSIGNED         NOT NULL AUTO_INCREMENT,
+    monitor_id           INT UNSIGNED            NOT NULL,
+    tenant_id            bigint                  NOT NULL,
+    resolution           ENUM ('MINUTE', 'HOUR') NOT NULL,
+    bucket_start         TIMESTAMP               NOT NULL,
+    check_count          INT UNSIGNED            NOT NULL,
+    successful_checks    INT UNSIGNED            NOT NULL,
+    response_time_count  INT UNSIGNED            NOT NULL,
+    response_time_sum_ms BIGINT UNSIGNED         NOT NULL,
+    min_response_time_ms INT UNSIGNED            NULL,
+    max_response_time_ms INT UNSIGNED            NULL,
+
+    PRIMARY KEY (id),
+    FOREIGN KEY fk_rollup_monitor (monitor_id) REFERENCES monitors (id) ON DELETE CASCADE,
+    CONSTRAINT fk_rollup_tenant FOREIGN KEY (tenant_id) REFERENCES tenant (id),
+    UNIQUE KEY uk_rollup_monitor_bucket (monitor_id, resolution, bucket_start),
+    INDEX idx_rollup_tenant_bucket (tenant_id, resolution, bucket_start)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci
+  ROW_FORMAT = DYNAMIC;
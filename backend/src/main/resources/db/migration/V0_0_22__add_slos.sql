@@ -0,0 +1,38 @@
+-- Service level objectives per monitor: a target share of successful checks over a rolling window.
+-- The good/bad counters are kept in memory; slo_checkpoints holds their last checkpoint, the checks
+-- after last_checked_at are replayed from the check results on startup.
+
+CREATE TABLE slos
+(
+    id                INT UNSIGNED  NOT NULL AUTO_INCREMENT,
+    monitor_id        INT UNSIGNED  NOT NULL,
+    tenant_id         bigint        NOT NULL,
+    name              VARCHAR(100)  NOT NULL,
+    target_percentage DOUBLE        NOT NULL,
+    window_days       INT UNSIGNED  NOT NULL,
+    created_at        TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at        TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (id),
+    FOREIGN KEY fk_slo_monitor (monitor_id) REFERENCES monitors (id) ON DELETE CASCADE,
+    CONSTRAINT fk_slo_tenant FOREIGN KEY (tenant_id) REFERENCES tenant (id),
+    INDEX idx_slo_monitor (monitor_id),
+    INDEX idx_slo_tenant (tenant_id)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci
+  ROW_FORMAT = DYNAMIC;
+
+CREATE TABLE slo_checkpoints
+(
+    slo_id          INT UNSIGNED NOT NULL,
+    last_checked_at TIMESTAMP    NULL DEFAULT NULL,
+    checkpointed_at TIMESTAMP    NOT NULL,
+    payload         MEDIUMBLOB   NOT NULL,
+
+    PRIMARY KEY (slo_id),
+    FOREIGN KEY fk_slo_checkpoint_slo (slo_id) REFERENCES slos (id) ON DELETE CASCADE
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci
+  ROW_FORMAT = DYNAMIC;
@@ -0,0 +1,48 @@
+-- Admin triggered rebuilds of the daily uptime aggregates and uptime stats of a past date range.
+-- A job is split into chunks of days per monitor; a chunk's status is its checkpoint, so a resumed
+-- job only runs the chunks that are not completed.
+
+CREATE TABLE stats_backfill_jobs
+(
+    id               BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+    tenant_id        bigint          NOT NULL,
+    monitor_ids      TEXT            NULL,
+    range_start      DATE            NOT NULL,
+    range_end        DATE            NOT NULL,
+    status           ENUM ('pending', 'running', 'completed', 'failed', 'cancelled') NOT NULL,
+    total_chunks     INT UNSIGNED    NOT NULL,
+    completed_chunks INT UNSIGNED    NOT NULL DEFAULT 0,
+    failed_chunks    INT UNSIGNED    NOT NULL DEFAULT 0,
+    created_at       TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at       TIMESTAMP       NULL DEFAULT NULL,
+    finished_at      TIMESTAMP       NULL DEFAULT NULL,
+
+    PRIMARY KEY (id),
+    CONSTRAINT fk_backfill_job_tenant FOREIGN KEY (tenant_id) REFERENCES tenant (id),
+    INDEX idx_backfill_job_tenant (tenant_id),
+    INDEX idx_backfill_job_status (status)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci
+  ROW_FORMAT = DYNAMIC;
+
+CREATE TABLE stats_backfill_chunks
+(
+    id            BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+    job_id        BIGINT UNSIGNED NOT NULL,
+    monitor_id    INT UNSIGNED    NOT NULL,
+    chunk_start   DATE            NOT NULL,
+    chunk_end     DATE            NOT NULL,
+    status        ENUM ('pending', 'completed', 'failed') NOT NULL,
+    rebuilt_days  INT UNSIGNED    NOT NULL DEFAULT 0,
+    completed_at  TIMESTAMP       NULL DEFAULT NULL,
+    error_message VARCHAR(1000)   NULL,
+
+    PRIMARY KEY (id),
+    FOREIGN KEY fk_backfill_chunk_job (job_id) REFERENCES stats_backfill_jobs (id) ON DELETE CASCADE,
+    FOREIGN KEY fk_backfill_chunk_monitor (monitor_id) REFERENCES monitors (id) ON DELETE CASCADE,
+    UNIQUE KEY uk_backfill_chunk (job_id, monitor_id, chunk_start)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci
+  ROW_FORMAT = DYNAMIC;
@@ -0,0 +1,9 @@
+-- Index for the failure feed, which pages the failed checks of a tenant by (checked_at, id), latest
+-- first. Failures are rare, so on idx_check_tenant_time a page had to skip every successful check in
+-- between. id is part of the key, so the index is in the order of the feed: InnoDB appends the rest
+-- of the primary key (monitor_id), which would otherwise come between checked_at and id and force a
+-- filesort. For one tenant a page is a range read that stops after its rows; for several tenants
+-- the failures of each tenant from the cursor on are read and sorted, the successful checks are
+-- still not touched.
+
+CREATE INDEX idx_check_tenant_up_time ON check_results(tenant_id, is_up, checked_at, id);
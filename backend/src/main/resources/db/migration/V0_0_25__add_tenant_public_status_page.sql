@@ -0,0 +1,4 @@
+-- Tenants opt in to a public status page served at /public/status/{code}.
+
+ALTER TABLE tenant
+    ADD COLUMN public_status_page BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,103 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import de.oglimmer.status_tacos.dto.DashboardResponseDto;
+import de.oglimmer.status_tacos.dto.StatusType;
+import de.oglimmer.status_tacos.mapper.EntityMapper;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.persistence.MonitorStatus;
+import de.oglimmer.status_tacos.repository.MonitorRepository;
+import de.oglimmer.status_tacos.repository.MonitorStatusRepository;
+import de.oglimmer.status_tacos.repository.UptimeStatsRepository;
+import de.oglimmer.status_tacos.service.DashboardSnapshotService;
+import de.oglimmer.status_tacos.service.ResponseTimeHistoryCache;
+import de.oglimmer.status_tacos.service.UserTenantResolver;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+class DashboardControllerTest {
+
+  private final MonitorRepository monitorRepository = mock(MonitorRepository.class);
+  private final MonitorStatusRepository monitorStatusRepository =
+      mock(MonitorStatusRepository.class);
+  private final UserTenantResolver userTenantResolver = mock(UserTenantResolver.class);
+
+  private DashboardSnapshotService dashboardSnapshotService;
+  private DashboardController controller;
+
+  @BeforeEach
+  void setUp() {
+    dashboardSnapshotService =
+        new DashboardSnapshotService(
+            monitorRepository,
+            monitorStatusRepository,
+            mock(UptimeStatsRepository.class),
+            mock(ResponseTimeHistoryCache.class),
+            EntityMapper.INSTANCE,
+            null,
+            60000);
+    ReflectionTestUtils.setField(dashboardSnapshotService, "self", dashboardSnapshotService);
+    controller = new DashboardController(dashboardSnapshotService, userTenantResolver);
+
+    when(userTenantResolver.getCurrentUserTenantIds()).thenReturn(Set.of(1));
+    when(monitorRepository.findByTenantId(1))
+        .thenReturn(List.of(Monitor.builder().id(7).tenantId(1).name("Monitor").build()));
+    status(MonitorStatus.StatusType.up);
+  }
+
+  @Test
+  void getDashboard_keepsTheETagOfTheSnapshotServedUntilTheCycleCompletes() {
+    ServletWebRequest firstRequest = request(null);
+    assertThat(controller.getDashboard(firstRequest).getStatusCode()).isEqualTo(HttpStatus.OK);
+    String etag = etag(firstRequest);
+
+    // a check commits mid-cycle, the snapshot still shows the monitor up
+    status(MonitorStatus.StatusType.down);
+    assertThat(controller.getDashboard(request(etag)).getStatusCode())
+        .isEqualTo(HttpStatus.NOT_MODIFIED);
+
+    dashboardSnapshotService.checkCycleCompleted();
+    ServletWebRequest afterCycleRequest = request(etag);
+    ResponseEntity<DashboardResponseDto> afterCycle = controller.getDashboard(afterCycleRequest);
+
+    assertThat(afterCycle.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(etag(afterCycleRequest)).isNotEqualTo(etag);
+    assertThat(afterCycle.getBody().getMonitors().get(0).getStatus().getCurrentStatus())
+        .isEqualTo(StatusType.down);
+  }
+
+  private void status(MonitorStatus.StatusType statusType) {
+    when(monitorStatusRepository.findAllActiveMonitorStatusesByTenantId(1))
+        .thenReturn(
+            List.of(
+                MonitorStatus.builder()
+                    .monitorId(7)
+                    .tenantId(1)
+                    .currentStatus(statusType)
+                    .build()));
+  }
+
+  private static String etag(ServletWebRequest request) {
+    return request.getResponse().getHeader("ETag");
+  }
+
+  private static ServletWebRequest request(String ifNoneMatch) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/dashboard");
+    if (ifNoneMatch != null) {
+      request.addHeader("If-None-Match", ifNoneMatch);
+    }
+    return new ServletWebRequest(request, new MockHttpServletResponse());
+  }
+}
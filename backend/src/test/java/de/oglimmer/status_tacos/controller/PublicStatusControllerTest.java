@@ -0,0 +1,100 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.controller;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import de.oglimmer.status_tacos.config.TestSecurityConfig;
+import de.oglimmer.status_tacos.repository.UptimeStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestSecurityConfig.class)
+@Transactional
+class PublicStatusControllerTest {
+
+  @Autowired private WebApplicationContext webApplicationContext;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  // the uptime_stats table isn't created on H2, pages are built without uptimes
+  @MockBean private UptimeStatsRepository uptimeStatsRepository;
+
+  private MockMvc mockMvc;
+  private int nextTenantId = 1000;
+
+  @BeforeEach
+  void setUp() {
+    mockMvc =
+        MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+  }
+
+  @Test
+  void getStatusPage_servesAPublishedPageWithoutAToken() throws Exception {
+    String code = tenant(true, true);
+
+    String etag =
+        mockMvc
+            .perform(get("/public/status/" + code))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, public"))
+            .andExpect(jsonPath("$.name").value("Tenant " + code))
+            .andExpect(jsonPath("$.status").value("up"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(get("/public/status/" + code).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, public"))
+        .andExpect(header().string(HttpHeaders.ETAG, etag));
+  }
+
+  @Test
+  void getStatusPage_hidesTenantsThatPublishNone() throws Exception {
+    mockMvc
+        .perform(get("/public/status/" + tenant(true, false)))
+        .andExpect(status().isNotFound())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, public"));
+    mockMvc.perform(get("/public/status/" + tenant(false, true))).andExpect(status().isNotFound());
+    mockMvc.perform(get("/public/status/no-such-tenant")).andExpect(status().isNotFound());
+  }
+
+  @Test
+  void api_stillRequiresAToken() throws Exception {
+    tenant(true, true);
+
+    mockMvc.perform(get("/v1/monitors")).andExpect(status().isUnauthorized());
+    mockMvc.perform(get("/v1/tenants")).andExpect(status().isUnauthorized());
+  }
+
+  // with explicit ids, the identity of the tenant table still starts at the default tenant's id;
+  // the codes are unique as the pages outlive the rolled back transactions
+  private String tenant(boolean active, boolean published) {
+    String code = "public-" + System.nanoTime();
+    jdbcTemplate.update(
+        "INSERT INTO tenant (id, name, code, is_active, public_status_page, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+        nextTenantId++,
+        "Tenant " + code,
+        code,
+        active,
+        published);
+    return code;
+  }
+}
@@ -0,0 +1,122 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.oglimmer.status_tacos.config.TestSecurityConfig;
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.repository.CheckResultRepository;
+import de.oglimmer.status_tacos.repository.MonitorRepository;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+// not transactional: the export reads on connections of its own and must see committed rows
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestSecurityConfig.class)
+class CheckResultExportServiceTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+  @Autowired private CheckResultExportService exportService;
+  @Autowired private MonitorRepository monitorRepository;
+  @Autowired private CheckResultRepository checkResultRepository;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private Monitor monitor;
+
+  @BeforeEach
+  void setUp() {
+    monitor =
+        monitorRepository.save(
+            Monitor.builder()
+                .name("Export, Monitor")
+                .url("https://export.example.com")
+                .tenantId(1)
+                .build());
+    for (int i = 0; i < 3; i++) {
+      checkResultRepository.save(
+          CheckResult.builder()
+              .monitor(monitor)
+              .tenantId(1)
+              .checkedAt(START.plusMinutes(i))
+              .statusCode(i == 1 ? 500 : 200)
+              .responseTimeMs(100 + i)
+              .isUp(i != 1)
+              .errorMessage(i == 1 ? "HTTP 500, \"boom\"" : null)
+              .build());
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    // the entity delete would cascade to uptime_stats, which H2 can't create
+    jdbcTemplate.update("DELETE FROM check_results WHERE monitor_id = ?", monitor.getId());
+    jdbcTemplate.update("DELETE FROM monitors WHERE id = ?", monitor.getId());
+  }
+
+  @Test
+  void export_writesCsvRowsInOrderWithQuotedFields() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    long count =
+        exportService.export(
+            1,
+            monitor.getId(),
+            START,
+            START.plusMinutes(1),
+            CheckResultExportService.Format.CSV,
+            false,
+            output);
+
+    String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+    assertThat(count).isEqualTo(2);
+    assertThat(lines).hasSize(3);
+    assertThat(lines[0]).isEqualTo(CheckResultExportService.CSV_HEADER);
+    assertThat(lines[1]).endsWith(",\"Export, Monitor\",2025-03-01T00:00,200,100,true,");
+    assertThat(lines[2])
+        .endsWith(",\"Export, Monitor\",2025-03-01T00:01,500,101,false,\"HTTP 500, \"\"boom\"\"\"");
+  }
+
+  @Test
+  void export_writesGzippedNdjson() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    exportService.export(
+        1, null, START, START.plusHours(1), CheckResultExportService.Format.NDJSON, true, output);
+
+    String ndjson =
+        new String(
+            new GZIPInputStream(new ByteArrayInputStream(output.toByteArray())).readAllBytes(),
+            StandardCharsets.UTF_8);
+    String[] lines = ndjson.split("\n");
+    assertThat(lines).hasSize(3);
+    JsonNode failure = objectMapper.readTree(lines[1]);
+    assertThat(failure.get("monitorId").asInt()).isEqualTo(monitor.getId());
+    assertThat(failure.get("monitorName").asText()).isEqualTo("Export, Monitor");
+    assertThat(failure.get("isUp").asBoolean()).isFalse();
+    assertThat(failure.get("errorMessage").asText()).isEqualTo("HTTP 500, \"boom\"");
+  }
+
+  @Test
+  void csvField_quotesOnlyWhenNeeded() {
+    assertThat(CheckResultExportService.csvField(null)).isEmpty();
+    assertThat(CheckResultExportService.csvField(42)).isEqualTo("42");
+    assertThat(CheckResultExportService.csvField("a\nb")).isEqualTo("\"a\nb\"");
+  }
+}
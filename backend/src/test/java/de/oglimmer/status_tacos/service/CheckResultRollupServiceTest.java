@@ -0,0 +1,120 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.oglimmer.status_tacos.config.TestSecurityConfig;
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.persistence.Tenant;
+import de.oglimmer.status_tacos.repository.MonitorRepository;
+import de.oglimmer.status_tacos.repository.TenantRepository;
+import de.oglimmer.status_tacos.store.CheckResultAggregate;
+import de.oglimmer.status_tacos.store.CheckResultStore;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestSecurityConfig.class)
+@Transactional
+class CheckResultRollupServiceTest {
+
+  private static final RetentionPolicy POLICY = new RetentionPolicy(14, 30, 60);
+
+  @Autowired private CheckResultRollupService checkResultRollupService;
+
+  @Autowired private CheckResultStore checkResultStore;
+
+  @Autowired private MonitorRepository monitorRepository;
+
+  @Autowired private TenantRepository tenantRepository;
+
+  private Integer tenantId;
+
+  private Monitor monitor;
+  private LocalDateTime now;
+
+  @BeforeEach
+  void setUp() {
+    // the default tenant of data.sql, created if another test removed it
+    Tenant tenant =
+        tenantRepository
+            .findById(1)
+            .orElseGet(
+                () ->
+                    tenantRepository.save(
+                        Tenant.builder()
+                            .name("Rollup Tenant")
+                            .code("rollup")
+                            .isActive(true)
+                            .build()));
+    tenantId = tenant.getId();
+    monitor =
+        monitorRepository.save(
+            Monitor.builder()
+                .name("Rollup Monitor")
+                .url("https://rollup-" + System.nanoTime() + ".example.com")
+                .tenantId(tenantId)
+                .tenant(tenant)
+                .build());
+    now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+  }
+
+  @Test
+  void compact_keepsTheAggregateOfRangesLeavingTheRawTier() {
+    // a day of checks every 15 minutes beyond the raw tier, an hour of checks within it
+    LocalDateTime oldDay = POLICY.rawCutoff(now).minusDays(3);
+    for (int i = 0; i < 96; i++) {
+      append(oldDay.plusMinutes(i * 15L), i % 10 != 0, 100 + i);
+    }
+    LocalDateTime recent = now.minusHours(2);
+    for (int i = 0; i < 60; i++) {
+      append(recent.plusMinutes(i), true, 50);
+    }
+    LocalDateTime from = now.minusDays(40);
+    CheckResultAggregate raw =
+        checkResultRollupService.getAggregate(tenantId, monitor.getId(), from, now);
+
+    assertThat(checkResultRollupService.compact(tenantId, POLICY, now)).isTrue();
+    checkResultStore.deleteBefore(tenantId, POLICY.rawCutoff(now));
+
+    CheckResultAggregate tiered =
+        checkResultRollupService.getAggregate(tenantId, monitor.getId(), from, now);
+    assertThat(tiered).isEqualTo(raw);
+    assertThat(tiered.count()).isEqualTo(156);
+    assertThat(tiered.successfulCount()).isEqualTo(146);
+
+    // compacting again writes nothing new
+    assertThat(checkResultRollupService.compact(tenantId, POLICY, now)).isTrue();
+    assertThat(checkResultRollupService.getAggregate(tenantId, monitor.getId(), from, now))
+        .isEqualTo(raw);
+
+    // once the minute tier is gone the hourly rollups still cover the day
+    checkResultRollupService.cleanupOldRollups(tenantId, POLICY, now.plusDays(20));
+    assertThat(
+            checkResultRollupService
+                .getAggregate(tenantId, monitor.getId(), oldDay, oldDay.plusDays(1))
+                .count())
+        .isEqualTo(96);
+  }
+
+  private void append(LocalDateTime checkedAt, boolean up, int responseTime) {
+    checkResultStore.append(
+        CheckResult.builder()
+            .monitor(monitor)
+            .tenantId(tenantId)
+            .checkedAt(checkedAt)
+            .isUp(up)
+            .statusCode(up ? 200 : 503)
+            .responseTimeMs(responseTime)
+            .build());
+  }
+}
@@ -0,0 +1,69 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.repository.CheckResultRepository;
+import de.oglimmer.status_tacos.repository.UptimeDailyAggregateRepository;
+import de.oglimmer.status_tacos.store.CheckResultStore;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class CheckResultServiceTest {
+
+  @Mock private CheckResultStore checkResultStore;
+  @Mock private CheckResultRepository checkResultRepository;
+  @Mock private ResponseTimeHistoryCache responseTimeHistoryCache;
+  @Mock private SloService sloService;
+  @Mock private UptimeDailyAggregateRepository uptimeDailyAggregateRepository;
+
+  @InjectMocks private CheckResultService checkResultService;
+
+  private final Monitor monitor = Monitor.builder().id(7).tenantId(1).build();
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(checkResultService, "settleSeconds", 30);
+    when(checkResultStore.append(any())).thenAnswer(invocation -> invocation.getArgument(0));
+  }
+
+  @Test
+  void saveCheckResult_lateCheckInvalidatesItsDay() {
+    LocalDateTime checkedAt = LocalDateTime.now().minusDays(3);
+
+    checkResultService.saveCheckResult(result(checkedAt));
+
+    verify(uptimeDailyAggregateRepository).deleteFromDay(7, 1, checkedAt.toLocalDate());
+  }
+
+  @Test
+  void saveCheckResult_liveCheckKeepsTheAggregates() {
+    checkResultService.saveCheckResult(result(LocalDateTime.now()));
+
+    verify(uptimeDailyAggregateRepository, never()).deleteFromDay(anyInt(), anyInt(), any());
+  }
+
+  private CheckResult result(LocalDateTime checkedAt) {
+    return CheckResult.builder()
+        .monitor(monitor)
+        .tenantId(1)
+        .checkedAt(checkedAt)
+        .statusCode(200)
+        .responseTimeMs(100)
+        .isUp(true)
+        .build();
+  }
+}
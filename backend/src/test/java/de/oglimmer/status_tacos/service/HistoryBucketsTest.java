@@ -0,0 +1,67 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.assertj.core.api.Assertions.tuple;
+
+import de.oglimmer.status_tacos.dto.MonitorHistoryPointDto;
+import de.oglimmer.status_tacos.store.CheckResultAggregate;
+import de.oglimmer.status_tacos.store.CheckSample;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HistoryBucketsTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+  @Test
+  void stepFor_picksTheSmallestStepThatFitsTheAlignedBuckets() {
+    assertThat(HistoryBuckets.stepFor(Duration.ofMinutes(30), 200))
+        .isEqualTo(Duration.ofMinutes(1));
+    assertThat(HistoryBuckets.stepFor(Duration.ofDays(1), 200)).isEqualTo(Duration.ofMinutes(10));
+    assertThat(HistoryBuckets.stepFor(Duration.ofDays(7), 200)).isEqualTo(Duration.ofHours(1));
+    assertThat(HistoryBuckets.stepFor(Duration.ofDays(90), 200)).isEqualTo(Duration.ofHours(12));
+    assertThat(HistoryBuckets.stepFor(Duration.ofDays(365), 100)).isEqualTo(Duration.ofDays(4));
+  }
+
+  @Test
+  void buckets_areAlignedAndNeverMoreThanRequested() {
+    LocalDateTime from = START.plusMinutes(7);
+    HistoryBuckets buckets = new HistoryBuckets(from, from.plusDays(7), 200);
+
+    assertThat(buckets.step()).isEqualTo(Duration.ofHours(1));
+    assertThat(buckets.size()).isLessThanOrEqualTo(200);
+
+    buckets.add(new CheckSample(from, true, 100));
+    assertThat(buckets.toPoints().get(0).getTimestamp()).isEqualTo(START);
+  }
+
+  @Test
+  void toPoints_aggregatesEachBucketAndSkipsEmptyOnes() {
+    HistoryBuckets buckets = new HistoryBuckets(START, START.plusHours(3), 4);
+    buckets.add(new CheckSample(START.plusMinutes(1), true, 100));
+    buckets.add(new CheckSample(START.plusMinutes(2), true, 300));
+    buckets.add(new CheckSample(START.plusMinutes(3), false, 5000));
+    buckets.add(
+        START.plusHours(2), new CheckResultAggregate(60, 60, 60, 60 * 200L, 150, 250), null);
+
+    List<MonitorHistoryPointDto> points = buckets.toPoints();
+
+    assertThat(points)
+        .extracting(
+            MonitorHistoryPointDto::getTimestamp,
+            MonitorHistoryPointDto::getTotalChecks,
+            MonitorHistoryPointDto::getMinResponseTimeMs,
+            MonitorHistoryPointDto::getMaxResponseTimeMs,
+            MonitorHistoryPointDto::getAverageResponseTimeMs)
+        .containsExactly(
+            tuple(START, 3L, 100, 300, 200.0), tuple(START.plusHours(2), 60L, 150, 250, 200.0));
+    assertThat(points.get(0).getUptimePercentage()).isCloseTo(66.7, offset(0.1));
+    assertThat(points.get(0).getP99ResponseTimeMs()).isBetween(297, 303);
+    // rollups keep no distribution
+    assertThat(points.get(1).getP50ResponseTimeMs()).isNull();
+  }
+}
@@ -0,0 +1,112 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import de.oglimmer.status_tacos.persistence.Incident;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.repository.IncidentRepository;
+import de.oglimmer.status_tacos.repository.MonitorRepository;
+import de.oglimmer.status_tacos.store.CheckResultAggregate;
+import de.oglimmer.status_tacos.store.CheckResultStore;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class IncidentServiceTest {
+
+  @Mock private IncidentRepository incidentRepository;
+  @Mock private MonitorRepository monitorRepository;
+  @Mock private CheckResultStore checkResultStore;
+
+  private final Monitor monitor = Monitor.builder().id(7).tenantId(1).build();
+  private final List<CheckResult> checks = new ArrayList<>();
+  private IncidentService incidentService;
+
+  @BeforeEach
+  void setUp() {
+    checks.add(check(LocalDateTime.now().minusHours(2), true));
+    checks.add(check(LocalDateTime.now().minusHours(1), false));
+    incidentService =
+        new IncidentService(
+            incidentRepository, monitorRepository, checkResultStore, Runnable::run, null, true, 90);
+    when(checkResultStore.scan(anyInt(), anyInt(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              LocalDateTime start = invocation.getArgument(2);
+              LocalDateTime end = invocation.getArgument(3);
+              return checks.stream()
+                  .filter(c -> !c.getCheckedAt().isBefore(start) && !c.getCheckedAt().isAfter(end))
+                  .toList();
+            });
+    when(checkResultStore.aggregate(anyInt(), anyInt(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              CheckResultAggregate aggregate = CheckResultAggregate.EMPTY;
+              for (CheckResult check :
+                  checkResultStore.scan(
+                      1, 7, invocation.getArgument(2), invocation.getArgument(3))) {
+                aggregate = aggregate.plus(check);
+              }
+              return aggregate;
+            });
+  }
+
+  @Test
+  void backfillIncidents_mergesIntoTheIncidentOfALiveCheck() {
+    Incident live =
+        Incident.builder()
+            .monitor(monitor)
+            .tenantId(1)
+            .startedAt(LocalDateTime.now().plusSeconds(1))
+            .checkCount(1)
+            .build();
+    // none when the backfill starts, the live check opens one while it runs
+    when(incidentRepository.findEarliestByMonitorId(7))
+        .thenReturn(Optional.empty(), Optional.of(live));
+
+    assertThat(incidentService.backfillIncidents(1, monitor)).isZero();
+
+    assertThat(live.getStartedAt()).isEqualTo(checks.get(1).getCheckedAt());
+    assertThat(live.getCheckCount()).isEqualTo(2);
+    assertThat(live.getEndedAt()).isNull();
+  }
+
+  @Test
+  void backfillIncidents_closesAtTheFirstSuccessfulLiveCheck() {
+    checks.add(check(LocalDateTime.now(), true));
+    when(incidentRepository.findEarliestByMonitorId(7)).thenReturn(Optional.empty());
+
+    assertThat(incidentService.backfillIncidents(1, monitor)).isEqualTo(1);
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Incident>> saved = ArgumentCaptor.forClass(List.class);
+    verify(incidentRepository).saveAll(saved.capture());
+    Incident incident = saved.getValue().getFirst();
+    assertThat(incident.getStartedAt()).isEqualTo(checks.get(1).getCheckedAt());
+    assertThat(incident.getEndedAt()).isEqualTo(checks.get(2).getCheckedAt());
+  }
+
+  private CheckResult check(LocalDateTime checkedAt, boolean up) {
+    return CheckResult.builder()
+        .monitor(monitor)
+        .tenantId(1)
+        .checkedAt(checkedAt)
+        .isUp(up)
+        .responseTimeMs(100)
+        .build();
+  }
+}
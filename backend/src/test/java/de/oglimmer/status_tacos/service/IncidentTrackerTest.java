@@ -0,0 +1,70 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import de.oglimmer.status_tacos.persistence.Incident;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+class IncidentTrackerTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+  private final IncidentTracker tracker = new IncidentTracker(1, Monitor.builder().id(7).build());
+
+  @Test
+  void failedChecks_openAnIncidentThatTheNextSuccessfulCheckCloses() {
+    tracker.accept(check(0, true, 200, null));
+    tracker.accept(check(60, false, 503, "Service Unavailable"));
+    tracker.accept(check(120, false, 500, "Internal Server Error"));
+    tracker.accept(check(180, true, 200, null));
+    tracker.accept(check(240, false, null, "Connection refused"));
+
+    assertThat(tracker.incidents()).hasSize(2);
+    Incident first = tracker.incidents().get(0);
+    assertThat(first.getStartedAt()).isEqualTo(START.plusSeconds(60));
+    assertThat(first.getEndedAt()).isEqualTo(START.plusSeconds(180));
+    assertThat(first.getFirstStatusCode()).isEqualTo(503);
+    assertThat(first.getFirstErrorMessage()).isEqualTo("Service Unavailable");
+    assertThat(first.getCheckCount()).isEqualTo(2);
+    assertThat(tracker.open()).isSameAs(tracker.incidents().get(1));
+    assertThat(tracker.open().getEndedAt()).isNull();
+  }
+
+  @Test
+  void runs_extendAndCloseIncidents() {
+    tracker.accept(check(0, false, 503, "Service Unavailable"));
+    tracker.accept(run(15, 300, false, 503, 20));
+    tracker.accept(check(315, true, 200, null));
+    tracker.accept(run(330, 900, true, 200, 39));
+
+    assertThat(tracker.incidents()).hasSize(1);
+    assertThat(tracker.incidents().get(0).getCheckCount()).isEqualTo(21);
+    assertThat(tracker.incidents().get(0).getEndedAt()).isEqualTo(START.plusSeconds(315));
+    assertThat(tracker.open()).isNull();
+  }
+
+  private static CheckResult check(long seconds, boolean up, Integer statusCode, String error) {
+    return CheckResult.builder()
+        .checkedAt(START.plusSeconds(seconds))
+        .isUp(up)
+        .statusCode(statusCode)
+        .errorMessage(error)
+        .build();
+  }
+
+  private static CheckResultRun run(
+      long startSeconds, long endSeconds, boolean up, Integer statusCode, int checkCount) {
+    return CheckResultRun.builder()
+        .runStart(START.plusSeconds(startSeconds))
+        .runEnd(START.plusSeconds(endSeconds))
+        .isUp(up)
+        .statusCode(statusCode)
+        .checkCount(checkCount)
+        .build();
+  }
+}
@@ -2,16 +2,20 @@
 package de.oglimmer.status_tacos.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.lenient;
 
 import de.oglimmer.status_tacos.persistence.*;
+import de.oglimmer.status_tacos.store.CheckResultSpool;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,6 +23,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationContext;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +42,8 @@ class MonitorExecutionServiceTest {
 
   @Mock private AlertService alertService;
 
+  @Mock private CheckResultSpool checkResultSpool;
+
   @Mock private Executor taskExecutor;
 
   @Mock private ApplicationContext applicationContext;
@@ -401,6 +409,72 @@ class MonitorExecutionServiceTest {
     verify(monitorStatusService).updateMonitorStatus(eq(TEST_TENANT_ID), any(), any());
   }
 
+  @Test
+  void replaySpooledCheckResults_stopsOnTransientFailures() {
+    LocalDateTime checkedAt = LocalDateTime.of(2025, 3, 1, 12, 0);
+    stubSpool(spooled(checkedAt), spooled(checkedAt.plusMinutes(1)));
+    when(monitorService.getMonitorById(TEST_TENANT_ID, 1)).thenReturn(testMonitor);
+    when(checkResultService.saveCheckResult(any(CheckResult.class)))
+        .thenReturn(testCheckResult)
+        .thenThrow(new DataAccessResourceFailureException("database down"));
+
+    assertThatThrownBy(() -> monitorExecutionService.replaySpooledCheckResults(10))
+        .isInstanceOf(DataAccessResourceFailureException.class);
+
+    verify(monitorStatusService).updateMonitorStatus(eq(TEST_TENANT_ID), eq(testMonitor), any());
+  }
+
+  @Test
+  void replaySpooledCheckResults_skipsPoisonResults() {
+    LocalDateTime checkedAt = LocalDateTime.of(2025, 3, 1, 12, 0);
+    stubSpool(spooled(checkedAt), spooled(checkedAt.plusMinutes(1)));
+    when(monitorService.getMonitorById(TEST_TENANT_ID, 1)).thenReturn(testMonitor);
+    when(checkResultService.saveCheckResult(any(CheckResult.class)))
+        .thenThrow(new DataIntegrityViolationException("duplicate"))
+        .thenReturn(testCheckResult);
+
+    assertThat(monitorExecutionService.replaySpooledCheckResults(10)).isEqualTo(2);
+
+    verify(monitorStatusService).updateMonitorStatus(eq(TEST_TENANT_ID), eq(testMonitor), any());
+  }
+
+  // replays the given results like the spool does: transient failures stop the replay
+  @SuppressWarnings("unchecked")
+  private void stubSpool(CheckResultSpool.SpooledCheckResult... results) {
+    when(checkResultSpool.isActive()).thenReturn(true);
+    when(checkResultSpool.replay(anyInt(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              Consumer<CheckResultSpool.SpooledCheckResult> handler = invocation.getArgument(1);
+              Predicate<RuntimeException> isTransient = invocation.getArgument(2);
+              int taken = 0;
+              for (CheckResultSpool.SpooledCheckResult result : results) {
+                try {
+                  handler.accept(result);
+                } catch (RuntimeException e) {
+                  if (isTransient.test(e)) {
+                    throw e;
+                  }
+                }
+                taken++;
+              }
+              return taken;
+            });
+  }
+
+  private CheckResultSpool.SpooledCheckResult spooled(LocalDateTime checkedAt) {
+    return new CheckResultSpool.SpooledCheckResult(
+        TEST_TENANT_ID,
+        1,
+        CheckResult.builder()
+            .tenantId(TEST_TENANT_ID)
+            .checkedAt(checkedAt)
+            .statusCode(200)
+            .responseTimeMs(150)
+            .isUp(true)
+            .build());
+  }
+
   @Test
   void getActiveMonitorCount_shouldReturnCountFromMonitorService() {
     when(tenantService.getAllActiveTenants()).thenReturn(List.of(testTenant));
@@ -0,0 +1,99 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.oglimmer.status_tacos.dto.MonitorHistoryPointDto;
+import de.oglimmer.status_tacos.dto.MonitorHistoryResponseDto;
+import de.oglimmer.status_tacos.persistence.CheckResultRollup;
+import de.oglimmer.status_tacos.persistence.CheckResultRollup.Resolution;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.repository.CheckResultRollupRepository;
+import de.oglimmer.status_tacos.store.CheckSample;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class MonitorHistoryServiceTest {
+
+  private static final LocalDateTime TO = LocalDateTime.of(2026, 3, 1, 0, 0);
+  private static final Monitor MONITOR =
+      Monitor.builder().id(7).tenantId(1).name("Monitor").build();
+
+  private final CheckResultService checkResultService = mock(CheckResultService.class);
+  private final CheckResultRollupRepository checkResultRollupRepository =
+      mock(CheckResultRollupRepository.class);
+  private final UptimeDailyAggregateService uptimeDailyAggregateService =
+      mock(UptimeDailyAggregateService.class);
+  private final MonitorHistoryService service =
+      new MonitorHistoryService(
+          checkResultService,
+          checkResultRollupRepository,
+          uptimeDailyAggregateService,
+          mock(IncidentService.class));
+
+  @Test
+  void getHistory_bucketsHoursFromTheDailyAggregatesWithoutScanningChecks() {
+    LocalDateTime from = TO.minusDays(30);
+    List<UptimeDay> days = new ArrayList<>();
+    for (LocalDate date = from.toLocalDate();
+        date.isBefore(TO.toLocalDate());
+        date = date.plusDays(1)) {
+      UptimeDay day = new UptimeDay(date);
+      for (int hour = 0; hour < UptimeDay.HOURS; hour++) {
+        day.accept(new CheckSample(date.atTime(hour, 30), true, 100));
+      }
+      days.add(day);
+    }
+    when(uptimeDailyAggregateService.getDays(1, 7, from.toLocalDate(), TO.toLocalDate()))
+        .thenReturn(days);
+
+    MonitorHistoryResponseDto history =
+        service.getHistory(1, MONITOR, from, TO, 200, MonitorHistoryService.Downsampling.NONE);
+
+    assertThat(history.getBucketSeconds()).isEqualTo(6 * 3600);
+    assertThat(history.getSources()).containsExactly("DAILY_AGGREGATES");
+    assertThat(history.getPoints()).hasSize(30 * 4);
+    assertThat(history.getPoints()).allMatch(point -> point.getTotalChecks() == 6);
+    verify(checkResultService, never()).forEachSample(anyInt(), anyInt(), any(), any(), any());
+  }
+
+  @Test
+  void getHistory_readsTheHourlyRollupsBeforeTheOldestDailyAggregate() {
+    LocalDateTime from = TO.minusDays(730);
+    UptimeDay oldest = new UptimeDay(TO.toLocalDate().minusDays(300));
+    oldest.accept(new CheckSample(TO.minusDays(300), true, 100));
+    when(uptimeDailyAggregateService.getDays(1, 7, from.toLocalDate(), TO.toLocalDate()))
+        .thenReturn(List.of(oldest));
+    when(checkResultRollupRepository.findLastBucketStart(7, Resolution.HOUR))
+        .thenReturn(TO.minusDays(100));
+    LocalDateTime rolledUp = TO.minusDays(500);
+    when(checkResultRollupRepository.findByBucketStartBetween(
+            eq(7), eq(1), eq(Resolution.HOUR), eq(from), any()))
+        .thenReturn(
+            List.of(
+                CheckResultRollup.builder()
+                    .bucketStart(rolledUp)
+                    .checkCount(60)
+                    .successfulChecks(60)
+                    .build()));
+
+    MonitorHistoryResponseDto history =
+        service.getHistory(1, MONITOR, from, TO, 200, MonitorHistoryService.Downsampling.NONE);
+
+    assertThat(history.getSources()).containsExactly("HOURLY_ROLLUPS", "DAILY_AGGREGATES");
+    assertThat(history.getPoints())
+        .extracting(MonitorHistoryPointDto::getTotalChecks)
+        .containsExactly(60L, 1L);
+    verify(checkResultService, never()).forEachSample(anyInt(), anyInt(), any(), any(), any());
+  }
+}
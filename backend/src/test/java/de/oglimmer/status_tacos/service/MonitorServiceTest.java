@@ -28,6 +28,12 @@ import org.springframework.data.domain.Pageable;
 class MonitorServiceTest {
 
   @Mock private MonitorRepository monitorRepository;
+  @Mock private ResponseTimeHistoryCache responseTimeHistoryCache;
+  @Mock private SloService sloService;
+  @Mock private MonitorStatusStreamService monitorStatusStreamService;
+  @Mock private DashboardSnapshotService dashboardSnapshotService;
+  @Mock private TenantDataVersions tenantDataVersions;
+  @Mock private PublicStatusPageService publicStatusPageService;
 
   @InjectMocks private MonitorService monitorService;
 
@@ -132,7 +138,7 @@ class MonitorServiceTest {
     Pageable pageable = PageRequest.of(0, 10);
     Page<Monitor> monitorPage = new PageImpl<>(List.of(testMonitor), pageable, 1);
 
-    when(monitorRepository.findAll(pageable)).thenReturn(monitorPage);
+    when(monitorRepository.findByTenantId(TEST_TENANT_ID, pageable)).thenReturn(monitorPage);
 
     Page<Monitor> result = monitorService.getAllMonitors(TEST_TENANT_ID, pageable);
 
@@ -140,7 +146,7 @@ class MonitorServiceTest {
     assertThat(result.getTotalElements()).isEqualTo(1);
     assertThat(result.getContent().get(0).getId()).isEqualTo(testMonitor.getId());
 
-    verify(monitorRepository).findAll(pageable);
+    verify(monitorRepository).findByTenantId(TEST_TENANT_ID, pageable);
   }
 
   @Test
@@ -0,0 +1,120 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.oglimmer.status_tacos.dto.MonitorStatusResponseDto;
+import de.oglimmer.status_tacos.mapper.EntityMapper;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.persistence.MonitorStatus;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class MonitorStatusStreamServiceTest {
+
+  private final Monitor monitor = Monitor.builder().id(7).tenantId(1).name("api").build();
+  private final RecordingEmitter emitter = new RecordingEmitter();
+
+  @Test
+  void subscribe_sendsTheDeltasPublishedMeanwhileAfterTheSnapshot() {
+    MonitorStatusStreamService service = service(Runnable::run, 16);
+
+    service.subscribe(
+        Set.of(1),
+        () -> {
+          service.publishStatus(1, monitor, status(MonitorStatus.StatusType.down, 120));
+          return List.<MonitorStatusResponseDto>of();
+        });
+
+    assertThat(emitter.events).containsExactly("snapshot", "status");
+  }
+
+  @Test
+  void publishStatus_skipsChangesWithinTheLatencyBucket() {
+    MonitorStatusStreamService service = service(Runnable::run, 16);
+    service.subscribe(Set.of(1), List::of);
+
+    service.publishStatus(1, monitor, status(MonitorStatus.StatusType.up, 120));
+    service.publishStatus(1, monitor, status(MonitorStatus.StatusType.up, 180));
+    service.publishStatus(1, monitor, status(MonitorStatus.StatusType.up, 300));
+    service.publishStatus(1, monitor, status(MonitorStatus.StatusType.down, 300));
+    service.publishStatus(
+        2, Monitor.builder().id(8).tenantId(2).build(), status(MonitorStatus.StatusType.up, 300));
+
+    assertThat(emitter.events).containsExactly("snapshot", "status", "status", "status");
+  }
+
+  @Test
+  void publishStatus_unsubscribesWhenTheClientIsGone() {
+    MonitorStatusStreamService service = service(Runnable::run, 16);
+    service.subscribe(Set.of(1), List::of);
+    emitter.failing = true;
+
+    service.publishStatus(1, monitor, status(MonitorStatus.StatusType.down, 120));
+
+    assertThat(service.getSubscriberCount()).isZero();
+  }
+
+  @Test
+  void publishStatus_disconnectsASubscriberThatFallsBehind() {
+    List<Runnable> writes = new ArrayList<>();
+    MonitorStatusStreamService service = service(writes::add, 3);
+    service.subscribe(Set.of(1), List::of);
+
+    // the writer is stuck on the snapshot, the fan-out goes on
+    service.publishStatus(1, monitor, status(MonitorStatus.StatusType.down, 50));
+    service.publishStatus(1, monitor, status(MonitorStatus.StatusType.up, 50));
+    assertThat(service.getSubscriberCount()).isOne();
+    service.publishStatus(1, monitor, status(MonitorStatus.StatusType.down, 50));
+
+    assertThat(service.getSubscriberCount()).isZero();
+    writes.forEach(Runnable::run);
+    assertThat(emitter.events).isEmpty();
+  }
+
+  private MonitorStatusStreamService service(Executor writerExecutor, int queueCapacity) {
+    return new MonitorStatusStreamService(
+        new ObjectMapper().findAndRegisterModules(),
+        mock(EntityMapper.class),
+        Runnable::run,
+        writerExecutor,
+        60_000,
+        queueCapacity) {
+      @Override
+      SseEmitter createEmitter(long timeoutMillis) {
+        return emitter;
+      }
+    };
+  }
+
+  private static MonitorStatus status(MonitorStatus.StatusType type, int responseTimeMs) {
+    return MonitorStatus.builder().currentStatus(type).lastResponseTimeMs(responseTimeMs).build();
+  }
+
+  /** Records the names of the events sent, without a client. */
+  private static final class RecordingEmitter extends SseEmitter {
+
+    private final List<String> events = new ArrayList<>();
+    private boolean failing;
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      if (failing) {
+        throw new IOException("Broken pipe");
+      }
+      String event =
+          builder.build().stream()
+              .map(part -> String.valueOf(part.getData()))
+              .collect(Collectors.joining());
+      events.add(event.substring(event.indexOf(':') + 1, event.indexOf('\n')));
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.persistence.MonitorStatus;
+import de.oglimmer.status_tacos.persistence.Tenant;
+import de.oglimmer.status_tacos.repository.MonitorStatusRepository;
+import de.oglimmer.status_tacos.repository.TenantRepository;
+import de.oglimmer.status_tacos.repository.UptimeStatsRepository;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class PublicStatusPageServiceTest {
+
+  @Mock private TenantRepository tenantRepository;
+  @Mock private MonitorStatusRepository monitorStatusRepository;
+  @Mock private UptimeStatsRepository uptimeStatsRepository;
+
+  private final Tenant tenant =
+      Tenant.builder().id(1).name("Acme").code("acme").publicStatusPage(true).build();
+  private final MonitorStatus status =
+      MonitorStatus.builder()
+          .monitorId(7)
+          .monitor(Monitor.builder().id(7).tenantId(1).name("api").build())
+          .currentStatus(MonitorStatus.StatusType.up)
+          .build();
+  private PublicStatusPageService service;
+
+  @BeforeEach
+  void setUp() {
+    service =
+        new PublicStatusPageService(
+            tenantRepository,
+            monitorStatusRepository,
+            uptimeStatsRepository,
+            new ObjectMapper().findAndRegisterModules(),
+            null,
+            true,
+            60_000,
+            100);
+    // the transactional proxy calls into the service itself
+    ReflectionTestUtils.setField(service, "self", service);
+    when(tenantRepository.findByCode("acme")).thenReturn(Optional.of(tenant));
+  }
+
+  @Test
+  void getPage_servesTheCachedPageUntilTheTenantChanges() {
+    when(monitorStatusRepository.findAllActiveMonitorStatusesByTenantId(1))
+        .thenReturn(List.of(status));
+    PublicStatusPageService.Page page = service.getPage("acme").orElseThrow();
+
+    status.setCurrentStatus(MonitorStatus.StatusType.down);
+    assertThat(service.getPage("acme")).containsSame(page);
+
+    service.invalidate(1);
+    PublicStatusPageService.Page rebuilt = service.getPage("acme").orElseThrow();
+
+    assertThat(rebuilt.etag()).isNotEqualTo(page.etag());
+    assertThat(new String(rebuilt.body())).contains("\"status\":\"down\"");
+    verify(tenantRepository, times(2)).findByCode("acme");
+  }
+
+  @Test
+  void getPage_keepsTheETagOfAnUnchangedRebuild() {
+    when(monitorStatusRepository.findAllActiveMonitorStatusesByTenantId(1))
+        .thenReturn(List.of(status));
+    PublicStatusPageService.Page page = service.getPage("acme").orElseThrow();
+
+    service.invalidate(tenant);
+    PublicStatusPageService.Page rebuilt = service.getPage("acme").orElseThrow();
+
+    assertThat(rebuilt).isNotSameAs(page);
+    assertThat(rebuilt.etag()).isEqualTo(page.etag()).startsWith("W/\"");
+  }
+
+  @Test
+  void getPage_remembersTenantsThatPublishNone() {
+    tenant.setPublicStatusPage(false);
+
+    assertThat(service.getPage("acme")).isEmpty();
+    assertThat(service.getPage("acme")).isEmpty();
+    verify(tenantRepository, times(1)).findByCode("acme");
+
+    tenant.setPublicStatusPage(true);
+    service.invalidate(tenant);
+
+    assertThat(service.getPage("acme")).isPresent();
+  }
+
+  @Test
+  void getPage_hidesInactiveTenants() {
+    tenant.setIsActive(false);
+
+    assertThat(service.getPage("acme")).isEmpty();
+  }
+}
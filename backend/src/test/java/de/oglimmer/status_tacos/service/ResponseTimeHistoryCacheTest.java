@@ -0,0 +1,53 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.repository.MonitorRepository;
+import de.oglimmer.status_tacos.store.CheckResultStore;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ResponseTimeHistoryCacheTest {
+
+  private final CheckResultStore checkResultStore = mock(CheckResultStore.class);
+  private final MonitorRepository monitorRepository = mock(MonitorRepository.class);
+
+  @BeforeEach
+  void setUp() {
+    when(monitorRepository.findByIdAndTenantId(7, 1))
+        .thenReturn(Optional.of(Monitor.builder().id(7).tenantId(1).name("Monitor").build()));
+  }
+
+  @Test
+  void getResponseTimeHistory24h_servesTheRingWhereChecksAreRecorded() {
+    ResponseTimeHistoryCache cache = newCache(true, 0);
+
+    cache.getResponseTimeHistory24h(1, 7);
+    cache.getResponseTimeHistory24h(1, 7);
+
+    verify(checkResultStore, times(1)).forEachSample(eq(1), eq(7), any(), any(), any());
+  }
+
+  @Test
+  void getResponseTimeHistory24h_hydratesOutdatedRingsWhereNoChecksAreRecorded() {
+    ResponseTimeHistoryCache cache = newCache(false, 0);
+
+    cache.getResponseTimeHistory24h(1, 7);
+    cache.getResponseTimeHistory24h(1, 7);
+
+    verify(checkResultStore, times(2)).forEachSample(eq(1), eq(7), any(), any(), any());
+  }
+
+  private ResponseTimeHistoryCache newCache(boolean recordedLocally, long maxAgeMillis) {
+    return new ResponseTimeHistoryCache(
+        checkResultStore, monitorRepository, Runnable::run, recordedLocally, maxAgeMillis);
+  }
+}
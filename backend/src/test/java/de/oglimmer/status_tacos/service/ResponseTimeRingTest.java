@@ -0,0 +1,102 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.oglimmer.status_tacos.dto.ResponseTimeDataPointDto;
+import de.oglimmer.status_tacos.dto.ResponseTimeHistoryResponseDto;
+import de.oglimmer.status_tacos.dto.StatusDownPeriodsDto;
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+class ResponseTimeRingTest {
+
+  // a bucket boundary, 2025-03-01T00:00 is a multiple of 3 minutes since the epoch
+  private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+  @Test
+  void add_keepsMaxAndCountsPerBucketAndDropsBucketsLeavingTheWindow() {
+    ResponseTimeRing ring = new ResponseTimeRing(1, "api", false);
+    ring.add(START.plusSeconds(10), true, 120);
+    ring.add(START.plusSeconds(70), false, 300);
+    ring.add(START.plusMinutes(4), true, 90);
+    ring.add(START.plusHours(24), true, 50);
+
+    ResponseTimeHistoryResponseDto history = ring.toDto(7, START.plusHours(24));
+
+    // the bucket at START left the window, the one at START + 3 minutes is its first bucket
+    assertThat(history.getDataPoints())
+        .extracting(ResponseTimeDataPointDto::getMaxResponseTimeMs)
+        .containsExactly(90, 50);
+    assertThat(history.getDataPoints().get(0).getTimestamp()).isEqualTo(START.plusMinutes(3));
+    assertThat(history.getTotalChecks24h()).isEqualTo(2);
+    assertThat(history.getMonitorName()).isEqualTo("api");
+
+    ResponseTimeHistoryResponseDto earlier = ring.toDto(7, START.plusMinutes(5));
+    // the slot of START was reused, a check that old no longer counts
+    ring.add(START.plusSeconds(20), true, 999);
+    assertThat(earlier.getDataPoints())
+        .extracting(ResponseTimeDataPointDto::getMaxResponseTimeMs)
+        .containsExactly(90);
+  }
+
+  @Test
+  void runs_countInTheirStartBucketAndSpreadTheirMax() {
+    ResponseTimeRing ring = new ResponseTimeRing(1, "api", false);
+    ring.add(
+        CheckResultRun.builder()
+            .runStart(START.plusMinutes(1))
+            .runEnd(START.plusMinutes(7))
+            .checkCount(7)
+            .isUp(true)
+            .maxResponseTimeMs(200)
+            .build());
+
+    ResponseTimeHistoryResponseDto history = ring.toDto(7, START.plusMinutes(8));
+
+    assertThat(history.getDataPoints())
+        .extracting(ResponseTimeDataPointDto::getTimestamp)
+        .containsExactly(START, START.plusMinutes(3), START.plusMinutes(6));
+    assertThat(history.getTotalChecks24h()).isEqualTo(7);
+    assertThat(history.getUptimePercentage24h()).isEqualTo(100.0);
+  }
+
+  @Test
+  void hydration_appliesOnlyChecksAfterTheLoadedRange() {
+    ResponseTimeRing ring = new ResponseTimeRing(1, "api", true);
+    ring.record(START.plusSeconds(30), true, 100);
+    ring.record(START.plusMinutes(2), true, 400);
+    assertThat(ring.isHydrated()).isFalse();
+
+    // the load saw the check at START + 30s already
+    ring.add(START.plusSeconds(30), true, 100);
+    ring.finishHydration(START.plusMinutes(1));
+
+    ResponseTimeHistoryResponseDto history = ring.toDto(7, START.plusMinutes(2));
+    assertThat(ring.isHydrated()).isTrue();
+    assertThat(history.getTotalChecks24h()).isEqualTo(2);
+    assertThat(history.getDataPoints())
+        .extracting(ResponseTimeDataPointDto::getMaxResponseTimeMs)
+        .containsExactly(400);
+  }
+
+  @Test
+  void downPeriods_areClosedByAnUpCheckAndOpenOnesEndNow() {
+    ResponseTimeRing ring = new ResponseTimeRing(1, "api", false);
+    ring.add(START, false, null);
+    ring.add(START.plusMinutes(1), false, null);
+    ring.add(START.plusMinutes(2), true, 80);
+    ring.add(START.plusMinutes(10), false, null);
+
+    LocalDateTime now = START.plusMinutes(12);
+    ResponseTimeHistoryResponseDto history = ring.toDto(7, now);
+
+    assertThat(history.getStatusDownPeriods())
+        .containsExactly(
+            StatusDownPeriodsDto.builder().start(START).end(START.plusMinutes(2)).build(),
+            StatusDownPeriodsDto.builder().start(START.plusMinutes(10)).end(now).build());
+    assertThat(history.getSuccessfulChecks24h()).isEqualTo(1);
+    assertThat(history.getTotalChecks24h()).isEqualTo(4);
+  }
+}
@@ -0,0 +1,88 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import de.oglimmer.status_tacos.persistence.CheckResultRollup;
+import de.oglimmer.status_tacos.persistence.CheckResultRollup.Resolution;
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.store.CheckSample;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RollupDayTest {
+
+  private static final LocalDate DAY = LocalDate.of(2025, 3, 1);
+  private static final LocalDateTime START = DAY.atStartOfDay();
+
+  @Test
+  void toRollups_foldsChecksIntoMinutesAndHours() {
+    RollupDay rollupDay = new RollupDay(DAY);
+    rollupDay.accept(new CheckSample(START.plusSeconds(10), true, 100));
+    rollupDay.accept(new CheckSample(START.plusSeconds(40), false, 900));
+    rollupDay.accept(new CheckSample(START.plusMinutes(5), true, 300));
+    rollupDay.accept(
+        CheckResultRun.builder()
+            .runStart(START.plusMinutes(5).plusSeconds(15))
+            .runEnd(START.plusMinutes(20))
+            .checkCount(60)
+            .isUp(true)
+            .responseTimeCount(60)
+            .responseTimeSumMs(60 * 200L)
+            .minResponseTimeMs(50)
+            .maxResponseTimeMs(400)
+            .build());
+    rollupDay.accept(new CheckSample(START.plusHours(2), false, null));
+    // not on this day
+    rollupDay.accept(new CheckSample(START.plusDays(1), true, 100));
+
+    List<CheckResultRollup> rollups = rollupDay.toRollups(1, Monitor.builder().id(7).build(), true);
+
+    assertThat(rollups)
+        .extracting(CheckResultRollup::getResolution, CheckResultRollup::getBucketStart)
+        .containsExactly(
+            tuple(Resolution.MINUTE, START),
+            tuple(Resolution.HOUR, START),
+            tuple(Resolution.MINUTE, START.plusMinutes(5)),
+            tuple(Resolution.MINUTE, START.plusHours(2)),
+            tuple(Resolution.HOUR, START.plusHours(2)));
+
+    CheckResultRollup firstMinute = rollups.get(0);
+    assertThat(firstMinute.getCheckCount()).isEqualTo(2);
+    assertThat(firstMinute.getSuccessfulChecks()).isEqualTo(1);
+    // response times only of successful checks
+    assertThat(firstMinute.getMaxResponseTimeMs()).isEqualTo(100);
+
+    CheckResultRollup firstHour = rollups.get(1);
+    assertThat(firstHour.getCheckCount()).isEqualTo(63);
+    assertThat(firstHour.getSuccessfulChecks()).isEqualTo(62);
+    assertThat(firstHour.getResponseTimeCount()).isEqualTo(62);
+    assertThat(firstHour.getResponseTimeSumMs()).isEqualTo(100 + 300 + 60 * 200L);
+    assertThat(firstHour.getMinResponseTimeMs()).isEqualTo(50);
+    assertThat(firstHour.getMaxResponseTimeMs()).isEqualTo(400);
+
+    CheckResultRollup downHour = rollups.get(4);
+    assertThat(downHour.getSuccessfulChecks()).isZero();
+    assertThat(downHour.getMinResponseTimeMs()).isNull();
+  }
+
+  @Test
+  void toRollups_withoutMinutesOnlyWritesHours() {
+    RollupDay rollupDay = new RollupDay(DAY);
+    rollupDay.accept(new CheckSample(START.plusMinutes(1), true, 100));
+    rollupDay.accept(new CheckSample(START.plusMinutes(2), true, 120));
+
+    assertThat(rollupDay.toRollups(1, Monitor.builder().id(7).build(), false))
+        .singleElement()
+        .satisfies(
+            hour -> {
+              assertThat(hour.getResolution()).isEqualTo(Resolution.HOUR);
+              assertThat(hour.getCheckCount()).isEqualTo(2);
+              assertThat(hour.getResponseTimeSumMs()).isEqualTo(220);
+            });
+  }
+}
@@ -0,0 +1,86 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import de.oglimmer.status_tacos.dto.BurnAlert;
+import de.oglimmer.status_tacos.persistence.CheckResultRun;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+class SloBucketsTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+  @Test
+  void windows_sumOnlyTheBucketsTheySpan() {
+    SloBuckets buckets = new SloBuckets(1, false);
+    buckets.add(START.plusSeconds(10), true);
+    buckets.add(START.plusMinutes(30), false);
+    buckets.add(START.plusHours(5), true);
+    buckets.add(START.plusHours(5).plusMinutes(58), false);
+    buckets.add(START.plusHours(5).plusMinutes(59), false);
+
+    LocalDateTime now = START.plusHours(5).plusMinutes(59).plusSeconds(30);
+    assertThat(buckets.lastMinutes(5, now)).isEqualTo(new SloBuckets.Counts(0, 2));
+    assertThat(buckets.lastMinutes(60, now)).isEqualTo(new SloBuckets.Counts(1, 2));
+    assertThat(buckets.lastMinutes(360, now)).isEqualTo(new SloBuckets.Counts(2, 3));
+
+    // the window of one day ends with the hour of now, the first hour left it a day later
+    assertThat(buckets.window(now)).isEqualTo(new SloBuckets.Counts(2, 3));
+    assertThat(buckets.window(START.plusHours(24))).isEqualTo(new SloBuckets.Counts(1, 2));
+  }
+
+  @Test
+  void burnRates_alertWhenTheLongAndTheShortWindowBurn() {
+    SloBuckets buckets = new SloBuckets(28, false);
+    // an hour of checks every 15s, the last 3 minutes down
+    for (int i = 0; i < 240; i++) {
+      buckets.add(START.plusSeconds(i * 15L), i < 228);
+    }
+    LocalDateTime now = START.plusMinutes(59).plusSeconds(45);
+
+    // 99.9%: 5% errors in the last hour burn 50 times the budget
+    SloBuckets.BurnRates burnRates = buckets.burnRates(0.001, now);
+    assertThat(burnRates.last1h()).isCloseTo(50.0, within(0.001));
+    assertThat(burnRates.last5m()).isCloseTo(600.0, within(0.001));
+    assertThat(burnRates.alert()).isEqualTo(BurnAlert.FAST);
+
+    // 99%: the 1h burn rate of 5 is below both alerts
+    assertThat(buckets.burnRates(0.01, now).alert()).isEqualTo(BurnAlert.NONE);
+    assertThat(new SloBuckets.BurnRates(1.0, 7.0, 6.5).alert()).isEqualTo(BurnAlert.SLOW);
+  }
+
+  @Test
+  void checkpoint_restoresCountersAndAddsOnlyTheRestOfARun() {
+    SloBuckets buckets = new SloBuckets(28, false);
+    buckets.add(START, false);
+    // a run of 5 up checks at START + 1..5 minutes, counted up to START + 3 minutes
+    for (int i = 1; i <= 3; i++) {
+      buckets.add(START.plusMinutes(i), true);
+    }
+    assertThat(buckets.clearDirty()).isTrue();
+    byte[] payload = buckets.encode();
+
+    // restored into a shorter window, which keeps the buckets that still fit
+    SloBuckets restored = new SloBuckets(7, true);
+    restored.restore(payload);
+    assertThat(restored.lastCheckedAt()).isEqualTo(START.plusMinutes(3));
+    restored.add(
+        CheckResultRun.builder()
+            .runStart(START.plusMinutes(1))
+            .runEnd(START.plusMinutes(5))
+            .checkCount(5)
+            .isUp(true)
+            .build(),
+        restored.lastCheckedAt());
+    restored.record(START.plusMinutes(5), true);
+    restored.record(START.plusMinutes(6), false);
+    restored.finishHydration(START.plusMinutes(5));
+
+    LocalDateTime now = START.plusMinutes(6);
+    assertThat(restored.window(now)).isEqualTo(new SloBuckets.Counts(5, 2));
+    assertThat(restored.lastMinutes(3, now)).isEqualTo(new SloBuckets.Counts(2, 1));
+  }
+}
@@ -0,0 +1,75 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.persistence.Slo;
+import de.oglimmer.status_tacos.repository.MonitorRepository;
+import de.oglimmer.status_tacos.repository.SloCheckpointRepository;
+import de.oglimmer.status_tacos.repository.SloRepository;
+import de.oglimmer.status_tacos.store.CheckResultStore;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SloServiceTest {
+
+  private final SloRepository sloRepository = mock(SloRepository.class);
+  private final SloCheckpointRepository sloCheckpointRepository =
+      mock(SloCheckpointRepository.class);
+  private final CheckResultStore checkResultStore = mock(CheckResultStore.class);
+
+  @BeforeEach
+  void setUp() {
+    Slo slo =
+        Slo.builder()
+            .id(3)
+            .monitor(Monitor.builder().id(7).tenantId(1).name("Monitor").build())
+            .tenantId(1)
+            .name("Availability")
+            .targetPercentage(99.9)
+            .windowDays(30)
+            .build();
+    when(sloRepository.findByIdAndTenantIdIn(3, Set.of(1))).thenReturn(Optional.of(slo));
+    when(sloCheckpointRepository.findById(3)).thenReturn(Optional.empty());
+  }
+
+  @Test
+  void getSlo_keepsTheCountersWhereChecksAreRecorded() {
+    SloService service = newService(true, 0);
+
+    service.getSlo(Set.of(1), 3);
+    service.getSlo(Set.of(1), 3);
+
+    verify(checkResultStore, times(1)).forEachSample(eq(1), eq(7), any(), any(), any());
+  }
+
+  @Test
+  void getSlo_hydratesOutdatedCountersWhereNoChecksAreRecorded() {
+    SloService service = newService(false, 0);
+
+    service.getSlo(Set.of(1), 3);
+    service.getSlo(Set.of(1), 3);
+
+    verify(checkResultStore, times(2)).forEachSample(eq(1), eq(7), any(), any(), any());
+  }
+
+  private SloService newService(boolean recordedLocally, long maxAgeMillis) {
+    return new SloService(
+        sloRepository,
+        sloCheckpointRepository,
+        mock(MonitorRepository.class),
+        checkResultStore,
+        Runnable::run,
+        recordedLocally,
+        15,
+        maxAgeMillis);
+  }
+}
@@ -0,0 +1,227 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.persistence.StatsBackfillChunk;
+import de.oglimmer.status_tacos.persistence.StatsBackfillChunk.ChunkStatus;
+import de.oglimmer.status_tacos.persistence.StatsBackfillJob;
+import de.oglimmer.status_tacos.persistence.StatsBackfillJob.JobStatus;
+import de.oglimmer.status_tacos.repository.MonitorRepository;
+import de.oglimmer.status_tacos.repository.StatsBackfillChunkRepository;
+import de.oglimmer.status_tacos.repository.StatsBackfillJobRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class StatsBackfillServiceTest {
+
+  private static final LocalDate FROM = LocalDate.now().minusDays(30);
+
+  @Mock private StatsBackfillJobRepository statsBackfillJobRepository;
+  @Mock private StatsBackfillChunkRepository statsBackfillChunkRepository;
+  @Mock private MonitorRepository monitorRepository;
+  @Mock private UptimeDailyAggregateService uptimeDailyAggregateService;
+  @Mock private UptimeStatsService uptimeStatsService;
+
+  private final Monitor monitor = Monitor.builder().id(7).tenantId(1).build();
+  private final List<StatsBackfillChunk> chunks = new ArrayList<>();
+  private StatsBackfillJob job;
+  private StatsBackfillService statsBackfillService;
+
+  @BeforeEach
+  void setUp() {
+    statsBackfillService =
+        new StatsBackfillService(
+            statsBackfillJobRepository,
+            statsBackfillChunkRepository,
+            monitorRepository,
+            uptimeDailyAggregateService,
+            uptimeStatsService,
+            Runnable::run,
+            null,
+            false,
+            7,
+            0);
+    // the transactional proxy calls into the service itself
+    ReflectionTestUtils.setField(statsBackfillService, "self", statsBackfillService);
+
+    // an in-memory job table
+    lenient()
+        .when(statsBackfillJobRepository.save(any()))
+        .thenAnswer(
+            invocation -> {
+              job = invocation.getArgument(0);
+              if (job.getId() == null) {
+                job.setId(1L);
+              }
+              return job;
+            });
+    lenient()
+        .when(statsBackfillJobRepository.findById(1L))
+        .thenAnswer(invocation -> Optional.ofNullable(job));
+    lenient()
+        .when(statsBackfillJobRepository.findByIdAndTenantIdIn(1L, Set.of(1)))
+        .thenAnswer(invocation -> Optional.ofNullable(job));
+    lenient()
+        .when(statsBackfillJobRepository.incrementCompletedChunks(1L))
+        .thenAnswer(
+            invocation -> {
+              job.setCompletedChunks(job.getCompletedChunks() + 1);
+              return 1;
+            });
+    lenient()
+        .when(statsBackfillJobRepository.incrementFailedChunks(1L))
+        .thenAnswer(
+            invocation -> {
+              job.setFailedChunks(job.getFailedChunks() + 1);
+              return 1;
+            });
+    lenient()
+        .when(statsBackfillChunkRepository.saveAll(any()))
+        .thenAnswer(
+            invocation -> {
+              for (StatsBackfillChunk chunk : invocation.<List<StatsBackfillChunk>>getArgument(0)) {
+                chunk.setId((long) chunks.size() + 1);
+                chunks.add(chunk);
+              }
+              return chunks;
+            });
+    lenient()
+        .when(statsBackfillChunkRepository.findById(anyLong()))
+        .thenAnswer(
+            invocation -> Optional.of(chunks.get((int) (long) invocation.getArgument(0) - 1)));
+    lenient()
+        .when(statsBackfillChunkRepository.findOpenByJobId(1L))
+        .thenAnswer(
+            invocation ->
+                chunks.stream()
+                    .filter(chunk -> chunk.getStatus() != ChunkStatus.completed)
+                    .toList());
+    lenient()
+        .when(statsBackfillChunkRepository.resetFailed(1L))
+        .thenAnswer(
+            invocation -> {
+              chunks.stream()
+                  .filter(chunk -> chunk.getStatus() == ChunkStatus.failed)
+                  .forEach(chunk -> chunk.setStatus(ChunkStatus.pending));
+              return 1;
+            });
+    lenient().when(monitorRepository.findByIdAndTenantId(7, 1)).thenReturn(Optional.of(monitor));
+    lenient().when(uptimeDailyAggregateService.isClosed(eq(1), eq(7), any())).thenReturn(true);
+    lenient()
+        .when(uptimeDailyAggregateService.rebuildDay(eq(1), eq(monitor), any()))
+        .thenReturn(true);
+  }
+
+  @Test
+  void createJob_splitsTheRangeIntoChunksPerMonitor() {
+    when(monitorRepository.findByIdAndTenantId(8, 1))
+        .thenReturn(Optional.of(Monitor.builder().id(8).tenantId(1).build()));
+
+    StatsBackfillJob created =
+        statsBackfillService.createJob(1, List.of(8, 7, 8), FROM, FROM.plusDays(16));
+
+    assertThat(created.getTotalChunks()).isEqualTo(6);
+    assertThat(created.getMonitorIds()).isEqualTo("7,8");
+    assertThat(chunks)
+        .extracting(StatsBackfillChunk::getMonitorId)
+        .containsExactly(7, 7, 7, 8, 8, 8);
+    assertThat(chunks.subList(0, 3))
+        .extracting(StatsBackfillChunk::getChunkStart, StatsBackfillChunk::getChunkEnd)
+        .containsExactly(
+            tuple(FROM, FROM.plusDays(6)),
+            tuple(FROM.plusDays(7), FROM.plusDays(13)),
+            tuple(FROM.plusDays(14), FROM.plusDays(16)));
+  }
+
+  @Test
+  void start_skipsTheCompletedChunksAndCompletesTheJob() {
+    statsBackfillService.createJob(1, List.of(7), FROM, FROM.plusDays(13));
+    statsBackfillService.completeChunk(1L, 1L, 7);
+
+    statsBackfillService.start(1L);
+
+    verify(uptimeDailyAggregateService, never()).rebuildDay(1, monitor, FROM);
+    verify(uptimeDailyAggregateService).rebuildDay(1, monitor, FROM.plusDays(7));
+    verify(uptimeDailyAggregateService).rebuildDay(1, monitor, FROM.plusDays(13));
+    assertThat(chunks)
+        .extracting(StatsBackfillChunk::getStatus)
+        .containsOnly(ChunkStatus.completed);
+    assertThat(job.getStatus()).isEqualTo(JobStatus.completed);
+    assertThat(job.getFinishedAt()).isNotNull();
+  }
+
+  @Test
+  void resumeJob_runsTheChunksACancelledJobLeftOpen() {
+    statsBackfillService.createJob(1, List.of(7), FROM, FROM.plusDays(13));
+    // cancelled while the second chunk runs
+    when(uptimeDailyAggregateService.rebuildDay(1, monitor, FROM.plusDays(8)))
+        .thenAnswer(
+            invocation -> {
+              statsBackfillService.cancelJob(Set.of(1), 1L);
+              return true;
+            })
+        .thenReturn(true);
+
+    statsBackfillService.start(1L);
+
+    assertThat(job.getStatus()).isEqualTo(JobStatus.cancelled);
+    assertThat(chunks)
+        .extracting(StatsBackfillChunk::getStatus)
+        .containsExactly(ChunkStatus.completed, ChunkStatus.pending);
+    verify(uptimeDailyAggregateService, never()).rebuildDay(1, monitor, FROM.plusDays(9));
+
+    statsBackfillService.resumeJob(Set.of(1), 1L);
+    statsBackfillService.start(1L);
+
+    assertThat(job.getStatus()).isEqualTo(JobStatus.completed);
+    assertThat(job.getCompletedChunks()).isEqualTo(2);
+    verify(uptimeDailyAggregateService).rebuildDay(1, monitor, FROM);
+    verify(uptimeDailyAggregateService).rebuildDay(1, monitor, FROM.plusDays(13));
+  }
+
+  @Test
+  void finishJob_failsTheJobWhenAChunkFailed() {
+    statsBackfillService.createJob(1, List.of(7), FROM, FROM.plusDays(13));
+    when(uptimeDailyAggregateService.rebuildDay(1, monitor, FROM.plusDays(9)))
+        .thenThrow(new IllegalStateException("boom"));
+
+    statsBackfillService.start(1L);
+
+    assertThat(job.getStatus()).isEqualTo(JobStatus.failed);
+    assertThat(job.getCompletedChunks()).isEqualTo(1);
+    assertThat(job.getFailedChunks()).isEqualTo(1);
+    assertThat(chunks.get(1).getErrorMessage()).isEqualTo("boom");
+  }
+
+  @Test
+  void backfillDay_leavesOpenDaysToTheStatsJob() {
+    LocalDate yesterday = LocalDate.now().minusDays(1);
+    when(uptimeDailyAggregateService.isClosed(1, 7, yesterday)).thenReturn(false);
+
+    assertThat(statsBackfillService.backfillDay(1, monitor, yesterday)).isFalse();
+
+    verify(uptimeDailyAggregateService, never()).rebuildDay(anyInt(), any(), any());
+    verify(uptimeStatsService, never()).recalculateMonitorStats(anyInt(), any(), any());
+  }
+}
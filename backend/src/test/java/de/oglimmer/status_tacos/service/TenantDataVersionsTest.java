@@ -0,0 +1,29 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.oglimmer.status_tacos.service.TenantDataVersions.Kind;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class TenantDataVersionsTest {
+
+  @Test
+  void etag_changesOnlyWithTheVersionsOfItsKindsAndTenants() {
+    TenantDataVersions versions = new TenantDataVersions(true, 15000);
+    String status = versions.etag(Set.of(2, 1), Kind.STATUS);
+    String stats = versions.etag(Set.of(1, 2), Kind.STATS);
+    assertThat(versions.etag(Set.of(1, 2), Kind.STATUS)).isEqualTo(status);
+
+    versions.bumpStatus(2);
+    versions.bumpStatus(3);
+    assertThat(versions.etag(Set.of(1, 2), Kind.STATUS)).isNotEqualTo(status);
+    assertThat(versions.etag(Set.of(1, 2), Kind.STATS)).isEqualTo(stats);
+
+    versions.bumpAll(1);
+    assertThat(versions.etag(Set.of(1, 2), Kind.STATS)).isNotEqualTo(stats);
+    assertThat(versions.getVersion(1, Kind.STATUS)).isEqualTo(1);
+    assertThat(versions.getVersion(2, Kind.STATUS)).isEqualTo(1);
+  }
+}
@@ -0,0 +1,56 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.oglimmer.status_tacos.dto.ResponseTimeDataPointDto;
+import de.oglimmer.status_tacos.dto.StatusDownPeriodsDto;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class UptimeStatsSeriesCodecTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+  @Test
+  void responseTimeData_roundTripsAndIsSmallerThanJson() throws Exception {
+    List<ResponseTimeDataPointDto> dataPoints = new ArrayList<>();
+    for (int i = 0; i < 365; i++) {
+      dataPoints.add(
+          ResponseTimeDataPointDto.builder()
+              .timestamp(START.plusDays(i))
+              .maxResponseTimeMs(i % 7 == 0 ? null : 80 + i * 13 % 900)
+              .build());
+    }
+
+    byte[] encoded = UptimeStatsSeriesCodec.encodeResponseTimeData(dataPoints);
+
+    assertThat(UptimeStatsSeriesCodec.decodeResponseTimeData(encoded)).isEqualTo(dataPoints);
+    String json =
+        new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsString(dataPoints);
+    assertThat(encoded.length).isLessThan(json.length() / 5);
+  }
+
+  @Test
+  void statusDownPeriods_roundTrip() {
+    List<StatusDownPeriodsDto> periods =
+        List.of(
+            StatusDownPeriodsDto.builder()
+                .start(START.plusHours(3))
+                .end(START.plusHours(3).plusSeconds(45))
+                .build(),
+            StatusDownPeriodsDto.builder().start(START.plusDays(2)).end(START.plusDays(3)).build(),
+            // out of order input still round trips
+            StatusDownPeriodsDto.builder().start(START).end(START.plusMinutes(1)).build());
+
+    byte[] encoded = UptimeStatsSeriesCodec.encodeStatusDownPeriods(periods);
+
+    assertThat(UptimeStatsSeriesCodec.decodeStatusDownPeriods(encoded)).isEqualTo(periods);
+    assertThat(UptimeStatsSeriesCodec.decodeStatusDownPeriods(null)).isEmpty();
+    assertThat(UptimeStatsSeriesCodec.decodeResponseTimeData(new byte[0])).isEmpty();
+  }
+}
@@ -0,0 +1,96 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+import de.oglimmer.status_tacos.dto.ResponseTimeDataPointDto;
+import de.oglimmer.status_tacos.dto.StatusDownPeriodsDto;
+import de.oglimmer.status_tacos.persistence.UptimeDailyAggregate;
+import de.oglimmer.status_tacos.store.CheckSample;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class UptimeStatsWindowTest {
+
+  private static final LocalDate DAY = LocalDate.of(2025, 3, 1);
+
+  @Test
+  void of_sumsDaysAndJoinsDownPeriodsAcrossMidnight() {
+    UptimeDay first = new UptimeDay(DAY);
+    check(first, DAY.atTime(10, 0), true, 100);
+    check(first, DAY.atTime(11, 0), false, 900);
+    check(first, DAY.atTime(12, 0), true, 200);
+    check(first, DAY.atTime(23, 0), false, null);
+
+    UptimeDay second = new UptimeDay(DAY.plusDays(1));
+    check(second, DAY.plusDays(1).atTime(1, 0), false, null);
+    check(second, DAY.plusDays(1).atTime(2, 0), true, 300);
+
+    LocalDateTime end = DAY.plusDays(2).atStartOfDay();
+    UptimeStatsWindow window =
+        UptimeStatsWindow.of(List.of(first, second), DAY.atStartOfDay(), end, 360);
+
+    assertThat(window.aggregate().count()).isEqualTo(6);
+    assertThat(window.aggregate().successfulCount()).isEqualTo(3);
+    assertThat(window.aggregate().minResponseTime()).isEqualTo(100);
+    assertThat(window.aggregate().maxResponseTime()).isEqualTo(300);
+    assertThat(window.percentile(50)).isBetween(198, 202);
+    assertThat(window.downPeriods())
+        .extracting(StatusDownPeriodsDto::getStart, StatusDownPeriodsDto::getEnd)
+        .containsExactly(
+            tuple(DAY.atTime(11, 0), DAY.atTime(12, 0)),
+            tuple(DAY.atTime(23, 0), DAY.plusDays(1).atTime(2, 0)));
+    // 6 hour intervals, the failed check's response time counts like in the raw data points
+    assertThat(window.responseTimeData())
+        .extracting(
+            ResponseTimeDataPointDto::getTimestamp, ResponseTimeDataPointDto::getMaxResponseTimeMs)
+        .containsExactly(
+            tuple(DAY.atTime(6, 0), 900),
+            tuple(DAY.atTime(12, 0), 200),
+            tuple(DAY.plusDays(1).atTime(0, 0), 300));
+  }
+
+  @Test
+  void of_closesOpenDownPeriodAtEnd() {
+    UptimeDay day = new UptimeDay(DAY);
+    check(day, DAY.atTime(8, 0), true, 50);
+    check(day, DAY.atTime(9, 0), false, null);
+
+    LocalDateTime end = DAY.atTime(10, 0);
+    UptimeStatsWindow window = UptimeStatsWindow.of(List.of(day), DAY.atStartOfDay(), end, 60);
+
+    assertThat(window.downPeriods()).hasSize(1);
+    assertThat(window.downPeriods().get(0).getStart()).isEqualTo(DAY.atTime(9, 0));
+    assertThat(window.downPeriods().get(0).getEnd()).isEqualTo(end);
+  }
+
+  @Test
+  void writeTo_roundTripsThroughTheDailyAggregate() {
+    UptimeDay day = new UptimeDay(DAY);
+    for (int i = 0; i < 200; i++) {
+      check(day, DAY.atStartOfDay().plusMinutes(i * 7L), i % 50 != 0, 20 + i * 7);
+    }
+    UptimeDailyAggregate aggregate = new UptimeDailyAggregate();
+    day.writeTo(aggregate);
+
+    UptimeDay read = UptimeDay.of(aggregate);
+
+    assertThat(read.aggregate()).isEqualTo(day.aggregate());
+    assertThat(read.firstCheckAt()).isEqualTo(day.firstCheckAt());
+    assertThat(read.firstCheckUp()).isEqualTo(day.firstCheckUp());
+    assertThat(read.openDownStart()).isEqualTo(day.openDownStart());
+    assertThat(read.downPeriods()).isEqualTo(day.downPeriods());
+    for (int hour = 0; hour < UptimeDay.HOURS; hour++) {
+      assertThat(read.hourlyMax(hour)).isEqualTo(day.hourlyMax(hour));
+      assertThat(read.hourAggregate(hour)).isEqualTo(day.hourAggregate(hour));
+    }
+    assertThat(read.sketch().quantile(0.99)).isEqualTo(day.sketch().quantile(0.99));
+  }
+
+  private static void check(UptimeDay day, LocalDateTime checkedAt, boolean up, Integer ms) {
+    day.accept(new CheckSample(checkedAt, up, ms));
+  }
+}
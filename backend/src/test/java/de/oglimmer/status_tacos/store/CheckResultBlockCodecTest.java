@@ -0,0 +1,71 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CheckResultBlockCodecTest {
+
+  private static final LocalDateTime DAY_START = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+  @Test
+  void roundTrip_shouldPreserveAllColumns() {
+    List<CheckResult> results =
+        List.of(
+            result(0, true, 200, 120, null),
+            result(15, true, 200, 118, null),
+            result(30, false, null, 0, "Connection refused"),
+            result(46, false, 503, 87, "Status code 503 does not match"),
+            result(60, true, 200, null, null));
+
+    List<CheckResult> decoded = CheckResultBlockCodec.decode(CheckResultBlockCodec.encode(results));
+
+    assertThat(decoded).hasSize(results.size());
+    for (int i = 0; i < results.size(); i++) {
+      CheckResult expected = results.get(i);
+      CheckResult actual = decoded.get(i);
+      assertThat(actual.getCheckedAt()).isEqualTo(expected.getCheckedAt());
+      assertThat(actual.getIsUp()).isEqualTo(expected.getIsUp());
+      assertThat(actual.getStatusCode()).isEqualTo(expected.getStatusCode());
+      assertThat(actual.getResponseTimeMs()).isEqualTo(expected.getResponseTimeMs());
+      assertThat(actual.getErrorMessage()).isEqualTo(expected.getErrorMessage());
+    }
+  }
+
+  @Test
+  void roundTrip_withEmptyList_shouldReturnEmptyList() {
+    assertThat(CheckResultBlockCodec.decode(CheckResultBlockCodec.encode(List.of()))).isEmpty();
+  }
+
+  @Test
+  void encode_steadyDayOfChecks_shouldBeMuchSmallerThanRows() {
+    Random random = new Random(42);
+    List<CheckResult> results = new ArrayList<>();
+    for (int i = 0; i < 5760; i++) {
+      results.add(result(i * 15L, true, 200, 100 + random.nextInt(40), null));
+    }
+
+    byte[] payload = CheckResultBlockCodec.encode(results);
+
+    // a raw row costs about 60 bytes before indexes
+    assertThat(payload.length).isLessThan(results.size() * 60 / 20);
+    assertThat(CheckResultBlockCodec.decode(payload)).hasSize(results.size());
+  }
+
+  private static CheckResult result(
+      long secondsOffset, boolean up, Integer statusCode, Integer responseTime, String error) {
+    return CheckResult.builder()
+        .checkedAt(DAY_START.plusSeconds(secondsOffset))
+        .isUp(up)
+        .statusCode(statusCode)
+        .responseTimeMs(responseTime)
+        .errorMessage(error)
+        .build();
+  }
+}
@@ -0,0 +1,149 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CheckResultSpoolTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+  @TempDir Path directory;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void appendAndReplay_keepsOrderAndDeactivates() {
+    CheckResultSpool spool = newSpool();
+    assertThat(spool.isActive()).isFalse();
+
+    spool.markDatabaseUnavailable();
+    for (int i = 0; i < 1000; i++) {
+      spool.append(1, 7, result(i));
+    }
+    assertThat(spool.isActive()).isTrue();
+    assertThat(spool.getPendingCount()).isEqualTo(1000);
+    assertThat(meterRegistry.get("monitor.spool.pending").gauge().value()).isEqualTo(1000);
+
+    List<CheckResultSpool.SpooledCheckResult> replayed = new ArrayList<>();
+    assertThat(spool.replay(600, replayed::add)).isEqualTo(600);
+    assertThat(spool.isActive()).isTrue();
+    assertThat(spool.replay(600, replayed::add)).isEqualTo(400);
+    assertThat(spool.replay(600, replayed::add)).isZero();
+
+    assertThat(spool.isActive()).isFalse();
+    assertThat(replayed).hasSize(1000);
+    for (int i = 0; i < replayed.size(); i++) {
+      CheckResultSpool.SpooledCheckResult spooled = replayed.get(i);
+      assertThat(spooled.tenantId()).isEqualTo(1);
+      assertThat(spooled.monitorId()).isEqualTo(7);
+      assertThat(spooled.checkResult().getCheckedAt()).isEqualTo(START.plusSeconds(i * 15L));
+      assertThat(spooled.checkResult().getResponseTimeMs()).isEqualTo(100 + i);
+    }
+    assertThat(meterRegistry.get("monitor.spool.replayed").counter().count()).isEqualTo(1000);
+  }
+
+  @Test
+  void replay_failingHandlerKeepsResultAtHead() {
+    CheckResultSpool spool = newSpool();
+    spool.markDatabaseUnavailable();
+    spool.append(1, 7, result(0));
+    spool.append(1, 7, result(1));
+
+    assertThatThrownBy(
+            () ->
+                spool.replay(
+                    10,
+                    spooled -> {
+                      throw new IllegalStateException("database down");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(spool.getPendingCount()).isEqualTo(2);
+
+    List<CheckResultSpool.SpooledCheckResult> replayed = new ArrayList<>();
+    spool.replay(10, replayed::add);
+    assertThat(replayed)
+        .extracting(spooled -> spooled.checkResult().getResponseTimeMs())
+        .containsExactly(100, 101);
+  }
+
+  @Test
+  void replay_movesPoisonResultToDeadLetterFile() throws Exception {
+    CheckResultSpool spool = newSpool();
+    spool.markDatabaseUnavailable();
+    for (int i = 0; i < 3; i++) {
+      spool.append(1, 7, result(i));
+    }
+
+    List<CheckResultSpool.SpooledCheckResult> replayed = new ArrayList<>();
+    int taken =
+        spool.replay(
+            10,
+            spooled -> {
+              if (spooled.checkResult().getResponseTimeMs() == 101) {
+                throw new IllegalStateException("constraint violated");
+              }
+              replayed.add(spooled);
+            },
+            e -> false);
+
+    assertThat(taken).isEqualTo(3);
+    assertThat(replayed)
+        .extracting(spooled -> spooled.checkResult().getResponseTimeMs())
+        .containsExactly(100, 102);
+    assertThat(spool.isActive()).isFalse();
+    assertThat(meterRegistry.get("monitor.spool.dead.lettered").counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("monitor.spool.replayed").counter().count()).isEqualTo(2);
+    assertThat(Files.size(directory.resolve("dead-letter"))).isPositive();
+  }
+
+  @Test
+  void reopen_resumesAfterCheckpointAndDeletesReplayedSegments() throws Exception {
+    CheckResultSpool spool = newSpool();
+    spool.markDatabaseUnavailable();
+    for (int i = 0; i < 500; i++) {
+      spool.append(2, 3, result(i));
+    }
+    spool.replay(300, spooled -> {});
+    spool.close();
+
+    CheckResultSpool reopened = newSpool();
+    assertThat(reopened.getPendingCount()).isEqualTo(200);
+    assertThat(reopened.isActive()).isTrue();
+
+    List<CheckResultSpool.SpooledCheckResult> replayed = new ArrayList<>();
+    reopened.replay(1000, replayed::add);
+    assertThat(replayed).hasSize(200);
+    assertThat(replayed.getFirst().checkResult().getCheckedAt())
+        .isEqualTo(START.plusSeconds(300 * 15L));
+    assertThat(reopened.isActive()).isFalse();
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files.filter(file -> file.toString().endsWith(".spool"))).isEmpty();
+    }
+  }
+
+  private CheckResultSpool newSpool() {
+    return new CheckResultSpool(directory, 4096, true, meterRegistry);
+  }
+
+  private static CheckResult result(int i) {
+    return CheckResult.builder()
+        .tenantId(1)
+        .checkedAt(START.plusSeconds(i * 15L))
+        .statusCode(200)
+        .responseTimeMs(100 + i)
+        .isUp(true)
+        .build();
+  }
+}
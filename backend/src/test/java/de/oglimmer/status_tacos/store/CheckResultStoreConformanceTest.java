@@ -0,0 +1,173 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Behaviour every {@link CheckResultStore} must share. Subclasses provide the store and two
+ * monitors of the same tenant.
+ *
+ * <p>The throughput benchmark only runs with {@code -Dbenchmark=true}.
+ */
+abstract class CheckResultStoreConformanceTest {
+
+  static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+  protected abstract CheckResultStore store();
+
+  protected abstract Integer tenantId();
+
+  protected abstract Monitor monitor();
+
+  protected abstract Monitor otherMonitor();
+
+  @Test
+  void scan_shouldReturnResultsOfRangeAscendingWithInclusiveBounds() {
+    append(monitor(), 30, true, 200, 110, null);
+    append(monitor(), 0, true, 200, 100, null);
+    append(monitor(), 60, false, 503, 90, "Status code 503");
+    append(monitor(), 90, true, 200, 120, null);
+
+    List<CheckResult> results =
+        store().scan(tenantId(), monitor().getId(), START, START.plusSeconds(60));
+
+    assertThat(results)
+        .extracting(CheckResult::getCheckedAt)
+        .containsExactly(START, START.plusSeconds(30), START.plusSeconds(60));
+    CheckResult down = results.get(2);
+    assertThat(down.getIsUp()).isFalse();
+    assertThat(down.getStatusCode()).isEqualTo(503);
+    assertThat(down.getResponseTimeMs()).isEqualTo(90);
+    assertThat(down.getErrorMessage()).isEqualTo("Status code 503");
+    assertThat(down.getTenantId()).isEqualTo(tenantId());
+  }
+
+  @Test
+  void scan_shouldOnlyReturnResultsOfRequestedMonitor() {
+    append(monitor(), 0, true, 200, 100, null);
+    append(otherMonitor(), 15, true, 200, 100, null);
+
+    assertThat(store().scan(tenantId(), monitor().getId(), START, START.plusHours(1))).hasSize(1);
+    assertThat(store().scan(tenantId(), otherMonitor().getId(), START, START.plusHours(1)))
+        .hasSize(1);
+  }
+
+  @Test
+  void forEachSample_shouldStreamTheRowsOfScan() {
+    append(monitor(), 45, true, 200, 130, null);
+    append(monitor(), 0, true, 200, 100, null);
+    append(monitor(), 15, false, null, null, "Timeout");
+    append(monitor(), 7200, true, 200, 90, null);
+
+    List<CheckSample> samples = new ArrayList<>();
+    store().forEachSample(tenantId(), monitor().getId(), START, START.plusHours(1), samples::add);
+
+    assertThat(samples)
+        .containsExactly(
+            new CheckSample(START, true, 100),
+            new CheckSample(START.plusSeconds(15), false, null),
+            new CheckSample(START.plusSeconds(45), true, 130));
+  }
+
+  @Test
+  void aggregate_shouldOnlyCountResponseTimesOfSuccessfulChecks() {
+    append(monitor(), 0, true, 200, 100, null);
+    append(monitor(), 15, true, 200, 300, null);
+    append(monitor(), 30, false, null, 5000, "Timeout");
+    append(monitor(), 45, true, 200, null, null);
+    append(monitor(), 3600, true, 200, 1, null);
+
+    CheckResultAggregate aggregate =
+        store().aggregate(tenantId(), monitor().getId(), START, START.plusMinutes(1));
+
+    assertThat(aggregate.count()).isEqualTo(4);
+    assertThat(aggregate.successfulCount()).isEqualTo(3);
+    assertThat(aggregate.responseTimeCount()).isEqualTo(2);
+    assertThat(aggregate.averageResponseTime()).isEqualTo(200.0);
+    assertThat(aggregate.minResponseTime()).isEqualTo(100);
+    assertThat(aggregate.maxResponseTime()).isEqualTo(300);
+  }
+
+  @Test
+  void aggregate_withoutResults_shouldBeEmpty() {
+    assertThat(store().aggregate(tenantId(), monitor().getId(), START, START.plusDays(1)))
+        .isEqualTo(CheckResultAggregate.EMPTY);
+  }
+
+  @Test
+  void deleteBefore_shouldRemoveOlderResults() {
+    append(monitor(), 0, true, 200, 100, null);
+    append(monitor(), 3600, true, 200, 100, null);
+    append(otherMonitor(), 0, true, 200, 100, null);
+
+    store().deleteBefore(tenantId(), START.plusMinutes(30));
+
+    assertThat(store().scan(tenantId(), monitor().getId(), START, START.plusDays(1)))
+        .extracting(CheckResult::getCheckedAt)
+        .containsExactly(START.plusHours(1));
+    assertThat(store().scan(tenantId(), otherMonitor().getId(), START, START.plusDays(1)))
+        .isEmpty();
+  }
+
+  @Test
+  @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+  void benchmark_appendAndScanThroughput() {
+    int checks = Integer.getInteger("benchmark.checks", 100_000);
+    Random random = new Random(42);
+
+    long appendStart = System.nanoTime();
+    for (int i = 0; i < checks; i++) {
+      boolean up = random.nextInt(100) > 0;
+      append(monitor(), i * 15L, up, up ? 200 : 503, 80 + random.nextInt(60), null);
+    }
+    long appendNanos = System.nanoTime() - appendStart;
+
+    LocalDateTime end = START.plusSeconds(checks * 15L);
+    long scanStart = System.nanoTime();
+    int scanned = store().scan(tenantId(), monitor().getId(), START, end).size();
+    long scanNanos = System.nanoTime() - scanStart;
+
+    long aggregateStart = System.nanoTime();
+    long aggregated = store().aggregate(tenantId(), monitor().getId(), START, end).count();
+    long aggregateNanos = System.nanoTime() - aggregateStart;
+
+    System.out.printf(
+        "%s: append %.0f/s, scan %.0f/s, aggregate %.0f/s%n",
+        ClassUtils.getUserClass(store()).getSimpleName(),
+        checks / (appendNanos / 1e9),
+        scanned / (scanNanos / 1e9),
+        aggregated / (aggregateNanos / 1e9));
+    assertThat(scanned).isEqualTo(checks);
+    assertThat(aggregated).isEqualTo(checks);
+  }
+
+  private void append(
+      Monitor monitor,
+      long secondsOffset,
+      boolean up,
+      Integer statusCode,
+      Integer responseTime,
+      String error) {
+    store()
+        .append(
+            CheckResult.builder()
+                .monitor(monitor)
+                .tenantId(tenantId())
+                .checkedAt(START.plusSeconds(secondsOffset))
+                .isUp(up)
+                .statusCode(statusCode)
+                .responseTimeMs(responseTime)
+                .errorMessage(error)
+                .build());
+  }
+}
@@ -0,0 +1,77 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileCheckResultStoreTest extends CheckResultStoreConformanceTest {
+
+  private static final int SEGMENT_SIZE = 4096;
+
+  @TempDir Path directory;
+
+  private FileCheckResultStore store;
+
+  @BeforeEach
+  void setUp() {
+    store = new FileCheckResultStore(directory, SEGMENT_SIZE);
+  }
+
+  @AfterEach
+  void tearDown() {
+    store.close();
+  }
+
+  @Override
+  protected CheckResultStore store() {
+    return store;
+  }
+
+  @Override
+  protected Integer tenantId() {
+    return 1;
+  }
+
+  @Override
+  protected Monitor monitor() {
+    return Monitor.builder().id(1).tenantId(1).build();
+  }
+
+  @Override
+  protected Monitor otherMonitor() {
+    return Monitor.builder().id(2).tenantId(1).build();
+  }
+
+  @Test
+  void reopen_shouldRecoverAllSegmentsAndContinueAppending() {
+    // enough records to span several segments
+    for (int i = 0; i < 1000; i++) {
+      store.append(result(i));
+    }
+    store.close();
+
+    FileCheckResultStore reopened = new FileCheckResultStore(directory, SEGMENT_SIZE);
+    reopened.append(result(1000));
+
+    assertThat(reopened.scan(1, 1, START, START.plusDays(1))).hasSize(1001);
+    reopened.close();
+  }
+
+  private CheckResult result(int index) {
+    return CheckResult.builder()
+        .monitor(monitor())
+        .tenantId(1)
+        .checkedAt(START.plusSeconds(index * 15L))
+        .isUp(true)
+        .statusCode(200)
+        .responseTimeMs(100 + index % 50)
+        .build();
+  }
+}
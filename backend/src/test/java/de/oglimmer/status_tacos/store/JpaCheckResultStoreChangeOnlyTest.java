@@ -0,0 +1,110 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.oglimmer.status_tacos.config.TestSecurityConfig;
+import de.oglimmer.status_tacos.dto.StatusDownPeriodsDto;
+import de.oglimmer.status_tacos.persistence.CheckResult;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.repository.MonitorRepository;
+import de.oglimmer.status_tacos.service.IncidentService;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest(
+    properties = {
+      "monitor.storage.change-only.enabled=true",
+      "monitor.storage.change-only.max-run-minutes=15"
+    })
+@ActiveProfiles("test")
+@Import(TestSecurityConfig.class)
+@Transactional
+class JpaCheckResultStoreChangeOnlyTest {
+
+  private static final Integer TENANT_ID = 1;
+  // within the retention, the incident backfill only reads checks of the retained days
+  private static final LocalDateTime START =
+      LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+  @Autowired private JpaCheckResultStore store;
+
+  @Autowired private IncidentService incidentService;
+
+  @Autowired private MonitorRepository monitorRepository;
+
+  private Monitor monitor;
+
+  @BeforeEach
+  void setUp() {
+    monitor =
+        monitorRepository.save(
+            Monitor.builder()
+                .name("Change Only Monitor")
+                .url("https://change-only-" + System.nanoTime() + ".example.com")
+                .tenantId(TENANT_ID)
+                .build());
+  }
+
+  @Test
+  void append_shouldOnlyWriteRowsForOutcomeChangesAndFoldTheRest() {
+    // 10 minutes up, 2 minutes down, 10 minutes up at one check per 15s
+    for (int i = 0; i < 88; i++) {
+      boolean up = i < 40 || i >= 48;
+      append(i * 15L, up, up ? 200 : 503, up ? 100 + i % 10 : 50);
+    }
+
+    List<CheckResult> rows = store.scan(TENANT_ID, monitor.getId(), START, START.plusHours(1));
+    assertThat(rows)
+        .extracting(CheckResult::getCheckedAt)
+        .containsExactly(START, START.plusSeconds(40 * 15), START.plusSeconds(48 * 15));
+
+    CheckResultAggregate aggregate =
+        store.aggregate(TENANT_ID, monitor.getId(), START, START.plusHours(1));
+    assertThat(aggregate.count()).isEqualTo(88);
+    assertThat(aggregate.successfulCount()).isEqualTo(80);
+    assertThat(aggregate.minResponseTime()).isEqualTo(100);
+    assertThat(aggregate.maxResponseTime()).isEqualTo(109);
+
+    assertThat(incidentService.backfillIncidents(TENANT_ID, monitor)).isEqualTo(1);
+    List<StatusDownPeriodsDto> downPeriods =
+        incidentService.getDownPeriods(TENANT_ID, monitor.getId(), START, START.plusHours(1));
+    assertThat(downPeriods).hasSize(1);
+    assertThat(downPeriods.get(0).getStart()).isEqualTo(START.plusSeconds(40 * 15));
+    assertThat(downPeriods.get(0).getEnd()).isEqualTo(START.plusSeconds(48 * 15));
+  }
+
+  @Test
+  void append_shouldCloseRunsAfterMaxRunDuration() {
+    for (int i = 0; i < 4 * 60; i++) {
+      append(i * 15L, true, 200, 100);
+    }
+
+    // one full row, the other 239 checks in runs of at most 15 minutes (61 checks)
+    assertThat(store.scanRuns(TENANT_ID, monitor.getId(), START, START.plusHours(1)))
+        .hasSize(4)
+        .allSatisfy(run -> assertThat(run.getCheckCount()).isLessThanOrEqualTo(61));
+    assertThat(store.aggregate(TENANT_ID, monitor.getId(), START, START.plusHours(1)).count())
+        .isEqualTo(240);
+  }
+
+  private void append(long secondsOffset, boolean up, Integer statusCode, Integer responseTime) {
+    store.append(
+        CheckResult.builder()
+            .monitor(monitor)
+            .tenantId(TENANT_ID)
+            .checkedAt(START.plusSeconds(secondsOffset))
+            .isUp(up)
+            .statusCode(statusCode)
+            .responseTimeMs(responseTime)
+            .build());
+  }
+}
@@ -0,0 +1,68 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.store;
+
+import de.oglimmer.status_tacos.config.TestSecurityConfig;
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.persistence.Tenant;
+import de.oglimmer.status_tacos.repository.MonitorRepository;
+import de.oglimmer.status_tacos.repository.TenantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestSecurityConfig.class)
+@Transactional
+class JpaCheckResultStoreTest extends CheckResultStoreConformanceTest {
+
+  @Autowired private JpaCheckResultStore store;
+
+  @Autowired private TenantRepository tenantRepository;
+
+  @Autowired private MonitorRepository monitorRepository;
+
+  private Tenant tenant;
+  private Monitor monitor;
+  private Monitor otherMonitor;
+
+  @BeforeEach
+  void setUp() {
+    // default tenant from data.sql
+    tenant = tenantRepository.findById(1).orElseThrow();
+    monitor = saveMonitor("Store Monitor");
+    otherMonitor = saveMonitor("Other Store Monitor");
+  }
+
+  private Monitor saveMonitor(String name) {
+    return monitorRepository.save(
+        Monitor.builder()
+            .name(name)
+            .url("https://" + name.replace(' ', '-').toLowerCase() + ".example.com")
+            .tenantId(tenant.getId())
+            .build());
+  }
+
+  @Override
+  protected CheckResultStore store() {
+    return store;
+  }
+
+  @Override
+  protected Integer tenantId() {
+    return tenant.getId();
+  }
+
+  @Override
+  protected Monitor monitor() {
+    return monitor;
+  }
+
+  @Override
+  protected Monitor otherMonitor() {
+    return otherMonitor;
+  }
+}
@@ -0,0 +1,72 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LatencySketchTest {
+
+  private static final double[] QUANTILES = {0.5, 0.9, 0.95, 0.99, 0.999};
+
+  @Test
+  void quantile_isWithinRelativeAccuracyOfExactNearestRank() {
+    Random random = new Random(42);
+    int[] values = new int[50_000];
+    LatencySketch sketch = new LatencySketch();
+    for (int i = 0; i < values.length; i++) {
+      // long tailed like response times
+      values[i] = 1 + (int) Math.round(Math.exp(3 + random.nextGaussian() * 1.2));
+      sketch.add(values[i]);
+    }
+    Arrays.sort(values);
+
+    for (double q : QUANTILES) {
+      int exact = values[(int) Math.ceil(q * values.length) - 1];
+      assertThat((double) sketch.quantile(q))
+          .isBetween(
+              exact * (1 - LatencySketch.RELATIVE_ACCURACY) - 0.5,
+              exact * (1 + LatencySketch.RELATIVE_ACCURACY) + 0.5);
+    }
+  }
+
+  @Test
+  void merge_equalsSketchOfTheUnion() {
+    LatencySketch morning = new LatencySketch();
+    LatencySketch evening = new LatencySketch();
+    LatencySketch all = new LatencySketch();
+    for (int i = 0; i < 1000; i++) {
+      morning.add(10 + i);
+      all.add(10 + i);
+      evening.add(5000 + i, 2);
+      all.add(5000 + i, 2);
+    }
+    morning.add(0);
+    all.add(0);
+
+    morning.merge(evening);
+
+    assertThat(morning.getCount()).isEqualTo(all.getCount()).isEqualTo(3001);
+    for (double q : QUANTILES) {
+      assertThat(morning.quantile(q)).isEqualTo(all.quantile(q));
+    }
+  }
+
+  @Test
+  void bytes_roundTrip() {
+    LatencySketch sketch = new LatencySketch();
+    for (int i = 1; i <= 60_000; i += 13) {
+      sketch.add(i);
+    }
+
+    LatencySketch read = LatencySketch.fromBytes(sketch.toBytes());
+
+    assertThat(read.getCount()).isEqualTo(sketch.getCount());
+    for (double q : QUANTILES) {
+      assertThat(read.quantile(q)).isEqualTo(sketch.quantile(q));
+    }
+    assertThat(LatencySketch.fromBytes(null).quantile(0.5)).isNull();
+  }
+}
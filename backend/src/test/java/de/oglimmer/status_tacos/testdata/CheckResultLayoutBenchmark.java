@@ -0,0 +1,190 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.testdata;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Compares the legacy check_results layout (clustered on the AUTO_INCREMENT id with a secondary
+ * (monitor_id, checked_at) index) with the layout of V0_0_16 (clustered on monitor_id, checked_at,
+ * id).
+ *
+ * <p>Both layouts are created as scratch tables next to the real schema and filled with the same
+ * generated data in production order: one check per monitor every 15 seconds, all monitors
+ * interleaved. Reported are the insert throughput of both tables and the latency of the 7 day range
+ * read the uptime statistics do.
+ *
+ * <p>Sizing via system properties: {@code benchmark.monitors} (default 2000) and {@code
+ * benchmark.checksPerMonitor} (default 50000), i.e. 100M rows per table. Needs a MariaDB with
+ * enough disk for about twice that; the tables are dropped at the end.
+ *
+ * <p>To run this test: 1. Remove @Disabled annotation 2. Run runBenchmark() against the
+ * test-generation database 3. Re-add @Disabled annotation
+ */
+@SpringBootTest
+@ActiveProfiles("test-generation")
+@Disabled("Manual benchmark - enable only when needed")
+public class CheckResultLayoutBenchmark {
+
+  private static final String LEGACY = "check_results_bench_legacy";
+  private static final String CLUSTERED = "check_results_bench_clustered";
+  private static final int BATCH_SIZE = 5000;
+  private static final int READS = 500;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private final int monitors = Integer.getInteger("benchmark.monitors", 2000);
+  private final int checksPerMonitor = Integer.getInteger("benchmark.checksPerMonitor", 50_000);
+  private final LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+  @Test
+  public void runBenchmark() {
+    createTables();
+    try {
+      long rows = (long) monitors * checksPerMonitor;
+      System.out.printf("Generating %,d rows per layout%n", rows);
+
+      double legacyInserts = fill(LEGACY);
+      double clusteredInserts = fill(CLUSTERED);
+      jdbcTemplate.execute("ANALYZE TABLE " + LEGACY + ", " + CLUSTERED);
+
+      long[] legacyReads = measureReads(LEGACY);
+      long[] clusteredReads = measureReads(CLUSTERED);
+
+      System.out.printf("%-12s %15s %12s %12s%n", "layout", "inserts/s", "read p50 ms", "p99 ms");
+      print("legacy", legacyInserts, legacyReads);
+      print("clustered", clusteredInserts, clusteredReads);
+    } finally {
+      jdbcTemplate.execute("DROP TABLE IF EXISTS " + LEGACY);
+      jdbcTemplate.execute("DROP TABLE IF EXISTS " + CLUSTERED);
+    }
+  }
+
+  private void createTables() {
+    String columns =
+        "id BIGINT UNSIGNED NOT NULL AUTO_INCREMENT, monitor_id INT UNSIGNED NOT NULL, "
+            + "tenant_id BIGINT NOT NULL, checked_at TIMESTAMP NOT NULL, "
+            + "status_code INT UNSIGNED, response_time_ms INT UNSIGNED, is_up TINYINT(1) NOT NULL, "
+            + "error_message TEXT, ";
+    String options = ") ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 ROW_FORMAT = DYNAMIC";
+
+    jdbcTemplate.execute("DROP TABLE IF EXISTS " + LEGACY);
+    jdbcTemplate.execute("DROP TABLE IF EXISTS " + CLUSTERED);
+    jdbcTemplate.execute(
+        "CREATE TABLE "
+            + LEGACY
+            + " ("
+            + columns
+            + "PRIMARY KEY (id), INDEX idx_monitor_time (monitor_id, checked_at), "
+            + "INDEX idx_time (checked_at), INDEX idx_tenant (tenant_id)"
+            + options);
+    jdbcTemplate.execute(
+        "CREATE TABLE "
+            + CLUSTERED
+            + " ("
+            + columns
+            + "PRIMARY KEY (monitor_id, checked_at, id), UNIQUE KEY uk_id (id), "
+            + "INDEX idx_tenant_time (tenant_id, checked_at)"
+            + options);
+  }
+
+  /** Inserts all rows in check order and returns the throughput in rows per second. */
+  private double fill(String table) {
+    Random random = new Random(42);
+    String sql =
+        "INSERT INTO "
+            + table
+            + " (monitor_id, tenant_id, checked_at, status_code, response_time_ms, is_up) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    long begin = System.nanoTime();
+    long inserted = 0;
+    List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+    for (int check = 0; check < checksPerMonitor; check++) {
+      Timestamp checkedAt = Timestamp.valueOf(start.plusSeconds(check * 15L));
+      for (int monitor = 1; monitor <= monitors; monitor++) {
+        boolean up = random.nextInt(1000) > 0;
+        batch.add(
+            new Object[] {
+              monitor, 1 + monitor % 20, checkedAt, up ? 200 : 503, 50 + random.nextInt(200), up
+            });
+        if (batch.size() == BATCH_SIZE) {
+          insert(sql, batch);
+          inserted += batch.size();
+          batch.clear();
+        }
+      }
+      if (check % 1000 == 0) {
+        System.out.printf("%s: %,d rows%n", table, inserted);
+      }
+    }
+    insert(sql, batch);
+    inserted += batch.size();
+    return inserted / ((System.nanoTime() - begin) / 1e9);
+  }
+
+  private void insert(String sql, List<Object[]> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(
+        sql,
+        batch,
+        batch.size(),
+        (PreparedStatement ps, Object[] row) -> {
+          ps.setInt(1, (Integer) row[0]);
+          ps.setLong(2, (Integer) row[1]);
+          ps.setTimestamp(3, (Timestamp) row[2]);
+          ps.setInt(4, (Integer) row[3]);
+          ps.setInt(5, (Integer) row[4]);
+          ps.setBoolean(6, (Boolean) row[5]);
+        });
+  }
+
+  /** Runs random 7 day range reads of single monitors and returns the sorted latencies in ns. */
+  private long[] measureReads(String table) {
+    Random random = new Random(7);
+    LocalDateTime last = start.plusSeconds(checksPerMonitor * 15L);
+    long windowSeconds = Math.min(7 * 24 * 3600L, checksPerMonitor * 15L);
+    String sql =
+        "SELECT checked_at, status_code, response_time_ms, is_up FROM "
+            + table
+            + " WHERE monitor_id = ? AND tenant_id = ? AND checked_at BETWEEN ? AND ? "
+            + "ORDER BY checked_at, id";
+
+    List<Long> latencies = new ArrayList<>(READS);
+    for (int i = 0; i < READS; i++) {
+      int monitor = 1 + random.nextInt(monitors);
+      LocalDateTime to =
+          last.minusSeconds(random.nextLong(checksPerMonitor * 15L - windowSeconds + 1));
+      LocalDateTime from = to.minusSeconds(windowSeconds);
+
+      long begin = System.nanoTime();
+      jdbcTemplate.query(
+          sql, rs -> {}, monitor, 1 + monitor % 20, Timestamp.valueOf(from), Timestamp.valueOf(to));
+      latencies.add(System.nanoTime() - begin);
+    }
+    Collections.sort(latencies);
+    return latencies.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  private static void print(String layout, double insertsPerSecond, long[] latencies) {
+    System.out.printf(
+        "%-12s %,15.0f %12.1f %12.1f%n",
+        layout,
+        insertsPerSecond,
+        latencies[latencies.length / 2] / 1e6,
+        latencies[(int) (latencies.length * 0.99)] / 1e6);
+  }
+}
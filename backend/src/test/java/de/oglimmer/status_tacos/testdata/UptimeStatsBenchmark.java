@@ -0,0 +1,154 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.testdata;
+
+import de.oglimmer.status_tacos.persistence.Monitor;
+import de.oglimmer.status_tacos.persistence.MonitorState;
+import de.oglimmer.status_tacos.persistence.Tenant;
+import de.oglimmer.status_tacos.repository.MonitorRepository;
+import de.oglimmer.status_tacos.repository.TenantRepository;
+import de.oglimmer.status_tacos.service.UptimeStatsService;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Measures the wall time of the 15 minute uptime statistics job for one tenant.
+ *
+ * <p>Creates a scratch tenant with {@code benchmark.monitors} (default 1000) ACTIVE monitors and
+ * {@code benchmark.days} (default 365) days of checks every {@code benchmark.checkIntervalSeconds}
+ * (default 300) seconds, i.e. about 105M rows with the defaults. Then runs {@link
+ * UptimeStatsService#calculateAndSaveUptimeStats} {@code benchmark.runs} (default 3) times and
+ * reports wall time and time per monitor. All data of the scratch tenant is removed at the end.
+ *
+ * <p>To run this test: 1. Remove @Disabled annotation 2. Run runBenchmark() against the
+ * test-generation database 3. Re-add @Disabled annotation
+ */
+@SpringBootTest
+@ActiveProfiles("test-generation")
+@Disabled("Manual benchmark - enable only when needed")
+public class UptimeStatsBenchmark {
+
+  private static final int BATCH_SIZE = 5000;
+
+  @Autowired private TenantRepository tenantRepository;
+
+  @Autowired private MonitorRepository monitorRepository;
+
+  @Autowired private UptimeStatsService uptimeStatsService;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private final int monitors = Integer.getInteger("benchmark.monitors", 1000);
+  private final int days = Integer.getInteger("benchmark.days", 365);
+  private final int checkIntervalSeconds =
+      Integer.getInteger("benchmark.checkIntervalSeconds", 300);
+  private final int runs = Integer.getInteger("benchmark.runs", 3);
+
+  @Test
+  public void runBenchmark() {
+    Tenant tenant =
+        tenantRepository.save(
+            Tenant.builder()
+                .name("Uptime Stats Benchmark")
+                .code("BENCH" + System.currentTimeMillis() % 100_000)
+                .description("Scratch tenant of UptimeStatsBenchmark")
+                .isActive(true)
+                .build());
+    try {
+      List<Monitor> created = createMonitors(tenant);
+      fill(tenant, created);
+
+      System.out.printf("%-6s %12s %18s%n", "run", "wall ms", "ms per monitor");
+      for (int run = 1; run <= runs; run++) {
+        long begin = System.nanoTime();
+        uptimeStatsService.calculateAndSaveUptimeStats(tenant.getId());
+        double millis = (System.nanoTime() - begin) / 1e6;
+        System.out.printf("%-6d %,12.0f %18.1f%n", run, millis, millis / created.size());
+      }
+    } finally {
+      Integer tenantId = tenant.getId();
+      jdbcTemplate.update("DELETE FROM uptime_stats WHERE tenant_id = ?", tenantId);
+      jdbcTemplate.update("DELETE FROM uptime_daily_aggregates WHERE tenant_id = ?", tenantId);
+      jdbcTemplate.update("DELETE FROM check_results WHERE tenant_id = ?", tenantId);
+      jdbcTemplate.update("DELETE FROM monitors WHERE tenant_id = ?", tenantId);
+      tenantRepository.deleteById(tenantId);
+    }
+  }
+
+  private List<Monitor> createMonitors(Tenant tenant) {
+    List<Monitor> created = new ArrayList<>(monitors);
+    for (int i = 0; i < monitors; i++) {
+      created.add(
+          monitorRepository.save(
+              Monitor.builder()
+                  .name("Benchmark Monitor " + i)
+                  .url("https://bench-" + i + ".example.com/health")
+                  .tenant(tenant)
+                  .tenantId(tenant.getId())
+                  .state(MonitorState.ACTIVE)
+                  .build()));
+    }
+    return created;
+  }
+
+  /** Inserts the checks of all monitors in check order, like the checker writes them. */
+  private void fill(Tenant tenant, List<Monitor> created) {
+    Random random = new Random(42);
+    String sql =
+        "INSERT INTO check_results "
+            + "(monitor_id, tenant_id, checked_at, status_code, response_time_ms, is_up) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+    LocalDateTime start = LocalDateTime.now().minusDays(days);
+    long checks = days * 86_400L / checkIntervalSeconds;
+    System.out.printf("Generating %,d rows%n", checks * created.size());
+
+    List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+    for (long check = 0; check < checks; check++) {
+      Timestamp checkedAt = Timestamp.valueOf(start.plusSeconds(check * checkIntervalSeconds));
+      for (Monitor monitor : created) {
+        boolean up = random.nextInt(1000) > 2;
+        batch.add(
+            new Object[] {
+              monitor.getId(),
+              tenant.getId(),
+              checkedAt,
+              up ? 200 : 503,
+              50 + random.nextInt(400),
+              up
+            });
+        if (batch.size() == BATCH_SIZE) {
+          insert(sql, batch);
+          batch.clear();
+        }
+      }
+    }
+    insert(sql, batch);
+  }
+
+  private void insert(String sql, List<Object[]> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(
+        sql,
+        batch,
+        batch.size(),
+        (PreparedStatement ps, Object[] row) -> {
+          ps.setInt(1, (Integer) row[0]);
+          ps.setLong(2, (Integer) row[1]);
+          ps.setTimestamp(3, (Timestamp) row[2]);
+          ps.setInt(4, (Integer) row[3]);
+          ps.setInt(5, (Integer) row[4]);
+          ps.setBoolean(6, (Boolean) row[5]);
+        });
+  }
+}
@@ -0,0 +1,48 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class ExpiringCacheTest {
+
+  private final AtomicLong now = new AtomicLong();
+
+  @Test
+  void entries_expireAfterTheirTtlAndTheLeastRecentlyUsedIsEvicted() {
+    ExpiringCache<String, String> cache = new ExpiringCache<>(2, 1000, now::get);
+    cache.put("a", "1");
+    cache.put("b", "2", 500_000_000L);
+    assertThat(cache.get("a")).isEqualTo("1");
+
+    now.addAndGet(500_000_000L);
+    assertThat(cache.get("b")).isNull();
+
+    cache.put("c", "3");
+    cache.put("d", "4");
+    assertThat(cache.get("a")).isNull();
+    assertThat(cache.size()).isEqualTo(2);
+
+    now.addAndGet(1_000_000_000L);
+    assertThat(cache.get("c")).isNull();
+  }
+
+  @Test
+  void get_doesNotStoreAValueLoadedAcrossAnInvalidation() {
+    ExpiringCache<String, String> cache = new ExpiringCache<>(10, 1000, now::get);
+    assertThat(
+            cache.get(
+                "a",
+                key -> {
+                  cache.invalidate(key);
+                  return "stale";
+                }))
+        .isEqualTo("stale");
+    assertThat(cache.get("a")).isNull();
+
+    assertThat(cache.get("a", key -> "fresh")).isEqualTo("fresh");
+    assertThat(cache.get("a", key -> "reloaded")).isEqualTo("fresh");
+  }
+}
@@ -0,0 +1,33 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+class KeysetCursorTest {
+
+  @Test
+  void decode_returnsTheEncodedPosition() {
+    KeysetCursor cursor =
+        new KeysetCursor(LocalDateTime.of(2025, 3, 1, 12, 30, 5, 123_456_000), 42);
+
+    String encoded = cursor.encode();
+
+    assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    assertThat(KeysetCursor.decode(encoded)).isEqualTo(cursor);
+  }
+
+  @Test
+  void decode_rejectsInvalidCursors() {
+    assertThatThrownBy(() -> KeysetCursor.decode("not a cursor"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(
+            () -> KeysetCursor.decode(new KeysetCursor(LocalDateTime.now(), 1).encode() + "x"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> KeysetCursor.decode("MjAyNS0wMy0wMQ"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
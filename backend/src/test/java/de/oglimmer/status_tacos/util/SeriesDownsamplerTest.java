@@ -0,0 +1,54 @@
+/* Copyright (c) 2025 by oglimmer.com / Oliver Zimpasser. All rights reserved. */
+package de.oglimmer.status_tacos.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class SeriesDownsamplerTest {
+
+  @Test
+  void lttb_keepsTheEndsAndSpikes() {
+    long[] x = new long[1000];
+    double[] y = new double[1000];
+    for (int i = 0; i < x.length; i++) {
+      x[i] = i * 60L;
+      y[i] = 100 + i % 7;
+    }
+    y[421] = 5000;
+    y[777] = 0;
+
+    int[] selected = SeriesDownsampler.lttb(x, y, 50);
+
+    assertThat(selected).hasSize(50).startsWith(0).endsWith(999).contains(421, 777);
+    assertThat(selected).isSorted().doesNotHaveDuplicates();
+  }
+
+  @Test
+  void lttb_keepsShortSeries() {
+    assertThat(SeriesDownsampler.lttb(new long[] {1, 2, 3}, new double[] {1, 2, 3}, 5))
+        .containsExactly(0, 1, 2);
+    assertThatThrownBy(() -> SeriesDownsampler.lttb(new long[0], new double[0], 2))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void m4_keepsTheFirstLastMinAndMaxOfEachColumn() {
+    long[] x = new long[100];
+    double[] y = new double[100];
+    for (int i = 0; i < x.length; i++) {
+      x[i] = i;
+      y[i] = 50;
+    }
+    // column 0 covers 0..9
+    y[3] = 90;
+    y[6] = 10;
+
+    int[] selected = SeriesDownsampler.m4(x, y, 10);
+
+    assertThat(selected).startsWith(0, 3, 6, 9).endsWith(99).isSorted().doesNotHaveDuplicates();
+    assertThat(selected.length).isLessThanOrEqualTo(40);
+    assertThat(SeriesDownsampler.m4(x, y, 25)).hasSize(100);
+  }
+}
@@ -6,6 +6,7 @@ CREATE TABLE IF NOT EXISTS tenant (
     code VARCHAR(50) NOT NULL UNIQUE,
     description VARCHAR(500),
     is_active BOOLEAN NOT NULL DEFAULT true,
+    public_status_page BOOLEAN NOT NULL DEFAULT false,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -42,5 +43,5 @@ CREATE TABLE IF NOT EXISTS alert_contacts (
 );
 
 -- Insert a default tenant for tests
-INSERT INTO tenant (id, name, code, description, is_active, created_at, updated_at)
-VALUES (1, 'Default Tenant', 'default', 'Default tenant for testing', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+INSERT INTO tenant (id, name, code, description, is_active, public_status_page, created_at, updated_at)
+VALUES (1, 'Default Tenant', 'default', 'Default tenant for testing', true, false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
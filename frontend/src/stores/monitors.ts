@@ -100,9 +100,13 @@ export interface UptimeStats {
   minResponseTimeMs?: number
   maxResponseTimeMs?: number
   avgResponseTimeMs?: number
+  p50ResponseTimeMs?: number
+  p90ResponseTimeMs?: number
+  p95ResponseTimeMs?: number
   p99ResponseTimeMs?: number
-  responseTimeData?: string
-  statusChangeData?: string
+  p999ResponseTimeMs?: number
+  responseTimeData?: ResponseTimeDataPoint[]
+  statusChangeData?: StatusDownPeriod[]
   calculatedAt: string
 }
 
@@ -191,11 +195,10 @@ export const useMonitorsStore = defineStore('monitors', () => {
     try {
       const data = await apiService.get<UptimeStats>(`/uptime-stats/${monitorId}/${periodType}`, authStore.user)
 
-      // Parse JSON data
       const parsed: ParsedUptimeStats = {
         ...data,
-        responseTimeDataPoints: data.responseTimeData ? JSON.parse(data.responseTimeData) : [],
-        statusDownPeriods: data.statusChangeData ? JSON.parse(data.statusChangeData) : []
+        responseTimeDataPoints: data.responseTimeData ?? [],
+        statusDownPeriods: data.statusChangeData ?? []
       }
 
       const key = `${monitorId}-${periodType}`